@@ -18,7 +18,10 @@
 
 package org.killbill.billing.account.api.svcs;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.inject.Inject;
@@ -27,6 +30,7 @@ import org.killbill.billing.ErrorCode;
 import org.killbill.billing.ObjectType;
 import org.killbill.billing.account.api.Account;
 import org.killbill.billing.account.api.AccountApiException;
+import org.killbill.billing.account.api.AccountData;
 import org.killbill.billing.account.api.AccountEmail;
 import org.killbill.billing.account.api.AccountInternalApi;
 import org.killbill.billing.account.api.DefaultAccount;
@@ -64,12 +68,38 @@ public class DefaultAccountInternalApi extends DefaultAccountApiBase implements
                                      final AccountDao accountDao,
                                      final NonEntityDao nonEntityDao,
                                      final CacheControllerDispatcher cacheControllerDispatcher) {
-        super(accountDao, nonEntityDao, cacheControllerDispatcher);
+        super(immutableAccountInternalApi, accountDao, nonEntityDao, cacheControllerDispatcher);
         this.immutableAccountInternalApi = immutableAccountInternalApi;
         this.accountDao = accountDao;
         this.bcdCacheController = cacheControllerDispatcher.getCacheController(CacheType.ACCOUNT_BCD);
     }
 
+    @Override
+    public List<Account> createAccounts(final List<AccountData> accountsData, final InternalCallContext context) throws AccountApiException {
+        final Set<String> externalKeys = new LinkedHashSet<String>();
+        final List<AccountModelDao> accounts = new ArrayList<AccountModelDao>(accountsData.size());
+        for (final AccountData data : accountsData) {
+            if (data.getExternalKey() != null && !externalKeys.add(data.getExternalKey())) {
+                throw new AccountApiException(ErrorCode.ACCOUNT_ALREADY_EXISTS, data.getExternalKey());
+            }
+            accounts.add(toAccountModelDaoForCreation(data, context));
+        }
+
+        // Not transactional, but there is a db constraint on that column (the whole batch would be rolled back)
+        final List<String> existingExternalKeys = accountDao.getExistingExternalKeys(externalKeys, context);
+        if (!existingExternalKeys.isEmpty()) {
+            throw new AccountApiException(ErrorCode.ACCOUNT_ALREADY_EXISTS, existingExternalKeys.get(0));
+        }
+
+        accountDao.create(accounts, context);
+
+        final List<Account> result = new ArrayList<Account>(accounts.size());
+        for (final AccountModelDao account : accounts) {
+            result.add(new DefaultAccount(account));
+        }
+        return result;
+    }
+
     @Override
     public Account getAccountById(final UUID accountId, final InternalTenantContext context) throws AccountApiException {
         return super.getAccountById(accountId, context);
@@ -188,4 +218,9 @@ public class DefaultAccountInternalApi extends DefaultAccountApiBase implements
                                                                         }
                                                                     }));
     }
+
+    @Override
+    public boolean hasChildrenAccounts(final UUID parentAccountId, final InternalTenantContext context) {
+        return accountDao.hasAccountsByParentId(parentAccountId, context);
+    }
 }
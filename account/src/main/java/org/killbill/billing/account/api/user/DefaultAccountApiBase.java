@@ -23,9 +23,11 @@ import org.killbill.billing.ErrorCode;
 import org.killbill.billing.ObjectType;
 import org.killbill.billing.account.api.Account;
 import org.killbill.billing.account.api.AccountApiException;
+import org.killbill.billing.account.api.AccountData;
 import org.killbill.billing.account.api.DefaultAccount;
 import org.killbill.billing.account.api.DefaultImmutableAccountData;
 import org.killbill.billing.account.api.ImmutableAccountData;
+import org.killbill.billing.account.api.ImmutableAccountInternalApi;
 import org.killbill.billing.account.dao.AccountDao;
 import org.killbill.billing.account.dao.AccountModelDao;
 import org.killbill.billing.callcontext.InternalTenantContext;
@@ -36,20 +38,40 @@ import org.killbill.billing.util.dao.NonEntityDao;
 
 public class DefaultAccountApiBase {
 
+    private final ImmutableAccountInternalApi immutableAccountInternalApi;
     private final AccountDao accountDao;
     private final CacheController<Long, ImmutableAccountData> accountCacheController;
     private final CacheController<String, Long> recordIdCacheController;
     private final NonEntityDao nonEntityDao;
 
-    public DefaultAccountApiBase(final AccountDao accountDao,
+    public DefaultAccountApiBase(final ImmutableAccountInternalApi immutableAccountInternalApi,
+                                 final AccountDao accountDao,
                                  final NonEntityDao nonEntityDao,
                                  final CacheControllerDispatcher cacheControllerDispatcher) {
+        this.immutableAccountInternalApi = immutableAccountInternalApi;
         this.accountDao = accountDao;
         this.nonEntityDao = nonEntityDao;
         this.accountCacheController = cacheControllerDispatcher.getCacheController(CacheType.ACCOUNT_IMMUTABLE);
         this.recordIdCacheController = cacheControllerDispatcher.getCacheController(CacheType.RECORD_ID);
     }
 
+    // Validation of a new account, except for the uniqueness of its external key (verified by the callers)
+    protected AccountModelDao toAccountModelDaoForCreation(final AccountData data, final InternalTenantContext context) throws AccountApiException {
+        if (data.getParentAccountId() != null) {
+            // verify that parent account exists if parentAccountId is not null
+            final ImmutableAccountData immutableAccountData = immutableAccountInternalApi.getImmutableAccountDataById(data.getParentAccountId(), context);
+            if (immutableAccountData == null) {
+                throw new AccountApiException(ErrorCode.ACCOUNT_DOES_NOT_EXIST_FOR_ID, data.getParentAccountId());
+            }
+        }
+
+        final AccountModelDao account = new AccountModelDao(data);
+        if (null != account.getExternalKey() && account.getExternalKey().length() > 255) {
+            throw new AccountApiException(ErrorCode.EXTERNAL_KEY_LIMIT_EXCEEDED);
+        }
+        return account;
+    }
+
     protected Account getAccountById(final UUID accountId, final InternalTenantContext context) throws AccountApiException {
         final Long recordId = nonEntityDao.retrieveRecordIdFromObject(accountId, ObjectType.ACCOUNT, recordIdCacheController);
         final Account account = getAccountByRecordIdInternal(recordId, context);
@@ -29,7 +29,6 @@ import org.killbill.billing.account.api.AccountEmail;
 import org.killbill.billing.account.api.AccountUserApi;
 import org.killbill.billing.account.api.DefaultAccount;
 import org.killbill.billing.account.api.DefaultAccountEmail;
-import org.killbill.billing.account.api.ImmutableAccountData;
 import org.killbill.billing.account.api.ImmutableAccountInternalApi;
 import org.killbill.billing.account.dao.AccountDao;
 import org.killbill.billing.account.dao.AccountEmailModelDao;
@@ -55,7 +54,6 @@ import static org.killbill.billing.util.entity.dao.DefaultPaginationHelper.getEn
 
 public class DefaultAccountUserApi extends DefaultAccountApiBase implements AccountUserApi {
 
-    private final ImmutableAccountInternalApi immutableAccountInternalApi;
     private final InternalCallContextFactory internalCallContextFactory;
     private final AccountDao accountDao;
 
@@ -65,8 +63,7 @@ public class DefaultAccountUserApi extends DefaultAccountApiBase implements Acco
                                  final NonEntityDao nonEntityDao,
                                  final CacheControllerDispatcher cacheControllerDispatcher,
                                  final InternalCallContextFactory internalCallContextFactory) {
-        super(accountDao, nonEntityDao, cacheControllerDispatcher);
-        this.immutableAccountInternalApi = immutableAccountInternalApi;
+        super(immutableAccountInternalApi, accountDao, nonEntityDao, cacheControllerDispatcher);
         this.internalCallContextFactory = internalCallContextFactory;
         this.accountDao = accountDao;
     }
@@ -93,21 +90,9 @@ public class DefaultAccountUserApi extends DefaultAccountApiBase implements Acco
         }
 
         final InternalCallContext internalContext = internalCallContextFactory.createInternalCallContextWithoutAccountRecordId(context);
+        final AccountModelDao account = toAccountModelDaoForCreation(data, internalContext);
 
-        if (data.getParentAccountId() != null) {
-            // verify that parent account exists if parentAccountId is not null
-            final ImmutableAccountData immutableAccountData = immutableAccountInternalApi.getImmutableAccountDataById(data.getParentAccountId(), internalContext);
-            if (immutableAccountData == null) {
-                throw new AccountApiException(ErrorCode.ACCOUNT_DOES_NOT_EXIST_FOR_ID, data.getParentAccountId());
-            }
-        }
-
-        final AccountModelDao account = new AccountModelDao(data);
-        if (null != account.getExternalKey() && account.getExternalKey().length() > 255) {
-            throw new AccountApiException(ErrorCode.EXTERNAL_KEY_LIMIT_EXCEEDED);
-        }
-
-        accountDao.create(account, internalCallContextFactory.createInternalCallContextWithoutAccountRecordId(context));
+        accountDao.create(account, internalContext);
 
         return new DefaultAccount(account);
     }
@@ -18,6 +18,7 @@
 
 package org.killbill.billing.account.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -32,8 +33,18 @@ import org.killbill.billing.util.entity.dao.EntityDao;
 
 public interface AccountDao extends EntityDao<AccountModelDao, Account, AccountApiException> {
 
+    /**
+     * Bulk creation of accounts, in a single transaction with batched inserts
+     */
+    void create(Iterable<AccountModelDao> accounts, InternalCallContext context) throws AccountApiException;
+
     AccountModelDao getAccountByKey(String key, InternalTenantContext context);
 
+    /**
+     * @return the external keys, among the ones specified, already used by an account
+     */
+    List<String> getExistingExternalKeys(Collection<String> externalKeys, InternalTenantContext context);
+
     Pagination<AccountModelDao> searchAccounts(String searchKey, Long offset, Long limit, InternalTenantContext context);
 
     /**
@@ -59,6 +70,8 @@ public interface AccountDao extends EntityDao<AccountModelDao, Account, AccountA
 
     List<AccountModelDao> getAccountsByParentId(UUID parentAccountId, InternalTenantContext context);
 
+    boolean hasAccountsByParentId(UUID parentAccountId, InternalTenantContext context);
+
     List<AuditLogWithHistory> getAuditLogsWithHistoryForId(UUID accountId, AuditLevel auditLevel, InternalTenantContext context) throws AccountApiException;
 
     List<AuditLogWithHistory> getEmailAuditLogsWithHistoryForId(UUID accountEmailId, AuditLevel auditLevel, InternalTenantContext context) throws AccountApiException;
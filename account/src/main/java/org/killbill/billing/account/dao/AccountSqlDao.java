@@ -18,6 +18,7 @@
 
 package org.killbill.billing.account.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -32,6 +33,7 @@ import org.skife.jdbi.v2.sqlobject.Bind;
 import org.killbill.commons.jdbi.binder.SmartBindBean;
 import org.skife.jdbi.v2.sqlobject.SqlQuery;
 import org.skife.jdbi.v2.sqlobject.SqlUpdate;
+import org.skife.jdbi.v2.unstable.BindIn;
 
 @KillBillSqlDaoStringTemplate
 public interface AccountSqlDao extends EntitySqlDao<AccountModelDao, Account> {
@@ -44,6 +46,10 @@ public interface AccountSqlDao extends EntitySqlDao<AccountModelDao, Account> {
     public UUID getIdFromKey(@Bind("externalKey") final String key,
                              @SmartBindBean final InternalTenantContext context);
 
+    @SqlQuery
+    public List<String> getExistingExternalKeys(@BindIn("externalKeys") final Collection<String> externalKeys,
+                                                @SmartBindBean final InternalTenantContext context);
+
     @SqlQuery
     public Integer getBCD(@Bind("id") String accountId,
                           @SmartBindBean final InternalTenantContext context);
@@ -63,6 +69,10 @@ public interface AccountSqlDao extends EntitySqlDao<AccountModelDao, Account> {
     List<AccountModelDao> getAccountsByParentId(@Bind("parentAccountId") UUID parentAccountId,
                                                 @SmartBindBean final InternalTenantContext context);
 
+    @SqlQuery
+    Long getChildAccountRecordId(@Bind("parentAccountId") UUID parentAccountId,
+                                 @SmartBindBean final InternalTenantContext context);
+
     @SqlQuery
     public AccountModelDao luckySearch(@Bind("searchKey") final String searchKey,
                                        @SmartBindBean final InternalTenantContext context);
@@ -18,14 +18,19 @@
 
 package org.killbill.billing.account.dao;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import javax.inject.Named;
 
 import org.killbill.billing.BillingExceptionBase;
 import org.killbill.billing.ErrorCode;
+import org.killbill.billing.ObjectType;
 import org.killbill.billing.account.api.Account;
 import org.killbill.billing.account.api.AccountApiException;
 import org.killbill.billing.account.api.DefaultImmutableAccountData;
@@ -56,6 +61,9 @@ import org.killbill.billing.util.entity.dao.EntityDaoBase;
 import org.killbill.billing.util.entity.dao.EntitySqlDaoTransactionWrapper;
 import org.killbill.billing.util.entity.dao.EntitySqlDaoTransactionalJdbiWrapper;
 import org.killbill.billing.util.entity.dao.EntitySqlDaoWrapperFactory;
+import org.killbill.billing.util.entity.dao.ReadConsistency;
+import org.killbill.billing.util.search.IndexedSearchKey;
+import org.killbill.billing.util.search.SearchTokenIndex;
 import org.killbill.bus.api.PersistentBus;
 import org.killbill.bus.api.PersistentBus.EventBusException;
 import org.killbill.clock.Clock;
@@ -64,6 +72,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 
 import static org.killbill.billing.util.glue.IDBISetup.MAIN_RO_IDBI_NAMED;
@@ -106,6 +115,54 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
         accountImmutableCacheController.putIfAbsent(refreshedEntity.getRecordId(), new DefaultImmutableAccountData(refreshedEntity));
     }
 
+    @Override
+    public void create(final Iterable<AccountModelDao> entities, final InternalCallContext context) throws AccountApiException {
+        final List<AccountModelDao> accounts = ImmutableList.<AccountModelDao>copyOf(entities);
+        if (accounts.isEmpty()) {
+            return;
+        } else if (accounts.size() == 1) {
+            create(accounts.get(0), context);
+            return;
+        }
+
+        for (final AccountModelDao account : accounts) {
+            // See above
+            if (account.getReferenceTime() == null) {
+                account.setReferenceTime(context.getCreatedDate());
+            }
+        }
+
+        final List<AccountModelDao> refreshedAccounts = transactionalSqlDao.execute(false, new EntitySqlDaoTransactionWrapper<List<AccountModelDao>>() {
+            @Override
+            public List<AccountModelDao> inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
+                final AccountSqlDao transactional = entitySqlDaoWrapperFactory.become(AccountSqlDao.class);
+
+                // Batched inserts, including the history and audit rows (see EntitySqlDaoWrapperInvocationHandler).
+                // Note: uniqueness of the ids and external keys is enforced by the database constraints (the external keys are verified beforehand, see DefaultAccountInternalApi#createAccounts)
+                final List<Long> recordIds = transactional.create(accounts, context);
+                final List<AccountModelDao> savedAccounts = transactional.getByRecordIds(recordIds, context);
+
+                final Map<UUID, AccountModelDao> savedAccountsPerId = new HashMap<UUID, AccountModelDao>();
+                for (final AccountModelDao savedAccount : savedAccounts) {
+                    savedAccountsPerId.put(savedAccount.getId(), savedAccount);
+                }
+                final List<AccountModelDao> result = new ArrayList<AccountModelDao>(accounts.size());
+                for (final AccountModelDao account : accounts) {
+                    final AccountModelDao savedAccount = savedAccountsPerId.get(account.getId());
+                    postBusEventFromTransaction(account, savedAccount, ChangeType.INSERT, entitySqlDaoWrapperFactory, context);
+                    result.add(savedAccount);
+                }
+                return result;
+            }
+        });
+
+        // Populate the caches only after the transaction has been committed, in case of rollbacks
+        for (final AccountModelDao refreshedAccount : refreshedAccounts) {
+            transactionalSqlDao.populateCaches(refreshedAccount);
+            accountImmutableCacheController.putIfAbsent(refreshedAccount.getRecordId(), new DefaultImmutableAccountData(refreshedAccount));
+        }
+    }
+
     @Override
     protected AccountApiException generateAlreadyExistsException(final AccountModelDao account, final InternalCallContext context) {
         return new AccountApiException(ErrorCode.ACCOUNT_ALREADY_EXISTS, account.getExternalKey());
@@ -123,6 +180,8 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
         }
 
         final Long recordId = savedAccount.getRecordId();
+        SearchTokenIndex.indexFromTransaction(entitySqlDaoWrapperFactory.getHandle(), ObjectType.ACCOUNT, recordId, getSearchableValues(savedAccount, savedAccount.getExternalKey()), context);
+
         // We need to re-hydrate the callcontext with the account record id
         final InternalCallContext rehydratedContext = internalCallContextFactory.createInternalCallContext(savedAccount, recordId, context);
         final AccountCreationInternalEvent creationEvent = new DefaultAccountCreationEvent(new DefaultAccountData(savedAccount), savedAccount.getId(),
@@ -134,9 +193,15 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
         }
     }
 
+    // Values matched by the indexed searches (see searchQuery in AccountSqlDao.sql.stg for the legacy search).
+    // Note: the external key cannot be updated, hence passed separately
+    private static List<String> getSearchableValues(final AccountModelDao account, final String externalKey) {
+        return Lists.newArrayList(account.getName(), account.getEmail(), externalKey, account.getCompanyName());
+    }
+
     @Override
     public AccountModelDao getAccountByKey(final String key, final InternalTenantContext context) {
-        return transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<AccountModelDao>() {
+        return transactionalSqlDao.execute(ReadConsistency.READ_YOUR_WRITES, context, new EntitySqlDaoTransactionWrapper<AccountModelDao>() {
             @Override
             public AccountModelDao inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
                 return entitySqlDaoWrapperFactory.become(AccountSqlDao.class).getAccountByKey(key, context);
@@ -144,13 +209,27 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
         });
     }
 
+    @Override
+    public List<String> getExistingExternalKeys(final Collection<String> externalKeys, final InternalTenantContext context) {
+        if (externalKeys.isEmpty()) {
+            return ImmutableList.<String>of();
+        }
+
+        return transactionalSqlDao.execute(ReadConsistency.READ_YOUR_WRITES, context, new EntitySqlDaoTransactionWrapper<List<String>>() {
+            @Override
+            public List<String> inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
+                return entitySqlDaoWrapperFactory.become(AccountSqlDao.class).getExistingExternalKeys(externalKeys, context);
+            }
+        });
+    }
+
     @Override
     public Pagination<AccountModelDao> searchAccounts(final String searchKey, final Long offset, final Long limit, final InternalTenantContext context) {
         final boolean userIsFeelingLucky = limit == 1 && offset == -1;
         if (userIsFeelingLucky) {
             // The use-case we can optimize is when the user is looking for an exact match (e.g. he knows the full email). In that case, we can speed up the queries
             // by doing exact searches only.
-            final AccountModelDao accountModelDao = transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<AccountModelDao>() {
+            final AccountModelDao accountModelDao = transactionalSqlDao.execute(ReadConsistency.EVENTUAL, context, new EntitySqlDaoTransactionWrapper<AccountModelDao>() {
                 @Override
                 public AccountModelDao inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
                     return entitySqlDaoWrapperFactory.become(AccountSqlDao.class).luckySearch(searchKey, context);
@@ -163,6 +242,30 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
                                                           accountModelDao == null ? ImmutableList.<AccountModelDao>of().iterator() : ImmutableList.<AccountModelDao>of(accountModelDao).iterator());
         }
 
+        final IndexedSearchKey indexedSearchKey = IndexedSearchKey.parse(searchKey);
+        if (indexedSearchKey != null) {
+            return paginationHelper.getPagination(AccountSqlDao.class,
+                                                  new PaginationIteratorBuilder<AccountModelDao, Account, AccountSqlDao>() {
+                                                      @Override
+                                                      public Long getCount(final AccountSqlDao accountSqlDao, final InternalTenantContext context) {
+                                                          return null;
+                                                      }
+
+                                                      @Override
+                                                      public boolean isCountRequired() {
+                                                          return false;
+                                                      }
+
+                                                      @Override
+                                                      public Iterator<AccountModelDao> build(final AccountSqlDao accountSqlDao, final Long fromRecordId, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                                                          return accountSqlDao.searchByToken(ObjectType.ACCOUNT.toString(), indexedSearchKey.getTokenPattern(), fromRecordId, offset, limit, ordering.toString(), context);
+                                                      }
+                                                  },
+                                                  offset,
+                                                  limit,
+                                                  context);
+        }
+
         // Otherwise, we pretty much need to do a full table scan (leading % in the like clause).
         // Note: forcing MySQL to search indexes (like luckySearch above) doesn't always seem to help on large tables, especially with large offsets
         return paginationHelper.getPagination(AccountSqlDao.class,
@@ -173,8 +276,8 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
                                                   }
 
                                                   @Override
-                                                  public Iterator<AccountModelDao> build(final AccountSqlDao accountSqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
-                                                      return accountSqlDao.search(searchKey, String.format("%%%s%%", searchKey), offset, limit, ordering.toString(), context);
+                                                  public Iterator<AccountModelDao> build(final AccountSqlDao accountSqlDao, final Long fromRecordId, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                                                      return accountSqlDao.search(searchKey, String.format("%%%s%%", searchKey), fromRecordId, offset, limit, ordering.toString(), context);
                                                   }
                                               },
                                               offset,
@@ -188,7 +291,7 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
             throw new AccountApiException(ErrorCode.ACCOUNT_CANNOT_MAP_NULL_KEY, "");
         }
 
-        return transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<UUID>() {
+        return transactionalSqlDao.execute(ReadConsistency.READ_YOUR_WRITES, context, new EntitySqlDaoTransactionWrapper<UUID>() {
             @Override
             public UUID inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
                 return entitySqlDaoWrapperFactory.become(AccountSqlDao.class).getIdFromKey(externalKey, context);
@@ -217,6 +320,7 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
                 }
 
                 transactional.update(specifiedAccount, context);
+                SearchTokenIndex.reindexFromTransaction(entitySqlDaoWrapperFactory.getHandle(), ObjectType.ACCOUNT, currentAccount.getRecordId(), getSearchableValues(specifiedAccount, currentAccount.getExternalKey()), context);
 
                 final AccountChangeInternalEvent changeEvent = new DefaultAccountChangeEvent(accountId,
                                                                                              currentAccount,
@@ -303,7 +407,7 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
 
     @Override
     public List<AccountEmailModelDao> getEmailsByAccountId(final UUID accountId, final InternalTenantContext context) {
-        return transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<List<AccountEmailModelDao>>() {
+        return transactionalSqlDao.execute(ReadConsistency.READ_YOUR_WRITES, context, new EntitySqlDaoTransactionWrapper<List<AccountEmailModelDao>>() {
             @Override
             public List<AccountEmailModelDao> inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
                 return entitySqlDaoWrapperFactory.become(AccountEmailSqlDao.class).getEmailByAccountId(accountId, context);
@@ -313,7 +417,7 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
 
     @Override
     public Integer getAccountBCD(final UUID accountId, final InternalTenantContext context) {
-        return transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<Integer>() {
+        return transactionalSqlDao.execute(ReadConsistency.READ_YOUR_WRITES, context, new EntitySqlDaoTransactionWrapper<Integer>() {
             @Override
             public Integer inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
                 return entitySqlDaoWrapperFactory.become(AccountSqlDao.class).getBCD(accountId.toString(), context);
@@ -323,7 +427,7 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
 
     @Override
     public List<AccountModelDao> getAccountsByParentId(final UUID parentAccountId, final InternalTenantContext context) {
-        return transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<List<AccountModelDao>>() {
+        return transactionalSqlDao.execute(ReadConsistency.READ_YOUR_WRITES, context, new EntitySqlDaoTransactionWrapper<List<AccountModelDao>>() {
             @Override
             public List<AccountModelDao> inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
                 return entitySqlDaoWrapperFactory.become(AccountSqlDao.class).getAccountsByParentId(parentAccountId, context);
@@ -331,9 +435,19 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
         });
     }
 
+    @Override
+    public boolean hasAccountsByParentId(final UUID parentAccountId, final InternalTenantContext context) {
+        return transactionalSqlDao.execute(ReadConsistency.READ_YOUR_WRITES, context, new EntitySqlDaoTransactionWrapper<Boolean>() {
+            @Override
+            public Boolean inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
+                return entitySqlDaoWrapperFactory.become(AccountSqlDao.class).getChildAccountRecordId(parentAccountId, context) != null;
+            }
+        });
+    }
+
     @Override
     public List<AuditLogWithHistory> getAuditLogsWithHistoryForId(final UUID accountId, final AuditLevel auditLevel, final InternalTenantContext context) throws AccountApiException {
-        return transactionalSqlDao.execute(true, AccountApiException.class, new EntitySqlDaoTransactionWrapper<List<AuditLogWithHistory>>() {
+        return transactionalSqlDao.execute(ReadConsistency.READ_YOUR_WRITES, context, AccountApiException.class, new EntitySqlDaoTransactionWrapper<List<AuditLogWithHistory>>() {
             @Override
             public List<AuditLogWithHistory> inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) {
                 final AccountSqlDao transactional = entitySqlDaoWrapperFactory.become(AccountSqlDao.class);
@@ -344,7 +458,7 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
 
     @Override
     public List<AuditLogWithHistory> getEmailAuditLogsWithHistoryForId(final UUID accountEmailId, final AuditLevel auditLevel, final InternalTenantContext context) {
-        return transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<List<AuditLogWithHistory>>() {
+        return transactionalSqlDao.execute(ReadConsistency.READ_YOUR_WRITES, context, new EntitySqlDaoTransactionWrapper<List<AuditLogWithHistory>>() {
             @Override
             public List<AuditLogWithHistory> inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) {
                 final AccountEmailSqlDao transactional = entitySqlDaoWrapperFactory.become(AccountEmailSqlDao.class);
@@ -22,6 +22,7 @@ import org.killbill.billing.GuicyKillbillTestSuiteWithEmbeddedDB;
 import org.killbill.billing.account.api.Account;
 import org.killbill.billing.account.api.AccountApiException;
 import org.killbill.billing.account.api.AccountData;
+import org.killbill.billing.account.api.AccountInternalApi;
 import org.killbill.billing.account.api.AccountUserApi;
 import org.killbill.billing.account.dao.AccountDao;
 import org.killbill.billing.account.glue.TestAccountModuleWithEmbeddedDB;
@@ -29,6 +30,7 @@ import org.killbill.billing.util.audit.dao.AuditDao;
 import org.killbill.billing.util.cache.CacheControllerDispatcher;
 import org.killbill.billing.util.customfield.dao.CustomFieldDao;
 import org.killbill.billing.util.dao.NonEntityDao;
+import org.killbill.billing.util.search.SearchTokenReindexer;
 import org.killbill.billing.util.tag.api.user.TagEventBuilder;
 import org.killbill.billing.util.tag.dao.TagDao;
 import org.killbill.billing.util.tag.dao.TagDefinitionDao;
@@ -48,6 +50,8 @@ public abstract class AccountTestSuiteWithEmbeddedDB extends GuicyKillbillTestSu
     @Inject
     protected AccountUserApi accountUserApi;
     @Inject
+    protected AccountInternalApi accountInternalApi;
+    @Inject
     protected AuditDao auditDao;
     @Inject
     protected CacheControllerDispatcher controllerDispatcher;
@@ -63,6 +67,8 @@ public abstract class AccountTestSuiteWithEmbeddedDB extends GuicyKillbillTestSu
     protected TagEventBuilder tagEventBuilder;
     @Inject
     protected NonEntityDao nonEntityDao;
+    @Inject
+    protected SearchTokenReindexer searchTokenReindexer;
 
     @BeforeClass(groups = "slow")
     protected void beforeClass() throws Exception {
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.account.api.svcs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.killbill.billing.ErrorCode;
+import org.killbill.billing.account.AccountTestSuiteWithEmbeddedDB;
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.account.api.AccountApiException;
+import org.killbill.billing.account.api.AccountData;
+import org.killbill.billing.account.api.DefaultAccount;
+import org.killbill.billing.account.api.MutableAccountData;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import static org.killbill.billing.account.AccountTestUtils.checkAccountsEqual;
+import static org.killbill.billing.account.AccountTestUtils.createAccountData;
+import static org.killbill.billing.account.AccountTestUtils.createTestAccount;
+
+public class TestDefaultAccountInternalApi extends AccountTestSuiteWithEmbeddedDB {
+
+    @Test(groups = "slow", description = "Test Account bulk creation")
+    public void testCreateAccounts() throws Exception {
+        final List<AccountData> accountsData = new ArrayList<AccountData>();
+        for (int i = 0; i < 10; i++) {
+            accountsData.add(new DefaultAccount(createTestAccount()));
+        }
+
+        final List<Account> accounts = accountInternalApi.createAccounts(accountsData, internalCallContext);
+        Assert.assertEquals(accounts.size(), accountsData.size());
+        for (int i = 0; i < accounts.size(); i++) {
+            final Account retrievedAccount = accountUserApi.getAccountById(accounts.get(i).getId(), callContext);
+            checkAccountsEqual(retrievedAccount, accountsData.get(i));
+        }
+    }
+
+    @Test(groups = "slow", description = "Test Account bulk creation with an existing external key")
+    public void testCreateAccountsWithExistingExternalKey() throws Exception {
+        final Account existingAccount = createAccount(new DefaultAccount(createTestAccount()));
+
+        final AccountData newAccountData = new DefaultAccount(createTestAccount());
+        final MutableAccountData conflictingAccountData = createAccountData();
+        conflictingAccountData.setExternalKey(existingAccount.getExternalKey());
+        try {
+            accountInternalApi.createAccounts(ImmutableList.<AccountData>of(newAccountData, conflictingAccountData), internalCallContext);
+            Assert.fail();
+        } catch (final AccountApiException e) {
+            Assert.assertEquals(e.getCode(), ErrorCode.ACCOUNT_ALREADY_EXISTS.getCode());
+        }
+
+        // Nothing was created
+        Assert.assertNull(accountUserApi.getIdFromKey(newAccountData.getExternalKey(), callContext));
+    }
+
+    @Test(groups = "slow", description = "Test Account bulk creation with the same external key twice")
+    public void testCreateAccountsWithDuplicateExternalKey() throws Exception {
+        final AccountData accountData = new DefaultAccount(createTestAccount());
+        try {
+            accountInternalApi.createAccounts(ImmutableList.<AccountData>of(accountData, accountData), internalCallContext);
+            Assert.fail();
+        } catch (final AccountApiException e) {
+            Assert.assertEquals(e.getCode(), ErrorCode.ACCOUNT_ALREADY_EXISTS.getCode());
+        }
+
+        Assert.assertNull(accountUserApi.getIdFromKey(accountData.getExternalKey(), callContext));
+    }
+}
@@ -25,6 +25,7 @@ import java.util.concurrent.Callable;
 
 import org.joda.time.DateTimeZone;
 import org.killbill.billing.ErrorCode;
+import org.killbill.billing.ObjectType;
 import org.killbill.billing.account.AccountTestSuiteWithEmbeddedDB;
 import org.killbill.billing.account.api.Account;
 import org.killbill.billing.account.api.AccountApiException;
@@ -40,6 +41,8 @@ import org.killbill.billing.tenant.dao.TenantModelDao;
 import org.killbill.billing.tenant.dao.TenantSqlDao;
 import org.killbill.billing.util.callcontext.CallContext;
 import org.killbill.billing.util.entity.Pagination;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.tweak.HandleCallback;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -110,6 +113,73 @@ public class TestDefaultAccountUserApi extends AccountTestSuiteWithEmbeddedDB {
         Assert.assertEquals(ImmutableList.<Account>copyOf(search5.iterator()).size(), 1);
     }
 
+    @Test(groups = "slow", description = "Test Account indexed search")
+    public void testIndexedSearch() throws Exception {
+        final MutableAccountData mutableAccountData1 = createAccountData();
+        mutableAccountData1.setEmail("jane@globex.com");
+        mutableAccountData1.setCompanyName("Globex Corporation");
+        final Account account1 = accountUserApi.createAccount(new DefaultAccount(new AccountModelDao(UUID.randomUUID(), mutableAccountData1)), callContext);
+
+        final MutableAccountData mutableAccountData2 = createAccountData();
+        mutableAccountData2.setEmail("joe@globex-europe.com");
+        mutableAccountData2.setCompanyName("Globex Europe");
+        accountUserApi.createAccount(new DefaultAccount(new AccountModelDao(UUID.randomUUID(), mutableAccountData2)), callContext);
+
+        // Prefix match on a word
+        final Pagination<Account> search1 = accountUserApi.searchAccounts("GLOB*", 0L, 5L, callContext);
+        // Counts aren't computed for indexed searches
+        Assert.assertNull(search1.getMaxNbRecords());
+        Assert.assertNull(search1.getTotalNbRecords());
+        Assert.assertEquals(ImmutableList.<Account>copyOf(search1.iterator()).size(), 2);
+
+        // Exact match on a value
+        final List<Account> search2 = ImmutableList.<Account>copyOf(accountUserApi.searchAccounts("\"jane@globex.com\"", 0L, 5L, callContext).iterator());
+        Assert.assertEquals(search2.size(), 1);
+        Assert.assertEquals(search2.get(0).getId(), account1.getId());
+
+        // Exact match on a word: a prefix isn't enough
+        Assert.assertEquals(ImmutableList.<Account>copyOf(accountUserApi.searchAccounts("\"europe\"", 0L, 5L, callContext).iterator()).size(), 1);
+        Assert.assertEquals(ImmutableList.<Account>copyOf(accountUserApi.searchAccounts("\"euro\"", 0L, 5L, callContext).iterator()).size(), 0);
+
+        // The index is maintained on update
+        final MutableAccountData updatedAccountData = new DefaultMutableAccountData(null, null, null, 0, null, null, false, 0, null,
+                                                                                    clock.getUTCNow(), null, null, null, null, null, null,
+                                                                                    null, null, null, null, null, false);
+        updatedAccountData.setCompanyName("Initech");
+        accountUserApi.updateAccount(account1.getId(), updatedAccountData, callContext);
+        Assert.assertEquals(ImmutableList.<Account>copyOf(accountUserApi.searchAccounts("\"corporation\"", 0L, 5L, callContext).iterator()).size(), 0);
+        final List<Account> search3 = ImmutableList.<Account>copyOf(accountUserApi.searchAccounts("init*", 0L, 5L, callContext).iterator());
+        Assert.assertEquals(search3.size(), 1);
+        Assert.assertEquals(search3.get(0).getId(), account1.getId());
+    }
+
+    @Test(groups = "slow", description = "Test the search index can be rebuilt for accounts created before it was introduced")
+    public void testReindexSearchTokens() throws Exception {
+        final MutableAccountData mutableAccountData = createAccountData();
+        mutableAccountData.setCompanyName("Hooli Holdings");
+        final Account account = accountUserApi.createAccount(new DefaultAccount(new AccountModelDao(UUID.randomUUID(), mutableAccountData)), callContext);
+        Assert.assertEquals(ImmutableList.<Account>copyOf(accountUserApi.searchAccounts("\"hooli\"", 0L, 5L, callContext).iterator()).size(), 1);
+
+        // Simulate an account created before the search_tokens table existed
+        dbi.withHandle(new HandleCallback<Void>() {
+            @Override
+            public Void withHandle(final Handle handle) throws Exception {
+                handle.execute("delete from search_tokens");
+                return null;
+            }
+        });
+        Assert.assertEquals(ImmutableList.<Account>copyOf(accountUserApi.searchAccounts("\"hooli\"", 0L, 5L, callContext).iterator()).size(), 0);
+
+        Assert.assertEquals(searchTokenReindexer.reindex(ObjectType.ACCOUNT, callContext), 1L);
+        final List<Account> search = ImmutableList.<Account>copyOf(accountUserApi.searchAccounts("\"hooli\"", 0L, 5L, callContext).iterator());
+        Assert.assertEquals(search.size(), 1);
+        Assert.assertEquals(search.get(0).getId(), account.getId());
+
+        // The reindex can safely be re-run
+        Assert.assertEquals(searchTokenReindexer.reindex(ObjectType.ACCOUNT, callContext), 1L);
+        Assert.assertEquals(ImmutableList.<Account>copyOf(accountUserApi.searchAccounts("\"hooli\"", 0L, 5L, callContext).iterator()).size(), 1);
+    }
+
     @Test(groups = "slow", description = "Test Account creation generates an event")
     public void testBusEvents() throws Exception {
         final AccountEventHandler eventHandler = new AccountEventHandler();
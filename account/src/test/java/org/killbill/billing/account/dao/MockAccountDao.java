@@ -80,6 +80,13 @@ public class MockAccountDao extends MockEntityDaoBase<AccountModelDao, Account,
         }
     }
 
+    @Override
+    public void create(final Iterable<AccountModelDao> accounts, final InternalCallContext context) throws AccountApiException {
+        for (final AccountModelDao account : accounts) {
+            create(account, context);
+        }
+    }
+
     @Override
     public void update(final AccountModelDao account, final boolean treatNullValueAsReset, final InternalCallContext context) {
         super.update(account, context);
@@ -112,6 +119,17 @@ public class MockAccountDao extends MockEntityDaoBase<AccountModelDao, Account,
         return null;
     }
 
+    @Override
+    public List<String> getExistingExternalKeys(final Collection<String> externalKeys, final InternalTenantContext context) {
+        final List<String> result = new LinkedList<String>();
+        for (final String externalKey : externalKeys) {
+            if (getAccountByKey(externalKey, context) != null) {
+                result.add(externalKey);
+            }
+        }
+        return result;
+    }
+
     @Override
     public Pagination<AccountModelDao> searchAccounts(final String searchKey, final Long offset, final Long limit, final InternalTenantContext context) {
         final Collection<AccountModelDao> results = new LinkedList<AccountModelDao>();
@@ -189,6 +207,11 @@ public class MockAccountDao extends MockEntityDaoBase<AccountModelDao, Account,
         }));
     }
 
+    @Override
+    public boolean hasAccountsByParentId(final UUID parentAccountId, final InternalTenantContext context) {
+        return !getAccountsByParentId(parentAccountId, context).isEmpty();
+    }
+
     @Override
     public List<AuditLogWithHistory> getAuditLogsWithHistoryForId(final UUID accountId, final AuditLevel auditLevel, final InternalTenantContext context) throws AccountApiException {
         throw new UnsupportedOperationException();
@@ -19,8 +19,10 @@
 package org.killbill.billing.account.dao;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import org.joda.time.DateTimeZone;
 import org.killbill.billing.ErrorCode;
@@ -49,6 +51,8 @@ import org.killbill.billing.util.tag.DescriptiveTag;
 import org.killbill.billing.util.tag.Tag;
 import org.killbill.billing.util.tag.dao.TagDefinitionModelDao;
 import org.killbill.billing.util.tag.dao.TagModelDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -59,6 +63,8 @@ import static org.killbill.billing.account.AccountTestUtils.createTestAccount;
 
 public class TestAccountDao extends AccountTestSuiteWithEmbeddedDB {
 
+    private static final Logger logger = LoggerFactory.getLogger(TestAccountDao.class);
+
     @Test(groups = "slow", description = "Test Account: verify minimal set of required fields")
     public void testMinimalFields() throws Exception {
         final String email = UUID.randomUUID().toString();
@@ -139,6 +145,38 @@ public class TestAccountDao extends AccountTestSuiteWithEmbeddedDB {
         Assert.assertEquals(auditLogsForAccount1ViaAccountRecordId2.getAuditLogsForAccount().get(1).getChangeType(), ChangeType.UPDATE);
     }
 
+    @Test(groups = "slow", description = "Test Account: bulk creation")
+    public void testBulkCreate() throws AccountApiException {
+        final int nbAccounts = 500;
+        final List<AccountModelDao> accounts = new ArrayList<AccountModelDao>(nbAccounts);
+        for (int i = 0; i < nbAccounts; i++) {
+            accounts.add(createTestAccount());
+        }
+
+        final long startTime = System.nanoTime();
+        accountDao.create(accounts, internalCallContext);
+        final long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        // Account, history and audit rows
+        logger.info("Bulk created {} accounts in {} ms ({} rows/s)", nbAccounts, elapsedMs, 3 * nbAccounts * 1000L / elapsedMs);
+
+        Assert.assertEquals(accountDao.getCount(internalCallContext), (Long) (long) nbAccounts);
+        for (final AccountModelDao account : accounts) {
+            refreshCallContext(account.getId());
+
+            final AccountModelDao retrievedAccount = accountDao.getAccountByKey(account.getExternalKey(), internalCallContext);
+            checkAccountsEqual(retrievedAccount, account);
+
+            // Each audit entry must point to its own account
+            final DefaultAccountAuditLogs auditLogsForAccount = auditDao.getAuditLogsForAccountRecordId(AuditLevel.FULL, internalCallContext);
+            Assert.assertEquals(auditLogsForAccount.getAuditLogsForAccount().size(), 1);
+            Assert.assertEquals(auditLogsForAccount.getAuditLogsForAccount().get(0).getChangeType(), ChangeType.INSERT);
+
+            final List<AuditLogWithHistory> auditLogsWithHistory = accountDao.getAuditLogsWithHistoryForId(account.getId(), AuditLevel.FULL, internalCallContext);
+            Assert.assertEquals(auditLogsWithHistory.size(), 1);
+            Assert.assertEquals(((AccountModelDao) auditLogsWithHistory.get(0).getEntity()).getExternalKey(), account.getExternalKey());
+        }
+    }
+
     // Simple test to ensure long phone numbers can be stored
     @Test(groups = "slow", description = "Test Account DAO: long numbers")
     public void testLongPhoneNumber() throws AccountApiException {
@@ -206,6 +244,19 @@ public class TestAccountDao extends AccountTestSuiteWithEmbeddedDB {
         Assert.assertEquals(accountId, account.getId());
     }
 
+    @Test(groups = "slow", description = "Test Account DAO: check for children accounts")
+    public void testHasAccountsByParentId() throws AccountApiException {
+        final AccountModelDao parentAccount = createTestAccount();
+        accountDao.create(parentAccount, internalCallContext);
+        Assert.assertFalse(accountDao.hasAccountsByParentId(parentAccount.getId(), internalCallContext));
+
+        final AccountModelDao childAccount = createTestAccount();
+        childAccount.setParentAccountId(parentAccount.getId());
+        accountDao.create(childAccount, internalCallContext);
+        Assert.assertTrue(accountDao.hasAccountsByParentId(parentAccount.getId(), internalCallContext));
+        Assert.assertFalse(accountDao.hasAccountsByParentId(childAccount.getId(), internalCallContext));
+    }
+
     @Test(groups = "slow", expectedExceptions = AccountApiException.class, description = "Test Account DAO: retrieve by null externalKey throws an exception")
     public void testGetIdFromKeyForNullKey() throws AccountApiException {
         accountDao.getIdFromKey(null, internalCallContext);
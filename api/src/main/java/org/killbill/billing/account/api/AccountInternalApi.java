@@ -26,6 +26,15 @@ import org.killbill.billing.callcontext.InternalTenantContext;
 
 public interface AccountInternalApi extends ImmutableAccountInternalApi {
 
+    /**
+     * Bulk import of accounts: all accounts are created in a single transaction, using batched inserts
+     *
+     * @param accountsData the accounts to create
+     * @param context      call context (without account record id)
+     * @return the created accounts, in the same order
+     */
+    List<Account> createAccounts(List<AccountData> accountsData, InternalCallContext context) throws AccountApiException;
+
     Account getAccountByKey(String key, InternalTenantContext context) throws AccountApiException;
 
     Account getAccountById(UUID accountId, InternalTenantContext context) throws AccountApiException;
@@ -45,4 +54,6 @@ public interface AccountInternalApi extends ImmutableAccountInternalApi {
     UUID getByRecordId(Long recordId, InternalTenantContext context) throws AccountApiException;
 
     List<Account> getChildrenAccounts(UUID parentAccountId, InternalCallContext context) throws AccountApiException;
+
+    boolean hasChildrenAccounts(UUID parentAccountId, InternalTenantContext context);
 }
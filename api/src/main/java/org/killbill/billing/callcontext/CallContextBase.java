@@ -39,6 +39,9 @@ public abstract class CallContextBase implements CallContext, Externalizable {
     protected String reasonCode;
     protected String comments;
 
+    // Request-scoped, not serialized
+    private final ContextResolutionCache resolutionCache = new ContextResolutionCache();
+
     // For deserialization
     public CallContextBase() {
     }
@@ -99,6 +102,10 @@ public abstract class CallContextBase implements CallContext, Externalizable {
         return userToken;
     }
 
+    public ContextResolutionCache getResolutionCache() {
+        return resolutionCache;
+    }
+
     @Override
     public void writeExternal(final ObjectOutput out) throws IOException {
         out.writeLong(accountId == null ? 0 : accountId.getMostSignificantBits());
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.callcontext;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import org.killbill.billing.account.api.ImmutableAccountData;
+
+/**
+ * Record ids resolved on behalf of a given (external) call context.
+ * <p/>
+ * A single API request converts its context into internal contexts many times, each conversion looking up the tenant and
+ * account record ids in the caches (and the database on a miss). Since these values never change for a given object, the
+ * first resolution is kept here for the lifetime of the context, so that the subsequent ones don't go back to the
+ * cache backend (a network hop for distributed caches).
+ * <p/>
+ * Thread-safe: a context can be shared by the threads servicing the same request (e.g. plugin calls).
+ * <p/>
+ * The hits and round trips of the contexts of each API request are recorded by the server once the request completes.
+ */
+public class ContextResolutionCache {
+
+    // Guard against contexts which would be kept around (instead of being request-scoped)
+    private static final int MAX_ENTRIES = 1000;
+
+    private final ConcurrentMap<String, Long> recordIds = new ConcurrentHashMap<String, Long>();
+    private final ConcurrentMap<Long, ImmutableAccountData> immutableAccountData = new ConcurrentHashMap<Long, ImmutableAccountData>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    public Long getRecordId(final String key) {
+        final Long recordId = recordIds.get(key);
+        if (recordId != null) {
+            hits.incrementAndGet();
+        }
+        return recordId;
+    }
+
+    public void putRecordId(final String key, @Nullable final Long recordId) {
+        // Missing objects aren't remembered, they may be created later on during the request
+        if (recordId != null && recordIds.size() < MAX_ENTRIES) {
+            recordIds.putIfAbsent(key, recordId);
+        }
+    }
+
+    public ImmutableAccountData getImmutableAccountData(final Long accountRecordId) {
+        final ImmutableAccountData accountData = immutableAccountData.get(accountRecordId);
+        if (accountData != null) {
+            hits.incrementAndGet();
+        }
+        return accountData;
+    }
+
+    public void putImmutableAccountData(final Long accountRecordId, @Nullable final ImmutableAccountData accountData) {
+        if (accountData != null && immutableAccountData.size() < MAX_ENTRIES) {
+            immutableAccountData.putIfAbsent(accountRecordId, accountData);
+        }
+    }
+
+    // Lookup which couldn't be served from this cache (and went to the cache backend or the database)
+    public void recordRoundTrip() {
+        roundTrips.incrementAndGet();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ContextResolutionCache{");
+        sb.append("hits=").append(hits.get());
+        sb.append(", roundTrips=").append(roundTrips.get());
+        sb.append('}');
+        return sb.toString();
+    }
+}
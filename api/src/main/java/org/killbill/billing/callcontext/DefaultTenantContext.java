@@ -26,10 +26,19 @@ public class DefaultTenantContext implements TenantContext {
 
     private final UUID accountId;
     private final UUID tenantId;
+    private final ContextResolutionCache resolutionCache;
+    // Seek (keyset) pagination position requested by the caller, only honored by paginated calls (see SeekPaginationToken)
+    private final Long seekFromRecordId;
 
     public DefaultTenantContext(@Nullable final UUID accountId, @Nullable final UUID tenantId) {
+        this(accountId, tenantId, null);
+    }
+
+    public DefaultTenantContext(@Nullable final UUID accountId, @Nullable final UUID tenantId, @Nullable final Long seekFromRecordId) {
         this.accountId = accountId;
         this.tenantId = tenantId;
+        this.seekFromRecordId = seekFromRecordId;
+        this.resolutionCache = new ContextResolutionCache();
     }
 
     @Override
@@ -42,6 +51,14 @@ public class DefaultTenantContext implements TenantContext {
         return tenantId;
     }
 
+    public ContextResolutionCache getResolutionCache() {
+        return resolutionCache;
+    }
+
+    public Long getSeekFromRecordId() {
+        return seekFromRecordId;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
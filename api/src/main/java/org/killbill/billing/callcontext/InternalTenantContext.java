@@ -33,14 +33,25 @@ public class InternalTenantContext extends TimeAwareContext {
 
     protected final Long tenantRecordId;
     protected final Long accountRecordId;
+    // Seek (keyset) pagination position, see DefaultPaginationSqlDaoHelper
+    protected final Long seekFromRecordId;
 
     public InternalTenantContext(final Long tenantRecordId,
                                  @Nullable final Long accountRecordId,
                                  @Nullable final DateTimeZone fixedOffsetTimeZone,
                                  @Nullable final DateTime referenceDateTime) {
+        this(tenantRecordId, accountRecordId, fixedOffsetTimeZone, referenceDateTime, null);
+    }
+
+    public InternalTenantContext(final Long tenantRecordId,
+                                 @Nullable final Long accountRecordId,
+                                 @Nullable final DateTimeZone fixedOffsetTimeZone,
+                                 @Nullable final DateTime referenceDateTime,
+                                 @Nullable final Long seekFromRecordId) {
         super(fixedOffsetTimeZone, referenceDateTime);
         this.tenantRecordId = tenantRecordId;
         this.accountRecordId = accountRecordId;
+        this.seekFromRecordId = seekFromRecordId;
     }
 
     public InternalTenantContext(final Long defaultTenantRecordId) {
@@ -59,6 +70,10 @@ public class InternalTenantContext extends TimeAwareContext {
         return tenantRecordId;
     }
 
+    public Long getSeekFromRecordId() {
+        return seekFromRecordId;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.entitlement;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.entitlement.api.BlockingState;
+import org.killbill.billing.entitlement.api.BlockingStateType;
+
+//
+// Immutable view of the blocking states of an account, built once (grouping by blockable and by service) and shared
+// by all EventsStream (and BillingEvent) computations for that account. Add-ons get a view with their own blocking states
+// (see withSubscriptionBlockingStates).
+//
+// The blocking states are expected to be sorted (see ProxyBlockingStateDao#sortedCopy): the per-blockable lists preserve that ordering.
+// The per-service lookups (current state at a given date) are done by binary search on the effective date.
+//
+public class BlockingStateTimeline {
+
+    private static final Comparator<BlockingState> EFFECTIVE_DATE_COMPARATOR = new Comparator<BlockingState>() {
+        @Override
+        public int compare(final BlockingState o1, final BlockingState o2) {
+            return o1.getEffectiveDate().compareTo(o2.getEffectiveDate());
+        }
+    };
+
+    private final List<BlockingState> blockingStates;
+    private final List<BlockingState> accountBlockingStates;
+    private final Map<UUID, List<BlockingState>> blockingStatesPerBundle;
+    private final Map<UUID, List<BlockingState>> blockingStatesPerSubscription;
+    // Type -> blockable id -> service -> blocking states ordered by effective date
+    private final Map<BlockingStateType, Map<UUID, Map<String, List<BlockingState>>>> blockingStatesPerService;
+
+    // See withSubscriptionBlockingStates
+    private final UUID overriddenSubscriptionId;
+    private final List<BlockingState> overriddenSubscriptionBlockingStates;
+    private final Map<String, List<BlockingState>> overriddenSubscriptionBlockingStatesPerService;
+
+    public BlockingStateTimeline(final Iterable<BlockingState> blockingStates) {
+        this(null, blockingStates);
+    }
+
+    // If specified, only the ACCOUNT blocking states for that account id are considered
+    public BlockingStateTimeline(@Nullable final UUID accountId, final Iterable<BlockingState> blockingStates) {
+        final List<BlockingState> tmpBlockingStates = new ArrayList<BlockingState>();
+        final List<BlockingState> tmpAccountBlockingStates = new ArrayList<BlockingState>();
+        final Map<UUID, List<BlockingState>> tmpBlockingStatesPerBundle = new HashMap<UUID, List<BlockingState>>();
+        final Map<UUID, List<BlockingState>> tmpBlockingStatesPerSubscription = new HashMap<UUID, List<BlockingState>>();
+        final Map<BlockingStateType, Map<UUID, Map<String, List<BlockingState>>>> tmpBlockingStatesPerService = new EnumMap<BlockingStateType, Map<UUID, Map<String, List<BlockingState>>>>(BlockingStateType.class);
+        for (final BlockingState blockingState : blockingStates) {
+            tmpBlockingStates.add(blockingState);
+            if (BlockingStateType.SUBSCRIPTION.equals(blockingState.getType())) {
+                addBlockingState(tmpBlockingStatesPerSubscription, blockingState);
+            } else if (BlockingStateType.SUBSCRIPTION_BUNDLE.equals(blockingState.getType())) {
+                addBlockingState(tmpBlockingStatesPerBundle, blockingState);
+            } else if (BlockingStateType.ACCOUNT.equals(blockingState.getType()) &&
+                       (accountId == null || accountId.equals(blockingState.getBlockedId()))) {
+                tmpAccountBlockingStates.add(blockingState);
+            }
+
+            Map<UUID, Map<String, List<BlockingState>>> blockingStatesPerBlockable = tmpBlockingStatesPerService.get(blockingState.getType());
+            if (blockingStatesPerBlockable == null) {
+                blockingStatesPerBlockable = new HashMap<UUID, Map<String, List<BlockingState>>>();
+                tmpBlockingStatesPerService.put(blockingState.getType(), blockingStatesPerBlockable);
+            }
+            Map<String, List<BlockingState>> blockingStatesForBlockable = blockingStatesPerBlockable.get(blockingState.getBlockedId());
+            if (blockingStatesForBlockable == null) {
+                blockingStatesForBlockable = new LinkedHashMap<String, List<BlockingState>>();
+                blockingStatesPerBlockable.put(blockingState.getBlockedId(), blockingStatesForBlockable);
+            }
+            addBlockingStateForService(blockingStatesForBlockable, blockingState);
+        }
+
+        for (final Map<UUID, Map<String, List<BlockingState>>> blockingStatesPerBlockable : tmpBlockingStatesPerService.values()) {
+            for (final Map<String, List<BlockingState>> blockingStatesForBlockable : blockingStatesPerBlockable.values()) {
+                sortPerService(blockingStatesForBlockable);
+            }
+        }
+
+        this.blockingStates = Collections.<BlockingState>unmodifiableList(tmpBlockingStates);
+        this.accountBlockingStates = Collections.<BlockingState>unmodifiableList(tmpAccountBlockingStates);
+        this.blockingStatesPerBundle = tmpBlockingStatesPerBundle;
+        this.blockingStatesPerSubscription = tmpBlockingStatesPerSubscription;
+        this.blockingStatesPerService = tmpBlockingStatesPerService;
+        this.overriddenSubscriptionId = null;
+        this.overriddenSubscriptionBlockingStates = null;
+        this.overriddenSubscriptionBlockingStatesPerService = null;
+    }
+
+    private BlockingStateTimeline(final BlockingStateTimeline accountTimeline, final UUID subscriptionId, final Collection<BlockingState> subscriptionBlockingStates) {
+        final List<BlockingState> tmpSubscriptionBlockingStates = new ArrayList<BlockingState>(subscriptionBlockingStates.size());
+        final Map<String, List<BlockingState>> tmpSubscriptionBlockingStatesPerService = new LinkedHashMap<String, List<BlockingState>>();
+        for (final BlockingState blockingState : subscriptionBlockingStates) {
+            tmpSubscriptionBlockingStates.add(blockingState);
+            addBlockingStateForService(tmpSubscriptionBlockingStatesPerService, blockingState);
+        }
+        sortPerService(tmpSubscriptionBlockingStatesPerService);
+
+        // The account level lookup tables are shared
+        this.blockingStates = accountTimeline.blockingStates;
+        this.accountBlockingStates = accountTimeline.accountBlockingStates;
+        this.blockingStatesPerBundle = accountTimeline.blockingStatesPerBundle;
+        this.blockingStatesPerSubscription = accountTimeline.blockingStatesPerSubscription;
+        this.blockingStatesPerService = accountTimeline.blockingStatesPerService;
+        this.overriddenSubscriptionId = subscriptionId;
+        this.overriddenSubscriptionBlockingStates = Collections.<BlockingState>unmodifiableList(tmpSubscriptionBlockingStates);
+        this.overriddenSubscriptionBlockingStatesPerService = tmpSubscriptionBlockingStatesPerService;
+    }
+
+    /**
+     * View of this timeline where the blocking states of the specified subscription are replaced, e.g. by the ones computed for an
+     * add-on (see ProxyBlockingStateDao#addBlockingStatesNotOnDisk). Only these are indexed, the other lookup tables are shared.
+     * <p/>
+     * Note that getBlockingStates still returns the blocking states this timeline was built from.
+     *
+     * @param subscriptionId             subscription id
+     * @param subscriptionBlockingStates all blocking states for that subscription, sorted
+     * @return the timeline for that subscription
+     */
+    public BlockingStateTimeline withSubscriptionBlockingStates(final UUID subscriptionId, final Collection<BlockingState> subscriptionBlockingStates) {
+        return new BlockingStateTimeline(this, subscriptionId, subscriptionBlockingStates);
+    }
+
+    public List<BlockingState> getBlockingStates() {
+        return blockingStates;
+    }
+
+    public List<BlockingState> getAccountBlockingStates() {
+        return accountBlockingStates;
+    }
+
+    public List<BlockingState> getBundleBlockingStates(final UUID bundleId) {
+        return getBlockingStates(blockingStatesPerBundle, bundleId);
+    }
+
+    public List<BlockingState> getSubscriptionBlockingStates(final UUID subscriptionId) {
+        if (subscriptionId.equals(overriddenSubscriptionId)) {
+            return overriddenSubscriptionBlockingStates;
+        }
+        return getBlockingStates(blockingStatesPerSubscription, subscriptionId);
+    }
+
+    // Latest blocking state for each service of that blockable, effective on or before the specified date
+    public List<BlockingState> getCurrentBlockingStatesPerService(final BlockingStateType type, final UUID blockableId, final DateTime upTo) {
+        final Map<String, List<BlockingState>> blockingStatesForBlockable;
+        if (BlockingStateType.SUBSCRIPTION.equals(type) && blockableId.equals(overriddenSubscriptionId)) {
+            blockingStatesForBlockable = overriddenSubscriptionBlockingStatesPerService;
+        } else {
+            final Map<UUID, Map<String, List<BlockingState>>> blockingStatesPerBlockable = blockingStatesPerService.get(type);
+            blockingStatesForBlockable = blockingStatesPerBlockable == null ? null : blockingStatesPerBlockable.get(blockableId);
+        }
+        if (blockingStatesForBlockable == null) {
+            return Collections.<BlockingState>emptyList();
+        }
+
+        final List<BlockingState> result = new ArrayList<BlockingState>(blockingStatesForBlockable.size());
+        for (final List<BlockingState> blockingStatesForService : blockingStatesForBlockable.values()) {
+            final int index = findLastEffectiveOnOrBefore(blockingStatesForService, upTo);
+            if (index >= 0) {
+                result.add(blockingStatesForService.get(index));
+            }
+        }
+        return result;
+    }
+
+    private static List<BlockingState> getBlockingStates(final Map<UUID, List<BlockingState>> blockingStatesPerBlockable, final UUID blockableId) {
+        final List<BlockingState> blockingStatesForBlockable = blockingStatesPerBlockable.get(blockableId);
+        return blockingStatesForBlockable == null ? Collections.<BlockingState>emptyList() : Collections.<BlockingState>unmodifiableList(blockingStatesForBlockable);
+    }
+
+    private static void addBlockingState(final Map<UUID, List<BlockingState>> blockingStatesPerBlockable, final BlockingState blockingState) {
+        List<BlockingState> blockingStatesForBlockable = blockingStatesPerBlockable.get(blockingState.getBlockedId());
+        if (blockingStatesForBlockable == null) {
+            blockingStatesForBlockable = new ArrayList<BlockingState>();
+            blockingStatesPerBlockable.put(blockingState.getBlockedId(), blockingStatesForBlockable);
+        }
+        blockingStatesForBlockable.add(blockingState);
+    }
+
+    private static void addBlockingStateForService(final Map<String, List<BlockingState>> blockingStatesForBlockable, final BlockingState blockingState) {
+        List<BlockingState> blockingStatesForService = blockingStatesForBlockable.get(blockingState.getService());
+        if (blockingStatesForService == null) {
+            blockingStatesForService = new ArrayList<BlockingState>();
+            blockingStatesForBlockable.put(blockingState.getService(), blockingStatesForService);
+        }
+        blockingStatesForService.add(blockingState);
+    }
+
+    // Stable sort: for a given effective date, the last blocking state in the timeline wins
+    private static void sortPerService(final Map<String, List<BlockingState>> blockingStatesForBlockable) {
+        for (final List<BlockingState> blockingStatesForService : blockingStatesForBlockable.values()) {
+            Collections.sort(blockingStatesForService, EFFECTIVE_DATE_COMPARATOR);
+        }
+    }
+
+    // Index of the last blocking state with an effective date on or before upTo, -1 if there is none
+    private static int findLastEffectiveOnOrBefore(final List<BlockingState> blockingStatesForService, final DateTime upTo) {
+        int low = 0;
+        int high = blockingStatesForService.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (blockingStatesForService.get(mid).getEffectiveDate().isAfter(upTo)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low - 1;
+    }
+}
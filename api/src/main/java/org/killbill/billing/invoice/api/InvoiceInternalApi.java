@@ -76,6 +76,15 @@ public interface InvoiceInternalApi {
      */
     public void consumeExistingCBAOnAccountWithUnpaidInvoices(final UUID accountId, final InternalCallContext context) throws InvoiceApiException;
 
+    /**
+     * Recompute the running account CBA from the invoice items, and fix it if needed
+     *
+     * @param accountId account id
+     * @param context   the callcontext
+     * @return the account CBA
+     */
+    public BigDecimal refreshAccountCBA(final UUID accountId, final InternalCallContext context);
+
     public Map<UUID, BigDecimal> validateInvoiceItemAdjustments(final UUID paymentId, final Map<UUID, BigDecimal> idWithAmount, final InternalTenantContext context) throws InvoiceApiException;
 
     public void commitInvoice(UUID invoiceId, InternalCallContext context) throws InvoiceApiException;
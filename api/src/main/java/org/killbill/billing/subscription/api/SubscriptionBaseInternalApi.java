@@ -87,6 +87,9 @@ public interface SubscriptionBaseInternalApi {
 
     public void setChargedThroughDate(UUID subscriptionId, DateTime chargedThruDate, InternalCallContext context) throws SubscriptionBaseApiException;
 
+    // Same as above, for several subscriptions at once (single transaction)
+    public void setChargedThroughDates(Map<UUID, DateTime> chargedThruDates, InternalCallContext context) throws SubscriptionBaseApiException;
+
     public List<EffectiveSubscriptionInternalEvent> getAllTransitions(SubscriptionBase subscription, InternalTenantContext context);
 
     public List<SubscriptionBillingEvent> getSubscriptionBillingEvents(VersionedCatalog catalog, SubscriptionBase subscription, InternalTenantContext context) throws SubscriptionBaseApiException;
@@ -17,12 +17,14 @@
 package org.killbill.billing.tag;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.killbill.billing.ObjectType;
 import org.killbill.billing.util.api.TagApiException;
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.util.tag.ControlTagType;
 import org.killbill.billing.util.tag.Tag;
 import org.killbill.billing.util.tag.TagDefinition;
 
@@ -45,6 +47,18 @@ public interface TagInternalApi {
 
     public List<Tag> getTagsForAccount(boolean includedDeleted, InternalTenantContext context);
 
+    /**
+     * Return the active control tags for a given object, served from memory when possible
+     *
+     * @param objectId   the object id
+     * @param objectType the object type
+     * @param context    call callcontext
+     * @return the set of control tags
+     */
+    public Set<ControlTagType> getControlTags(UUID objectId, ObjectType objectType, InternalTenantContext context);
+
+    public void invalidateControlTags(UUID objectId);
+
     public void addTag(final UUID objectId, final ObjectType objectType, UUID tagDefinitionId, InternalCallContext context) throws TagApiException;
 
     public void removeTag(final UUID objectId, final ObjectType objectType, final UUID tagDefinitionId, InternalCallContext context) throws TagApiException;
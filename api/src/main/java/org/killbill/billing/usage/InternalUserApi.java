@@ -18,6 +18,7 @@
 package org.killbill.billing.usage;
 
 import java.util.List;
+import java.util.UUID;
 
 import org.joda.time.LocalDate;
 import org.killbill.billing.callcontext.InternalTenantContext;
@@ -26,4 +27,10 @@ import org.killbill.billing.usage.api.RawUsageRecord;
 public interface InternalUserApi {
 
     public List<RawUsageRecord> getRawUsageForAccount(final LocalDate stateDate, final LocalDate endDate, final InternalTenantContext tenantContext);
+
+    // Usage served by the usage plugins (UsagePluginApi#getUsageForAccount), or null if no plugin serves usage data for that account
+    public List<RawUsageRecord> getPluginRawUsageForAccount(final LocalDate stateDate, final LocalDate endDate, final InternalTenantContext tenantContext);
+
+    // Usage recorded in Kill Bill only (usage plugins aren't called), sorted by date and unit type
+    public List<RawUsageRecord> getRawUsageForSubscription(final UUID subscriptionId, final LocalDate stateDate, final LocalDate endDate, final InternalTenantContext tenantContext);
 }
@@ -1161,6 +1161,26 @@ public class TestIntegrationBase extends BeatrixTestSuiteWithEmbeddedDB implemen
             return defaultInvoiceConfig.getMaxGlobalLockRetries();
         }
 
+        @Override
+        public int getMaxConcurrentInvoiceRunsPerTenant() {
+            return defaultInvoiceConfig.getMaxConcurrentInvoiceRunsPerTenant();
+        }
+
+        @Override
+        public int getMaxConcurrentInvoiceRunsPerTenant(final InternalTenantContext tenantContext) {
+            return defaultInvoiceConfig.getMaxConcurrentInvoiceRunsPerTenant();
+        }
+
+        @Override
+        public TimeSpan getMaxConcurrentInvoiceRunsWaitTime() {
+            return defaultInvoiceConfig.getMaxConcurrentInvoiceRunsWaitTime();
+        }
+
+        @Override
+        public List<TimeSpan> getMaxConcurrentInvoiceRunsRetries() {
+            return defaultInvoiceConfig.getMaxConcurrentInvoiceRunsRetries();
+        }
+
         @Override
         public List<String> getInvoicePluginNames() {
             return defaultInvoiceConfig.getInvoicePluginNames();
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.benchmarks;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.catalog.DefaultVersionedCatalog;
+import org.killbill.billing.catalog.StandaloneCatalog;
+import org.killbill.xmlloader.XMLLoader;
+
+import com.google.common.io.Resources;
+
+/**
+ * Catalogs shared by the benchmarks, built from the test catalogs of the catalog module.
+ */
+public final class BenchmarkCatalogs {
+
+    public static final String CATALOG_RESOURCE = "SpyCarBasic.xml";
+    public static final String PLAN_NAME = "standard-monthly";
+
+    private BenchmarkCatalogs() {}
+
+    public static StandaloneCatalog loadCatalog() throws Exception {
+        return XMLLoader.getObjectFromString(Resources.getResource(CATALOG_RESOURCE).toExternalForm(), StandaloneCatalog.class);
+    }
+
+    /**
+     * @param nbVersions    number of catalog versions
+     * @param firstVersion  effective date of the first version
+     * @return a versioned catalog with one version per month, starting at firstVersion
+     */
+    public static DefaultVersionedCatalog createVersionedCatalog(final int nbVersions, final DateTime firstVersion) throws Exception {
+        final DefaultVersionedCatalog versionedCatalog = new DefaultVersionedCatalog();
+        for (int i = 0; i < nbVersions; i++) {
+            final StandaloneCatalog catalog = loadCatalog();
+            catalog.setEffectiveDate(firstVersion.plusMonths(i).toDate());
+            versionedCatalog.add(catalog);
+        }
+        return versionedCatalog;
+    }
+}
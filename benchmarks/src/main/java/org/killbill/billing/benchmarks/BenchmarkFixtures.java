@@ -0,0 +1,87 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.benchmarks;
+
+import java.util.UUID;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.catalog.api.CatalogApiException;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.catalog.api.Plan;
+import org.killbill.billing.catalog.api.PlanPhase;
+import org.killbill.billing.catalog.api.Usage;
+import org.killbill.billing.junction.BillingEvent;
+import org.killbill.billing.junction.plumbing.billing.DefaultBillingEvent;
+import org.killbill.billing.subscription.api.SubscriptionBaseTransitionType;
+import org.killbill.billing.util.callcontext.CallOrigin;
+import org.killbill.billing.util.callcontext.UserType;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Contexts and billing events shared by the benchmarks.
+ */
+public final class BenchmarkFixtures {
+
+    public static final Long TENANT_RECORD_ID = 1L;
+    public static final Long ACCOUNT_RECORD_ID = 1L;
+
+    private BenchmarkFixtures() {}
+
+    public static InternalCallContext createInternalCallContext(final DateTime now) {
+        return new InternalCallContext(TENANT_RECORD_ID,
+                                       ACCOUNT_RECORD_ID,
+                                       DateTimeZone.UTC,
+                                       now,
+                                       UUID.randomUUID(),
+                                       "benchmarks",
+                                       CallOrigin.TEST,
+                                       UserType.TEST,
+                                       null,
+                                       null,
+                                       now,
+                                       now);
+    }
+
+    // CREATE event on the evergreen (monthly, in advance) phase of the plan
+    public static BillingEvent createBillingEvent(final UUID subscriptionId,
+                                                  final UUID bundleId,
+                                                  final DateTime effectiveDate,
+                                                  final Plan plan,
+                                                  final int billCycleDayLocal,
+                                                  final long totalOrdering) throws CatalogApiException {
+        final PlanPhase phase = plan.getFinalPhase();
+        return new DefaultBillingEvent(subscriptionId,
+                                       bundleId,
+                                       effectiveDate,
+                                       plan,
+                                       phase,
+                                       null,
+                                       phase.getRecurring().getRecurringPrice().getPrice(Currency.USD),
+                                       ImmutableList.<Usage>of(),
+                                       Currency.USD,
+                                       phase.getRecurring().getBillingPeriod(),
+                                       billCycleDayLocal,
+                                       SubscriptionBaseTransitionType.CREATE.toString(),
+                                       totalOrdering,
+                                       SubscriptionBaseTransitionType.CREATE,
+                                       false);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.benchmarks.catalog;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.killbill.billing.benchmarks.BenchmarkCatalogs;
+import org.killbill.billing.catalog.DefaultVersionedCatalog;
+import org.killbill.billing.catalog.api.CatalogApiException;
+import org.killbill.billing.catalog.api.PlanPhase;
+import org.killbill.billing.catalog.api.StaticCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Catalog lookups, as performed for each billing event: resolve the catalog version effective at a given date,
+ * then the plan and phase in that version.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VersionedCatalogBenchmark {
+
+    private static final String PHASE_NAME = BenchmarkCatalogs.PLAN_NAME + "-evergreen";
+
+    @Param({"1", "10", "100"})
+    public int nbVersions;
+
+    private DefaultVersionedCatalog catalog;
+    private Date firstVersionDate;
+    private Date latestVersionDate;
+
+    @Setup
+    public void setUp() throws Exception {
+        final DateTime firstVersion = new DateTime(2015, 1, 1, 0, 0, DateTimeZone.UTC);
+        catalog = BenchmarkCatalogs.createVersionedCatalog(nbVersions, firstVersion);
+        firstVersionDate = firstVersion.plusDays(1).toDate();
+        latestVersionDate = firstVersion.plusMonths(nbVersions).toDate();
+    }
+
+    @Benchmark
+    public StaticCatalog getLatestVersion() {
+        return catalog.getVersion(latestVersionDate);
+    }
+
+    @Benchmark
+    public StaticCatalog getFirstVersion() {
+        return catalog.getVersion(firstVersionDate);
+    }
+
+    @Benchmark
+    public PlanPhase findPhaseInFirstVersion() throws CatalogApiException {
+        return catalog.getVersion(firstVersionDate).findPlan(BenchmarkCatalogs.PLAN_NAME).findPhase(PHASE_NAME);
+    }
+
+    @Benchmark
+    public PlanPhase findPhaseInLatestVersion() throws CatalogApiException {
+        return catalog.getVersion(latestVersionDate).findPlan(BenchmarkCatalogs.PLAN_NAME).findPhase(PHASE_NAME);
+    }
+}
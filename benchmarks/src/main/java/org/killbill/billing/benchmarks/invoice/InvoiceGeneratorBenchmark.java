@@ -0,0 +1,140 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.benchmarks.invoice;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.benchmarks.BenchmarkCatalogs;
+import org.killbill.billing.benchmarks.BenchmarkFixtures;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.catalog.api.Plan;
+import org.killbill.billing.catalog.api.PlanPhase;
+import org.killbill.billing.invoice.api.Invoice;
+import org.killbill.billing.invoice.api.InvoiceApiException;
+import org.killbill.billing.invoice.generator.DefaultInvoiceGenerator;
+import org.killbill.billing.invoice.generator.FixedAndRecurringInvoiceItemGenerator;
+import org.killbill.billing.invoice.generator.InvoiceWithMetadata;
+import org.killbill.billing.invoice.generator.UsageInvoiceItemGenerator;
+import org.killbill.billing.invoice.model.DefaultInvoice;
+import org.killbill.billing.invoice.model.RecurringInvoiceItem;
+import org.killbill.billing.junction.BillingEventSet;
+import org.killbill.billing.junction.plumbing.billing.DefaultBillingEventSet;
+import org.killbill.billing.mock.MockAccountBuilder;
+import org.killbill.billing.util.config.definition.InvoiceConfig;
+import org.killbill.clock.Clock;
+import org.killbill.clock.DefaultClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.skife.config.ConfigurationObjectFactory;
+
+/**
+ * Invoice generation for an account with monthly in-advance subscriptions, all invoiced up to the previous period:
+ * the generator has to rebuild the items trees from the whole history to find out the new period is the only one to bill.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvoiceGeneratorBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int nbSubscriptions;
+
+    // Number of invoices already generated for the account
+    @Param({"1", "12", "36"})
+    public int nbMonthsOfHistory;
+
+    private DefaultInvoiceGenerator generator;
+    private Account account;
+    private BillingEventSet events;
+    private List<Invoice> existingInvoices;
+    private LocalDate targetDate;
+    private InternalCallContext context;
+
+    @Setup
+    public void setUp() throws Exception {
+        final Clock clock = new DefaultClock();
+        final InvoiceConfig invoiceConfig = new ConfigurationObjectFactory(new Properties()).build(InvoiceConfig.class);
+        // No usage section in the plan: the raw usage optimizer is never called
+        generator = new DefaultInvoiceGenerator(clock,
+                                                invoiceConfig,
+                                                new FixedAndRecurringInvoiceItemGenerator(invoiceConfig, clock),
+                                                new UsageInvoiceItemGenerator(null, invoiceConfig));
+
+        final DateTime now = clock.getUTCNow();
+        targetDate = now.toLocalDate();
+        context = BenchmarkFixtures.createInternalCallContext(now);
+        account = new MockAccountBuilder().billingCycleDayLocal(1)
+                                          .currency(Currency.USD)
+                                          .timeZone(DateTimeZone.UTC)
+                                          .build();
+
+        final Plan plan = BenchmarkCatalogs.loadCatalog().findPlan(BenchmarkCatalogs.PLAN_NAME);
+        final PlanPhase phase = plan.getFinalPhase();
+        final BigDecimal rate = phase.getRecurring().getRecurringPrice().getPrice(Currency.USD);
+        final DateTime catalogEffectiveDate = new DateTime(plan.getCatalog().getEffectiveDate());
+        final LocalDate startDate = targetDate.withDayOfMonth(1).minusMonths(nbMonthsOfHistory);
+
+        final List<UUID> subscriptionIds = new ArrayList<UUID>(nbSubscriptions);
+        final List<UUID> bundleIds = new ArrayList<UUID>(nbSubscriptions);
+        events = new DefaultBillingEventSet(false, false, false);
+        for (int i = 0; i < nbSubscriptions; i++) {
+            subscriptionIds.add(UUID.randomUUID());
+            bundleIds.add(UUID.randomUUID());
+            events.add(BenchmarkFixtures.createBillingEvent(subscriptionIds.get(i), bundleIds.get(i), startDate.toDateTimeAtStartOfDay(DateTimeZone.UTC), plan, 1, i));
+        }
+
+        existingInvoices = new ArrayList<Invoice>(nbMonthsOfHistory);
+        for (int month = 0; month < nbMonthsOfHistory; month++) {
+            final LocalDate periodStart = startDate.plusMonths(month);
+            final DefaultInvoice invoice = new DefaultInvoice(account.getId(), periodStart, periodStart, Currency.USD);
+            for (int i = 0; i < nbSubscriptions; i++) {
+                invoice.addInvoiceItem(new RecurringInvoiceItem(invoice.getId(), account.getId(), bundleIds.get(i), subscriptionIds.get(i),
+                                                                plan.getProduct().getName(), plan.getName(), phase.getName(), catalogEffectiveDate,
+                                                                periodStart, periodStart.plusMonths(1), rate, rate, Currency.USD));
+            }
+            existingInvoices.add(invoice);
+        }
+    }
+
+    @Benchmark
+    public InvoiceWithMetadata generateInvoice() throws InvoiceApiException {
+        return generator.generateInvoice(account, events, existingInvoices, null, targetDate, Currency.USD, context);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.benchmarks.invoice;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.invoice.api.InvoiceItem;
+import org.killbill.billing.invoice.model.RecurringInvoiceItem;
+import org.killbill.billing.invoice.tree.SubscriptionItemTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Merge of the proposed items with the existing items of a monthly subscription, as done by the invoice generator
+ * for each subscription of the account.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubscriptionItemTreeBenchmark {
+
+    private static final BigDecimal MONTHLY_RATE = new BigDecimal("100.00");
+    private static final BigDecimal NEW_MONTHLY_RATE = new BigDecimal("200.00");
+
+    // Number of invoiced periods
+    @Param({"12", "36", "120"})
+    public int nbMonths;
+
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID bundleId = UUID.randomUUID();
+    private final UUID subscriptionId = UUID.randomUUID();
+    private final UUID invoiceId = UUID.randomUUID();
+
+    private List<InvoiceItem> existingItems;
+    // Same periods as the existing ones
+    private List<InvoiceItem> unchangedProposedItems;
+    // Plan change in the middle of the last period
+    private List<InvoiceItem> changedProposedItems;
+
+    @Setup
+    public void setUp() {
+        final LocalDate startDate = new LocalDate(2015, 1, 1);
+
+        existingItems = new ArrayList<InvoiceItem>(nbMonths);
+        unchangedProposedItems = new ArrayList<InvoiceItem>(nbMonths);
+        for (int month = 0; month < nbMonths; month++) {
+            final LocalDate periodStart = startDate.plusMonths(month);
+            existingItems.add(createRecurringItem(UUID.randomUUID(), "standard-monthly", periodStart, periodStart.plusMonths(1), MONTHLY_RATE, MONTHLY_RATE));
+            unchangedProposedItems.add(createRecurringItem(invoiceId, "standard-monthly", periodStart, periodStart.plusMonths(1), MONTHLY_RATE, MONTHLY_RATE));
+        }
+
+        changedProposedItems = new ArrayList<InvoiceItem>(unchangedProposedItems.subList(0, nbMonths - 1));
+        final LocalDate lastPeriodStart = startDate.plusMonths(nbMonths - 1);
+        final LocalDate changeDate = lastPeriodStart.plusDays(15);
+        final LocalDate lastPeriodEnd = lastPeriodStart.plusMonths(1);
+        changedProposedItems.add(createRecurringItem(invoiceId, "standard-monthly", lastPeriodStart, changeDate, new BigDecimal("50.00"), MONTHLY_RATE));
+        changedProposedItems.add(createRecurringItem(invoiceId, "premium-monthly", changeDate, lastPeriodEnd, new BigDecimal("100.00"), NEW_MONTHLY_RATE));
+    }
+
+    @Benchmark
+    public List<InvoiceItem> mergeUnchangedItems() {
+        return merge(unchangedProposedItems);
+    }
+
+    @Benchmark
+    public List<InvoiceItem> mergeChangedItems() {
+        return merge(changedProposedItems);
+    }
+
+    private List<InvoiceItem> merge(final Iterable<InvoiceItem> proposedItems) {
+        final SubscriptionItemTree tree = new SubscriptionItemTree(subscriptionId, invoiceId);
+        for (final InvoiceItem existingItem : existingItems) {
+            tree.addItem(existingItem);
+        }
+        tree.build();
+        tree.flatten(true);
+
+        for (final InvoiceItem proposedItem : proposedItems) {
+            tree.mergeProposedItem(proposedItem);
+        }
+        tree.buildForMerge();
+        return tree.getView();
+    }
+
+    private InvoiceItem createRecurringItem(final UUID invoiceId, final String planName, final LocalDate startDate, final LocalDate endDate,
+                                            final BigDecimal amount, final BigDecimal rate) {
+        return new RecurringInvoiceItem(invoiceId, accountId, bundleId, subscriptionId, "product", planName, planName + "-evergreen", null,
+                                        startDate, endDate, amount, rate, Currency.USD);
+    }
+}
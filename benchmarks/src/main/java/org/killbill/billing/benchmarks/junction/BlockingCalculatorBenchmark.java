@@ -0,0 +1,172 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.benchmarks.junction;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.killbill.billing.benchmarks.BenchmarkCatalogs;
+import org.killbill.billing.benchmarks.BenchmarkFixtures;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.catalog.DefaultVersionedCatalog;
+import org.killbill.billing.catalog.api.CatalogApiException;
+import org.killbill.billing.catalog.api.Plan;
+import org.killbill.billing.catalog.api.VersionedCatalog;
+import org.killbill.billing.entitlement.api.BlockingState;
+import org.killbill.billing.entitlement.api.BlockingStateType;
+import org.killbill.billing.junction.BillingEvent;
+import org.killbill.billing.junction.BlockingInternalApi;
+import org.killbill.billing.junction.DefaultBlockingState;
+import org.killbill.billing.junction.plumbing.billing.BlockingCalculator;
+import org.killbill.billing.subscription.api.SubscriptionBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Insertion of the disable and re-enable billing events for an account which has been blocked (e.g. overdue) several times.
+ * <p/>
+ * The billing events are copied for each invocation, as the calculator updates them in place.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockingCalculatorBenchmark {
+
+    private static final String SERVICE_NAME = "benchmark-service";
+
+    @Param({"1", "10", "100"})
+    public int nbSubscriptions;
+
+    // Number of blocked (billing) periods for the account
+    @Param({"0", "1", "10"})
+    public int nbBlockedPeriods;
+
+    private BlockingCalculator blockingCalculator;
+    private SortedSet<BillingEvent> billingEvents;
+    private Map<UUID, List<SubscriptionBase>> subscriptionsForAccount;
+    private VersionedCatalog catalog;
+    private InternalTenantContext context;
+
+    @Setup
+    public void setUp() throws Exception {
+        final DateTime startDate = new DateTime(2015, 1, 1, 0, 0, DateTimeZone.UTC);
+        final DefaultVersionedCatalog versionedCatalog = BenchmarkCatalogs.createVersionedCatalog(1, startDate);
+        final Plan plan = versionedCatalog.getCurrentVersion().findPlan(BenchmarkCatalogs.PLAN_NAME);
+        final InternalCallContext callContext = BenchmarkFixtures.createInternalCallContext(startDate.plusMonths(nbBlockedPeriods + 1));
+
+        billingEvents = new TreeSet<BillingEvent>();
+        subscriptionsForAccount = new HashMap<UUID, List<SubscriptionBase>>();
+        for (int i = 0; i < nbSubscriptions; i++) {
+            final UUID bundleId = UUID.randomUUID();
+            final SubscriptionBase subscription = createSubscription(UUID.randomUUID(), bundleId);
+            subscriptionsForAccount.put(bundleId, ImmutableList.<SubscriptionBase>of(subscription));
+            billingEvents.add(BenchmarkFixtures.createBillingEvent(subscription.getId(), bundleId, startDate, plan, 1, i));
+        }
+
+        // Account blocked from the 10th to the 20th of each month
+        final UUID accountId = UUID.randomUUID();
+        final List<BlockingState> blockingStates = new ArrayList<BlockingState>(2 * nbBlockedPeriods);
+        for (int i = 0; i < nbBlockedPeriods; i++) {
+            final DateTime blockDate = startDate.plusMonths(i).plusDays(9);
+            blockingStates.add(createBlockingState(accountId, "BLOCKED", true, blockDate, 2L * i));
+            blockingStates.add(createBlockingState(accountId, "CLEAR", false, blockDate.plusDays(10), 2L * i + 1));
+        }
+
+        blockingCalculator = new BlockingCalculator(new BlockingInternalApi() {
+            @Override
+            public BlockingState getBlockingStateForService(final UUID blockableId, final BlockingStateType blockingStateType, final String serviceName, final InternalTenantContext context) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public List<BlockingState> getBlockingAllForAccount(final VersionedCatalog catalog, final InternalTenantContext context) {
+                return blockingStates;
+            }
+
+            @Override
+            public void setBlockingState(final BlockingState state, final InternalCallContext context) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        catalog = versionedCatalog;
+        context = callContext;
+    }
+
+    @Benchmark
+    public SortedSet<BillingEvent> insertBlockingEvents() throws CatalogApiException {
+        final SortedSet<BillingEvent> events = new TreeSet<BillingEvent>(billingEvents);
+        blockingCalculator.insertBlockingEvents(events, ImmutableSet.<UUID>of(), subscriptionsForAccount, catalog, context);
+        return events;
+    }
+
+    private static BlockingState createBlockingState(final UUID accountId, final String stateName, final boolean blockBilling, final DateTime effectiveDate, final long totalOrdering) {
+        return new DefaultBlockingState(UUID.randomUUID(), accountId, BlockingStateType.ACCOUNT, stateName, SERVICE_NAME,
+                                        false, false, blockBilling, effectiveDate, effectiveDate, effectiveDate, totalOrdering);
+    }
+
+    // The calculator only looks at the ids and the end date of the subscriptions
+    private static SubscriptionBase createSubscription(final UUID subscriptionId, final UUID bundleId) {
+        return (SubscriptionBase) Proxy.newProxyInstance(SubscriptionBase.class.getClassLoader(),
+                                                         new Class[]{SubscriptionBase.class},
+                                                         new InvocationHandler() {
+                                                             @Override
+                                                             public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                                                                 if ("getId".equals(method.getName())) {
+                                                                     return subscriptionId;
+                                                                 } else if ("getBundleId".equals(method.getName())) {
+                                                                     return bundleId;
+                                                                 } else if ("hashCode".equals(method.getName())) {
+                                                                     return subscriptionId.hashCode();
+                                                                 } else if ("equals".equals(method.getName())) {
+                                                                     return proxy == args[0];
+                                                                 } else if ("toString".equals(method.getName())) {
+                                                                     return "SubscriptionBase{id=" + subscriptionId + "}";
+                                                                 } else {
+                                                                     return null;
+                                                                 }
+                                                             }
+                                                         });
+    }
+}
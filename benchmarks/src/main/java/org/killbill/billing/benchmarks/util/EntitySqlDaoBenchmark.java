@@ -0,0 +1,243 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.benchmarks.util;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.killbill.billing.DBTestingHelper;
+import org.killbill.billing.benchmarks.BenchmarkFixtures;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.util.cache.CacheController;
+import org.killbill.billing.util.cache.CacheControllerDispatcher;
+import org.killbill.billing.util.cache.CacheLoaderArgument;
+import org.killbill.billing.util.cache.CacheStatistics;
+import org.killbill.billing.util.cache.Cachable.CacheType;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.dao.DefaultNonEntityDao;
+import org.killbill.billing.util.dao.NonEntityDao;
+import org.killbill.billing.util.entity.dao.EntitySqlDaoTransactionWrapper;
+import org.killbill.billing.util.entity.dao.EntitySqlDaoTransactionalJdbiWrapper;
+import org.killbill.billing.util.entity.dao.EntitySqlDaoWrapperFactory;
+import org.killbill.billing.util.tag.dao.TagDefinitionModelDao;
+import org.killbill.billing.util.tag.dao.TagDefinitionSqlDao;
+import org.killbill.clock.Clock;
+import org.killbill.clock.DefaultClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.IDBI;
+import org.skife.jdbi.v2.TransactionCallback;
+import org.skife.jdbi.v2.TransactionStatus;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Overhead of the EntitySqlDao proxy (EntitySqlDaoWrapperInvocationHandler) against an embedded H2 database: the same
+ * queries are run in a plain JDBI transaction and through EntitySqlDaoTransactionalJdbiWrapper (which adds the
+ * cache population on reads, and the history and audit rows on writes).
+ * <p/>
+ * Caches are in-memory maps, to only measure Kill Bill's own overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.killbill.billing.dbi.test.h2=true")
+public class EntitySqlDaoBenchmark {
+
+    private static final int NB_TAG_DEFINITIONS = 100;
+
+    private final AtomicLong nameSequence = new AtomicLong();
+
+    private Clock clock;
+    private IDBI dbi;
+    private EntitySqlDaoTransactionalJdbiWrapper transactionalSqlDao;
+    private InternalCallContext context;
+    private List<String> tagDefinitionIds;
+    private int nextTagDefinition;
+
+    @Setup
+    public void setUp() throws Exception {
+        DBTestingHelper.get().start();
+
+        clock = new DefaultClock();
+        dbi = DBTestingHelper.get().getDBI();
+        final NonEntityDao nonEntityDao = new DefaultNonEntityDao(dbi, dbi);
+        final CacheControllerDispatcher cacheControllerDispatcher = createCacheControllerDispatcher();
+        final InternalCallContextFactory internalCallContextFactory = new InternalCallContextFactory(null, clock, nonEntityDao, cacheControllerDispatcher);
+        transactionalSqlDao = new EntitySqlDaoTransactionalJdbiWrapper(dbi, dbi, clock, cacheControllerDispatcher, nonEntityDao, internalCallContextFactory);
+        context = BenchmarkFixtures.createInternalCallContext(clock.getUTCNow());
+
+        tagDefinitionIds = new ArrayList<String>(NB_TAG_DEFINITIONS);
+        for (int i = 0; i < NB_TAG_DEFINITIONS; i++) {
+            tagDefinitionIds.add(rawCreate().getId().toString());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        DBTestingHelper.get().getInstance().stop();
+    }
+
+    @Benchmark
+    public TagDefinitionModelDao rawGetById() {
+        final String tagDefinitionId = nextTagDefinitionId();
+        return dbi.inTransaction(new TransactionCallback<TagDefinitionModelDao>() {
+            @Override
+            public TagDefinitionModelDao inTransaction(final Handle handle, final TransactionStatus status) {
+                return handle.attach(TagDefinitionSqlDao.class).getById(tagDefinitionId, context);
+            }
+        });
+    }
+
+    @Benchmark
+    public TagDefinitionModelDao wrappedGetById() {
+        final String tagDefinitionId = nextTagDefinitionId();
+        return transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<TagDefinitionModelDao>() {
+            @Override
+            public TagDefinitionModelDao inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) {
+                return entitySqlDaoWrapperFactory.become(TagDefinitionSqlDao.class).getById(tagDefinitionId, context);
+            }
+        });
+    }
+
+    @Benchmark
+    public TagDefinitionModelDao rawCreate() {
+        final TagDefinitionModelDao tagDefinition = newTagDefinition();
+        return dbi.inTransaction(new TransactionCallback<TagDefinitionModelDao>() {
+            @Override
+            public TagDefinitionModelDao inTransaction(final Handle handle, final TransactionStatus status) {
+                handle.attach(TagDefinitionSqlDao.class).create(tagDefinition, context);
+                return tagDefinition;
+            }
+        });
+    }
+
+    @Benchmark
+    public TagDefinitionModelDao wrappedCreate() {
+        final TagDefinitionModelDao tagDefinition = newTagDefinition();
+        return transactionalSqlDao.execute(false, new EntitySqlDaoTransactionWrapper<TagDefinitionModelDao>() {
+            @Override
+            public TagDefinitionModelDao inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) {
+                entitySqlDaoWrapperFactory.become(TagDefinitionSqlDao.class).create(tagDefinition, context);
+                return tagDefinition;
+            }
+        });
+    }
+
+    private String nextTagDefinitionId() {
+        nextTagDefinition = (nextTagDefinition + 1) % NB_TAG_DEFINITIONS;
+        return tagDefinitionIds.get(nextTagDefinition);
+    }
+
+    private TagDefinitionModelDao newTagDefinition() {
+        // The name is limited to 20 characters
+        return new TagDefinitionModelDao(clock.getUTCNow(), "bench-" + nameSequence.incrementAndGet(), "Benchmark tag definition", "ACCOUNT");
+    }
+
+    private static CacheControllerDispatcher createCacheControllerDispatcher() {
+        final Map<CacheType, CacheController<Object, Object>> cacheControllers = new EnumMap<CacheType, CacheController<Object, Object>>(CacheType.class);
+        for (final CacheType cacheType : CacheType.values()) {
+            cacheControllers.put(cacheType, new InMemoryCacheController(cacheType));
+        }
+        return new CacheControllerDispatcher(cacheControllers);
+    }
+
+    // Cache without loader: only the values populated by the DAO layer are returned
+    private static final class InMemoryCacheController implements CacheController<Object, Object> {
+
+        private final ConcurrentMap<Object, Object> cache = new ConcurrentHashMap<Object, Object>();
+        private final CacheType cacheType;
+
+        private InMemoryCacheController(final CacheType cacheType) {
+            this.cacheType = cacheType;
+        }
+
+        @Override
+        public List<Object> getKeys() {
+            return ImmutableList.copyOf(cache.keySet());
+        }
+
+        @Override
+        public boolean isKeyInCache(final Object key) {
+            return cache.containsKey(key);
+        }
+
+        @Override
+        public Object get(final Object key, final CacheLoaderArgument objectType) {
+            return key == null ? null : cache.get(key);
+        }
+
+        @Override
+        public boolean remove(final Object key) {
+            return cache.remove(key) != null;
+        }
+
+        @Override
+        public void remove(final Function<Object, Boolean> keyMatcher) {
+            for (final Object key : cache.keySet()) {
+                if (keyMatcher.apply(key) == Boolean.TRUE) {
+                    cache.remove(key);
+                }
+            }
+        }
+
+        @Override
+        public void putIfAbsent(final Object key, final Object value) {
+            cache.putIfAbsent(key, value);
+        }
+
+        @Override
+        public int size() {
+            return cache.size();
+        }
+
+        @Override
+        public CacheStatistics getStatistics() {
+            return null;
+        }
+
+        @Override
+        public void removeAll() {
+            cache.clear();
+        }
+
+        @Override
+        public CacheType getCacheType() {
+            return cacheType;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.usage;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.killbill.billing.catalog.DefaultInternationalPrice;
+import org.killbill.billing.catalog.DefaultLimit;
+import org.killbill.billing.catalog.DefaultPrice;
+import org.killbill.billing.catalog.DefaultTier;
+import org.killbill.billing.catalog.DefaultTieredBlock;
+import org.killbill.billing.catalog.DefaultUnit;
+import org.killbill.billing.catalog.DefaultUsage;
+import org.killbill.billing.catalog.api.BillingMode;
+import org.killbill.billing.catalog.api.BillingPeriod;
+import org.killbill.billing.catalog.api.CatalogApiException;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.catalog.api.Limit;
+import org.killbill.billing.catalog.api.Tier;
+import org.killbill.billing.catalog.api.TierBlockPolicy;
+import org.killbill.billing.catalog.api.TieredBlock;
+import org.killbill.billing.catalog.api.UsageType;
+import org.killbill.billing.invoice.usage.details.UsageCapacityInArrearAggregate;
+import org.killbill.billing.invoice.usage.details.UsageConsumableInArrearTierUnitAggregate;
+import org.killbill.billing.invoice.usage.details.UsageInArrearTierUnitDetail;
+import org.killbill.billing.usage.api.RolledUpUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import static org.killbill.billing.invoice.usage.UsageUtils.getCapacityInArrearTier;
+import static org.killbill.billing.invoice.usage.UsageUtils.getConsumableInArrearTieredBlocks;
+
+/**
+ * Pricing of the rolled-up periods of an in arrear usage section, with the pricing kernels (built once per contiguous interval,
+ * like in ContiguousIntervalUsageInArrear) and with the previous implementation, which walked the catalog tiers for each period.
+ * <p/>
+ * In the org.killbill.billing.invoice.usage package, as the kernels are package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UsagePricingKernelBenchmark {
+
+    private static final Currency CURRENCY = Currency.USD;
+    private static final String UNIT_TYPE = "cell-phone-minutes";
+    private static final List<String> CAPACITY_UNIT_TYPES = ImmutableList.<String>of("members", "bandwidth-meg-sec", "storage-gigabytes");
+    private static final int BLOCK_SIZE = 100;
+    private static final int MAX_BLOCKS_PER_TIER = 10;
+    private static final int NB_PERIODS = 100;
+
+    // Number of tiers of the usage section
+    @Param({"1", "5", "20"})
+    public int nbTiers;
+
+    private DefaultUsage allTiersUsage;
+    private DefaultUsage topTierUsage;
+    private DefaultUsage capacityUsage;
+
+    // Rolled-up amount of each period, spread over all the tiers
+    private long[] consumableAmounts;
+    private List<List<RolledUpUnit>> capacityRolledUpUnits;
+
+    private ConsumableUsagePricingKernel allTiersKernel;
+    private ConsumableUsagePricingKernel topTierKernel;
+    private CapacityUsagePricingKernel capacityKernel;
+
+    @Setup
+    public void setUp() throws CatalogApiException {
+        allTiersUsage = createConsumableUsage(TierBlockPolicy.ALL_TIERS);
+        topTierUsage = createConsumableUsage(TierBlockPolicy.TOP_TIER);
+        capacityUsage = createCapacityUsage();
+
+        final long maxTierAmount = (long) BLOCK_SIZE * MAX_BLOCKS_PER_TIER;
+        consumableAmounts = new long[NB_PERIODS];
+        capacityRolledUpUnits = new LinkedList<List<RolledUpUnit>>();
+        for (int i = 0; i < NB_PERIODS; i++) {
+            final long amount = (i * nbTiers * maxTierAmount) / NB_PERIODS + 1;
+            consumableAmounts[i] = amount;
+
+            final ImmutableList.Builder<RolledUpUnit> rolledUpUnits = ImmutableList.<RolledUpUnit>builder();
+            for (final String unitType : CAPACITY_UNIT_TYPES) {
+                rolledUpUnits.add(new DefaultRolledUpUnit(unitType, amount));
+            }
+            capacityRolledUpUnits.add(rolledUpUnits.build());
+        }
+
+        allTiersKernel = new ConsumableUsagePricingKernel(allTiersUsage, CURRENCY);
+        topTierKernel = new ConsumableUsagePricingKernel(topTierUsage, CURRENCY);
+        capacityKernel = new CapacityUsagePricingKernel(capacityUsage, CURRENCY);
+    }
+
+    @Benchmark
+    public int consumableAllTiersKernel() throws CatalogApiException {
+        int nbDetails = 0;
+        for (final long amount : consumableAmounts) {
+            nbDetails += allTiersKernel.computeToBeBilled(UNIT_TYPE, amount, ImmutableList.<UsageConsumableInArrearTierUnitAggregate>of()).size();
+        }
+        return nbDetails;
+    }
+
+    @Benchmark
+    public int consumableAllTiersPrevious() throws CatalogApiException {
+        int nbDetails = 0;
+        for (final long amount : consumableAmounts) {
+            nbDetails += computeToBeBilledConsumableInArrearWith_ALL_TIERS(getConsumableInArrearTieredBlocks(allTiersUsage, UNIT_TYPE), ImmutableList.<UsageConsumableInArrearTierUnitAggregate>of(), amount).size();
+        }
+        return nbDetails;
+    }
+
+    @Benchmark
+    public int consumableTopTierKernel() throws CatalogApiException {
+        int nbBlocks = 0;
+        for (final long amount : consumableAmounts) {
+            nbBlocks += topTierKernel.computeToBeBilled(UNIT_TYPE, amount, ImmutableList.<UsageConsumableInArrearTierUnitAggregate>of()).get(0).getQuantity();
+        }
+        return nbBlocks;
+    }
+
+    @Benchmark
+    public int consumableTopTierPrevious() throws CatalogApiException {
+        int nbBlocks = 0;
+        for (final long amount : consumableAmounts) {
+            nbBlocks += computeToBeBilledConsumableInArrearWith_TOP_TIER(getConsumableInArrearTieredBlocks(topTierUsage, UNIT_TYPE), amount).getQuantity();
+        }
+        return nbBlocks;
+    }
+
+    @Benchmark
+    public BigDecimal capacityKernel() throws CatalogApiException {
+        BigDecimal amount = BigDecimal.ZERO;
+        for (final List<RolledUpUnit> rolledUpUnits : capacityRolledUpUnits) {
+            amount = amount.add(capacityKernel.computeToBeBilled(rolledUpUnits).getAmount());
+        }
+        return amount;
+    }
+
+    @Benchmark
+    public BigDecimal capacityPrevious() throws CatalogApiException {
+        BigDecimal amount = BigDecimal.ZERO;
+        for (final List<RolledUpUnit> rolledUpUnits : capacityRolledUpUnits) {
+            amount = amount.add(computeToBeBilledCapacityInArrear(rolledUpUnits).getAmount());
+        }
+        return amount;
+    }
+
+    private DefaultUsage createConsumableUsage(final TierBlockPolicy tierBlockPolicy) {
+        final DefaultTier[] tiers = new DefaultTier[nbTiers];
+        for (int i = 0; i < nbTiers; i++) {
+            final DefaultTieredBlock block = new DefaultTieredBlock();
+            block.setUnit(new DefaultUnit().setName(UNIT_TYPE));
+            block.setSize((double) BLOCK_SIZE);
+            // Last tier is unlimited
+            block.setMax(i == nbTiers - 1 ? (double) -1 : (double) MAX_BLOCKS_PER_TIER);
+            block.setPrice(createPrice(new BigDecimal(nbTiers - i)));
+
+            tiers[i] = new DefaultTier();
+            tiers[i].setBlocks(new DefaultTieredBlock[]{block});
+        }
+
+        final DefaultUsage usage = new DefaultUsage();
+        usage.setName("consumable-" + tierBlockPolicy);
+        usage.setBillingMode(BillingMode.IN_ARREAR);
+        usage.setUsageType(UsageType.CONSUMABLE);
+        usage.setTierBlockPolicy(tierBlockPolicy);
+        usage.setBillingPeriod(BillingPeriod.MONTHLY);
+        usage.setTiers(tiers);
+        return usage;
+    }
+
+    private DefaultUsage createCapacityUsage() {
+        final DefaultTier[] tiers = new DefaultTier[nbTiers];
+        for (int i = 0; i < nbTiers; i++) {
+            final DefaultLimit[] limits = new DefaultLimit[CAPACITY_UNIT_TYPES.size()];
+            for (int j = 0; j < limits.length; j++) {
+                limits[j] = new DefaultLimit().setUnit(new DefaultUnit().setName(CAPACITY_UNIT_TYPES.get(j)))
+                                              .setMax(i == nbTiers - 1 ? (double) -1 : (double) (i + 1) * BLOCK_SIZE * MAX_BLOCKS_PER_TIER);
+            }
+
+            tiers[i] = new DefaultTier();
+            tiers[i].setLimits(limits);
+            tiers[i].setRecurringPrice(createPrice(new BigDecimal(10 * (i + 1))));
+        }
+
+        final DefaultUsage usage = new DefaultUsage();
+        usage.setName("capacity");
+        usage.setBillingMode(BillingMode.IN_ARREAR);
+        usage.setUsageType(UsageType.CAPACITY);
+        usage.setBillingPeriod(BillingPeriod.MONTHLY);
+        usage.setTiers(tiers);
+        return usage;
+    }
+
+    private DefaultInternationalPrice createPrice(final BigDecimal value) {
+        return new DefaultInternationalPrice().setPrices(new DefaultPrice[]{new DefaultPrice(value, CURRENCY)});
+    }
+
+    //
+    // Previous implementation (ContiguousIntervalConsumableUsageInArrear and ContiguousIntervalCapacityUsageInArrear before the kernels)
+    //
+
+    private List<UsageConsumableInArrearTierUnitAggregate> computeToBeBilledConsumableInArrearWith_ALL_TIERS(final List<TieredBlock> tieredBlocks, final List<UsageConsumableInArrearTierUnitAggregate> previousUsage, final Long units) throws CatalogApiException {
+        final List<UsageConsumableInArrearTierUnitAggregate> toBeBilledDetails = new LinkedList<UsageConsumableInArrearTierUnitAggregate>();
+        int remainingUnits = units.intValue();
+        int tierNum = 0;
+
+        final int lastPreviousUsageTier = previousUsage.size();
+        final boolean hasPreviousUsage = lastPreviousUsageTier > 0;
+
+        for (final TieredBlock tieredBlock : tieredBlocks) {
+            tierNum++;
+            final int blockTierSize = tieredBlock.getSize().intValue();
+            final int tmp = remainingUnits / blockTierSize + (remainingUnits % blockTierSize == 0 ? 0 : 1);
+            int nbUsedTierBlocks;
+            if (tieredBlock.getMax() != (double) -1 && tmp > tieredBlock.getMax()) {
+                nbUsedTierBlocks = tieredBlock.getMax().intValue();
+                remainingUnits -= tieredBlock.getMax() * blockTierSize;
+            } else {
+                nbUsedTierBlocks = tmp;
+                remainingUnits = 0;
+            }
+            if (hasPreviousUsage) {
+                final Integer previousUsageQuantity = tierNum <= lastPreviousUsageTier ? previousUsage.get(tierNum - 1).getQuantity() : 0;
+                if (tierNum < lastPreviousUsageTier) {
+                    Preconditions.checkState(nbUsedTierBlocks == previousUsageQuantity, String.format("Expected usage for tier='%d', unit='%s' to be full, instead found units='[%d/%d]'",
+                                                                                                      tierNum, tieredBlock.getUnit().getName(), nbUsedTierBlocks, previousUsageQuantity));
+                } else {
+                    Preconditions.checkState(nbUsedTierBlocks - previousUsageQuantity >= 0, String.format("Expected usage for tier='%d', unit='%s' to contain at least as mush as current usage, instead found units='[%d/%d]",
+                                                                                                          tierNum, tieredBlock.getUnit().getName(), nbUsedTierBlocks, previousUsageQuantity));
+                }
+                nbUsedTierBlocks = nbUsedTierBlocks - previousUsageQuantity;
+            }
+            if (tierNum == 1 || nbUsedTierBlocks > 0) {
+                toBeBilledDetails.add(new UsageConsumableInArrearTierUnitAggregate(tierNum, tieredBlock.getUnit().getName(), tieredBlock.getPrice().getPrice(CURRENCY), blockTierSize, nbUsedTierBlocks));
+            }
+        }
+        return toBeBilledDetails;
+    }
+
+    private UsageConsumableInArrearTierUnitAggregate computeToBeBilledConsumableInArrearWith_TOP_TIER(final List<TieredBlock> tieredBlocks, final Long units) throws CatalogApiException {
+        int remainingUnits = units.intValue();
+
+        TieredBlock targetBlock = tieredBlocks.get(tieredBlocks.size() - 1);
+        int targetTierNum = tieredBlocks.size();
+        int tierNum = 0;
+        for (final TieredBlock tieredBlock : tieredBlocks) {
+            tierNum++;
+            final int blockTierSize = tieredBlock.getSize().intValue();
+            final int tmp = remainingUnits / blockTierSize + (remainingUnits % blockTierSize == 0 ? 0 : 1);
+            if (tmp > tieredBlock.getMax()) {
+                remainingUnits -= tieredBlock.getMax() * blockTierSize;
+            } else {
+                targetBlock = tieredBlock;
+                targetTierNum = tierNum;
+                break;
+            }
+        }
+        final int lastBlockTierSize = targetBlock.getSize().intValue();
+        final int nbBlocks = units.intValue() / lastBlockTierSize + (units.intValue() % lastBlockTierSize == 0 ? 0 : 1);
+
+        return new UsageConsumableInArrearTierUnitAggregate(targetTierNum, targetBlock.getUnit().getName(), targetBlock.getPrice().getPrice(CURRENCY), targetBlock.getSize().intValue(), nbBlocks);
+    }
+
+    private UsageCapacityInArrearAggregate computeToBeBilledCapacityInArrear(final List<RolledUpUnit> roUnits) throws CatalogApiException {
+        final List<Tier> tiers = getCapacityInArrearTier(capacityUsage);
+
+        final Set<String> perUnitTypeDetailTierLevel = new HashSet<String>();
+        int tierNum = 0;
+        final List<UsageInArrearTierUnitDetail> toBeBilledDetails = new LinkedList<UsageInArrearTierUnitDetail>();
+        for (final Tier cur : tiers) {
+            tierNum++;
+            final BigDecimal curTierPrice = cur.getRecurringPrice().getPrice(CURRENCY);
+
+            boolean complies = true;
+            boolean allUnitAmountToZero = true;
+            for (final RolledUpUnit ro : roUnits) {
+                final Limit tierLimit = getTierLimit(cur, ro.getUnitType());
+                if (tierLimit.getMax() != (double) -1 && ro.getAmount().doubleValue() > tierLimit.getMax()) {
+                    complies = false;
+                } else {
+                    allUnitAmountToZero = ro.getAmount() > 0 ? false : allUnitAmountToZero;
+
+                    if (!perUnitTypeDetailTierLevel.contains(ro.getUnitType())) {
+                        toBeBilledDetails.add(new UsageInArrearTierUnitDetail(tierNum, ro.getUnitType(), curTierPrice, ro.getAmount().intValue()));
+                        perUnitTypeDetailTierLevel.add(ro.getUnitType());
+                    }
+                }
+            }
+            if (complies) {
+                return new UsageCapacityInArrearAggregate(toBeBilledDetails, allUnitAmountToZero ? BigDecimal.ZERO : curTierPrice);
+            }
+        }
+        throw new IllegalStateException("Could not find tier for usage " + capacityUsage.getName());
+    }
+
+    private Limit getTierLimit(final Tier tier, final String unitType) {
+        for (final Limit cur : tier.getLimits()) {
+            if (cur.getUnit().getName().equals(unitType)) {
+                return cur;
+            }
+        }
+        throw new IllegalStateException("Could not find unit type " + unitType + " in usage tier ");
+    }
+}
@@ -25,6 +25,7 @@ import org.killbill.billing.catalog.api.CatalogApiException;
 import org.killbill.billing.catalog.api.CatalogService;
 import org.killbill.billing.catalog.api.VersionedCatalog;
 import org.killbill.billing.catalog.caching.CatalogCache;
+import org.killbill.billing.catalog.caching.OverriddenPlanCache;
 import org.killbill.billing.catalog.glue.CatalogModule;
 import org.killbill.billing.platform.api.KillbillService;
 import org.killbill.billing.platform.api.LifecycleHandlerType;
@@ -45,6 +46,7 @@ public class DefaultCatalogService implements KillbillService, CatalogService {
     private final CatalogConfig config;
     private final TenantInternalApi tenantInternalApi;
     private final CatalogCache catalogCache;
+    private final OverriddenPlanCache overriddenPlanCache;
     private final CacheInvalidationCallback cacheInvalidationCallback;
     private boolean isInitialized;
 
@@ -52,9 +54,11 @@ public class DefaultCatalogService implements KillbillService, CatalogService {
     public DefaultCatalogService(final CatalogConfig config,
                                  final TenantInternalApi tenantInternalApi,
                                  final CatalogCache catalogCache,
+                                 final OverriddenPlanCache overriddenPlanCache,
                                  @Named(CatalogModule.CATALOG_INVALIDATION_CALLBACK) final CacheInvalidationCallback cacheInvalidationCallback) {
         this.config = config;
         this.catalogCache = catalogCache;
+        this.overriddenPlanCache = overriddenPlanCache;
         this.cacheInvalidationCallback = cacheInvalidationCallback;
         this.tenantInternalApi = tenantInternalApi;
         this.isInitialized = false;
@@ -81,6 +85,11 @@ public class DefaultCatalogService implements KillbillService, CatalogService {
         tenantInternalApi.initializeCacheInvalidationCallback(TenantKey.CATALOG, cacheInvalidationCallback);
     }
 
+    @LifecycleHandlerType(LifecycleLevel.STOP_SERVICE)
+    public synchronized void stop() {
+        overriddenPlanCache.stop();
+    }
+
     @Override
     public String getName() {
         return KILLBILL_SERVICES.CATALOG_SERVICE.getServiceName();
@@ -64,6 +64,7 @@ public class DefaultCatalogCache implements CatalogCache {
     private final OSGIServiceRegistration<CatalogPluginApi> pluginRegistry;
     private final VersionedCatalogMapper versionedCatalogMapper;
     private final PriceOverride priceOverride;
+    private final OverriddenPlanCache overriddenPlanCache;
     private final InternalCallContextFactory internalCallContextFactory;
     private VersionedCatalog defaultCatalog;
 
@@ -73,12 +74,14 @@ public class DefaultCatalogCache implements CatalogCache {
                                final CacheControllerDispatcher cacheControllerDispatcher,
                                final VersionedCatalogLoader loader,
                                final PriceOverride priceOverride,
+                               final OverriddenPlanCache overriddenPlanCache,
                                final InternalCallContextFactory internalCallContextFactory) {
         this.pluginRegistry = pluginRegistry;
         this.versionedCatalogMapper = versionedCatalogMapper;
         this.cacheController = cacheControllerDispatcher.getCacheController(CacheType.TENANT_CATALOG);
         this.loader = loader;
         this.priceOverride = priceOverride;
+        this.overriddenPlanCache = overriddenPlanCache;
         this.internalCallContextFactory = internalCallContextFactory;
         this.cacheLoaderArgumentWithTemplateFiltering = initializeCacheLoaderArgument(true);
         this.cacheLoaderArgument = initializeCacheLoaderArgument(false);
@@ -215,7 +218,11 @@ public class DefaultCatalogCache implements CatalogCache {
         final LoaderCallback loaderCallback = new LoaderCallback() {
             @Override
             public VersionedCatalog loadCatalog(final List<String> catalogXMLs, final Long tenantRecordId) throws CatalogApiException {
-                return loader.load(catalogXMLs, filterTemplateCatalog, tenantRecordId);
+                final VersionedCatalog versionedCatalog = loader.load(catalogXMLs, filterTemplateCatalog, tenantRecordId);
+                if (versionedCatalog != null) {
+                    overriddenPlanCache.warmUp(versionedCatalog, internalCallContextFactory.createInternalTenantContext(tenantRecordId, null));
+                }
+                return versionedCatalog;
             }
         };
         final Object[] args = new Object[1];
@@ -19,6 +19,9 @@ package org.killbill.billing.catalog.caching;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 
 import javax.inject.Inject;
@@ -44,9 +47,11 @@ import org.killbill.billing.catalog.api.TieredBlock;
 import org.killbill.billing.catalog.api.TieredBlockPriceOverride;
 import org.killbill.billing.catalog.api.Usage;
 import org.killbill.billing.catalog.api.UsagePriceOverride;
+import org.killbill.billing.catalog.api.VersionedCatalog;
 import org.killbill.billing.catalog.dao.CatalogOverrideBlockDefinitionModelDao;
 import org.killbill.billing.catalog.dao.CatalogOverrideDao;
 import org.killbill.billing.catalog.dao.CatalogOverridePhaseDefinitionModelDao;
+import org.killbill.billing.catalog.dao.CatalogOverridePlanDefinitionModelDao;
 import org.killbill.billing.catalog.dao.CatalogOverrideTierDefinitionModelDao;
 import org.killbill.billing.catalog.dao.CatalogOverrideUsageDefinitionModelDao;
 import org.killbill.billing.catalog.override.DefaultPriceOverride;
@@ -55,19 +60,31 @@ import org.killbill.billing.util.cache.CacheController;
 import org.killbill.billing.util.cache.CacheControllerDispatcher;
 import org.killbill.billing.util.cache.CacheLoaderArgument;
 import org.killbill.billing.util.cache.OverriddenPlanCacheLoader.LoaderCallback;
+import org.killbill.billing.util.config.definition.CatalogConfig;
+import org.killbill.commons.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
 
 public class DefaultOverriddenPlanCache implements OverriddenPlanCache {
 
+    private static final Logger logger = LoggerFactory.getLogger(DefaultOverriddenPlanCache.class);
+
+    private static final int TERMINATION_TIMEOUT_SEC = 5;
+
     private final CacheController<String, Plan> cacheController;
     private final LoaderCallback loaderCallback;
     private final CatalogOverrideDao overrideDao;
+    private final int warmUpMaxPlans;
+    private final ScheduledExecutorService warmUpExecutor;
 
     @Inject
-    public DefaultOverriddenPlanCache(final CatalogOverrideDao overrideDao, final CacheControllerDispatcher cacheControllerDispatcher) {
+    public DefaultOverriddenPlanCache(final CatalogOverrideDao overrideDao, final CacheControllerDispatcher cacheControllerDispatcher, final CatalogConfig config) {
         this.overrideDao = overrideDao;
+        this.warmUpMaxPlans = config.getOverriddenPlansWarmUpMaxPlans();
+        this.warmUpExecutor = Executors.newSingleThreadScheduledExecutor("OverriddenPlansWarmUp");
         this.cacheController = cacheControllerDispatcher.getCacheController(CacheType.OVERRIDDEN_PLAN);
         this.loaderCallback = new LoaderCallback() {
             @Override
@@ -95,6 +112,73 @@ public class DefaultOverriddenPlanCache implements OverriddenPlanCache {
         cacheController.putIfAbsent(planName, plan);
     }
 
+    @Override
+    public void warmUp(final VersionedCatalog catalog, final InternalTenantContext context) {
+        if (warmUpMaxPlans <= 0 || catalog.getVersions().isEmpty()) {
+            return;
+        }
+
+        // Don't delay the catalog loading: plans not warmed up yet are simply loaded on first use
+        try {
+            warmUpExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    warmUpFromExecutor(catalog, context);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            logger.warn("Unable to schedule the overridden plans warm up for tenantRecordId={}", context.getTenantRecordId(), e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        warmUpExecutor.shutdownNow();
+        try {
+            if (!warmUpExecutor.awaitTermination(TERMINATION_TIMEOUT_SEC, TimeUnit.SECONDS)) {
+                logger.warn("OverriddenPlansWarmUp failed to complete termination within {}sec", TERMINATION_TIMEOUT_SEC);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("OverriddenPlansWarmUp stop sequence got interrupted");
+        }
+    }
+
+    private void warmUpFromExecutor(final VersionedCatalog catalog, final InternalTenantContext context) {
+        final List<CatalogOverridePlanDefinitionModelDao> planDefs;
+        try {
+            planDefs = overrideDao.getRecentOverriddenPlanDefinitions(warmUpMaxPlans, context);
+        } catch (final RuntimeException e) {
+            logger.warn("Unable to warm up overridden plans for tenantRecordId={}", context.getTenantRecordId(), e);
+            return;
+        }
+
+        for (final CatalogOverridePlanDefinitionModelDao planDef : planDefs) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+
+            final String planName = new StringBuffer(planDef.getParentPlanName()).append("-").append(planDef.getRecordId()).toString();
+            try {
+                getOverriddenPlan(planName, getCatalogVersion(catalog, planDef), context);
+            } catch (final RuntimeException e) {
+                // Best effort only: the plan will be loaded on first use
+                logger.warn("Unable to warm up overridden plan {} for tenantRecordId={}", planName, context.getTenantRecordId(), e);
+            }
+        }
+    }
+
+    // Catalog version the plan definition was created against
+    private StandaloneCatalog getCatalogVersion(final VersionedCatalog catalog, final CatalogOverridePlanDefinitionModelDao planDef) {
+        final List<StaticCatalog> versions = catalog.getVersions();
+        for (int i = versions.size() - 1; i > 0; i--) {
+            if (!versions.get(i).getEffectiveDate().after(planDef.getEffectiveDate().toDate())) {
+                return (StandaloneCatalog) versions.get(i);
+            }
+        }
+        return (StandaloneCatalog) versions.get(0);
+    }
+
     private DefaultPlan loadOverriddenPlan(final String planName, final StandaloneCatalog catalog, final InternalTenantContext context) throws CatalogApiException {
         final Matcher m = DefaultPriceOverride.CUSTOM_PLAN_NAME_PATTERN.matcher(planName);
         if (!m.matches()) {
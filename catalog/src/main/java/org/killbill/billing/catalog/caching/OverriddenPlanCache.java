@@ -22,10 +22,16 @@ import org.killbill.billing.catalog.DefaultPlan;
 import org.killbill.billing.catalog.StandaloneCatalog;
 import org.killbill.billing.catalog.api.CatalogApiException;
 import org.killbill.billing.catalog.api.Plan;
+import org.killbill.billing.catalog.api.VersionedCatalog;
 
 public interface OverriddenPlanCache {
 
     DefaultPlan getOverriddenPlan(final String planName, final StandaloneCatalog catalog, final InternalTenantContext context) throws CatalogApiException;
 
     void addDryRunPlan(final String planName, final Plan plan);
+
+    // Load (asynchronously) the most recent overridden plans of the tenant, when its catalog is loaded
+    void warmUp(final VersionedCatalog catalog, final InternalTenantContext context);
+
+    void stop();
 }
@@ -29,6 +29,8 @@ public interface CatalogOverrideDao {
 
     public CatalogOverridePlanDefinitionModelDao getOrCreateOverridePlanDefinition(Plan parentPlan, DateTime catalogEffectiveDate, PlanPhasePriceOverride[] resolvedOverride, InternalCallContext context);
 
+    public List<CatalogOverridePlanDefinitionModelDao> getRecentOverriddenPlanDefinitions(final int maxPlanDefinitions, final InternalTenantContext context);
+
     public List<CatalogOverridePhaseDefinitionModelDao> getOverriddenPlanPhases(final Long planDefRecordId, final InternalTenantContext context);
 
     public List<CatalogOverrideUsageDefinitionModelDao> getOverriddenPhaseUsages(final Long phaseDefRecordId, final InternalTenantContext context);
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.catalog.dao;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.killbill.billing.catalog.api.Plan;
+import org.killbill.billing.catalog.api.PlanPhasePriceOverride;
+import org.killbill.billing.catalog.api.TierPriceOverride;
+import org.killbill.billing.catalog.api.TieredBlockPriceOverride;
+import org.killbill.billing.catalog.api.UsagePriceOverride;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+
+/**
+ * Canonical content hash of a resolved set of price overrides (i.e. overrides aligned with the phases, usages, tiers
+ * and blocks of the parent plan).
+ * <p/>
+ * Two override sets resolving to the same overridden plan definition have the same hash: only the attributes used to
+ * look up the existing definitions are taken into account, and the prices are normalized (10 and 10.00 are the same price).
+ */
+public final class CatalogOverrideHash {
+
+    private static final String NULL_VALUE = "-";
+
+    private CatalogOverrideHash() {}
+
+    public static String computeOverrideHash(final Plan parentPlan, final PlanPhasePriceOverride[] resolvedOverride) {
+        final StringBuilder canonical = new StringBuilder();
+        appendValue(canonical, parentPlan.getName());
+        for (final PlanPhasePriceOverride phaseOverride : resolvedOverride) {
+            canonical.append("[p");
+            if (phaseOverride != null) {
+                appendValue(canonical, phaseOverride.getPhaseName());
+                appendValue(canonical, phaseOverride.getCurrency().name());
+                appendValue(canonical, phaseOverride.getFixedPrice());
+                appendValue(canonical, phaseOverride.getRecurringPrice());
+                appendUsageOverrides(canonical, phaseOverride.getUsagePriceOverrides());
+            }
+            canonical.append(']');
+        }
+        return Hashing.sha256().hashString(canonical.toString(), Charsets.UTF_8).toString();
+    }
+
+    private static void appendUsageOverrides(final StringBuilder canonical, final List<UsagePriceOverride> usageOverrides) {
+        if (usageOverrides == null) {
+            return;
+        }
+
+        for (final UsagePriceOverride usageOverride : usageOverrides) {
+            canonical.append("[u");
+            if (usageOverride != null) {
+                appendValue(canonical, usageOverride.getName());
+                for (final TierPriceOverride tierOverride : usageOverride.getTierPriceOverrides()) {
+                    canonical.append("[t");
+                    if (tierOverride != null) {
+                        appendBlockOverrides(canonical, tierOverride.getTieredBlockPriceOverrides());
+                    }
+                    canonical.append(']');
+                }
+            }
+            canonical.append(']');
+        }
+    }
+
+    private static void appendBlockOverrides(final StringBuilder canonical, final List<TieredBlockPriceOverride> blockOverrides) {
+        for (final TieredBlockPriceOverride blockOverride : blockOverrides) {
+            canonical.append("[b");
+            if (blockOverride != null) {
+                appendValue(canonical, blockOverride.getUnitName());
+                appendValue(canonical, blockOverride.getSize() == null ? null : blockOverride.getSize().toString());
+                appendValue(canonical, blockOverride.getMax() == null ? null : blockOverride.getMax().toString());
+                appendValue(canonical, blockOverride.getPrice());
+            }
+            canonical.append(']');
+        }
+    }
+
+    private static void appendValue(final StringBuilder canonical, final BigDecimal value) {
+        if (value == null) {
+            appendValue(canonical, (String) null);
+        } else if (value.signum() == 0) {
+            // stripTrailingZeros doesn't normalize zero on older JDKs
+            appendValue(canonical, "0");
+        } else {
+            appendValue(canonical, value.stripTrailingZeros().toPlainString());
+        }
+    }
+
+    // Length-prefixed, so that no value can be confused with a separator
+    private static void appendValue(final StringBuilder canonical, final String value) {
+        if (value == null) {
+            canonical.append(NULL_VALUE);
+        } else {
+            canonical.append(value.length()).append(':').append(value);
+        }
+        canonical.append(';');
+    }
+}
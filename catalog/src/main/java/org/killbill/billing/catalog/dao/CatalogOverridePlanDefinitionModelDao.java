@@ -24,6 +24,7 @@ public class CatalogOverridePlanDefinitionModelDao {
     private Long recordId;
     private String parentPlanName;
     private Boolean isActive;
+    private String overrideHash;
     private DateTime effectiveDate;
     private DateTime createdDate;
     private String createdBy;
@@ -33,9 +34,14 @@ public class CatalogOverridePlanDefinitionModelDao {
     }
 
     public CatalogOverridePlanDefinitionModelDao(final String parentPlanName, final Boolean isActive, final DateTime effectiveDate) {
+        this(parentPlanName, isActive, null, effectiveDate);
+    }
+
+    public CatalogOverridePlanDefinitionModelDao(final String parentPlanName, final Boolean isActive, final String overrideHash, final DateTime effectiveDate) {
         this.recordId = 0L;
         this.parentPlanName = parentPlanName;
         this.isActive = isActive;
+        this.overrideHash = overrideHash;
         this.effectiveDate = effectiveDate;
     }
 
@@ -63,6 +69,14 @@ public class CatalogOverridePlanDefinitionModelDao {
         this.isActive = isActive;
     }
 
+    public String getOverrideHash() {
+        return overrideHash;
+    }
+
+    public void setOverrideHash(final String overrideHash) {
+        this.overrideHash = overrideHash;
+    }
+
     public DateTime getEffectiveDate() {
         return effectiveDate;
     }
@@ -101,6 +115,7 @@ public class CatalogOverridePlanDefinitionModelDao {
                "recordId=" + recordId +
                ", parentPlanName='" + parentPlanName + '\'' +
                ", isActive=" + isActive +
+               ", overrideHash='" + overrideHash + '\'' +
                ", effectiveDate=" + effectiveDate +
                ", createdDate=" + createdDate +
                ", createdBy='" + createdBy + '\'' +
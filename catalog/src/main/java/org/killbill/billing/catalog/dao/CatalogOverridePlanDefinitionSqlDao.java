@@ -17,6 +17,8 @@
 
 package org.killbill.billing.catalog.dao;
 
+import java.util.List;
+
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.commons.jdbi.binder.SmartBindBean;
@@ -40,4 +42,17 @@ public interface CatalogOverridePlanDefinitionSqlDao extends Transactional<Catal
     @SqlQuery
     public CatalogOverridePlanDefinitionModelDao getByRecordId(@Bind("recordId") final Long recordId,
                                                                @SmartBindBean final InternalTenantContext context);
+
+    @SqlQuery
+    public CatalogOverridePlanDefinitionModelDao getByOverrideHash(@Bind("overrideHash") final String overrideHash,
+                                                                   @SmartBindBean final InternalTenantContext context);
+
+    @SqlUpdate
+    public void updateOverrideHash(@Bind("recordId") final Long recordId,
+                                   @Bind("overrideHash") final String overrideHash,
+                                   @SmartBindBean final InternalCallContext context);
+
+    @SqlQuery
+    public List<CatalogOverridePlanDefinitionModelDao> getRecentOverriddenPlanDefinitions(@Bind("rowCount") final int rowCount,
+                                                                                          @SmartBindBean final InternalTenantContext context);
 }
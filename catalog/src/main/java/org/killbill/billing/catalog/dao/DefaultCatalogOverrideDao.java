@@ -65,10 +65,18 @@ public class DefaultCatalogOverrideDao implements CatalogOverrideDao {
 
     @Override
     public CatalogOverridePlanDefinitionModelDao getOrCreateOverridePlanDefinition(final Plan parentPlan, final DateTime catalogEffectiveDate, final PlanPhasePriceOverride[] resolvedOverride, final InternalCallContext context) {
+        final String overrideHash = CatalogOverrideHash.computeOverrideHash(parentPlan, resolvedOverride);
 
         return dbi.inTransaction(new TransactionCallback<CatalogOverridePlanDefinitionModelDao>() {
             @Override
             public CatalogOverridePlanDefinitionModelDao inTransaction(final Handle handle, final TransactionStatus status) throws Exception {
+                final CatalogOverridePlanDefinitionSqlDao sqlDao = handle.attach(CatalogOverridePlanDefinitionSqlDao.class);
+
+                // PERF: identical overrides are resolved with a single (indexed) lookup, instead of finding each phase, usage, tier and block definition
+                final CatalogOverridePlanDefinitionModelDao existingPlanDef = sqlDao.getByOverrideHash(overrideHash, context);
+                if (existingPlanDef != null) {
+                    return existingPlanDef;
+                }
 
                 final CatalogOverridePhaseDefinitionModelDao[] overridePhaseDefinitionModelDaos = new CatalogOverridePhaseDefinitionModelDao[resolvedOverride.length];
                 for (int i = 0; i < resolvedOverride.length; i++) {
@@ -80,13 +88,14 @@ public class DefaultCatalogOverrideDao implements CatalogOverrideDao {
                     }
                 }
 
-                final CatalogOverridePlanDefinitionSqlDao sqlDao = handle.attach(CatalogOverridePlanDefinitionSqlDao.class);
                 final Long targetPlanDefinitionRecordId = getOverridePlanDefinitionFromTransaction(overridePhaseDefinitionModelDaos, handle, context);
                 if (targetPlanDefinitionRecordId != null) {
+                    // Plan definition created before the hash was introduced
+                    sqlDao.updateOverrideHash(targetPlanDefinitionRecordId, overrideHash, context);
                     return sqlDao.getByRecordId(targetPlanDefinitionRecordId, context);
                 }
 
-                final CatalogOverridePlanDefinitionModelDao inputPlanDef = new CatalogOverridePlanDefinitionModelDao(parentPlan.getName(), true, catalogEffectiveDate);
+                final CatalogOverridePlanDefinitionModelDao inputPlanDef = new CatalogOverridePlanDefinitionModelDao(parentPlan.getName(), true, overrideHash, catalogEffectiveDate);
                 final Long recordId = sqlDao.create(inputPlanDef, context);
                 final CatalogOverridePlanDefinitionModelDao resultPlanDef = sqlDao.getByRecordId(recordId, context);
 
@@ -320,6 +329,17 @@ public class DefaultCatalogOverrideDao implements CatalogOverrideDao {
         return result;
     }
 
+    @Override
+    public List<CatalogOverridePlanDefinitionModelDao> getRecentOverriddenPlanDefinitions(final int maxPlanDefinitions, final InternalTenantContext context) {
+        return dbi.inTransaction(new TransactionCallback<List<CatalogOverridePlanDefinitionModelDao>>() {
+            @Override
+            public List<CatalogOverridePlanDefinitionModelDao> inTransaction(final Handle handle, final TransactionStatus status) throws Exception {
+                final CatalogOverridePlanDefinitionSqlDao sqlDao = handle.attach(CatalogOverridePlanDefinitionSqlDao.class);
+                return sqlDao.getRecentOverriddenPlanDefinitions(maxPlanDefinitions, context);
+            }
+        });
+    }
+
     @Override
     public List<CatalogOverridePhaseDefinitionModelDao> getOverriddenPlanPhases(final Long planDefRecordId, final InternalTenantContext context) {
         return dbi.inTransaction(new TransactionCallback<List<CatalogOverridePhaseDefinitionModelDao>>() {
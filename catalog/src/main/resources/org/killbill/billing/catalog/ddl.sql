@@ -6,12 +6,14 @@ CREATE TABLE catalog_override_plan_definition (
     parent_plan_name varchar(255) NOT NULL,
     effective_date datetime NOT NULL,
     is_active boolean default true,
+    override_hash varchar(64) default null,
     created_date datetime NOT NULL,
     created_by varchar(50) NOT NULL,
     tenant_record_id bigint /*! unsigned */ not null default 0,
     PRIMARY KEY(record_id)
 ) /*! CHARACTER SET utf8 COLLATE utf8_bin */;
 CREATE INDEX catalog_override_plan_definition_tenant_record_id ON catalog_override_plan_definition(tenant_record_id);
+CREATE INDEX catalog_override_plan_definition_override_hash ON catalog_override_plan_definition(tenant_record_id, override_hash);
 
 
 DROP TABLE IF EXISTS catalog_override_phase_definition;
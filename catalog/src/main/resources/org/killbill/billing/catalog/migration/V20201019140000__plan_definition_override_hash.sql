@@ -0,0 +1,2 @@
+alter table catalog_override_plan_definition add column override_hash varchar(64) default null after is_active;
+create index catalog_override_plan_definition_override_hash on catalog_override_plan_definition(tenant_record_id, override_hash);
@@ -19,6 +19,7 @@ package org.killbill.billing.catalog;
 import org.killbill.billing.GuicyKillbillTestSuiteNoDB;
 import org.killbill.billing.catalog.caching.CatalogCache;
 import org.killbill.billing.catalog.caching.CatalogCacheInvalidationCallback;
+import org.killbill.billing.catalog.caching.OverriddenPlanCache;
 import org.killbill.billing.catalog.glue.TestCatalogModuleNoDB;
 import org.killbill.billing.catalog.io.VersionedCatalogLoader;
 import org.killbill.billing.catalog.override.PriceOverride;
@@ -44,6 +45,9 @@ public abstract class CatalogTestSuiteNoDB extends GuicyKillbillTestSuiteNoDB {
     @Inject
     protected CatalogCache catalogCache;
 
+    @Inject
+    protected OverriddenPlanCache overriddenPlanCache;
+
     @Inject
     protected CatalogCacheInvalidationCallback cacheInvalidationCallback;
 
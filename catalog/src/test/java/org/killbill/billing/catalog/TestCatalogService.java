@@ -34,7 +34,7 @@ public class TestCatalogService extends CatalogTestSuiteNoDB {
                 return "versionedCatalog";
             }
 
-        }, tenantInternalApi, catalogCache, cacheInvalidationCallback);
+        }, tenantInternalApi, catalogCache, overriddenPlanCache, cacheInvalidationCallback);
         service.loadCatalog();
         Assert.assertNotNull(service.getFullCatalog(true, true, internalCallContext));
         Assert.assertEquals(service.getFullCatalog(true, true, internalCallContext).getCatalogName(), "WeaponsHireSmall");
@@ -48,7 +48,7 @@ public class TestCatalogService extends CatalogTestSuiteNoDB {
                 return "WeaponsHire.xml";
             }
 
-        },  tenantInternalApi, catalogCache, cacheInvalidationCallback);
+        },  tenantInternalApi, catalogCache, overriddenPlanCache, cacheInvalidationCallback);
         service.loadCatalog();
         Assert.assertNotNull(service.getFullCatalog(true, true, internalCallContext));
         Assert.assertEquals(service.getFullCatalog(true, true, internalCallContext).getCatalogName(), "Firearms");
@@ -79,6 +79,30 @@ public class TestCatalogOverrideDao extends CatalogTestSuiteWithEmbeddedDB {
         assertEquals(phases.size(), 2);
     }
 
+    @Test(groups = "slow")
+    public void testOverrideWithSameContent() throws Exception {
+
+        final StandaloneCatalog catalog = XMLLoader.getObjectFromString(Resources.getResource("SpyCarAdvanced.xml").toExternalForm(), StandaloneCatalog.class);
+        final Plan plan = catalog.findPlan("discount-standard-monthly");
+
+        final PlanPhasePriceOverride[] resolvedOverrides = new PlanPhasePriceOverride[plan.getAllPhases().length];
+        resolvedOverrides[0] = new DefaultPlanPhasePriceOverride(plan.getAllPhases()[0].getName(), Currency.USD, BigDecimal.TEN, null, null);
+        resolvedOverrides[2] = new DefaultPlanPhasePriceOverride(plan.getFinalPhase().getName(), Currency.USD, null, new BigDecimal("348.64"), null);
+        final CatalogOverridePlanDefinitionModelDao newPlan = catalogOverrideDao.getOrCreateOverridePlanDefinition(plan, new DateTime(catalog.getEffectiveDate()), resolvedOverrides, internalCallContext);
+        assertEquals(newPlan.getOverrideHash(), CatalogOverrideHash.computeOverrideHash(plan, resolvedOverrides));
+
+        // Same prices, different scale
+        final PlanPhasePriceOverride[] sameOverrides = new PlanPhasePriceOverride[plan.getAllPhases().length];
+        sameOverrides[0] = new DefaultPlanPhasePriceOverride(plan.getAllPhases()[0].getName(), Currency.USD, new BigDecimal("10.00"), null, null);
+        sameOverrides[2] = new DefaultPlanPhasePriceOverride(plan.getFinalPhase().getName(), Currency.USD, null, new BigDecimal("348.640"), null);
+        final CatalogOverridePlanDefinitionModelDao samePlan = catalogOverrideDao.getOrCreateOverridePlanDefinition(plan, new DateTime(catalog.getEffectiveDate()), sameOverrides, internalCallContext);
+        assertEquals(samePlan.getRecordId(), newPlan.getRecordId());
+
+        final List<CatalogOverridePlanDefinitionModelDao> recentPlans = catalogOverrideDao.getRecentOverriddenPlanDefinitions(1, internalCallContext);
+        assertEquals(recentPlans.size(), 1);
+        assertEquals(recentPlans.get(0).getRecordId(), newPlan.getRecordId());
+    }
+
     @Test(groups = "slow")
     public void testGetOverriddenPlanPhases() throws Exception {
 
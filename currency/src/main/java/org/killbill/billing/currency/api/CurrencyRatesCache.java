@@ -0,0 +1,211 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.currency.api;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.util.config.definition.CurrencyConfig;
+import org.killbill.clock.Clock;
+import org.killbill.commons.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Objects;
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Rates retrieved from the currency provider, per base currency and conversion date.
+ * <p/>
+ * Current rates (no conversion date, or a conversion date today or later) are used for the configured ttl. Once expired,
+ * they are still used (for at most maxStale) while being refreshed in the background, so that a slow provider stays off
+ * the request path. Historical rates (a conversion date before today) don't change: they are kept, keyed by their exact
+ * conversion date, until evicted by size and are never refreshed.
+ * <p/>
+ * Lookups don't lock: the cache entries are immutable conversions.
+ */
+public class CurrencyRatesCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CurrencyRatesCache.class);
+
+    private static final int TERMINATION_TIMEOUT_SEC = 5;
+
+    public interface RatesLoader {
+
+        public Set<Rate> getRates(Currency baseCurrency, @Nullable DateTime conversionDate) throws CurrencyConversionException;
+    }
+
+    private final RatesLoader ratesLoader;
+    private final Clock clock;
+    private final boolean isEnabled;
+    private final ScheduledExecutorService refreshExecutor;
+    private final LoadingCache<RatesKey, CurrencyConversion> currentConversions;
+    private final LoadingCache<RatesKey, CurrencyConversion> historicalConversions;
+
+    @Inject
+    public CurrencyRatesCache(final CurrencyConfig config, final RatesLoader ratesLoader, final Clock clock) {
+        this(config, ratesLoader, clock, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    CurrencyRatesCache(final CurrencyConfig config, final RatesLoader ratesLoader, final Clock clock, final Ticker ticker) {
+        final long ttlMillis = config.getRatesCacheTtl().getMillis();
+        this.ratesLoader = ratesLoader;
+        this.clock = clock;
+        this.isEnabled = ttlMillis > 0;
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor("CurrencyRatesRefresher");
+        this.currentConversions = CacheBuilder.newBuilder()
+                                              .ticker(ticker)
+                                              .maximumSize(config.getRatesCacheMaxEntries())
+                                              .refreshAfterWrite(Math.max(1, ttlMillis), TimeUnit.MILLISECONDS)
+                                              .expireAfterWrite(Math.max(1, ttlMillis) + config.getRatesCacheMaxStale().getMillis(), TimeUnit.MILLISECONDS)
+                                              .build(new CacheLoader<RatesKey, CurrencyConversion>() {
+                                                  @Override
+                                                  public CurrencyConversion load(final RatesKey key) throws CurrencyConversionException {
+                                                      return loadConversion(key);
+                                                  }
+
+                                                  @Override
+                                                  public ListenableFuture<CurrencyConversion> reload(final RatesKey key, final CurrencyConversion oldValue) {
+                                                      // Stale-while-revalidate: the current rates keep being used until the refresh completes
+                                                      final ListenableFutureTask<CurrencyConversion> task = ListenableFutureTask.<CurrencyConversion>create(new Callable<CurrencyConversion>() {
+                                                          @Override
+                                                          public CurrencyConversion call() throws CurrencyConversionException {
+                                                              return loadConversion(key);
+                                                          }
+                                                      });
+                                                      refreshExecutor.execute(task);
+                                                      return task;
+                                                  }
+                                              });
+        this.historicalConversions = CacheBuilder.newBuilder()
+                                                 .ticker(ticker)
+                                                 .maximumSize(config.getRatesCacheMaxEntries())
+                                                 .build(new CacheLoader<RatesKey, CurrencyConversion>() {
+                                                     @Override
+                                                     public CurrencyConversion load(final RatesKey key) throws CurrencyConversionException {
+                                                         return loadConversion(key);
+                                                     }
+                                                 });
+    }
+
+    public CurrencyConversion getCurrencyConversion(final Currency baseCurrency, @Nullable final DateTime conversionDate) throws CurrencyConversionException {
+        final RatesKey key = new RatesKey(baseCurrency, conversionDate);
+        if (!isEnabled) {
+            return loadConversion(key);
+        }
+
+        try {
+            return isHistorical(conversionDate) ? historicalConversions.get(key) : currentConversions.get(key);
+        } catch (final ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (final UncheckedExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    // Explicit refresh (e.g. the provider has new rates): in the background, the current rates are used in the meantime
+    public void refreshAll() {
+        for (final RatesKey key : currentConversions.asMap().keySet()) {
+            currentConversions.refresh(key);
+        }
+    }
+
+    public void invalidateAll() {
+        currentConversions.invalidateAll();
+        historicalConversions.invalidateAll();
+    }
+
+    public void stop() {
+        refreshExecutor.shutdown();
+        try {
+            if (!refreshExecutor.awaitTermination(TERMINATION_TIMEOUT_SEC, TimeUnit.SECONDS)) {
+                log.warn("CurrencyRatesRefresher failed to complete termination within {}sec", TERMINATION_TIMEOUT_SEC);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("CurrencyRatesRefresher stop sequence got interrupted");
+        }
+    }
+
+    private boolean isHistorical(@Nullable final DateTime conversionDate) {
+        return conversionDate != null && conversionDate.toDateTime(DateTimeZone.UTC).toLocalDate().isBefore(clock.getUTCToday());
+    }
+
+    private CurrencyConversion loadConversion(final RatesKey key) throws CurrencyConversionException {
+        return new DefaultCurrencyConversion(key.baseCurrency, ratesLoader.getRates(key.baseCurrency, key.conversionDate));
+    }
+
+    private static CurrencyConversionException unwrap(final Throwable cause) {
+        if (cause instanceof CurrencyConversionException) {
+            return (CurrencyConversionException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else {
+            throw new RuntimeException(cause);
+        }
+    }
+
+    // The conversion date is compared as an instant, regardless of its time zone
+    private static final class RatesKey {
+
+        private final Currency baseCurrency;
+        private final DateTime conversionDate;
+
+        private RatesKey(final Currency baseCurrency, @Nullable final DateTime conversionDate) {
+            this.baseCurrency = baseCurrency;
+            this.conversionDate = conversionDate;
+        }
+
+        private Long getConversionDateMillis() {
+            return conversionDate == null ? null : conversionDate.getMillis();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final RatesKey that = (RatesKey) o;
+            return baseCurrency == that.baseCurrency && Objects.equal(getConversionDateMillis(), that.getConversionDateMillis());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(baseCurrency, getConversionDateMillis());
+        }
+    }
+}
@@ -22,52 +22,33 @@ import javax.inject.Inject;
 
 import org.joda.time.DateTime;
 
-import org.killbill.billing.ErrorCode;
 import org.killbill.billing.catalog.api.Currency;
 import org.killbill.billing.currency.plugin.api.CurrencyPluginApi;
-import org.killbill.billing.osgi.api.OSGIServiceRegistration;
-import org.killbill.billing.util.config.definition.CurrencyConfig;
 
 public class DefaultCurrencyConversionApi implements CurrencyConversionApi {
 
-    private final CurrencyConfig config;
-    private final OSGIServiceRegistration<CurrencyPluginApi> registry;
+    private final PluginRatesLoader pluginRatesLoader;
+    private final CurrencyRatesCache ratesCache;
 
     @Inject
-    public DefaultCurrencyConversionApi(final CurrencyConfig config, final OSGIServiceRegistration<CurrencyPluginApi> registry) {
-        this.config = config;
-        this.registry = registry;
-
-    }
-
-    private CurrencyPluginApi getPluginApi() throws CurrencyConversionException {
-        final CurrencyPluginApi result = registry.getServiceForName(config.getDefaultCurrencyProvider());
-        if (result == null) {
-            throw new CurrencyConversionException(ErrorCode.CURRENCY_NO_SUCH_PAYMENT_PLUGIN, config.getDefaultCurrencyProvider());
-        }
-        return result;
+    public DefaultCurrencyConversionApi(final PluginRatesLoader pluginRatesLoader, final CurrencyRatesCache ratesCache) {
+        this.pluginRatesLoader = pluginRatesLoader;
+        this.ratesCache = ratesCache;
     }
 
     @Override
     public Set<Currency> getBaseRates() throws CurrencyConversionException {
-        final CurrencyPluginApi pluginApi = getPluginApi();
+        final CurrencyPluginApi pluginApi = pluginRatesLoader.getPluginApi();
         return pluginApi.getBaseCurrencies();
     }
 
     @Override
     public CurrencyConversion getCurrentCurrencyConversion(final Currency baseCurrency) throws CurrencyConversionException {
-        final Set<Rate> allRates = getPluginApi().getCurrentRates(baseCurrency);
-        return getCurrencyConversionInternal(baseCurrency, allRates);
+        return ratesCache.getCurrencyConversion(baseCurrency, null);
     }
 
     @Override
     public CurrencyConversion getCurrencyConversion(final Currency baseCurrency, final DateTime dateConversion) throws CurrencyConversionException {
-        final Set<Rate> allRates = getPluginApi().getRates(baseCurrency, dateConversion);
-        return getCurrencyConversionInternal(baseCurrency, allRates);
-    }
-
-    private CurrencyConversion getCurrencyConversionInternal(final Currency baseCurrency, final Set<Rate> allRates) {
-        final CurrencyConversion result = new DefaultCurrencyConversion(baseCurrency, allRates);
-        return result;
+        return ratesCache.getCurrencyConversion(baseCurrency, dateConversion);
     }
 }
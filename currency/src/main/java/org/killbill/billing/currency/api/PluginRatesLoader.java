@@ -0,0 +1,57 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.currency.api;
+
+import java.util.Set;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.ErrorCode;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.currency.api.CurrencyRatesCache.RatesLoader;
+import org.killbill.billing.currency.plugin.api.CurrencyPluginApi;
+import org.killbill.billing.osgi.api.OSGIServiceRegistration;
+import org.killbill.billing.util.config.definition.CurrencyConfig;
+
+// Retrieves the rates from the default currency plugin
+public class PluginRatesLoader implements RatesLoader {
+
+    private final CurrencyConfig config;
+    private final OSGIServiceRegistration<CurrencyPluginApi> registry;
+
+    @Inject
+    public PluginRatesLoader(final CurrencyConfig config, final OSGIServiceRegistration<CurrencyPluginApi> registry) {
+        this.config = config;
+        this.registry = registry;
+    }
+
+    @Override
+    public Set<Rate> getRates(final Currency baseCurrency, @Nullable final DateTime conversionDate) throws CurrencyConversionException {
+        final CurrencyPluginApi pluginApi = getPluginApi();
+        return conversionDate == null ? pluginApi.getCurrentRates(baseCurrency) : pluginApi.getRates(baseCurrency, conversionDate);
+    }
+
+    public CurrencyPluginApi getPluginApi() throws CurrencyConversionException {
+        final CurrencyPluginApi result = registry.getServiceForName(config.getDefaultCurrencyProvider());
+        if (result == null) {
+            throw new CurrencyConversionException(ErrorCode.CURRENCY_NO_SUCH_PAYMENT_PLUGIN, config.getDefaultCurrencyProvider());
+        }
+        return result;
+    }
+}
@@ -20,8 +20,11 @@ package org.killbill.billing.currency.glue;
 
 import org.killbill.billing.currency.DefaultCurrencyService;
 import org.killbill.billing.currency.api.CurrencyConversionApi;
+import org.killbill.billing.currency.api.CurrencyRatesCache;
+import org.killbill.billing.currency.api.CurrencyRatesCache.RatesLoader;
 import org.killbill.billing.currency.api.CurrencyService;
 import org.killbill.billing.currency.api.DefaultCurrencyConversionApi;
+import org.killbill.billing.currency.api.PluginRatesLoader;
 import org.killbill.billing.currency.plugin.api.CurrencyPluginApi;
 import org.killbill.billing.osgi.api.OSGIServiceRegistration;
 import org.killbill.billing.platform.api.KillbillConfigSource;
@@ -45,6 +48,9 @@ public class CurrencyModule extends KillBillModule {
 
         bind(new TypeLiteral<OSGIServiceRegistration<CurrencyPluginApi>>() {}).toProvider(DefaultCurrencyProviderPluginRegistryProvider.class).asEagerSingleton();
 
+        bind(PluginRatesLoader.class).asEagerSingleton();
+        bind(RatesLoader.class).to(PluginRatesLoader.class).asEagerSingleton();
+        bind(CurrencyRatesCache.class).asEagerSingleton();
         bind(CurrencyConversionApi.class).to(DefaultCurrencyConversionApi.class).asEagerSingleton();
         bind(CurrencyService.class).to(DefaultCurrencyService.class).asEagerSingleton();
     }
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.currency.api;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.killbill.billing.ErrorCode;
+import org.killbill.billing.GuicyKillbillTestSuiteNoDB;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.currency.api.CurrencyRatesCache.RatesLoader;
+import org.killbill.billing.util.config.definition.CurrencyConfig;
+import org.mockito.Mockito;
+import org.skife.config.TimeSpan;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableSet;
+
+import static org.awaitility.Awaitility.await;
+
+public class TestCurrencyRatesCache extends GuicyKillbillTestSuiteNoDB {
+
+    private static final long TTL_MINUTES = 5;
+
+    @Test(groups = "fast")
+    public void testCurrentRatesAreRefreshedInTheBackground() throws Exception {
+        final CountingRatesLoader ratesLoader = new CountingRatesLoader();
+        final TestTicker ticker = new TestTicker();
+        final CurrencyRatesCache ratesCache = new CurrencyRatesCache(createCurrencyConfig(TTL_MINUTES), ratesLoader, clock, ticker);
+        try {
+            final CurrencyConversion conversion = ratesCache.getCurrencyConversion(Currency.USD, null);
+            Assert.assertSame(ratesCache.getCurrencyConversion(Currency.USD, null), conversion);
+            Assert.assertEquals(ratesLoader.getNbCalls(), 1);
+
+            // Expired rates are still returned while the refresh happens
+            ticker.advance(TTL_MINUTES + 1, TimeUnit.MINUTES);
+            Assert.assertSame(ratesCache.getCurrencyConversion(Currency.USD, null), conversion);
+            awaitNbCalls(ratesLoader, 2);
+            await().atMost(5, TimeUnit.SECONDS).until(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    return ratesCache.getCurrencyConversion(Currency.USD, null) != conversion;
+                }
+            });
+            Assert.assertEquals(ratesLoader.getNbCalls(), 2);
+
+            // The rates for today are current rates as well
+            final DateTime now = clock.getUTCNow();
+            ratesCache.getCurrencyConversion(Currency.USD, now);
+            Assert.assertEquals(ratesLoader.getNbCalls(), 3);
+            ticker.advance(TTL_MINUTES + 1, TimeUnit.MINUTES);
+            ratesCache.getCurrencyConversion(Currency.USD, now);
+            awaitNbCalls(ratesLoader, 4);
+        } finally {
+            ratesCache.stop();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testHistoricalRatesAreKeyedByExactDateAndNeverRefreshed() throws Exception {
+        final CountingRatesLoader ratesLoader = new CountingRatesLoader();
+        final TestTicker ticker = new TestTicker();
+        final CurrencyRatesCache ratesCache = new CurrencyRatesCache(createCurrencyConfig(TTL_MINUTES), ratesLoader, clock, ticker);
+        try {
+            final DateTime morning = clock.getUTCNow().minusDays(10).withTimeAtStartOfDay().plusHours(10);
+            final DateTime evening = morning.plusHours(8);
+
+            final CurrencyConversion morningConversion = ratesCache.getCurrencyConversion(Currency.USD, morning);
+            Assert.assertEquals(ratesLoader.getLastConversionDate(), morning);
+            // Same day, but not the same rates
+            ratesCache.getCurrencyConversion(Currency.USD, evening);
+            Assert.assertEquals(ratesLoader.getLastConversionDate(), evening);
+            Assert.assertEquals(ratesLoader.getNbCalls(), 2);
+
+            // Same instant, in another time zone
+            Assert.assertSame(ratesCache.getCurrencyConversion(Currency.USD, morning.withZone(DateTimeZone.forID("Asia/Tokyo"))), morningConversion);
+            Assert.assertEquals(ratesLoader.getNbCalls(), 2);
+
+            // Different base currency
+            ratesCache.getCurrencyConversion(Currency.EUR, morning);
+            Assert.assertEquals(ratesLoader.getNbCalls(), 3);
+
+            ticker.advance(1, TimeUnit.DAYS);
+            Assert.assertSame(ratesCache.getCurrencyConversion(Currency.USD, morning), morningConversion);
+            Assert.assertEquals(ratesLoader.getNbCalls(), 3);
+
+            ratesCache.refreshAll();
+            Assert.assertSame(ratesCache.getCurrencyConversion(Currency.USD, morning), morningConversion);
+            Assert.assertEquals(ratesLoader.getNbCalls(), 3);
+
+            ratesCache.invalidateAll();
+            Assert.assertNotSame(ratesCache.getCurrencyConversion(Currency.USD, morning), morningConversion);
+            Assert.assertEquals(ratesLoader.getNbCalls(), 4);
+        } finally {
+            ratesCache.stop();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testFailuresAreNotCached() throws Exception {
+        final CountingRatesLoader ratesLoader = new CountingRatesLoader();
+        final CurrencyRatesCache ratesCache = new CurrencyRatesCache(createCurrencyConfig(TTL_MINUTES), ratesLoader, clock, new TestTicker());
+        try {
+            ratesLoader.setFailing(true);
+            try {
+                ratesCache.getCurrencyConversion(Currency.USD, null);
+                Assert.fail();
+            } catch (final CurrencyConversionException e) {
+                Assert.assertEquals(e.getCode(), ErrorCode.CURRENCY_NO_SUCH_PAYMENT_PLUGIN.getCode());
+            }
+
+            ratesLoader.setFailing(false);
+            ratesCache.getCurrencyConversion(Currency.USD, null);
+            Assert.assertEquals(ratesLoader.getNbCalls(), 2);
+        } finally {
+            ratesCache.stop();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testDisabledCache() throws Exception {
+        final CountingRatesLoader ratesLoader = new CountingRatesLoader();
+        final CurrencyRatesCache ratesCache = new CurrencyRatesCache(createCurrencyConfig(0), ratesLoader, clock, new TestTicker());
+        try {
+            final DateTime conversionDate = clock.getUTCNow().minusDays(10);
+            ratesCache.getCurrencyConversion(Currency.USD, null);
+            ratesCache.getCurrencyConversion(Currency.USD, null);
+            ratesCache.getCurrencyConversion(Currency.USD, conversionDate);
+            ratesCache.getCurrencyConversion(Currency.USD, conversionDate);
+            Assert.assertEquals(ratesLoader.getNbCalls(), 4);
+        } finally {
+            ratesCache.stop();
+        }
+    }
+
+    private void awaitNbCalls(final CountingRatesLoader ratesLoader, final int nbCalls) {
+        await().atMost(5, TimeUnit.SECONDS).until(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return ratesLoader.getNbCalls() == nbCalls;
+            }
+        });
+    }
+
+    private CurrencyConfig createCurrencyConfig(final long ttlMinutes) {
+        final CurrencyConfig currencyConfig = Mockito.mock(CurrencyConfig.class);
+        Mockito.when(currencyConfig.getRatesCacheTtl()).thenReturn(new TimeSpan(ttlMinutes, TimeUnit.MINUTES));
+        Mockito.when(currencyConfig.getRatesCacheMaxStale()).thenReturn(new TimeSpan(1, TimeUnit.HOURS));
+        Mockito.when(currencyConfig.getRatesCacheMaxEntries()).thenReturn(100);
+        return currencyConfig;
+    }
+
+    private static final class CountingRatesLoader implements RatesLoader {
+
+        private final AtomicInteger nbCalls = new AtomicInteger();
+
+        private volatile boolean failing;
+        private volatile DateTime lastConversionDate;
+
+        @Override
+        public Set<Rate> getRates(final Currency baseCurrency, @Nullable final DateTime conversionDate) throws CurrencyConversionException {
+            nbCalls.incrementAndGet();
+            lastConversionDate = conversionDate;
+            if (failing) {
+                throw new CurrencyConversionException(ErrorCode.CURRENCY_NO_SUCH_PAYMENT_PLUGIN, "test");
+            }
+            return ImmutableSet.<Rate>of();
+        }
+
+        public int getNbCalls() {
+            return nbCalls.get();
+        }
+
+        public DateTime getLastConversionDate() {
+            return lastConversionDate;
+        }
+
+        public void setFailing(final boolean failing) {
+            this.failing = failing;
+        }
+    }
+
+    private static final class TestTicker extends Ticker {
+
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        public void advance(final long duration, final TimeUnit timeUnit) {
+            nanos.addAndGet(timeUnit.toNanos(duration));
+        }
+    }
+}
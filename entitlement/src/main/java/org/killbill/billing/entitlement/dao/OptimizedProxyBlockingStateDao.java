@@ -29,6 +29,7 @@ import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.catalog.api.ProductCategory;
 import org.killbill.billing.catalog.api.StaticCatalog;
 import org.killbill.billing.catalog.api.VersionedCatalog;
+import org.killbill.billing.entitlement.BlockingStateTimeline;
 import org.killbill.billing.entitlement.EventsStream;
 import org.killbill.billing.entitlement.api.BlockingState;
 import org.killbill.billing.entitlement.api.BlockingStateType;
@@ -66,7 +67,7 @@ public class OptimizedProxyBlockingStateDao extends ProxyBlockingStateDao {
      * This is a special method for EventsStreamBuilder to save some DAO calls.
      *
      * @param subscriptionBlockingStatesOnDisk  blocking states on disk for that subscription
-     * @param allBlockingStatesOnDiskForAccount all blocking states on disk for that account
+     * @param blockingStateTimelineOnDisk       timeline of all blocking states on disk for that account
      * @param account                           account associated with the subscription
      * @param bundle                            bundle associated with the subscription
      * @param baseSubscription                  base subscription (ProductCategory.BASE) associated with that bundle
@@ -79,7 +80,7 @@ public class OptimizedProxyBlockingStateDao extends ProxyBlockingStateDao {
      * @throws EntitlementApiException
      */
     public Collection<BlockingState> getBlockingHistory(final Collection<BlockingState> subscriptionBlockingStatesOnDisk,
-                                                        final Collection<BlockingState> allBlockingStatesOnDiskForAccount,
+                                                        final BlockingStateTimeline blockingStateTimelineOnDisk,
                                                         final ImmutableAccountData account,
                                                         final SubscriptionBaseBundle bundle,
                                                         @Nullable final SubscriptionBase baseSubscription,
@@ -95,7 +96,7 @@ public class OptimizedProxyBlockingStateDao extends ProxyBlockingStateDao {
         }
 
         // Find all base entitlements that we care about (for which we want to find future cancelled add-ons)
-        final Iterable<EventsStream> eventsStreams = ImmutableList.<EventsStream>of(eventsStreamBuilder.buildForEntitlement(allBlockingStatesOnDiskForAccount,
+        final Iterable<EventsStream> eventsStreams = ImmutableList.<EventsStream>of(eventsStreamBuilder.buildForEntitlement(blockingStateTimelineOnDisk,
                                                                                                                             account,
                                                                                                                             bundle,
                                                                                                                             baseSubscription,
@@ -19,9 +19,7 @@
 package org.killbill.billing.entitlement.engine.core;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 import javax.annotation.Nullable;
@@ -33,6 +31,7 @@ import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.catalog.api.Plan;
 import org.killbill.billing.catalog.api.Product;
 import org.killbill.billing.catalog.api.ProductCategory;
+import org.killbill.billing.entitlement.BlockingStateTimeline;
 import org.killbill.billing.entitlement.EventsStream;
 import org.killbill.billing.entitlement.api.BlockingState;
 import org.killbill.billing.entitlement.api.BlockingStateType;
@@ -61,6 +60,8 @@ public class DefaultEventsStream implements EventsStream {
     private final SubscriptionBaseBundle bundle;
     // All blocking states for the account, associated bundle or subscription
     private final Collection<BlockingState> blockingStates;
+    // Account timeline (with the blocking states of that subscription), for the lookups per blockable and service
+    private final BlockingStateTimeline blockingStateTimeline;
     private final BlockingChecker blockingChecker;
     // Base subscription for the bundle if it exists, null otherwise
     private final SubscriptionBase baseSubscription;
@@ -88,6 +89,7 @@ public class DefaultEventsStream implements EventsStream {
     public DefaultEventsStream(final ImmutableAccountData account,
                                final SubscriptionBaseBundle bundle,
                                final Collection<BlockingState> blockingStates,
+                               final BlockingStateTimeline blockingStateTimeline,
                                final BlockingChecker blockingChecker,
                                @Nullable final SubscriptionBase baseSubscription,
                                final SubscriptionBase subscription,
@@ -98,6 +100,7 @@ public class DefaultEventsStream implements EventsStream {
         this.account = account;
         this.bundle = bundle;
         this.blockingStates = blockingStates;
+        this.blockingStateTimeline = blockingStateTimeline;
         this.blockingChecker = blockingChecker;
         this.baseSubscription = baseSubscription;
         this.subscription = subscription;
@@ -447,28 +450,8 @@ public class DefaultEventsStream implements EventsStream {
 
 
     private List<BlockingState> filterCurrentBlockableStatePerService(final BlockingStateType type, final UUID blockableId, @Nullable final DateTime upTo) {
-
         final DateTime resolvedUpTo = upTo != null ? upTo : utcNow;
-
-        final Map<String, BlockingState> currentBlockingStatePerService = new HashMap<String, BlockingState>();
-        for (final BlockingState blockingState : blockingStates) {
-            if (!blockingState.getBlockedId().equals(blockableId)) {
-                continue;
-            }
-            if (blockingState.getType() != type) {
-                continue;
-            }
-            if (blockingState.getEffectiveDate().isAfter(resolvedUpTo)) {
-                continue;
-            }
-
-            if (currentBlockingStatePerService.get(blockingState.getService()) == null ||
-                !currentBlockingStatePerService.get(blockingState.getService()).getEffectiveDate().isAfter(blockingState.getEffectiveDate())) {
-                currentBlockingStatePerService.put(blockingState.getService(), blockingState);
-            }
-        }
-
-        return ImmutableList.<BlockingState>copyOf(currentBlockingStatePerService.values());
+        return blockingStateTimeline.getCurrentBlockingStatesPerService(type, blockableId, resolvedUpTo);
     }
 
     private void computeEntitlementStartEvent() {
@@ -45,9 +45,9 @@ import org.killbill.billing.catalog.api.ProductCategory;
 import org.killbill.billing.catalog.api.StaticCatalog;
 import org.killbill.billing.catalog.api.VersionedCatalog;
 import org.killbill.billing.entitlement.AccountEventsStreams;
+import org.killbill.billing.entitlement.BlockingStateTimeline;
 import org.killbill.billing.entitlement.EventsStream;
 import org.killbill.billing.entitlement.api.BlockingState;
-import org.killbill.billing.entitlement.api.BlockingStateType;
 import org.killbill.billing.entitlement.api.Entitlement.EntitlementState;
 import org.killbill.billing.entitlement.api.EntitlementApiException;
 import org.killbill.billing.entitlement.api.svcs.DefaultAccountEventsStreams;
@@ -66,14 +66,14 @@ import org.killbill.billing.util.cache.CacheControllerDispatcher;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.billing.util.callcontext.TenantContext;
 import org.killbill.billing.util.dao.NonEntityDao;
+import org.killbill.billing.util.metrics.HotPathMetrics;
+import org.killbill.billing.util.metrics.HotPathTimer;
 import org.killbill.bus.api.PersistentBus;
 import org.killbill.clock.Clock;
 import org.killbill.notificationq.api.NotificationQueueService;
 import org.skife.jdbi.v2.IDBI;
 
-import com.google.common.base.MoreObjects;
 import com.google.common.base.Predicate;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
 import static org.killbill.billing.util.glue.IDBISetup.MAIN_RO_IDBI_NAMED;
@@ -81,6 +81,9 @@ import static org.killbill.billing.util.glue.IDBISetup.MAIN_RO_IDBI_NAMED;
 @Singleton
 public class EventsStreamBuilder {
 
+    private static final HotPathTimer BUILD_FOR_ACCOUNT_TIMER = HotPathMetrics.timer(EventsStreamBuilder.class, "buildForAccount");
+    private static final HotPathTimer BUILD_FOR_ENTITLEMENT_TIMER = HotPathMetrics.timer(EventsStreamBuilder.class, "buildForEntitlement");
+
     private final AccountInternalApi accountInternalApi;
     private final SubscriptionBaseInternalApi subscriptionInternalApi;
     private final CatalogInternalApi catalogInternalApi;
@@ -149,6 +152,15 @@ public class EventsStreamBuilder {
 
     // Special signature for ProxyBlockingStateDao to save a DAO call
     public AccountEventsStreams buildForAccount(final Map<UUID, List<SubscriptionBase>> subscriptions, final VersionedCatalog catalog, final InternalTenantContext internalTenantContext) throws EntitlementApiException {
+        final long startNanos = BUILD_FOR_ACCOUNT_TIMER.start();
+        try {
+            return buildAccountEventsStreams(subscriptions, catalog, internalTenantContext);
+        } finally {
+            BUILD_FOR_ACCOUNT_TIMER.stop(startNanos);
+        }
+    }
+
+    private AccountEventsStreams buildAccountEventsStreams(final Map<UUID, List<SubscriptionBase>> subscriptions, final VersionedCatalog catalog, final InternalTenantContext internalTenantContext) throws EntitlementApiException {
         // Retrieve the account
         final ImmutableAccountData account;
         final int accountBCD;
@@ -175,26 +187,8 @@ public class EventsStreamBuilder {
         // Retrieve the blocking states
         final List<BlockingState> blockingStatesForAccount = defaultBlockingStateDao.getBlockingAllForAccountRecordId(catalog, internalTenantContext);
 
-        // Optimization: build lookup tables for blocking states states
-        final Collection<BlockingState> accountBlockingStates = new LinkedList<BlockingState>();
-        final Map<UUID, List<BlockingState>> blockingStatesPerSubscription = new HashMap<UUID, List<BlockingState>>();
-        final Map<UUID, List<BlockingState>> blockingStatesPerBundle = new HashMap<UUID, List<BlockingState>>();
-        for (final BlockingState blockingState : blockingStatesForAccount) {
-            if (BlockingStateType.SUBSCRIPTION.equals(blockingState.getType())) {
-                if (blockingStatesPerSubscription.get(blockingState.getBlockedId()) == null) {
-                    blockingStatesPerSubscription.put(blockingState.getBlockedId(), new LinkedList<BlockingState>());
-                }
-                blockingStatesPerSubscription.get(blockingState.getBlockedId()).add(blockingState);
-            } else if (BlockingStateType.SUBSCRIPTION_BUNDLE.equals(blockingState.getType())) {
-                if (blockingStatesPerBundle.get(blockingState.getBlockedId()) == null) {
-                    blockingStatesPerBundle.put(blockingState.getBlockedId(), new LinkedList<BlockingState>());
-                }
-                blockingStatesPerBundle.get(blockingState.getBlockedId()).add(blockingState);
-            } else if (BlockingStateType.ACCOUNT.equals(blockingState.getType()) &&
-                       account.getId().equals(blockingState.getBlockedId())) {
-                accountBlockingStates.add(blockingState);
-            }
-        }
+        // Optimization: build the lookup tables for blocking states once, shared by all EventsStream objects
+        final BlockingStateTimeline blockingStateTimeline = new BlockingStateTimeline(account.getId(), blockingStatesForAccount);
 
         // Build the EventsStream objects
         final Map<UUID, Integer> bcdCache = new HashMap<UUID, Integer>();
@@ -204,7 +198,6 @@ public class EventsStreamBuilder {
             final SubscriptionBaseBundle bundle = bundlesPerId.get(bundleId);
             final List<SubscriptionBase> allSubscriptionsForBundle = subscriptions.get(bundleId);
             final SubscriptionBase baseSubscription = findBaseSubscription(allSubscriptionsForBundle);
-            final List<BlockingState> bundleBlockingStates = MoreObjects.firstNonNull(blockingStatesPerBundle.get(bundleId), ImmutableList.<BlockingState>of());
 
             if (eventsStreamPerBundle.get(bundleId) == null) {
                 eventsStreamPerBundle.put(bundleId, new LinkedList<EventsStream>());
@@ -214,41 +207,12 @@ public class EventsStreamBuilder {
             }
 
             for (final SubscriptionBase subscription : allSubscriptionsForBundle) {
-                final List<BlockingState> subscriptionBlockingStatesOnDisk = MoreObjects.firstNonNull(blockingStatesPerSubscription.get(subscription.getId()), ImmutableList.<BlockingState>of());
-
-                // We cannot always use blockingStatesForAccount here: we need subscriptionBlockingStates to contain the events not on disk when building an EventsStream
-                // for an add-on - which means going through the magic of ProxyBlockingStateDao, which will recursively
-                // create EventsStream objects. To avoid an infinite recursion, bypass ProxyBlockingStateDao when it's not
-                // needed, i.e. if this EventStream is for a standalone or a base subscription
-                final Collection<BlockingState> subscriptionBlockingStates;
-                if (baseSubscription == null || subscription.getId().equals(baseSubscription.getId())) {
-                    subscriptionBlockingStates = subscriptionBlockingStatesOnDisk;
-                } else {
-                    subscriptionBlockingStates = blockingStateDao.getBlockingHistory(subscriptionBlockingStatesOnDisk,
-                                                                                     blockingStatesForAccount,
-                                                                                     account,
-                                                                                     bundle,
-                                                                                     baseSubscription,
-                                                                                     subscription,
-                                                                                     allSubscriptionsForBundle,
-                                                                                     accountBCD,
-                                                                                     catalog,
-                                                                                     internalTenantContext);
-
-                }
-
-                // Merge the BlockingStates
-                final Collection<BlockingState> blockingStateSet = new LinkedHashSet<BlockingState>(accountBlockingStates);
-                blockingStateSet.addAll(bundleBlockingStates);
-                blockingStateSet.addAll(subscriptionBlockingStates);
-                final List<BlockingState> blockingStates = ProxyBlockingStateDao.sortedCopy(blockingStateSet);
-
-                final EventsStream eventStream = buildForEntitlement(account,
+                final EventsStream eventStream = buildForEntitlement(blockingStateTimeline,
+                                                                     account,
                                                                      bundle,
                                                                      baseSubscription,
                                                                      subscription,
                                                                      allSubscriptionsForBundle,
-                                                                     blockingStates,
                                                                      accountBCD,
                                                                      bcdCache,
                                                                      catalog,
@@ -311,13 +275,14 @@ public class EventsStreamBuilder {
 
         // Retrieve the blocking states
         final List<BlockingState> blockingStatesForAccount = defaultBlockingStateDao.getBlockingAllForAccountRecordId(catalog, internalTenantContext);
+        final BlockingStateTimeline blockingStateTimeline = new BlockingStateTimeline(account.getId(), blockingStatesForAccount);
 
         final Map<UUID, Integer> bcdCache = new HashMap<UUID, Integer>();
-        return buildForEntitlement(blockingStatesForAccount, account, bundle, baseSubscription, subscription, allSubscriptionsForBundle, accountBCD, bcdCache, catalog, internalTenantContext);
+        return buildForEntitlement(blockingStateTimeline, account, bundle, baseSubscription, subscription, allSubscriptionsForBundle, accountBCD, bcdCache, catalog, internalTenantContext);
     }
 
     // Special signature for OptimizedProxyBlockingStateDao to save some DAO calls
-    public EventsStream buildForEntitlement(final Collection<BlockingState> blockingStatesForAccount,
+    public EventsStream buildForEntitlement(final BlockingStateTimeline blockingStateTimeline,
                                             final ImmutableAccountData account,
                                             final SubscriptionBaseBundle bundle,
                                             final SubscriptionBase baseSubscription,
@@ -326,10 +291,10 @@ public class EventsStreamBuilder {
                                             final VersionedCatalog catalog,
                                             final InternalTenantContext internalTenantContext) throws EntitlementApiException {
         final Map<UUID, Integer> bcdCache = new HashMap<UUID, Integer>();
-        return buildForEntitlement(blockingStatesForAccount, account, bundle, baseSubscription, baseSubscription, allSubscriptionsForBundle, accountBCD, bcdCache, catalog, internalTenantContext);
+        return buildForEntitlement(blockingStateTimeline, account, bundle, baseSubscription, baseSubscription, allSubscriptionsForBundle, accountBCD, bcdCache, catalog, internalTenantContext);
     }
 
-    private EventsStream buildForEntitlement(final Collection<BlockingState> blockingStatesForAccount,
+    private EventsStream buildForEntitlement(final BlockingStateTimeline blockingStateTimeline,
                                              final ImmutableAccountData account,
                                              final SubscriptionBaseBundle bundle,
                                              @Nullable final SubscriptionBase baseSubscription,
@@ -339,29 +304,8 @@ public class EventsStreamBuilder {
                                              final Map<UUID, Integer> bcdCache,
                                              final VersionedCatalog catalog,
                                              final InternalTenantContext internalTenantContext) throws EntitlementApiException {
-        // Optimization: build lookup tables for blocking states states
-        final Collection<BlockingState> accountBlockingStates = new LinkedList<BlockingState>();
-        final Map<UUID, List<BlockingState>> blockingStatesPerSubscription = new HashMap<UUID, List<BlockingState>>();
-        final Map<UUID, List<BlockingState>> blockingStatesPerBundle = new HashMap<UUID, List<BlockingState>>();
-        for (final BlockingState blockingState : blockingStatesForAccount) {
-            if (BlockingStateType.SUBSCRIPTION.equals(blockingState.getType())) {
-                if (blockingStatesPerSubscription.get(blockingState.getBlockedId()) == null) {
-                    blockingStatesPerSubscription.put(blockingState.getBlockedId(), new LinkedList<BlockingState>());
-                }
-                blockingStatesPerSubscription.get(blockingState.getBlockedId()).add(blockingState);
-            } else if (BlockingStateType.SUBSCRIPTION_BUNDLE.equals(blockingState.getType())) {
-                if (blockingStatesPerBundle.get(blockingState.getBlockedId()) == null) {
-                    blockingStatesPerBundle.put(blockingState.getBlockedId(), new LinkedList<BlockingState>());
-                }
-                blockingStatesPerBundle.get(blockingState.getBlockedId()).add(blockingState);
-            } else if (BlockingStateType.ACCOUNT.equals(blockingState.getType()) &&
-                       account.getId().equals(blockingState.getBlockedId())) {
-                accountBlockingStates.add(blockingState);
-            }
-        }
-
-        final List<BlockingState> bundleBlockingStates = MoreObjects.firstNonNull(blockingStatesPerBundle.get(subscription.getBundleId()), ImmutableList.<BlockingState>of());
-        final List<BlockingState> subscriptionBlockingStatesOnDisk = MoreObjects.firstNonNull(blockingStatesPerSubscription.get(subscription.getId()), ImmutableList.<BlockingState>of());
+        final List<BlockingState> bundleBlockingStates = blockingStateTimeline.getBundleBlockingStates(subscription.getBundleId());
+        final List<BlockingState> subscriptionBlockingStatesOnDisk = blockingStateTimeline.getSubscriptionBlockingStates(subscription.getId());
 
         // We cannot always use blockingStatesForAccount here: we need subscriptionBlockingStates to contain the events not on disk when building an EventsStream
         // for an add-on - which means going through the magic of ProxyBlockingStateDao, which will recursively
@@ -373,8 +317,8 @@ public class EventsStreamBuilder {
             // (called by blockingStateDao.getBlockingHistory below)
             subscriptionBlockingStates = subscriptionBlockingStatesOnDisk;
         } else {
-            subscriptionBlockingStates = blockingStateDao.getBlockingHistory(ImmutableList.<BlockingState>copyOf(subscriptionBlockingStatesOnDisk),
-                                                                             blockingStatesForAccount,
+            subscriptionBlockingStates = blockingStateDao.getBlockingHistory(subscriptionBlockingStatesOnDisk,
+                                                                             blockingStateTimeline,
                                                                              account,
                                                                              bundle,
                                                                              baseSubscription,
@@ -385,13 +329,21 @@ public class EventsStreamBuilder {
                                                                              internalTenantContext);
         }
 
+        // The account timeline is shared: only the add-on blocking states not on disk need to be indexed for that EventsStream
+        final BlockingStateTimeline subscriptionBlockingStateTimeline;
+        if (subscriptionBlockingStates == subscriptionBlockingStatesOnDisk) {
+            subscriptionBlockingStateTimeline = blockingStateTimeline;
+        } else {
+            subscriptionBlockingStateTimeline = blockingStateTimeline.withSubscriptionBlockingStates(subscription.getId(), subscriptionBlockingStates);
+        }
+
         // Merge the BlockingStates
-        final Collection<BlockingState> blockingStateSet = new LinkedHashSet<BlockingState>(accountBlockingStates);
+        final Collection<BlockingState> blockingStateSet = new LinkedHashSet<BlockingState>(blockingStateTimeline.getAccountBlockingStates());
         blockingStateSet.addAll(bundleBlockingStates);
         blockingStateSet.addAll(subscriptionBlockingStates);
         final List<BlockingState> blockingStates = ProxyBlockingStateDao.sortedCopy(blockingStateSet);
 
-        return buildForEntitlement(account, bundle, baseSubscription, subscription, allSubscriptionsForBundle, blockingStates, accountBCD, bcdCache, catalog, internalTenantContext);
+        return buildForEntitlement(account, bundle, baseSubscription, subscription, allSubscriptionsForBundle, blockingStates, subscriptionBlockingStateTimeline, accountBCD, bcdCache, catalog, internalTenantContext);
     }
 
     private EventsStream buildForEntitlement(final ImmutableAccountData account,
@@ -400,6 +352,7 @@ public class EventsStreamBuilder {
                                              final SubscriptionBase subscription,
                                              final Collection<SubscriptionBase> allSubscriptionsForBundle,
                                              final Collection<BlockingState> blockingStates,
+                                             final BlockingStateTimeline blockingStateTimeline,
                                              final int accountBCD,
                                              final Map<UUID, Integer> bcdCache,
                                              final VersionedCatalog catalog,
@@ -415,6 +368,7 @@ public class EventsStreamBuilder {
             return new DefaultEventsStream(account,
                                            bundle,
                                            blockingStates,
+                                           blockingStateTimeline,
                                            checker,
                                            baseSubscription,
                                            subscription,
@@ -429,16 +383,21 @@ public class EventsStreamBuilder {
 
 
     private EventsStream buildForEntitlement(final SubscriptionBase subscription, final InternalTenantContext internalTenantContext) throws EntitlementApiException {
-        final SubscriptionBaseBundle bundle;
-        final List<SubscriptionBase> subscriptionsForBundle;
+        final long startNanos = BUILD_FOR_ENTITLEMENT_TIMER.start();
         try {
-            bundle = subscriptionInternalApi.getBundleFromId(subscription.getBundleId(), internalTenantContext);
-            subscriptionsForBundle = subscriptionInternalApi.getSubscriptionsForBundle(subscription.getBundleId(), null, internalTenantContext);
-        } catch (final SubscriptionBaseApiException e) {
-            throw new EntitlementApiException(e);
-        }
+            final SubscriptionBaseBundle bundle;
+            final List<SubscriptionBase> subscriptionsForBundle;
+            try {
+                bundle = subscriptionInternalApi.getBundleFromId(subscription.getBundleId(), internalTenantContext);
+                subscriptionsForBundle = subscriptionInternalApi.getSubscriptionsForBundle(subscription.getBundleId(), null, internalTenantContext);
+            } catch (final SubscriptionBaseApiException e) {
+                throw new EntitlementApiException(e);
+            }
 
-        return buildForEntitlement(bundle, subscription, subscriptionsForBundle, internalTenantContext);
+            return buildForEntitlement(bundle, subscription, subscriptionsForBundle, internalTenantContext);
+        } finally {
+            BUILD_FOR_ENTITLEMENT_TIMER.stop(startNanos);
+        }
     }
 
 
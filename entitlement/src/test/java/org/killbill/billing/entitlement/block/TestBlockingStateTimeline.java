@@ -0,0 +1,120 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.entitlement.block;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.entitlement.BlockingStateTimeline;
+import org.killbill.billing.entitlement.EntitlementTestSuiteNoDB;
+import org.killbill.billing.entitlement.api.BlockingState;
+import org.killbill.billing.entitlement.api.BlockingStateType;
+import org.killbill.billing.junction.DefaultBlockingState;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+public class TestBlockingStateTimeline extends EntitlementTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testGroupingPerBlockable() throws Exception {
+        final UUID accountId = UUID.randomUUID();
+        final UUID bundleId = UUID.randomUUID();
+        final UUID subscriptionId = UUID.randomUUID();
+        final DateTime now = clock.getUTCNow();
+
+        final BlockingState accountState = new DefaultBlockingState(accountId, BlockingStateType.ACCOUNT, "OD1", "overdue", false, false, true, now);
+        final BlockingState otherAccountState = new DefaultBlockingState(UUID.randomUUID(), BlockingStateType.ACCOUNT, "OD1", "overdue", false, false, true, now);
+        final BlockingState bundleState = new DefaultBlockingState(bundleId, BlockingStateType.SUBSCRIPTION_BUNDLE, "PAUSE", "svc", true, true, true, now.plusDays(1));
+        final BlockingState subscriptionState1 = new DefaultBlockingState(subscriptionId, BlockingStateType.SUBSCRIPTION, "ENT_STARTED", "svc", false, false, false, now);
+        final BlockingState subscriptionState2 = new DefaultBlockingState(subscriptionId, BlockingStateType.SUBSCRIPTION, "ENT_CANCELLED", "svc", true, true, false, now.plusDays(2));
+
+        final List<BlockingState> blockingStates = ImmutableList.<BlockingState>of(accountState, otherAccountState, subscriptionState1, bundleState, subscriptionState2);
+        final BlockingStateTimeline timeline = new BlockingStateTimeline(accountId, blockingStates);
+
+        Assert.assertEquals(timeline.getBlockingStates(), blockingStates);
+        Assert.assertEquals(timeline.getAccountBlockingStates(), ImmutableList.<BlockingState>of(accountState));
+        Assert.assertEquals(timeline.getBundleBlockingStates(bundleId), ImmutableList.<BlockingState>of(bundleState));
+        Assert.assertEquals(timeline.getSubscriptionBlockingStates(subscriptionId), ImmutableList.<BlockingState>of(subscriptionState1, subscriptionState2));
+        Assert.assertTrue(timeline.getBundleBlockingStates(UUID.randomUUID()).isEmpty());
+        Assert.assertTrue(timeline.getSubscriptionBlockingStates(bundleId).isEmpty());
+
+        // No account filtering
+        Assert.assertEquals(new BlockingStateTimeline(blockingStates).getAccountBlockingStates(), ImmutableList.<BlockingState>of(accountState, otherAccountState));
+    }
+
+    @Test(groups = "fast")
+    public void testCurrentBlockingStatesPerService() throws Exception {
+        final UUID subscriptionId = UUID.randomUUID();
+        final DateTime now = clock.getUTCNow();
+
+        final BlockingState svc1State1 = new DefaultBlockingState(subscriptionId, BlockingStateType.SUBSCRIPTION, "S1", "svc1", false, false, false, now);
+        final BlockingState svc1State2 = new DefaultBlockingState(subscriptionId, BlockingStateType.SUBSCRIPTION, "S2", "svc1", true, false, false, now.plusDays(2));
+        // Same effective date: the last one in the timeline wins
+        final BlockingState svc1State3 = new DefaultBlockingState(subscriptionId, BlockingStateType.SUBSCRIPTION, "S3", "svc1", false, true, false, now.plusDays(2));
+        final BlockingState svc2State1 = new DefaultBlockingState(subscriptionId, BlockingStateType.SUBSCRIPTION, "T1", "svc2", false, false, true, now.plusDays(1));
+        // Same blockable id, different type
+        final BlockingState bundleState = new DefaultBlockingState(subscriptionId, BlockingStateType.SUBSCRIPTION_BUNDLE, "B1", "svc1", true, true, true, now);
+
+        final BlockingStateTimeline timeline = new BlockingStateTimeline(ImmutableList.<BlockingState>of(svc1State1, bundleState, svc2State1, svc1State2, svc1State3));
+
+        Assert.assertTrue(timeline.getCurrentBlockingStatesPerService(BlockingStateType.SUBSCRIPTION, subscriptionId, now.minusDays(1)).isEmpty());
+        Assert.assertEquals(ImmutableSet.<BlockingState>copyOf(timeline.getCurrentBlockingStatesPerService(BlockingStateType.SUBSCRIPTION, subscriptionId, now)),
+                            ImmutableSet.<BlockingState>of(svc1State1));
+        Assert.assertEquals(ImmutableSet.<BlockingState>copyOf(timeline.getCurrentBlockingStatesPerService(BlockingStateType.SUBSCRIPTION, subscriptionId, now.plusDays(1))),
+                            ImmutableSet.<BlockingState>of(svc1State1, svc2State1));
+        Assert.assertEquals(ImmutableSet.<BlockingState>copyOf(timeline.getCurrentBlockingStatesPerService(BlockingStateType.SUBSCRIPTION, subscriptionId, now.plusDays(5))),
+                            ImmutableSet.<BlockingState>of(svc1State3, svc2State1));
+        Assert.assertEquals(timeline.getCurrentBlockingStatesPerService(BlockingStateType.SUBSCRIPTION_BUNDLE, subscriptionId, now.plusDays(5)),
+                            ImmutableList.<BlockingState>of(bundleState));
+        Assert.assertTrue(timeline.getCurrentBlockingStatesPerService(BlockingStateType.ACCOUNT, subscriptionId, now.plusDays(5)).isEmpty());
+    }
+
+    @Test(groups = "fast")
+    public void testWithSubscriptionBlockingStates() throws Exception {
+        final UUID accountId = UUID.randomUUID();
+        final UUID bundleId = UUID.randomUUID();
+        final UUID addOnId = UUID.randomUUID();
+        final UUID otherSubscriptionId = UUID.randomUUID();
+        final DateTime now = clock.getUTCNow();
+
+        final BlockingState accountState = new DefaultBlockingState(accountId, BlockingStateType.ACCOUNT, "OD1", "overdue", false, false, true, now);
+        final BlockingState bundleState = new DefaultBlockingState(bundleId, BlockingStateType.SUBSCRIPTION_BUNDLE, "PAUSE", "svc", true, true, true, now.plusDays(1));
+        final BlockingState addOnStartState = new DefaultBlockingState(addOnId, BlockingStateType.SUBSCRIPTION, "ENT_STARTED", "entitlement-service", false, false, false, now);
+        final BlockingState otherSubscriptionState = new DefaultBlockingState(otherSubscriptionId, BlockingStateType.SUBSCRIPTION, "ENT_STARTED", "entitlement-service", false, false, false, now);
+        final BlockingStateTimeline accountTimeline = new BlockingStateTimeline(accountId, ImmutableList.<BlockingState>of(accountState, addOnStartState, bundleState, otherSubscriptionState));
+
+        // Add-on blocking state not on disk (e.g. future cancellation of the base subscription)
+        final BlockingState addOnCancelState = new DefaultBlockingState(addOnId, BlockingStateType.SUBSCRIPTION, "ENT_CANCELLED", "entitlement-service", true, true, false, now.plusDays(2));
+        final BlockingStateTimeline addOnTimeline = accountTimeline.withSubscriptionBlockingStates(addOnId, ImmutableList.<BlockingState>of(addOnStartState, addOnCancelState));
+
+        Assert.assertEquals(addOnTimeline.getSubscriptionBlockingStates(addOnId), ImmutableList.<BlockingState>of(addOnStartState, addOnCancelState));
+        Assert.assertEquals(addOnTimeline.getCurrentBlockingStatesPerService(BlockingStateType.SUBSCRIPTION, addOnId, now.plusDays(5)), ImmutableList.<BlockingState>of(addOnCancelState));
+        // Shared with the account timeline
+        Assert.assertEquals(addOnTimeline.getAccountBlockingStates(), ImmutableList.<BlockingState>of(accountState));
+        Assert.assertEquals(addOnTimeline.getCurrentBlockingStatesPerService(BlockingStateType.SUBSCRIPTION_BUNDLE, bundleId, now.plusDays(5)), ImmutableList.<BlockingState>of(bundleState));
+        Assert.assertEquals(addOnTimeline.getCurrentBlockingStatesPerService(BlockingStateType.SUBSCRIPTION, otherSubscriptionId, now.plusDays(5)), ImmutableList.<BlockingState>of(otherSubscriptionState));
+
+        // The account timeline is left untouched
+        Assert.assertEquals(accountTimeline.getSubscriptionBlockingStates(addOnId), ImmutableList.<BlockingState>of(addOnStartState));
+        Assert.assertEquals(accountTimeline.getCurrentBlockingStatesPerService(BlockingStateType.SUBSCRIPTION, addOnId, now.plusDays(5)), ImmutableList.<BlockingState>of(addOnStartState));
+    }
+}
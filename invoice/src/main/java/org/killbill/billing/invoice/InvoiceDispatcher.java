@@ -32,11 +32,13 @@ import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
 
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
+import org.joda.time.Period;
 import org.killbill.billing.ErrorCode;
 import org.killbill.billing.ObjectType;
 import org.killbill.billing.account.api.Account;
@@ -94,8 +96,13 @@ import org.killbill.billing.util.api.TagApiException;
 import org.killbill.billing.util.callcontext.CallContext;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.billing.util.callcontext.TenantContext;
+import org.killbill.billing.util.concurrent.TenantConcurrencyLimiter;
+import org.killbill.billing.util.concurrent.TenantConcurrencyLimiter.Permit;
 import org.killbill.billing.util.config.definition.InvoiceConfig;
 import org.killbill.billing.util.globallocker.LockerType;
+import org.killbill.billing.util.metrics.HotPathMetrics;
+import org.killbill.billing.util.metrics.HotPathTimer;
+import org.killbill.billing.util.queue.QueueRetryException;
 import org.killbill.bus.api.PersistentBus;
 import org.killbill.bus.api.PersistentBus.EventBusException;
 import org.killbill.clock.Clock;
@@ -106,6 +113,7 @@ import org.killbill.notificationq.api.NotificationEventWithMetadata;
 import org.killbill.notificationq.api.NotificationQueue;
 import org.killbill.notificationq.api.NotificationQueueService;
 import org.killbill.notificationq.api.NotificationQueueService.NoSuchNotificationQueue;
+import org.skife.config.TimeSpan;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -132,6 +140,14 @@ public class InvoiceDispatcher {
     private static final Joiner JOINER_COMMA = Joiner.on(",");
     private static final TargetDateDryRunArguments TARGET_DATE_DRY_RUN_ARGUMENTS = new TargetDateDryRunArguments();
 
+    // Invoice run duration, by phase
+    private static final HotPathTimer PROCESS_ACCOUNT_TIMER = HotPathMetrics.timer(InvoiceDispatcher.class, "processAccount");
+    private static final HotPathTimer EXISTING_INVOICES_TIMER = HotPathMetrics.timer(InvoiceDispatcher.class, "getExistingInvoices");
+    private static final HotPathTimer GENERATE_INVOICE_TIMER = HotPathMetrics.timer(InvoiceDispatcher.class, "generateInvoice");
+    private static final HotPathTimer INVOICE_PLUGINS_TIMER = HotPathMetrics.timer(InvoiceDispatcher.class, "invoicePlugins");
+    private static final HotPathTimer COMMIT_INVOICE_TIMER = HotPathMetrics.timer(InvoiceDispatcher.class, "commitInvoice");
+    private static final HotPathTimer CHARGED_THROUGH_DATES_TIMER = HotPathMetrics.timer(InvoiceDispatcher.class, "setChargedThroughDates");
+
     private final InvoiceGenerator generator;
     private final BillingInternalApi billingApi;
     private final AccountInternalApi accountApi;
@@ -145,6 +161,8 @@ public class InvoiceDispatcher {
     private final NotificationQueueService notificationQueueService;
     private final InvoiceConfig invoiceConfig;
     private final ParkedAccountsManager parkedAccountsManager;
+    // Invoice runs triggered by bus events and notifications (i.e. not API calls), per tenant
+    private final TenantConcurrencyLimiter invoiceRunsLimiter = new TenantConcurrencyLimiter(InvoiceDispatcher.class, "invoiceRuns");
 
     @Inject
     public InvoiceDispatcher(final InvoiceGenerator generator,
@@ -300,21 +318,54 @@ public class InvoiceDispatcher {
             log.warn("Unable to determine parking state for accountId='{}'", accountId);
         }
 
+        // Don't let a single tenant's bill run take over all the dispatch threads (real-time API calls aren't capped)
+        final int maxConcurrentInvoiceRuns = isApiCall ? 0 : invoiceConfig.getMaxConcurrentInvoiceRunsPerTenant(context);
+        final Permit permit;
+        try {
+            permit = invoiceRunsLimiter.acquire(context.getTenantRecordId(),
+                                                maxConcurrentInvoiceRuns,
+                                                invoiceConfig.getMaxConcurrentInvoiceRunsWaitTime().getMillis(),
+                                                TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for an invoice run slot for accountId='{}', targetDate='{}', rescheduling", accountId, targetDate);
+            throw new QueueRetryException(e, getMaxConcurrentInvoiceRunsRetrySchedule());
+        }
+        if (permit == null) {
+            // Don't hold the dispatch thread: the bus event or notification is retried later (see RetryableService)
+            log.info("Too many concurrent invoice runs for tenantRecordId='{}', rescheduling invoice run for accountId='{}', targetDate='{}'", context.getTenantRecordId(), accountId, targetDate);
+            throw new QueueRetryException(getMaxConcurrentInvoiceRunsRetrySchedule());
+        }
+
         GlobalLock lock = null;
         try {
             lock = locker.lockWithNumberOfTries(LockerType.ACCNT_INV_PAY.toString(), accountId.toString(), invoiceConfig.getMaxGlobalLockRetries());
 
-            return processAccountWithLock(parkedAccount, accountId, targetDate, dryRunArguments, isRescheduled, context);
+            final long startNanos = PROCESS_ACCOUNT_TIMER.start();
+            try {
+                return processAccountWithLock(parkedAccount, accountId, targetDate, dryRunArguments, isRescheduled, context);
+            } finally {
+                PROCESS_ACCOUNT_TIMER.stop(startNanos);
+            }
         } catch (final LockFailedException e) {
             log.warn("Failed to process invoice for accountId='{}', targetDate='{}'", accountId.toString(), targetDate, e);
         } finally {
             if (lock != null) {
                 lock.release();
             }
+            permit.release();
         }
         return null;
     }
 
+    private List<Period> getMaxConcurrentInvoiceRunsRetrySchedule() {
+        final List<Period> retrySchedule = new LinkedList<Period>();
+        for (final TimeSpan retry : invoiceConfig.getMaxConcurrentInvoiceRunsRetries()) {
+            retrySchedule.add(new Period(retry.getMillis()));
+        }
+        return retrySchedule;
+    }
+
     private Invoice processAccountWithLock(final boolean parkedAccount,
                                            final UUID accountId,
                                            @Nullable final LocalDate inputTargetDateMaybeNull,
@@ -340,6 +391,7 @@ public class InvoiceDispatcher {
 
             // Avoid pulling all invoices when AUTO_INVOICING_OFF is set since we will disable invoicing later
             // (Note that we can't return right away as we send a NullInvoice event)
+            final long existingInvoicesStartNanos = EXISTING_INVOICES_TIMER.start();
             final List<Invoice> existingInvoices = billingEvents.isAccountAutoInvoiceOff() ?
                                                    ImmutableList.<Invoice>of() :
                                                    ImmutableList.<Invoice>copyOf(Collections2.transform(invoiceDao.getInvoicesByAccount(false, context),
@@ -349,6 +401,8 @@ public class InvoiceDispatcher {
                                                                                                                 return new DefaultInvoice(input);
                                                                                                             }
                                                                                                         }));
+            EXISTING_INVOICES_TIMER.stop(existingInvoicesStartNanos);
+
             final Invoice invoice;
             if (!isDryRun) {
                 final InvoiceWithFutureNotifications invoiceWithFutureNotifications = processAccountWithLockAndInputTargetDate(accountId, inputTargetDate, billingEvents, existingInvoices, false, isRescheduled, context);
@@ -554,7 +608,9 @@ public class InvoiceDispatcher {
             return null;
         }
 
+        final long generateStartNanos = GENERATE_INVOICE_TIMER.start();
         final InvoiceWithMetadata invoiceWithMetadata = generateKillBillInvoice(account, originalTargetDate, billingEvents, existingInvoices, internalCallContext);
+        GENERATE_INVOICE_TIMER.stop(generateStartNanos);
         final DefaultInvoice invoice = invoiceWithMetadata.getInvoice();
 
         // Compute future notifications
@@ -590,7 +646,9 @@ public class InvoiceDispatcher {
             //
             // Ask external invoice plugins if additional items (tax, etc) shall be added to the invoice
             //
+            final long invoicePluginsStartNanos = INVOICE_PLUGINS_TIMER.start();
             final boolean invoiceUpdated = invoicePluginDispatcher.updateOriginalInvoiceWithPluginInvoiceItems(invoice, isDryRun, callContext, ImmutableList.<PluginProperty>of(), internalCallContext);
+            INVOICE_PLUGINS_TIMER.stop(invoicePluginsStartNanos);
             if (invoiceUpdated) {
                 // Remove the temporary CBA item as we need to re-compute CBA
                 if (cbaItemPreInvoicePlugins != null) {
@@ -625,14 +683,19 @@ public class InvoiceDispatcher {
 
                 // Commit invoice on disk
                 final ExistingInvoiceMetadata existingInvoiceMetadata = new ExistingInvoiceMetadata(existingInvoices);
+                final long commitStartNanos = COMMIT_INVOICE_TIMER.start();
                 commitInvoiceAndSetFutureNotifications(account, invoiceModelDao, billingEvents, trackingIds, futureAccountNotifications, existingInvoiceMetadata, internalCallContext);
+                COMMIT_INVOICE_TIMER.stop(commitStartNanos);
                 success = true;
 
+                final long chargedThroughDatesStartNanos = CHARGED_THROUGH_DATES_TIMER.start();
                 try {
                     setChargedThroughDates(invoice, internalCallContext);
                 } catch (final SubscriptionBaseApiException e) {
                     log.error("Failed handling SubscriptionBase change.", e);
                     return null;
+                } finally {
+                    CHARGED_THROUGH_DATES_TIMER.stop(chargedThroughDatesStartNanos);
                 }
             }
         } finally {
@@ -872,12 +935,11 @@ public class InvoiceDispatcher {
 
         final Map<UUID, DateTime> chargeThroughDates = new HashMap<UUID, DateTime>();
         addInvoiceItemsToChargeThroughDates(chargeThroughDates, invoiceItemsToConsider, context);
+        chargeThroughDates.remove(null);
 
-        for (final UUID subscriptionId : chargeThroughDates.keySet()) {
-            if (subscriptionId != null) {
-                final DateTime chargeThroughDate = chargeThroughDates.get(subscriptionId);
-                subscriptionApi.setChargedThroughDate(subscriptionId, chargeThroughDate, context);
-            }
+        // All subscriptions are updated at once
+        if (!chargeThroughDates.isEmpty()) {
+            subscriptionApi.setChargedThroughDates(chargeThroughDates, context);
         }
     }
 
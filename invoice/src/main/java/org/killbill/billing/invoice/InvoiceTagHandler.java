@@ -27,6 +27,7 @@ import org.killbill.billing.invoice.api.InvoiceApiException;
 import org.killbill.billing.platform.api.KillbillService;
 import org.killbill.billing.platform.api.LifecycleHandlerType;
 import org.killbill.billing.platform.api.LifecycleHandlerType.LifecycleLevel;
+import org.killbill.billing.tag.TagInternalApi;
 import org.killbill.billing.util.callcontext.CallOrigin;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.billing.util.callcontext.UserType;
@@ -61,13 +62,16 @@ public class InvoiceTagHandler extends RetryableService implements KillbillServi
     public InvoiceTagHandler(final Clock clock,
                              final InvoiceDispatcher dispatcher,
                              final NotificationQueueService notificationQueueService,
-                             final InternalCallContextFactory internalCallContextFactory) {
+                             final InternalCallContextFactory internalCallContextFactory,
+                             final TagInternalApi tagInternalApi) {
         super(notificationQueueService);
         this.dispatcher = dispatcher;
 
         final SubscriberAction<ControlTagDeletionInternalEvent> action = new SubscriberAction<ControlTagDeletionInternalEvent>() {
             @Override
             public void run(final ControlTagDeletionInternalEvent event) {
+                // Make sure the billing code doesn't see a stale control tag entry, regardless of the order in which listeners are invoked
+                tagInternalApi.invalidateControlTags(event.getObjectId());
                 if (event.getTagDefinition().getName().equals(ControlTagType.AUTO_INVOICING_OFF.toString()) && event.getObjectType() == ObjectType.ACCOUNT) {
                     final UUID accountId = event.getObjectId();
                     final InternalCallContext context = internalCallContextFactory.createInternalCallContext(event.getSearchKey2(), event.getSearchKey1(), "InvoiceTagHandler", CallOrigin.INTERNAL, UserType.SYSTEM, event.getUserToken());
@@ -23,8 +23,11 @@ import org.killbill.bus.api.PersistentBus;
 import org.killbill.billing.invoice.InvoiceListener;
 import org.killbill.billing.invoice.InvoiceTagHandler;
 import org.killbill.billing.invoice.notification.NextBillingDateNotifier;
+import org.killbill.billing.invoice.template.bundles.ResourceBundleCache;
 import org.killbill.billing.platform.api.LifecycleHandlerType;
 import org.killbill.billing.platform.api.LifecycleHandlerType.LifecycleLevel;
+import org.killbill.billing.tenant.api.TenantInternalApi;
+import org.killbill.billing.tenant.api.TenantKV.TenantKey;
 import org.killbill.notificationq.api.NotificationQueueService.NoSuchNotificationQueue;
 import org.killbill.notificationq.api.NotificationQueueService.NotificationQueueAlreadyExists;
 
@@ -37,15 +40,20 @@ public class DefaultInvoiceService implements InvoiceService {
     private final InvoiceTagHandler tagHandler;
     private final PersistentBus eventBus;
     private final ParentInvoiceCommitmentNotifier parentInvoiceNotifier;
+    private final TenantInternalApi tenantInternalApi;
+    private final ResourceBundleCache resourceBundleCache;
 
     @Inject
     public DefaultInvoiceService(final InvoiceListener invoiceListener, final InvoiceTagHandler tagHandler, final PersistentBus eventBus,
-                                 final NextBillingDateNotifier dateNotifier, final ParentInvoiceCommitmentNotifier parentInvoiceNotifier) {
+                                 final NextBillingDateNotifier dateNotifier, final ParentInvoiceCommitmentNotifier parentInvoiceNotifier,
+                                 final TenantInternalApi tenantInternalApi, final ResourceBundleCache resourceBundleCache) {
         this.invoiceListener = invoiceListener;
         this.tagHandler = tagHandler;
         this.eventBus = eventBus;
         this.dateNotifier = dateNotifier;
         this.parentInvoiceNotifier = parentInvoiceNotifier;
+        this.tenantInternalApi = tenantInternalApi;
+        this.resourceBundleCache = resourceBundleCache;
     }
 
     @Override
@@ -68,6 +76,8 @@ public class DefaultInvoiceService implements InvoiceService {
         }
         dateNotifier.initialize();
         parentInvoiceNotifier.initialize();
+        tenantInternalApi.initializeCacheInvalidationCallback(TenantKey.INVOICE_TRANSLATION_, resourceBundleCache);
+        tenantInternalApi.initializeCacheInvalidationCallback(TenantKey.CATALOG_TRANSLATION_, resourceBundleCache);
     }
 
     @LifecycleHandlerType(LifecycleLevel.START_SERVICE)
@@ -165,6 +165,11 @@ public class DefaultInvoiceInternalApi implements InvoiceInternalApi {
         dao.consumeExstingCBAOnAccountWithUnpaidInvoices(accountId, context);
     }
 
+    @Override
+    public BigDecimal refreshAccountCBA(final UUID accountId, final InternalCallContext context) {
+        return dao.refreshAccountCBA(accountId, context);
+    }
+
     @Override
     public Map<UUID, BigDecimal> validateInvoiceItemAdjustments(final UUID paymentId, final Map<UUID, BigDecimal> idWithAmount, final InternalTenantContext context) throws InvoiceApiException {
         // We want to validate that only refund with invoice *item* adjustments are allowed (as opposed to refund with invoice adjustment)
@@ -121,6 +121,30 @@ public class MultiTenantInvoiceConfig extends MultiTenantConfigBase implements I
         return staticConfig.getMaxGlobalLockRetries();
     }
 
+    @Override
+    public int getMaxConcurrentInvoiceRunsPerTenant() {
+        return staticConfig.getMaxConcurrentInvoiceRunsPerTenant();
+    }
+
+    @Override
+    public int getMaxConcurrentInvoiceRunsPerTenant(final InternalTenantContext tenantContext) {
+        final String result = getStringTenantConfig("getMaxConcurrentInvoiceRunsPerTenant", tenantContext);
+        if (result != null) {
+            return Integer.parseInt(result);
+        }
+        return getMaxConcurrentInvoiceRunsPerTenant();
+    }
+
+    @Override
+    public TimeSpan getMaxConcurrentInvoiceRunsWaitTime() {
+        return staticConfig.getMaxConcurrentInvoiceRunsWaitTime();
+    }
+
+    @Override
+    public List<TimeSpan> getMaxConcurrentInvoiceRunsRetries() {
+        return staticConfig.getMaxConcurrentInvoiceRunsRetries();
+    }
+
     @Override
     public List<String> getInvoicePluginNames() {
         return staticConfig.getInvoicePluginNames();
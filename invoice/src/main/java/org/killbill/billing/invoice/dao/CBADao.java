@@ -19,10 +19,14 @@
 package org.killbill.billing.invoice.dao;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
 
@@ -33,10 +37,15 @@ import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.entity.EntityPersistenceException;
 import org.killbill.billing.invoice.api.InvoiceApiException;
+import org.killbill.billing.invoice.api.InvoiceItemType;
 import org.killbill.billing.invoice.api.InvoiceStatus;
 import org.killbill.billing.invoice.model.CreditBalanceAdjInvoiceItem;
 import org.killbill.billing.util.entity.dao.EntitySqlDaoWrapperFactory;
 import org.killbill.billing.util.tag.Tag;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.exceptions.UnableToExecuteStatementException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
@@ -47,6 +56,10 @@ import com.google.common.collect.Ordering;
 
 public class CBADao {
 
+    private static final Logger log = LoggerFactory.getLogger(CBADao.class);
+
+    private static final String ACCOUNT_CBA_CREATION_CHECKPOINT = "invoice_account_cba_creation";
+
     private final InvoiceDaoHelper invoiceDaoHelper;
 
     @Inject
@@ -54,12 +67,144 @@ public class CBADao {
         this.invoiceDaoHelper = invoiceDaoHelper;
     }
 
-    // PERF: Compute the CBA directly in the database (faster than re-constructing all invoices)
+    // PERF: The account CBA is maintained in invoice_account_cba, in the same transaction as the CBA changes (see the record* methods below),
+    // so that it isn't recomputed across all invoice items every time
     public BigDecimal getAccountCBAFromTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory, final InternalTenantContext context) {
+        final BigDecimal accountCBA = getAccountCBASqlDao(entitySqlDaoWrapperFactory).getAccountCBA(context);
+        // No CBA change yet since the running balance was introduced
+        return accountCBA != null ? accountCBA : computeAccountCBAFromTransaction(entitySqlDaoWrapperFactory, context);
+    }
+
+    // Compute the CBA from scratch, directly in the database (faster than re-constructing all invoices)
+    public BigDecimal computeAccountCBAFromTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory, final InternalTenantContext context) {
         final InvoiceItemSqlDao invoiceItemSqlDao = entitySqlDaoWrapperFactory.become(InvoiceItemSqlDao.class);
         return invoiceItemSqlDao.getAccountCBA(context);
     }
 
+    // Consistency check: recompute the running balance from scratch, fix it if needed and return the (previous) running balance
+    public BigDecimal refreshAccountCBAFromTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory, final InternalCallContext context) {
+        final InvoiceAccountCBASqlDao accountCBASqlDao = getAccountCBASqlDao(entitySqlDaoWrapperFactory);
+        // Lock the running balance before recomputing it, so that no concurrent CBA change commits in between
+        BigDecimal runningAccountCBA = accountCBASqlDao.getAccountCBAForUpdate(context);
+        if (runningAccountCBA == null) {
+            if (createAccountCBAFromTransaction(entitySqlDaoWrapperFactory, context)) {
+                return null;
+            }
+            runningAccountCBA = accountCBASqlDao.getAccountCBAForUpdate(context);
+        }
+
+        final BigDecimal accountCBA = computeAccountCBAFromTransaction(entitySqlDaoWrapperFactory, context);
+        if (runningAccountCBA.compareTo(accountCBA) != 0) {
+            log.warn("Fixing running CBA for accountRecordId='{}': runningAccountCBA='{}', accountCBA='{}'", context.getAccountRecordId(), runningAccountCBA, accountCBA);
+            accountCBASqlDao.updateAccountCBA(accountCBA, context);
+        }
+        return runningAccountCBA;
+    }
+
+    // Must be called once the items have been created
+    public void recordInvoiceItemsCreationFromTransaction(final Iterable<InvoiceItemModelDao> invoiceItems,
+                                                          final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory,
+                                                          final InternalCallContext context) {
+        final Map<UUID, BigDecimal> cbaAmountPerInvoiceId = new HashMap<UUID, BigDecimal>();
+        for (final InvoiceItemModelDao invoiceItem : invoiceItems) {
+            if (InvoiceItemType.CBA_ADJ.equals(invoiceItem.getType())) {
+                final BigDecimal cbaAmount = cbaAmountPerInvoiceId.get(invoiceItem.getInvoiceId());
+                cbaAmountPerInvoiceId.put(invoiceItem.getInvoiceId(), cbaAmount == null ? invoiceItem.getAmount() : cbaAmount.add(invoiceItem.getAmount()));
+            }
+        }
+        if (cbaAmountPerInvoiceId.isEmpty()) {
+            return;
+        }
+
+        final InvoiceSqlDao invoiceSqlDao = entitySqlDaoWrapperFactory.become(InvoiceSqlDao.class);
+        BigDecimal accountCBADelta = BigDecimal.ZERO;
+        for (final Entry<UUID, BigDecimal> entry : cbaAmountPerInvoiceId.entrySet()) {
+            final InvoiceModelDao invoice = invoiceSqlDao.getById(entry.getKey().toString(), context);
+            if (invoice != null && InvoiceStatus.COMMITTED.equals(invoice.getStatus())) {
+                accountCBADelta = accountCBADelta.add(entry.getValue());
+            }
+        }
+        addToAccountCBAFromTransaction(accountCBADelta, entitySqlDaoWrapperFactory, context);
+    }
+
+    // Must be called once the amount has been updated
+    public void recordInvoiceItemAmountChangeFromTransaction(final InvoiceItemModelDao invoiceItem,
+                                                             final BigDecimal newAmount,
+                                                             final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory,
+                                                             final InternalCallContext context) {
+        if (!InvoiceItemType.CBA_ADJ.equals(invoiceItem.getType())) {
+            return;
+        }
+
+        final InvoiceModelDao invoice = entitySqlDaoWrapperFactory.become(InvoiceSqlDao.class).getById(invoiceItem.getInvoiceId().toString(), context);
+        if (invoice != null && InvoiceStatus.COMMITTED.equals(invoice.getStatus())) {
+            addToAccountCBAFromTransaction(newAmount.subtract(invoiceItem.getAmount()), entitySqlDaoWrapperFactory, context);
+        }
+    }
+
+    // Must be called once the status has been updated: the CBA items only count on COMMITTED invoices
+    public void recordInvoiceStatusChangeFromTransaction(final UUID invoiceId,
+                                                         final InvoiceStatus oldStatus,
+                                                         final InvoiceStatus newStatus,
+                                                         final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory,
+                                                         final InternalCallContext context) {
+        final boolean wasCommitted = InvoiceStatus.COMMITTED.equals(oldStatus);
+        final boolean isCommitted = InvoiceStatus.COMMITTED.equals(newStatus);
+        if (wasCommitted == isCommitted) {
+            return;
+        }
+
+        BigDecimal invoiceCBA = BigDecimal.ZERO;
+        for (final InvoiceItemModelDao invoiceItem : entitySqlDaoWrapperFactory.become(InvoiceItemSqlDao.class).getInvoiceItemsByInvoice(invoiceId.toString(), context)) {
+            if (InvoiceItemType.CBA_ADJ.equals(invoiceItem.getType())) {
+                invoiceCBA = invoiceCBA.add(invoiceItem.getAmount());
+            }
+        }
+        addToAccountCBAFromTransaction(isCommitted ? invoiceCBA : invoiceCBA.negate(), entitySqlDaoWrapperFactory, context);
+    }
+
+    private void addToAccountCBAFromTransaction(final BigDecimal accountCBADelta, final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory, final InternalCallContext context) {
+        if (accountCBADelta.compareTo(BigDecimal.ZERO) == 0) {
+            return;
+        }
+
+        final InvoiceAccountCBASqlDao accountCBASqlDao = getAccountCBASqlDao(entitySqlDaoWrapperFactory);
+        if (accountCBASqlDao.addToAccountCBA(accountCBADelta, context) == 0 &&
+            !createAccountCBAFromTransaction(entitySqlDaoWrapperFactory, context)) {
+            // The row was created by a concurrent transaction, which couldn't see our change
+            accountCBASqlDao.addToAccountCBA(accountCBADelta, context);
+        }
+    }
+
+    // First CBA change since the running balance was introduced: create the row from scratch (this already includes the changes
+    // of the current transaction). Concurrent transactions may try to create it as well: the first one wins (unique index on
+    // account_record_id) and false is returned to the others, which can then update the row.
+    private boolean createAccountCBAFromTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory, final InternalCallContext context) {
+        final Handle handle = entitySqlDaoWrapperFactory.getHandle();
+        // The failed insert must not abort the whole transaction (PostgreSQL)
+        handle.checkpoint(ACCOUNT_CBA_CREATION_CHECKPOINT);
+        try {
+            getAccountCBASqlDao(entitySqlDaoWrapperFactory).create(computeAccountCBAFromTransaction(entitySqlDaoWrapperFactory, context), context);
+        } catch (final UnableToExecuteStatementException e) {
+            if (!isUniqueKeyViolation(e)) {
+                throw e;
+            }
+            handle.rollback(ACCOUNT_CBA_CREATION_CHECKPOINT);
+            return false;
+        }
+        handle.release(ACCOUNT_CBA_CREATION_CHECKPOINT);
+        return true;
+    }
+
+    private boolean isUniqueKeyViolation(final UnableToExecuteStatementException e) {
+        return e.getCause() instanceof SQLIntegrityConstraintViolationException ||
+               (e.getCause() instanceof SQLException && "23505".equals(((SQLException) e.getCause()).getSQLState()));
+    }
+
+    private InvoiceAccountCBASqlDao getAccountCBASqlDao(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) {
+        return entitySqlDaoWrapperFactory.getHandle().attach(InvoiceAccountCBASqlDao.class);
+    }
+
     // We expect a clean up to date invoice, with all the items except the cba, that we will compute in that method
     public InvoiceItemModelDao computeCBAComplexity(final InvoiceModelDao invoice,
                                                     @Nullable final BigDecimal accountCBAOrNull,
@@ -227,6 +372,9 @@ public class CBADao {
                                final InternalCallContext context) throws EntityPersistenceException {
         final InvoiceItemSqlDao transInvoiceItemDao = entitySqlDaoWrapperFactory.become(InvoiceItemSqlDao.class);
         transInvoiceItemDao.create(cbaItem, context);
+        if (InvoiceStatus.COMMITTED.equals(invoiceModelDao.getStatus())) {
+            addToAccountCBAFromTransaction(cbaItem.getAmount(), entitySqlDaoWrapperFactory, context);
+        }
 
         // Refresh the in-memory item
         invoiceModelDao.addInvoiceItem(cbaItem);
@@ -17,7 +17,9 @@
 
 package org.killbill.billing.invoice.dao;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.UUID;
 
@@ -30,9 +32,6 @@ public class ExistingInvoiceMetadata {
     private final Map<UUID, InvoiceModelDao> invoicesCache = new HashMap<UUID, InvoiceModelDao>();
     private final Map<UUID, InvoiceItemModelDao> invoiceItemsCache = new HashMap<UUID, InvoiceItemModelDao>();
 
-    private InvoiceSqlDao invoiceSqlDao;
-    private InvoiceItemSqlDao invoiceItemSqlDao;
-
     public ExistingInvoiceMetadata(final Iterable<Invoice> existingInvoices) {
         for (final Invoice invoice : existingInvoices) {
             invoicesCache.put(invoice.getId(), new InvoiceModelDao(invoice));
@@ -42,24 +41,37 @@ public class ExistingInvoiceMetadata {
         }
     }
 
-    public ExistingInvoiceMetadata(final InvoiceSqlDao invoiceSqlDao, final InvoiceItemSqlDao invoiceItemSqlDao) {
-        this.invoiceSqlDao = invoiceSqlDao;
-        this.invoiceItemSqlDao = invoiceItemSqlDao;
+    // PERF: retrieve the invoices and items on disk with one query each (instead of one query per invoice and per item)
+    public ExistingInvoiceMetadata(final InvoiceSqlDao invoiceSqlDao,
+                                   final InvoiceItemSqlDao invoiceItemSqlDao,
+                                   final Iterable<InvoiceModelDao> invoices,
+                                   final InternalTenantContext context) {
+        final Collection<String> invoiceIds = new HashSet<String>();
+        final Collection<String> invoiceItemIds = new HashSet<String>();
+        for (final InvoiceModelDao invoice : invoices) {
+            invoiceIds.add(invoice.getId().toString());
+            for (final InvoiceItemModelDao invoiceItem : invoice.getInvoiceItems()) {
+                invoiceItemIds.add(invoiceItem.getId().toString());
+            }
+        }
+
+        if (!invoiceIds.isEmpty()) {
+            for (final InvoiceModelDao invoice : invoiceSqlDao.getByIds(invoiceIds, context)) {
+                invoicesCache.put(invoice.getId(), invoice);
+            }
+        }
+        if (!invoiceItemIds.isEmpty()) {
+            for (final InvoiceItemModelDao invoiceItem : invoiceItemSqlDao.getByIds(invoiceItemIds, context)) {
+                invoiceItemsCache.put(invoiceItem.getId(), invoiceItem);
+            }
+        }
     }
 
     public InvoiceModelDao getExistingInvoice(final UUID invoiceId, final InternalTenantContext context) {
-        if (invoiceSqlDao != null) {
-            return invoiceSqlDao.getById(invoiceId.toString(), context);
-        } else {
-            return invoicesCache.get(invoiceId);
-        }
+        return invoicesCache.get(invoiceId);
     }
 
     public InvoiceItemModelDao getExistingInvoiceItem(final UUID invoiceItemId, final InternalTenantContext context) {
-        if (invoiceItemSqlDao != null) {
-            return invoiceItemSqlDao.getById(invoiceItemId.toString(), context);
-        } else {
-            return invoiceItemsCache.get(invoiceItemId);
-        }
+        return invoiceItemsCache.get(invoiceItemId);
     }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.invoice.dao;
+
+import java.math.BigDecimal;
+
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.commons.jdbi.binder.SmartBindBean;
+import org.killbill.commons.jdbi.template.KillBillSqlDaoStringTemplate;
+import org.skife.jdbi.v2.sqlobject.Bind;
+import org.skife.jdbi.v2.sqlobject.SqlQuery;
+import org.skife.jdbi.v2.sqlobject.SqlUpdate;
+
+// Running account CBA, see CBADao
+@KillBillSqlDaoStringTemplate
+public interface InvoiceAccountCBASqlDao {
+
+    @SqlQuery
+    public BigDecimal getAccountCBA(@SmartBindBean final InternalTenantContext context);
+
+    // Row lock held until the end of the transaction
+    @SqlQuery
+    public BigDecimal getAccountCBAForUpdate(@SmartBindBean final InternalTenantContext context);
+
+    @SqlUpdate
+    public void create(@Bind("cbaAmount") final BigDecimal cbaAmount,
+                       @SmartBindBean final InternalCallContext context);
+
+    @SqlUpdate
+    public int addToAccountCBA(@Bind("cbaAmount") final BigDecimal cbaAmount,
+                               @SmartBindBean final InternalCallContext context);
+
+    @SqlUpdate
+    public int updateAccountCBA(@Bind("cbaAmount") final BigDecimal cbaAmount,
+                                @SmartBindBean final InternalCallContext context);
+}
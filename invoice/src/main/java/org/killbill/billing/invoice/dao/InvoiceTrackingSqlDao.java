@@ -19,6 +19,7 @@ package org.killbill.billing.invoice.dao;
 
 import java.util.Collection;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 
 import org.killbill.billing.callcontext.InternalCallContext;
@@ -28,6 +29,7 @@ import org.killbill.billing.util.entity.Entity;
 import org.killbill.billing.util.entity.dao.Audited;
 import org.killbill.billing.util.entity.dao.EntitySqlDao;
 import org.killbill.commons.jdbi.binder.SmartBindBean;
+import org.killbill.commons.jdbi.statement.SmartFetchSize;
 import org.killbill.commons.jdbi.template.KillBillSqlDaoStringTemplate;
 import org.skife.jdbi.v2.sqlobject.Bind;
 import org.skife.jdbi.v2.sqlobject.SqlQuery;
@@ -47,6 +49,12 @@ public interface InvoiceTrackingSqlDao extends EntitySqlDao<InvoiceTrackingModel
                                                           @Bind("endDate") final Date endDate,
                                                           @SmartBindBean final InternalTenantContext context);
 
+    @SqlQuery
+    @SmartFetchSize(shouldStream = true)
+    Iterator<InvoiceTrackingModelDao> streamTrackingsByDateRange(@Bind("startDate") final Date startDate,
+                                                                 @Bind("endDate") final Date endDate,
+                                                                 @SmartBindBean final InternalTenantContext context);
+
     @SqlQuery
     List<InvoiceTrackingModelDao> getTrackingsForInvoices(@BindIn("invoiceIds") final Collection<String> invoiceIds,
                                                           @SmartBindBean final InternalTenantContext context);
@@ -48,6 +48,7 @@ import org.killbill.billing.invoice.usage.SubscriptionUsageInArrear;
 import org.killbill.billing.invoice.usage.SubscriptionUsageInArrear.SubscriptionUsageInArrearItemsAndNextNotificationDate;
 import org.killbill.billing.junction.BillingEvent;
 import org.killbill.billing.junction.BillingEventSet;
+import org.killbill.billing.usage.api.RawUsageRecord;
 import org.killbill.billing.util.config.definition.InvoiceConfig;
 import org.killbill.billing.util.config.definition.InvoiceConfig.UsageDetailMode;
 import org.slf4j.Logger;
@@ -124,7 +125,7 @@ public class UsageInvoiceItemGenerator extends InvoiceItemGenerator {
 
                 final UUID subscriptionId = event.getSubscriptionId();
                 if (curSubscriptionId != null && !curSubscriptionId.equals(subscriptionId)) {
-                    final SubscriptionUsageInArrear subscriptionUsageInArrear = new SubscriptionUsageInArrear(account.getId(), invoiceId, curEvents, rawUsgRes.getRawUsage(), rawUsgRes.getExistingTrackingIds(), targetDate, rawUsgRes.getRawUsageStartDate(), usageDetailMode, invoiceConfig, internalCallContext);
+                    final SubscriptionUsageInArrear subscriptionUsageInArrear = new SubscriptionUsageInArrear(account.getId(), invoiceId, curEvents, getRawUsage(curSubscriptionId, curEvents, rawUsgRes, targetDate, internalCallContext), rawUsgRes.getExistingTrackingIds().getTrackingIds(curSubscriptionId), targetDate, rawUsgRes.getRawUsageStartDate(), usageDetailMode, invoiceConfig, internalCallContext);
                     final List<InvoiceItem> usageInArrearItems = perSubscriptionInArrearUsageItems.get(curSubscriptionId);
 
                     final SubscriptionUsageInArrearItemsAndNextNotificationDate subscriptionResult = subscriptionUsageInArrear.computeMissingUsageInvoiceItems(usageInArrearItems != null ? usageInArrearItems : ImmutableList.<InvoiceItem>of(), invoiceItemGeneratorLogger);
@@ -139,7 +140,7 @@ public class UsageInvoiceItemGenerator extends InvoiceItemGenerator {
                 curEvents.add(event);
             }
             if (curSubscriptionId != null) {
-                final SubscriptionUsageInArrear subscriptionUsageInArrear = new SubscriptionUsageInArrear(account.getId(), invoiceId, curEvents, rawUsgRes.getRawUsage(), rawUsgRes.getExistingTrackingIds(), targetDate, rawUsgRes.getRawUsageStartDate(), usageDetailMode, invoiceConfig, internalCallContext);
+                final SubscriptionUsageInArrear subscriptionUsageInArrear = new SubscriptionUsageInArrear(account.getId(), invoiceId, curEvents, getRawUsage(curSubscriptionId, curEvents, rawUsgRes, targetDate, internalCallContext), rawUsgRes.getExistingTrackingIds().getTrackingIds(curSubscriptionId), targetDate, rawUsgRes.getRawUsageStartDate(), usageDetailMode, invoiceConfig, internalCallContext);
                 final List<InvoiceItem> usageInArrearItems = perSubscriptionInArrearUsageItems.get(curSubscriptionId);
 
                 final SubscriptionUsageInArrearItemsAndNextNotificationDate subscriptionResult = subscriptionUsageInArrear.computeMissingUsageInvoiceItems(usageInArrearItems != null ? usageInArrearItems : ImmutableList.<InvoiceItem>of(), invoiceItemGeneratorLogger);
@@ -156,6 +157,22 @@ public class UsageInvoiceItemGenerator extends InvoiceItemGenerator {
         }
     }
 
+    private List<RawUsageRecord> getRawUsage(final UUID subscriptionId, final Iterable<BillingEvent> subscriptionEvents, final RawUsageOptimizerResult rawUsgRes, final LocalDate targetDate, final InternalCallContext internalCallContext) {
+        // Don't query the usage of subscriptions without any usage IN_ARREAR section
+        final boolean hasInArrearUsage = Iterables.any(subscriptionEvents, new Predicate<BillingEvent>() {
+            @Override
+            public boolean apply(final BillingEvent event) {
+                return Iterables.any(event.getUsages(), new Predicate<Usage>() {
+                    @Override
+                    public boolean apply(final Usage input) {
+                        return input.getBillingMode() == BillingMode.IN_ARREAR;
+                    }
+                });
+            }
+        });
+        return hasInArrearUsage ? rawUsageOptimizer.getInArrearUsageForSubscription(subscriptionId, rawUsgRes, targetDate, internalCallContext) : ImmutableList.<RawUsageRecord>of();
+    }
+
     private LocalDate getMinBillingEventDate(final BillingEventSet eventSet, final InternalCallContext internalCallContext) {
         DateTime minDate = null;
         for (final BillingEvent cur : eventSet) {
@@ -23,6 +23,8 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nullable;
 
@@ -54,6 +56,8 @@ public class HtmlInvoiceGenerator {
     private final TemplateEngine templateEngine;
     private final TenantInternalApi tenantApi;
     private final ResourceBundleFactory bundleFactory;
+    // Default templates come from the classpath (or filesystem) and are only read once
+    private final ConcurrentMap<String, String> defaultTemplates = new ConcurrentHashMap<String, String>();
 
     @Inject
     public HtmlInvoiceGenerator(final InvoiceFormatterFactory factory,
@@ -113,6 +117,15 @@ public class HtmlInvoiceGenerator {
     }
 
     private String getDefaultTemplate(final String templateName) throws IOException {
+        String template = defaultTemplates.get(templateName);
+        if (template == null) {
+            template = loadDefaultTemplate(templateName);
+            defaultTemplates.put(templateName, template);
+        }
+        return template;
+    }
+
+    private String loadDefaultTemplate(final String templateName) throws IOException {
         try {
             final InputStream templateStream = UriAccessor.accessUri(templateName);
             return IOUtils.toString(templateStream);
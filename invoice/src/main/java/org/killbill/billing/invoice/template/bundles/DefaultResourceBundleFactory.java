@@ -37,16 +37,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Charsets;
+import com.google.common.base.Optional;
 
 public class DefaultResourceBundleFactory implements ResourceBundleFactory {
 
     private static final Logger logger = LoggerFactory.getLogger(DefaultResourceBundleFactory.class);
 
     private final TenantInternalApi tenantApi;
+    private final ResourceBundleCache resourceBundleCache;
 
     @Inject
-    public DefaultResourceBundleFactory(final TenantInternalApi tenantApi) {
+    public DefaultResourceBundleFactory(final TenantInternalApi tenantApi, final ResourceBundleCache resourceBundleCache) {
         this.tenantApi = tenantApi;
+        this.resourceBundleCache = resourceBundleCache;
     }
 
     @Override
@@ -56,8 +59,14 @@ public class DefaultResourceBundleFactory implements ResourceBundleFactory {
         }
         final String bundle = getTenantBundleForType(locale, type, tenantContext);
         if (bundle != null) {
+            final ResourceBundle cachedResourceBundle = resourceBundleCache.getTenantBundle(bundle, tenantContext);
+            if (cachedResourceBundle != null) {
+                return cachedResourceBundle;
+            }
             try {
-                return new PropertyResourceBundle(new ByteArrayInputStream(bundle.getBytes(Charsets.UTF_8)));
+                final ResourceBundle resourceBundle = new PropertyResourceBundle(new ByteArrayInputStream(bundle.getBytes(Charsets.UTF_8)));
+                resourceBundleCache.putTenantBundle(bundle, resourceBundle, tenantContext);
+                return resourceBundle;
             } catch (IOException e) {
                 logger.warn("Failed to de-serialize the property bundle for tenant {} and locale {}", tenantContext.getTenantRecordId(), locale);
                 // Fall through...
@@ -100,6 +109,17 @@ public class DefaultResourceBundleFactory implements ResourceBundleFactory {
     }
 
     private ResourceBundle getBundleFromPropertiesFile(final String propertiesFileName) {
+        final Optional<ResourceBundle> cachedBundle = resourceBundleCache.getGlobalBundle(propertiesFileName);
+        if (cachedBundle != null) {
+            return cachedBundle.orNull();
+        }
+
+        final ResourceBundle bundle = loadBundleFromPropertiesFile(propertiesFileName);
+        resourceBundleCache.putGlobalBundle(propertiesFileName, bundle);
+        return bundle;
+    }
+
+    private ResourceBundle loadBundleFromPropertiesFile(final String propertiesFileName) {
         try {
             final InputStream inputStream = UriAccessor.accessUri(propertiesFileName);
             if (inputStream == null) {
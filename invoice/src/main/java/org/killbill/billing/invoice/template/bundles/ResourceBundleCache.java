@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.template.bundles;
+
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nullable;
+
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.tenant.api.TenantInternalApi.CacheInvalidationCallback;
+import org.killbill.billing.tenant.api.TenantKV.TenantKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Optional;
+
+//
+// Parsed translation bundles, to avoid de-serializing them each time an invoice is rendered.
+//
+// Per-tenant bundles are keyed by their (raw) content, so a cached entry can never be stale: the entries of a tenant are
+// simply dropped when its translations are updated (tenant broadcast), to release the memory.
+//
+public class ResourceBundleCache implements CacheInvalidationCallback {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceBundleCache.class);
+
+    private final ConcurrentMap<Long, ConcurrentMap<String, ResourceBundle>> tenantBundles = new ConcurrentHashMap<Long, ConcurrentMap<String, ResourceBundle>>();
+    // Bundles loaded from properties files (the ones from the classpath are already cached by ResourceBundle)
+    private final ConcurrentMap<String, Optional<ResourceBundle>> globalBundles = new ConcurrentHashMap<String, Optional<ResourceBundle>>();
+
+    @Nullable
+    public ResourceBundle getTenantBundle(final String bundle, final InternalTenantContext tenantContext) {
+        final ConcurrentMap<String, ResourceBundle> bundles = tenantBundles.get(tenantContext.getTenantRecordId());
+        return bundles == null ? null : bundles.get(bundle);
+    }
+
+    public void putTenantBundle(final String bundle, final ResourceBundle resourceBundle, final InternalTenantContext tenantContext) {
+        ConcurrentMap<String, ResourceBundle> bundles = tenantBundles.get(tenantContext.getTenantRecordId());
+        if (bundles == null) {
+            tenantBundles.putIfAbsent(tenantContext.getTenantRecordId(), new ConcurrentHashMap<String, ResourceBundle>());
+            bundles = tenantBundles.get(tenantContext.getTenantRecordId());
+        }
+        bundles.put(bundle, resourceBundle);
+    }
+
+    @Nullable
+    public Optional<ResourceBundle> getGlobalBundle(final String propertiesFileName) {
+        return globalBundles.get(propertiesFileName);
+    }
+
+    public void putGlobalBundle(final String propertiesFileName, @Nullable final ResourceBundle resourceBundle) {
+        globalBundles.put(propertiesFileName, Optional.<ResourceBundle>fromNullable(resourceBundle));
+    }
+
+    @Override
+    public void invalidateCache(final TenantKey key, final Object cookie, final InternalTenantContext tenantContext) {
+        logger.info("Invalidate translation bundles cache for tenantRecordId='{}'", tenantContext.getTenantRecordId());
+        tenantBundles.remove(tenantContext.getTenantRecordId());
+    }
+}
@@ -49,6 +49,7 @@ import org.killbill.billing.invoice.api.formatters.ResourceBundleFactory;
 import org.killbill.billing.invoice.model.CreditAdjInvoiceItem;
 import org.killbill.billing.invoice.model.CreditBalanceAdjInvoiceItem;
 import org.killbill.billing.invoice.model.DefaultInvoice;
+import org.killbill.billing.util.template.translation.Translator;
 import org.killbill.billing.util.template.translation.TranslatorConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -116,8 +117,13 @@ public class DefaultInvoiceFormatter implements InvoiceFormatter {
         }
 
         final List<InvoiceItem> formatters = new ArrayList<InvoiceItem>();
+        if (invoiceItems.isEmpty()) {
+            return formatters;
+        }
+
+        final Translator catalogTranslator = DefaultInvoiceItemFormatter.createCatalogTranslator(config, locale, context, bundleFactory);
         for (final InvoiceItem item : invoiceItems) {
-            formatters.add(new DefaultInvoiceItemFormatter(config, item, dateFormatter, locale, context, bundleFactory));
+            formatters.add(new DefaultInvoiceItemFormatter(item, dateFormatter, locale, catalogTranslator));
         }
         return formatters;
     }
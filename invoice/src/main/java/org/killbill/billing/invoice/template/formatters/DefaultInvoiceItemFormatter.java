@@ -58,12 +58,27 @@ public class DefaultInvoiceItemFormatter implements InvoiceItemFormatter {
                                        final Locale locale,
                                        final InternalTenantContext context,
                                        final ResourceBundleFactory bundleFactory) {
+        this(item, dateFormatter, locale, createCatalogTranslator(config, locale, context, bundleFactory));
+    }
+
+    // The translator can be shared across all items of an invoice
+    public DefaultInvoiceItemFormatter(final InvoiceItem item,
+                                       final DateTimeFormatter dateFormatter,
+                                       final Locale locale,
+                                       final Translator translator) {
         this.item = item;
         this.dateFormatter = dateFormatter;
         this.locale = locale;
+        this.translator = translator;
+    }
+
+    public static Translator createCatalogTranslator(final TranslatorConfig config,
+                                                     final Locale locale,
+                                                     final InternalTenantContext context,
+                                                     final ResourceBundleFactory bundleFactory) {
         final ResourceBundle bundle = bundleFactory.createBundle(locale, config.getCatalogBundlePath(), ResourceBundleType.CATALOG_TRANSLATION, context);
         final ResourceBundle defaultBundle = bundleFactory.createBundle(LocaleUtils.toLocale(config.getDefaultLocale()), config.getCatalogBundlePath(), ResourceBundleType.CATALOG_TRANSLATION, context);
-        this.translator = new DefaultCatalogTranslator(bundle, defaultBundle);
+        return new DefaultCatalogTranslator(bundle, defaultBundle);
     }
 
     @Override
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.usage;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.killbill.billing.catalog.api.CatalogApiException;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.catalog.api.InternationalPrice;
+import org.killbill.billing.catalog.api.Limit;
+import org.killbill.billing.catalog.api.Tier;
+import org.killbill.billing.catalog.api.Usage;
+import org.killbill.billing.invoice.usage.details.UsageCapacityInArrearAggregate;
+import org.killbill.billing.invoice.usage.details.UsageInArrearTierUnitDetail;
+import org.killbill.billing.usage.api.RolledUpUnit;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+
+import static org.killbill.billing.invoice.usage.UsageUtils.getCapacityInArrearTier;
+
+/**
+ * Pricing of a capacity in arrear usage section for a given currency.
+ * <p/>
+ * The tier limits are read once from the catalog into a [tier][unit type] array of max values, so that finding the
+ * first tier a set of rolled-up units complies with is a scan over primitives. Tier prices are only resolved (and cached) for
+ * the tiers actually walked, as tiers above the complying one don't need a price in that currency.
+ * <p/>
+ * Not thread-safe: there is one such kernel per {@code ContiguousIntervalCapacityUsageInArrear}.
+ */
+class CapacityUsagePricingKernel {
+
+    private static final Joiner joiner = Joiner.on(", ");
+
+    private static final double UNLIMITED = -1;
+
+    private final Usage usage;
+    private final Currency currency;
+    private final Map<String, Integer> unitTypeIndexes;
+    // Max limit per tier and unit type index, null if the tier doesn't define a limit for that unit type
+    private final Double[][] tierMaxLimits;
+    private final InternationalPrice[] tierInternationalPrices;
+    // Resolved on first use of the tier
+    private final BigDecimal[] tierPrices;
+
+    CapacityUsagePricingKernel(final Usage usage, final Currency currency) throws CatalogApiException {
+        this.usage = usage;
+        this.currency = currency;
+        this.unitTypeIndexes = new HashMap<String, Integer>();
+
+        final List<Tier> tiers = getCapacityInArrearTier(usage);
+        for (final Tier tier : tiers) {
+            for (final Limit limit : tier.getLimits()) {
+                final String unitType = limit.getUnit().getName();
+                if (!unitTypeIndexes.containsKey(unitType)) {
+                    unitTypeIndexes.put(unitType, unitTypeIndexes.size());
+                }
+            }
+        }
+
+        this.tierMaxLimits = new Double[tiers.size()][unitTypeIndexes.size()];
+        this.tierInternationalPrices = new InternationalPrice[tiers.size()];
+        this.tierPrices = new BigDecimal[tiers.size()];
+        int tierIdx = 0;
+        for (final Tier tier : tiers) {
+            for (final Limit limit : tier.getLimits()) {
+                final int unitIdx = unitTypeIndexes.get(limit.getUnit().getName());
+                if (tierMaxLimits[tierIdx][unitIdx] == null) {
+                    tierMaxLimits[tierIdx][unitIdx] = limit.getMax();
+                }
+            }
+            tierInternationalPrices[tierIdx] = tier.getRecurringPrice();
+            tierIdx++;
+        }
+    }
+
+    UsageCapacityInArrearAggregate computeToBeBilled(final List<RolledUpUnit> roUnits) throws CatalogApiException {
+        final int[] unitIdxs = new int[roUnits.size()];
+        final long[] amounts = new long[roUnits.size()];
+        for (int i = 0; i < roUnits.size(); i++) {
+            final RolledUpUnit ro = roUnits.get(i);
+            final Integer unitIdx = unitTypeIndexes.get(ro.getUnitType());
+            Preconditions.checkState(unitIdx != null, "Could not find unit type " + ro.getUnitType() + " in usage tier ");
+            unitIdxs[i] = unitIdx;
+            amounts[i] = ro.getAmount();
+        }
+
+        final boolean[] hasDetail = new boolean[unitTypeIndexes.size()];
+        final List<UsageInArrearTierUnitDetail> toBeBilledDetails = new ArrayList<UsageInArrearTierUnitDetail>(roUnits.size());
+        for (int tierIdx = 0; tierIdx < tierPrices.length; tierIdx++) {
+            final BigDecimal curTierPrice = getTierPrice(tierIdx);
+            boolean complies = true;
+            boolean allUnitAmountToZero = true;  // Support for $0 Usage item
+            for (int i = 0; i < unitIdxs.length; i++) {
+                final Double max = tierMaxLimits[tierIdx][unitIdxs[i]];
+                Preconditions.checkState(max != null, "Could not find unit type " + roUnits.get(i).getUnitType() + " in usage tier ");
+
+                // We ignore the min and only look at the max Limit as the tiers should be contiguous.
+                // Specifying a -1 value for last max tier will make the validation works
+                if (max != UNLIMITED && amounts[i] > max) {
+                    complies = false;
+                } else {
+                    allUnitAmountToZero = amounts[i] > 0 ? false : allUnitAmountToZero;
+
+                    if (!hasDetail[unitIdxs[i]]) {
+                        toBeBilledDetails.add(new UsageInArrearTierUnitDetail(tierIdx + 1, roUnits.get(i).getUnitType(), curTierPrice, (int) amounts[i]));
+                        hasDetail[unitIdxs[i]] = true;
+                    }
+                }
+            }
+            if (complies) {
+                return new UsageCapacityInArrearAggregate(toBeBilledDetails, allUnitAmountToZero ? BigDecimal.ZERO : curTierPrice);
+            }
+        }
+        // Probably invalid catalog config
+        Preconditions.checkState(false, "Could not find tier for usage " + usage.getName() + "matching with data = " + joiner.join(roUnits));
+        return null;
+    }
+
+    private BigDecimal getTierPrice(final int tierIdx) throws CatalogApiException {
+        if (tierPrices[tierIdx] == null) {
+            tierPrices[tierIdx] = tierInternationalPrices[tierIdx].getPrice(currency);
+        }
+        return tierPrices[tierIdx];
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.usage;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.killbill.billing.catalog.api.CatalogApiException;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.catalog.api.InternationalPrice;
+import org.killbill.billing.catalog.api.TieredBlock;
+import org.killbill.billing.catalog.api.Usage;
+import org.killbill.billing.invoice.usage.details.UsageConsumableInArrearTierUnitAggregate;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import static org.killbill.billing.invoice.usage.UsageUtils.getConsumableInArrearTieredBlocks;
+
+/**
+ * Pricing of a consumable in arrear usage section for a given currency.
+ * <p/>
+ * The tiered blocks of each unit type are read once from the catalog (on first use of that unit type) into primitive arrays,
+ * so that walking the tiers for a rolled-up amount does not go back to the catalog objects. Prices are only resolved (and cached)
+ * for the tiers actually billed, to build the resulting {@code UsageConsumableInArrearTierUnitAggregate}, which computes the (exact)
+ * amount of each billed tier: a tier which is never reached doesn't need a price in that currency.
+ * <p/>
+ * Not thread-safe: there is one such kernel per {@code ContiguousIntervalConsumableUsageInArrear}.
+ */
+class ConsumableUsagePricingKernel {
+
+    private static final double UNLIMITED = -1;
+
+    private final Usage usage;
+    private final Currency currency;
+    private final Map<String, UnitTiers> perUnitTypeTiers;
+
+    ConsumableUsagePricingKernel(final Usage usage, final Currency currency) {
+        this.usage = usage;
+        this.currency = currency;
+        this.perUnitTypeTiers = new HashMap<String, UnitTiers>();
+    }
+
+    List<UsageConsumableInArrearTierUnitAggregate> computeToBeBilled(final String unitType, final long units, final List<UsageConsumableInArrearTierUnitAggregate> previousUsage) throws CatalogApiException {
+        final UnitTiers unitTiers = getUnitTiers(unitType);
+        switch (usage.getTierBlockPolicy()) {
+            case ALL_TIERS:
+                return computeToBeBilledWith_ALL_TIERS(unitTiers, previousUsage, (int) units);
+            case TOP_TIER:
+                return ImmutableList.of(computeToBeBilledWith_TOP_TIER(unitTiers, (int) units));
+            default:
+                throw new IllegalStateException("Unknown TierBlockPolicy " + usage.getTierBlockPolicy());
+        }
+    }
+
+    private List<UsageConsumableInArrearTierUnitAggregate> computeToBeBilledWith_ALL_TIERS(final UnitTiers unitTiers, final List<UsageConsumableInArrearTierUnitAggregate> previousUsage, final int units) throws CatalogApiException {
+        final List<UsageConsumableInArrearTierUnitAggregate> toBeBilledDetails = new ArrayList<UsageConsumableInArrearTierUnitAggregate>(unitTiers.size());
+        int remainingUnits = units;
+
+        final int lastPreviousUsageTier = previousUsage.size(); // we count tier from 1, 2, ...
+        final boolean hasPreviousUsage = lastPreviousUsageTier > 0;
+
+        for (int i = 0; i < unitTiers.size(); i++) {
+            final int tierNum = i + 1;
+            final int blockTierSize = unitTiers.blockSizes[i];
+            final double maxBlocks = unitTiers.maxBlocks[i];
+
+            final int tmp = remainingUnits / blockTierSize + (remainingUnits % blockTierSize == 0 ? 0 : 1);
+            int nbUsedTierBlocks;
+            if (maxBlocks != UNLIMITED && tmp > maxBlocks) {
+                nbUsedTierBlocks = (int) maxBlocks;
+                remainingUnits = (int) (remainingUnits - maxBlocks * blockTierSize);
+            } else {
+                nbUsedTierBlocks = tmp;
+                remainingUnits = 0;
+            }
+            // We generate an entry if we consumed anything on this tier or if this is the first tier to also support $0 Usage item
+            if (hasPreviousUsage) {
+                final int previousUsageQuantity = tierNum <= lastPreviousUsageTier ? previousUsage.get(i).getQuantity() : 0;
+                if (tierNum < lastPreviousUsageTier) {
+                    Preconditions.checkState(nbUsedTierBlocks == previousUsageQuantity, "Expected usage for tier='%s', unit='%s' to be full, instead found units='[%s/%s]'",
+                                             tierNum, unitTiers.unitType, nbUsedTierBlocks, previousUsageQuantity);
+                } else {
+                    Preconditions.checkState(nbUsedTierBlocks - previousUsageQuantity >= 0, "Expected usage for tier='%s', unit='%s' to contain at least as mush as current usage, instead found units='[%s/%s]",
+                                             tierNum, unitTiers.unitType, nbUsedTierBlocks, previousUsageQuantity);
+                }
+                nbUsedTierBlocks = nbUsedTierBlocks - previousUsageQuantity;
+            }
+            if (tierNum == 1 || nbUsedTierBlocks > 0) {
+                toBeBilledDetails.add(new UsageConsumableInArrearTierUnitAggregate(tierNum, unitTiers.unitType, unitTiers.getPrice(i), blockTierSize, nbUsedTierBlocks));
+            }
+        }
+        return toBeBilledDetails;
+    }
+
+    private UsageConsumableInArrearTierUnitAggregate computeToBeBilledWith_TOP_TIER(final UnitTiers unitTiers, final int units) throws CatalogApiException {
+        int remainingUnits = units;
+
+        // By default last tierBlock
+        int targetTier = unitTiers.size() - 1;
+        for (int i = 0; i < unitTiers.size(); i++) {
+            final int blockTierSize = unitTiers.blockSizes[i];
+            final int tmp = remainingUnits / blockTierSize + (remainingUnits % blockTierSize == 0 ? 0 : 1);
+            if (tmp > unitTiers.maxBlocks[i]) { /* Includes the case where max is unlimited (-1) */
+                remainingUnits = (int) (remainingUnits - unitTiers.maxBlocks[i] * blockTierSize);
+            } else {
+                targetTier = i;
+                break;
+            }
+        }
+        final int lastBlockTierSize = unitTiers.blockSizes[targetTier];
+        final int nbBlocks = units / lastBlockTierSize + (units % lastBlockTierSize == 0 ? 0 : 1);
+
+        return new UsageConsumableInArrearTierUnitAggregate(targetTier + 1, unitTiers.unitType, unitTiers.getPrice(targetTier), lastBlockTierSize, nbBlocks);
+    }
+
+    private UnitTiers getUnitTiers(final String unitType) throws CatalogApiException {
+        UnitTiers unitTiers = perUnitTypeTiers.get(unitType);
+        if (unitTiers == null) {
+            unitTiers = new UnitTiers(unitType, getConsumableInArrearTieredBlocks(usage, unitType));
+            perUnitTypeTiers.put(unitType, unitTiers);
+        }
+        return unitTiers;
+    }
+
+    private final class UnitTiers {
+
+        private final String unitType;
+        private final int[] blockSizes;
+        private final double[] maxBlocks;
+        private final InternationalPrice[] internationalPrices;
+        // Resolved on first use of the tier
+        private final BigDecimal[] prices;
+
+        private UnitTiers(final String unitType, final List<TieredBlock> tieredBlocks) {
+            this.unitType = unitType;
+            this.blockSizes = new int[tieredBlocks.size()];
+            this.maxBlocks = new double[tieredBlocks.size()];
+            this.internationalPrices = new InternationalPrice[tieredBlocks.size()];
+            this.prices = new BigDecimal[tieredBlocks.size()];
+            int i = 0;
+            for (final TieredBlock tieredBlock : tieredBlocks) {
+                blockSizes[i] = tieredBlock.getSize().intValue();
+                maxBlocks[i] = tieredBlock.getMax();
+                internationalPrices[i] = tieredBlock.getPrice();
+                i++;
+            }
+        }
+
+        private BigDecimal getPrice(final int tierIdx) throws CatalogApiException {
+            if (prices[tierIdx] == null) {
+                prices[tierIdx] = internationalPrices[tierIdx].getPrice(currency);
+            }
+            return prices[tierIdx];
+        }
+
+        private int size() {
+            return blockSizes.length;
+        }
+    }
+}
@@ -18,7 +18,6 @@
 package org.killbill.billing.invoice.usage;
 
 import java.math.BigDecimal;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -28,8 +27,6 @@ import org.joda.time.LocalDate;
 import org.killbill.billing.ErrorCode;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.catalog.api.CatalogApiException;
-import org.killbill.billing.catalog.api.Limit;
-import org.killbill.billing.catalog.api.Tier;
 import org.killbill.billing.catalog.api.Usage;
 import org.killbill.billing.invoice.api.InvoiceApiException;
 import org.killbill.billing.invoice.api.InvoiceItem;
@@ -37,22 +34,18 @@ import org.killbill.billing.invoice.generator.InvoiceWithMetadata.TrackingRecord
 import org.killbill.billing.invoice.model.UsageInvoiceItem;
 import org.killbill.billing.invoice.usage.details.UsageCapacityInArrearAggregate;
 import org.killbill.billing.invoice.usage.details.UsageInArrearAggregate;
-import org.killbill.billing.invoice.usage.details.UsageInArrearTierUnitDetail;
 import org.killbill.billing.usage.api.RawUsageRecord;
 import org.killbill.billing.usage.api.RolledUpUnit;
 import org.killbill.billing.util.config.definition.InvoiceConfig;
 import org.killbill.billing.util.config.definition.InvoiceConfig.UsageDetailMode;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Lists;
-
-import static org.killbill.billing.invoice.usage.UsageUtils.getCapacityInArrearTier;
 
 public class ContiguousIntervalCapacityUsageInArrear extends ContiguousIntervalUsageInArrear {
 
-    private static final Joiner joiner = Joiner.on(", ");
+    // Built on first use, once the billing events (and therefore the currency) are known
+    private CapacityUsagePricingKernel pricingKernel;
 
     public ContiguousIntervalCapacityUsageInArrear(final Usage usage,
                                                    final UUID accountId,
@@ -91,56 +84,14 @@ public class ContiguousIntervalCapacityUsageInArrear extends ContiguousIntervalU
         return computeToBeBilledCapacityInArrear(rolledUpUnits);
     }
 
-    private Limit getTierLimit(final Tier tier, final String unitType) {
-        for (final Limit cur : tier.getLimits()) {
-            if (cur.getUnit().getName().equals(unitType)) {
-                return cur;
-            }
-        }
-        Preconditions.checkState(false, "Could not find unit type " + unitType + " in usage tier ");
-        return null;
-    }
-
     @VisibleForTesting
     UsageCapacityInArrearAggregate computeToBeBilledCapacityInArrear(final List<RolledUpUnit> roUnits) throws CatalogApiException {
         Preconditions.checkState(isBuilt.get());
 
-        final List<Tier> tiers = getCapacityInArrearTier(usage);
-
-        final Set<String> perUnitTypeDetailTierLevel = new HashSet<String>();
-        int tierNum = 0;
-        final List<UsageInArrearTierUnitDetail> toBeBilledDetails = Lists.newLinkedList();
-        for (final Tier cur : tiers) {
-            tierNum++;
-            final BigDecimal curTierPrice = cur.getRecurringPrice().getPrice(getCurrency());
-
-            boolean complies = true;
-            boolean allUnitAmountToZero = true;  // Support for $0 Usage item
-            for (final RolledUpUnit ro : roUnits) {
-
-                final Limit tierLimit = getTierLimit(cur, ro.getUnitType());
-                // We ignore the min and only look at the max Limit as the tiers should be contiguous.
-                // Specifying a -1 value for last max tier will make the validation works
-                if (tierLimit.getMax() != (double) -1 && ro.getAmount().doubleValue() > tierLimit.getMax()) {
-                    complies = false;
-                } else {
-
-                    allUnitAmountToZero = ro.getAmount() > 0 ? false : allUnitAmountToZero;
-
-                    if (!perUnitTypeDetailTierLevel.contains(ro.getUnitType())) {
-                        toBeBilledDetails.add(new UsageInArrearTierUnitDetail(tierNum, ro.getUnitType(), curTierPrice, ro.getAmount().intValue()));
-                        perUnitTypeDetailTierLevel.add(ro.getUnitType());
-                    }
-                }
-            }
-            if (complies) {
-                return new UsageCapacityInArrearAggregate(toBeBilledDetails, allUnitAmountToZero ? BigDecimal.ZERO : curTierPrice);
-            }
+        if (pricingKernel == null) {
+            pricingKernel = new CapacityUsagePricingKernel(usage, getCurrency());
         }
-        // Probably invalid catalog config
-        joiner.join(roUnits);
-        Preconditions.checkState(false, "Could not find tier for usage " + usage.getName() + "matching with data = " + joiner.join(roUnits));
-        return null;
+        return pricingKernel.computeToBeBilled(roUnits);
     }
 
     @Override
@@ -237,20 +237,10 @@ public abstract class ContiguousIntervalUsageInArrear {
 
         final Set<TrackingRecordId> allTrackingIds = allUsageWithTracking.getTrackingIds();
 
+        // Existing tracking ids are re-keyed against our invoiceId, so that similar records (see TrackingRecordId#isSimilarRecord) are equal
         final Set<TrackingRecordId> existingTrackingIds = extractTrackingIds(allExistingTrackingIds);
 
-        final Set<TrackingRecordId> newTrackingIds = Sets.filter(allTrackingIds, new Predicate<TrackingRecordId>() {
-            @Override
-            public boolean apply(final TrackingRecordId allRecord) {
-
-                return !Iterables.any(existingTrackingIds, new Predicate<TrackingRecordId>() {
-                    @Override
-                    public boolean apply(final TrackingRecordId existingRecord) {
-                        return existingRecord.isSimilarRecord(allRecord);
-                    }
-                });
-            }
-        });
+        final Set<TrackingRecordId> newTrackingIds = Sets.difference(allTrackingIds, existingTrackingIds);
 
         // Each RolledUpUsage 'ru' is for a specific time period and across all units
         for (final RolledUpUsageWithMetadata ru : allUsage) {
@@ -497,14 +487,13 @@ public abstract class ContiguousIntervalUsageInArrear {
     }
 
     private Set<TrackingRecordId> extractTrackingIds(final Set<TrackingRecordId> input) {
-
-        return ImmutableSet.copyOf(Iterables.filter(input, new Predicate<TrackingRecordId>() {
-            @Override
-            public boolean apply(final TrackingRecordId input) {
-                return input.getSubscriptionId().equals(getSubscriptionId());
+        final ImmutableSet.Builder<TrackingRecordId> result = ImmutableSet.builder();
+        for (final TrackingRecordId cur : input) {
+            if (cur.getSubscriptionId().equals(getSubscriptionId())) {
+                result.add(new TrackingRecordId(cur.getTrackingId(), invoiceId, cur.getSubscriptionId(), cur.getUnitType(), cur.getRecordDate()));
             }
-        }));
-
+        }
+        return result.build();
     }
 
     /**
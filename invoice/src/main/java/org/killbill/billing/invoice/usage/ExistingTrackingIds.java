@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.usage;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.killbill.billing.invoice.dao.InvoiceTrackingModelDao;
+import org.killbill.billing.invoice.generator.InvoiceWithMetadata.TrackingRecordId;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Tracking ids already invoiced for an account, grouped per subscription.
+ * <p/>
+ * The rows are consumed as they are streamed from the database. Usage records are typically reported in batches
+ * sharing a tracking id, and invoiced together: tracking ids, invoice ids, unit types and dates are interned so that each
+ * value is only kept once in memory.
+ */
+public class ExistingTrackingIds {
+
+    public static final ExistingTrackingIds EMPTY = new ExistingTrackingIds(ImmutableSet.<TrackingRecordId>of().iterator());
+
+    private final Map<UUID, Set<TrackingRecordId>> perSubscriptionTrackingIds;
+
+    public static ExistingTrackingIds fromInvoiceTrackings(final Iterator<InvoiceTrackingModelDao> invoiceTrackings) {
+        final Map<Object, Object> internedValues = new HashMap<Object, Object>();
+        return new ExistingTrackingIds(new Iterator<TrackingRecordId>() {
+            @Override
+            public boolean hasNext() {
+                return invoiceTrackings.hasNext();
+            }
+
+            @Override
+            public TrackingRecordId next() {
+                final InvoiceTrackingModelDao input = invoiceTrackings.next();
+                return new TrackingRecordId(intern(internedValues, input.getTrackingId()),
+                                            intern(internedValues, input.getInvoiceId()),
+                                            intern(internedValues, input.getSubscriptionId()),
+                                            intern(internedValues, input.getUnitType()),
+                                            intern(internedValues, input.getRecordDate()));
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        });
+    }
+
+    public ExistingTrackingIds(final Iterator<TrackingRecordId> trackingIds) {
+        this.perSubscriptionTrackingIds = new HashMap<UUID, Set<TrackingRecordId>>();
+        while (trackingIds.hasNext()) {
+            final TrackingRecordId trackingId = trackingIds.next();
+            // Tracking ids without subscription cannot match any usage record
+            if (trackingId.getSubscriptionId() == null) {
+                continue;
+            }
+
+            Set<TrackingRecordId> subscriptionTrackingIds = perSubscriptionTrackingIds.get(trackingId.getSubscriptionId());
+            if (subscriptionTrackingIds == null) {
+                subscriptionTrackingIds = new HashSet<TrackingRecordId>();
+                perSubscriptionTrackingIds.put(trackingId.getSubscriptionId(), subscriptionTrackingIds);
+            }
+            subscriptionTrackingIds.add(trackingId);
+        }
+    }
+
+    public Set<TrackingRecordId> getTrackingIds(final UUID subscriptionId) {
+        final Set<TrackingRecordId> subscriptionTrackingIds = perSubscriptionTrackingIds.get(subscriptionId);
+        return subscriptionTrackingIds != null ? subscriptionTrackingIds : ImmutableSet.<TrackingRecordId>of();
+    }
+
+    private static <T> T intern(final Map<Object, Object> internedValues, final T value) {
+        if (value == null) {
+            return null;
+        }
+
+        final Object interned = internedValues.get(value);
+        if (interned == null) {
+            internedValues.put(value, value);
+            return value;
+        }
+        return (T) interned;
+    }
+}
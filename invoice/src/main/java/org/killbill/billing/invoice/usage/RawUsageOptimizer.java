@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -31,9 +32,7 @@ import org.killbill.billing.catalog.api.BillingPeriod;
 import org.killbill.billing.catalog.api.Usage;
 import org.killbill.billing.invoice.api.InvoiceItem;
 import org.killbill.billing.invoice.dao.InvoiceDao;
-import org.killbill.billing.invoice.dao.InvoiceTrackingModelDao;
 import org.killbill.billing.invoice.generator.InvoiceDateUtils;
-import org.killbill.billing.invoice.generator.InvoiceWithMetadata.TrackingRecordId;
 import org.killbill.billing.invoice.model.UsageInvoiceItem;
 import org.killbill.billing.usage.InternalUserApi;
 import org.killbill.billing.usage.api.RawUsageRecord;
@@ -74,16 +73,23 @@ public class RawUsageOptimizer {
         final LocalDate targetStartDate = config.getMaxRawUsagePreviousPeriod(internalCallContext) >= 0 ? getOptimizedRawUsageStartDate(firstEventStartDate, targetDate, existingUsageItems, knownUsage, internalCallContext) : firstEventStartDate;
         log.debug("ConsumableInArrear accountRecordId='{}', rawUsageStartDate='{}', firstEventStartDate='{}'",
                   internalCallContext.getAccountRecordId(), targetStartDate, firstEventStartDate);
-        final List<RawUsageRecord> rawUsageData = usageApi.getRawUsageForAccount(targetStartDate, targetDate, internalCallContext);
 
-        final List<InvoiceTrackingModelDao> trackingIds = invoiceDao.getTrackingsByDateRange(targetStartDate, targetDate, internalCallContext);
-        final Set<TrackingRecordId> existingTrackingIds = ImmutableSet.copyOf(Iterables.transform(trackingIds, new Function<InvoiceTrackingModelDao, TrackingRecordId>() {
-            @Override
-            public TrackingRecordId apply(final InvoiceTrackingModelDao input) {
-                return new TrackingRecordId(input.getTrackingId(), input.getInvoiceId(), input.getSubscriptionId(), input.getUnitType(), input.getRecordDate());
-            }
-        }));
-        return new RawUsageOptimizerResult(targetStartDate, rawUsageData, existingTrackingIds);
+        // Usage plugins are still asked once for the whole account
+        final List<RawUsageRecord> pluginRawUsage = usageApi.getPluginRawUsageForAccount(targetStartDate, targetDate, internalCallContext);
+
+        final ExistingTrackingIds existingTrackingIds = ExistingTrackingIds.fromInvoiceTrackings(invoiceDao.getTrackingsByDateRange(targetStartDate, targetDate, internalCallContext));
+        return new RawUsageOptimizerResult(targetStartDate, pluginRawUsage, existingTrackingIds);
+    }
+
+    /**
+     * Raw usage recorded in Kill Bill is retrieved one subscription at a time (sorted by date and unit type), so that only the usage
+     * of the subscription being invoiced is kept in memory. Usage served by a plugin has already been retrieved for the whole account.
+     */
+    public List<RawUsageRecord> getInArrearUsageForSubscription(final UUID subscriptionId, final RawUsageOptimizerResult rawUsageOptimizerResult, final LocalDate targetDate, final InternalCallContext internalCallContext) {
+        if (rawUsageOptimizerResult.getPluginRawUsage() != null) {
+            return rawUsageOptimizerResult.getPluginRawUsage();
+        }
+        return usageApi.getRawUsageForSubscription(subscriptionId, rawUsageOptimizerResult.getRawUsageStartDate(), targetDate, internalCallContext);
     }
 
     @VisibleForTesting
@@ -169,12 +175,12 @@ public class RawUsageOptimizer {
     public static class RawUsageOptimizerResult {
 
         private final LocalDate rawUsageStartDate;
-        private final List<RawUsageRecord> rawUsage;
-        private final Set<TrackingRecordId> existingTrackingIds;
+        private final List<RawUsageRecord> pluginRawUsage;
+        private final ExistingTrackingIds existingTrackingIds;
 
-        public RawUsageOptimizerResult(final LocalDate rawUsageStartDate, final List<RawUsageRecord> rawUsage, final Set<TrackingRecordId> existingTrackingIds) {
+        public RawUsageOptimizerResult(final LocalDate rawUsageStartDate, @Nullable final List<RawUsageRecord> pluginRawUsage, final ExistingTrackingIds existingTrackingIds) {
             this.rawUsageStartDate = rawUsageStartDate;
-            this.rawUsage = rawUsage;
+            this.pluginRawUsage = pluginRawUsage;
             this.existingTrackingIds = existingTrackingIds;
         }
 
@@ -182,11 +188,13 @@ public class RawUsageOptimizer {
             return rawUsageStartDate;
         }
 
-        public List<RawUsageRecord> getRawUsage() {
-            return rawUsage;
+        // Null unless the usage is served by a plugin
+        @Nullable
+        public List<RawUsageRecord> getPluginRawUsage() {
+            return pluginRawUsage;
         }
 
-        public Set<TrackingRecordId> getExistingTrackingIds() {
+        public ExistingTrackingIds getExistingTrackingIds() {
             return existingTrackingIds;
         }
     }
@@ -21,6 +21,12 @@ package org.killbill.billing.invoice;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
@@ -28,6 +34,7 @@ import org.killbill.billing.ErrorCode;
 import org.killbill.billing.account.api.Account;
 import org.killbill.billing.account.api.AccountApiException;
 import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.catalog.MockPlan;
 import org.killbill.billing.catalog.MockPlanPhase;
 import org.killbill.billing.catalog.api.BillingMode;
@@ -50,9 +57,13 @@ import org.killbill.billing.subscription.api.SubscriptionBase;
 import org.killbill.billing.subscription.api.SubscriptionBaseTransitionType;
 import org.killbill.billing.subscription.api.user.SubscriptionBaseApiException;
 import org.killbill.billing.util.api.TagDefinitionApiException;
+import org.killbill.billing.util.config.definition.InvoiceConfig;
+import org.killbill.billing.util.queue.QueueRetryException;
 import org.killbill.billing.util.tag.Tag;
 import org.killbill.billing.util.tag.dao.SystemTags;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.skife.jdbi.v2.Handle;
 import org.skife.jdbi.v2.tweak.HandleCallback;
 import org.testng.Assert;
@@ -341,4 +352,58 @@ public class TestInvoiceDispatcher extends InvoiceTestSuiteWithEmbeddedDB {
             Assert.assertEquals(item.getSubscriptionId(), subscription.getId());
         }
     }
+
+    @Test(groups = "slow")
+    public void testWithTooManyConcurrentInvoiceRuns() throws Exception {
+        final Account otherAccount = invoiceUtil.createAccount(callContext);
+        final InternalCallContext otherContext = internalCallContextFactory.createInternalCallContext(otherAccount.getId(), callContext);
+        final LocalDate target = clock.getUTCToday();
+
+        // The invoice run of the first account holds the only slot of the tenant until released
+        final CountDownLatch runStarted = new CountDownLatch(1);
+        final CountDownLatch releaseRun = new CountDownLatch(1);
+        Mockito.when(billingApi.getBillingEventsForAccountAndUpdateAccountBCD(Mockito.eq(account.getId()), Mockito.<DryRunArguments>any(), Mockito.<InternalCallContext>any())).thenAnswer(new Answer<BillingEventSet>() {
+            @Override
+            public BillingEventSet answer(final InvocationOnMock invocation) throws InterruptedException {
+                runStarted.countDown();
+                releaseRun.await();
+                return new MockBillingEventSet();
+            }
+        });
+        Mockito.when(billingApi.getBillingEventsForAccountAndUpdateAccountBCD(Mockito.eq(otherAccount.getId()), Mockito.<DryRunArguments>any(), Mockito.<InternalCallContext>any())).thenReturn(new MockBillingEventSet());
+
+        final InvoiceConfig cappedInvoiceConfig = Mockito.spy(invoiceConfig);
+        Mockito.doReturn(1).when(cappedInvoiceConfig).getMaxConcurrentInvoiceRunsPerTenant(Mockito.<InternalTenantContext>any());
+        final InvoiceDispatcher dispatcher = new InvoiceDispatcher(generator, accountApi, billingApi, subscriptionApi, invoiceDao,
+                                                                   internalCallContextFactory, invoicePluginDispatcher, locker, busService.getBus(),
+                                                                   notificationQueueService, cappedInvoiceConfig, clock, parkedAccountsManager);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Invoice> firstRun = executor.submit(new Callable<Invoice>() {
+                @Override
+                public Invoice call() throws InvoiceApiException {
+                    return dispatcher.processAccountFromNotificationOrBusEvent(account.getId(), target, null, false, context);
+                }
+            });
+            Assert.assertTrue(runStarted.await(10, TimeUnit.SECONDS));
+
+            // The tenant is at its cap: the run doesn't wait and is rescheduled instead of being dropped
+            try {
+                dispatcher.processAccountFromNotificationOrBusEvent(otherAccount.getId(), target, null, false, otherContext);
+                Assert.fail("Invoice run should have been rescheduled");
+            } catch (final QueueRetryException e) {
+                Assert.assertFalse(e.getRetrySchedule().isEmpty());
+            }
+
+            releaseRun.countDown();
+            firstRun.get(10, TimeUnit.SECONDS);
+        } finally {
+            releaseRun.countDown();
+            executor.shutdownNow();
+        }
+
+        // The slot is available again: the rescheduled run goes through
+        dispatcher.processAccountFromNotificationOrBusEvent(otherAccount.getId(), target, null, false, otherContext);
+    }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.dao;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.joda.time.DateTimeZone;
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.invoice.InvoiceTestSuiteWithEmbeddedDB;
+import org.killbill.billing.invoice.api.InvoiceApiException;
+import org.killbill.billing.invoice.api.InvoicePaymentType;
+import org.killbill.billing.invoice.api.InvoiceStatus;
+import org.killbill.billing.invoice.model.CreditAdjInvoiceItem;
+import org.killbill.billing.invoice.model.DefaultInvoicePayment;
+import org.killbill.billing.invoice.model.ExternalChargeInvoiceItem;
+import org.killbill.billing.mock.MockAccountBuilder;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.tweak.HandleCallback;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+// Verify the running account CBA (invoice_account_cba) stays in sync with the CBA computed from the invoice items
+public class TestCBADao extends InvoiceTestSuiteWithEmbeddedDB {
+
+    private Account account;
+    private InternalCallContext context;
+
+    @BeforeMethod(groups = "slow")
+    public void setUp() throws Exception {
+        if (hasFailed()) {
+            return;
+        }
+        account = invoiceUtil.createAccount(callContext);
+        context = internalCallContextFactory.createInternalCallContext(account.getId(), callContext);
+    }
+
+    @Test(groups = "slow")
+    public void testCredit() throws Exception {
+        // CBA on a DRAFT invoice doesn't count
+        final InvoiceItemModelDao draftCredit = createCredit(account.getId(), new BigDecimal("5.0"), InvoiceStatus.DRAFT, context);
+        assertNull(dbi.onDemand(InvoiceAccountCBASqlDao.class).getAccountCBA(context));
+        assertEquals(invoiceDao.getAccountCBA(account.getId(), context).compareTo(BigDecimal.ZERO), 0);
+
+        invoiceDao.changeInvoiceStatus(draftCredit.getInvoiceId(), InvoiceStatus.COMMITTED, context);
+        verifyAccountCBA(new BigDecimal("5.0"), context);
+
+        createCredit(account.getId(), BigDecimal.TEN, InvoiceStatus.COMMITTED, context);
+        verifyAccountCBA(new BigDecimal("15.0"), context);
+    }
+
+    @Test(groups = "slow")
+    public void testUseAndVoid() throws Exception {
+        createCredit(account.getId(), BigDecimal.TEN, InvoiceStatus.COMMITTED, context);
+        verifyAccountCBA(BigDecimal.TEN, context);
+
+        // The new invoice consumes some of the CBA
+        final InvoiceItemModelDao charge = createExternalCharge(new BigDecimal("4.0"));
+        verifyAccountCBA(new BigDecimal("6.0"), context);
+
+        // The CBA used is given back
+        invoiceDao.changeInvoiceStatus(charge.getInvoiceId(), InvoiceStatus.VOID, context);
+        verifyAccountCBA(BigDecimal.TEN, context);
+    }
+
+    @Test(groups = "slow")
+    public void testRefund() throws Exception {
+        final InvoiceItemModelDao charge = createExternalCharge(BigDecimal.TEN);
+        final UUID paymentId = UUID.randomUUID();
+        final DefaultInvoicePayment payment = new DefaultInvoicePayment(InvoicePaymentType.ATTEMPT, paymentId, charge.getInvoiceId(), clock.getUTCNow(), BigDecimal.TEN,
+                                                                        Currency.USD, Currency.USD, "cookie", true);
+        invoiceDao.notifyOfPaymentCompletion(new InvoicePaymentModelDao(payment), UUID.randomUUID(), context);
+
+        // Nothing to pay: the CBA is left untouched
+        createCredit(account.getId(), BigDecimal.TEN, InvoiceStatus.COMMITTED, context);
+        verifyAccountCBA(BigDecimal.TEN, context);
+
+        // The invoice is unpaid again: the CBA is used to pay it
+        invoiceDao.createRefund(paymentId, UUID.randomUUID(), BigDecimal.TEN, false, ImmutableMap.<UUID, BigDecimal>of(), UUID.randomUUID().toString(), context);
+        verifyAccountCBA(BigDecimal.ZERO, context);
+        invoiceUtil.verifyInvoice(charge.getInvoiceId(), 0.00, -10.00, context);
+    }
+
+    @Test(groups = "slow")
+    public void testChildCreditTransfer() throws Exception {
+        final Account childAccount = accountUserApi.createAccount(new MockAccountBuilder().name(UUID.randomUUID().toString().substring(1, 8))
+                                                                                          .firstNameLength(6)
+                                                                                          .email(UUID.randomUUID().toString().substring(1, 8))
+                                                                                          .externalKey(UUID.randomUUID().toString().substring(1, 8))
+                                                                                          .billingCycleDayLocal(31)
+                                                                                          .currency(accountCurrency)
+                                                                                          .timeZone(DateTimeZone.UTC)
+                                                                                          .parentAccountId(account.getId())
+                                                                                          .createdDate(clock.getUTCNow())
+                                                                                          .build(), callContext);
+        final InternalCallContext childContext = internalCallContextFactory.createInternalCallContext(childAccount.getId(), callContext);
+
+        createCredit(childAccount.getId(), BigDecimal.TEN, InvoiceStatus.COMMITTED, childContext);
+        verifyAccountCBA(BigDecimal.TEN, childContext);
+
+        invoiceDao.transferChildCreditToParent(childAccount, childContext);
+        verifyAccountCBA(BigDecimal.ZERO, childContext);
+        verifyAccountCBA(BigDecimal.TEN, context);
+    }
+
+    @Test(groups = "slow")
+    public void testRefreshAccountCBA() throws Exception {
+        createCredit(account.getId(), BigDecimal.TEN, InvoiceStatus.COMMITTED, context);
+        verifyAccountCBA(BigDecimal.TEN, context);
+
+        // Simulate a drift
+        dbi.withHandle(new HandleCallback<Void>() {
+            @Override
+            public Void withHandle(final Handle handle) throws Exception {
+                handle.execute("update invoice_account_cba set cba_amount = ? where account_record_id = ?", new BigDecimal("42.0"), context.getAccountRecordId());
+                return null;
+            }
+        });
+        assertEquals(invoiceDao.getAccountCBA(account.getId(), context).compareTo(new BigDecimal("42.0")), 0);
+
+        assertEquals(invoiceDao.refreshAccountCBA(account.getId(), context).compareTo(BigDecimal.TEN), 0);
+        verifyAccountCBA(BigDecimal.TEN, context);
+
+        // Accounts without any CBA change yet get their row created
+        dbi.withHandle(new HandleCallback<Void>() {
+            @Override
+            public Void withHandle(final Handle handle) throws Exception {
+                handle.execute("delete from invoice_account_cba where account_record_id = ?", context.getAccountRecordId());
+                return null;
+            }
+        });
+        assertEquals(invoiceDao.refreshAccountCBA(account.getId(), context).compareTo(BigDecimal.TEN), 0);
+        verifyAccountCBA(BigDecimal.TEN, context);
+    }
+
+    private void verifyAccountCBA(final BigDecimal expectedAccountCBA, final InternalCallContext context) {
+        final BigDecimal runningAccountCBA = dbi.onDemand(InvoiceAccountCBASqlDao.class).getAccountCBA(context);
+        assertNotNull(runningAccountCBA);
+        assertEquals(runningAccountCBA.compareTo(expectedAccountCBA), 0);
+        // Same as the full computation
+        assertEquals(dbi.onDemand(InvoiceItemSqlDao.class).getAccountCBA(context).compareTo(expectedAccountCBA), 0);
+    }
+
+    private InvoiceItemModelDao createExternalCharge(final BigDecimal amount) throws InvoiceApiException {
+        final InvoiceModelDao invoice = new InvoiceModelDao(account.getId(), clock.getUTCToday(), clock.getUTCToday(), Currency.USD, false);
+        invoice.addInvoiceItem(new InvoiceItemModelDao(new ExternalChargeInvoiceItem(invoice.getId(), account.getId(), null, "charge", clock.getUTCToday(), clock.getUTCToday(), amount, Currency.USD, null)));
+        return invoiceDao.createInvoices(ImmutableList.<InvoiceModelDao>of(invoice), null, ImmutableSet.of(), context).get(0);
+    }
+
+    private InvoiceItemModelDao createCredit(final UUID accountId, final BigDecimal creditAmount, final InvoiceStatus status, final InternalCallContext context) throws InvoiceApiException {
+        final InvoiceModelDao invoice = new InvoiceModelDao(accountId, clock.getUTCToday(), clock.getUTCToday(), Currency.USD, false, status);
+        // Note! The amount is negated here!
+        invoice.addInvoiceItem(new InvoiceItemModelDao(new CreditAdjInvoiceItem(invoice.getId(), accountId, clock.getUTCToday(), null, creditAmount.negate(), Currency.USD, null)));
+        return invoiceDao.createInvoices(ImmutableList.<InvoiceModelDao>of(invoice), null, ImmutableSet.of(), context).get(0);
+    }
+}
@@ -73,6 +73,10 @@ import org.killbill.billing.subscription.api.SubscriptionBase;
 import org.killbill.billing.subscription.api.SubscriptionBaseTransitionType;
 import org.killbill.billing.util.currency.KillBillMoney;
 import org.killbill.clock.ClockMock;
+import org.killbill.commons.profiling.Profiling;
+import org.killbill.commons.profiling.ProfilingData.LogLineType;
+import org.killbill.commons.profiling.ProfilingData.ProfilingDataItem;
+import org.killbill.commons.profiling.ProfilingFeature.ProfilingFeatureType;
 import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
@@ -136,6 +140,39 @@ public class TestInvoiceDao extends InvoiceTestSuiteWithEmbeddedDB {
         invoiceUtil.checkInvoicesEqual(invoiceForExternalCharge, invoice);
     }
 
+    @Test(groups = "slow", description = "Verify the number of statements to commit an invoice doesn't depend on its number of items")
+    public void testCreateInvoiceStatementsPerInvoice() throws Exception {
+        final int nbStatementsForOneItem = createInvoiceAndCountStatements(1);
+        final int nbStatementsForTenItems = createInvoiceAndCountStatements(10);
+        assertTrue(nbStatementsForOneItem > 0);
+        assertEquals(nbStatementsForTenItems, nbStatementsForOneItem);
+    }
+
+    // Number of DAO round trips (statements and batches, including the history and audit ones)
+    private int createInvoiceAndCountStatements(final int nbItems) {
+        final UUID accountId = account.getId();
+        final InvoiceModelDao invoiceForExternalCharges = new InvoiceModelDao(accountId, clock.getUTCToday(), clock.getUTCToday(), Currency.USD, false);
+        for (int i = 0; i < nbItems; i++) {
+            invoiceForExternalCharges.addInvoiceItem(new InvoiceItemModelDao(new ExternalChargeInvoiceItem(invoiceForExternalCharges.getId(), accountId, UUID.randomUUID(), UUID.randomUUID().toString(), clock.getUTCToday(), clock.getUTCToday(), new BigDecimal("15.0"), Currency.USD, null)));
+        }
+
+        Profiling.setPerThreadProfilingData(ProfilingFeatureType.DAO_DETAILS.name());
+        try {
+            final List<InvoiceItemModelDao> createdItems = invoiceDao.createInvoices(ImmutableList.<InvoiceModelDao>of(invoiceForExternalCharges), null, ImmutableSet.<InvoiceTrackingModelDao>of(), context);
+            assertEquals(createdItems.size(), nbItems);
+
+            int nbStatements = 0;
+            for (final ProfilingDataItem profilingDataItem : Profiling.getPerThreadProfilingData().getRawData()) {
+                if (profilingDataItem.getLineType() == LogLineType.START && profilingDataItem.getKey().startsWith(ProfilingFeatureType.DAO_DETAILS.name())) {
+                    nbStatements++;
+                }
+            }
+            return nbStatements;
+        } finally {
+            Profiling.resetPerThreadProfilingData();
+        }
+    }
+
     @Test(groups = "slow")
     public void testCreationAndRetrievalByAccount() throws EntityPersistenceException {
         final UUID accountId = account.getId();
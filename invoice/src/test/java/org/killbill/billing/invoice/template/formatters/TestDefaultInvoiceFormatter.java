@@ -25,8 +25,10 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.joda.time.LocalDate;
+import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.catalog.api.Currency;
 import org.killbill.billing.invoice.InvoiceTestSuiteNoDB;
 import org.killbill.billing.invoice.api.Invoice;
@@ -35,6 +37,7 @@ import org.killbill.billing.invoice.api.InvoiceItemType;
 import org.killbill.billing.invoice.api.InvoicePaymentType;
 import org.killbill.billing.invoice.api.InvoiceStatus;
 import org.killbill.billing.invoice.api.formatters.InvoiceFormatter;
+import org.killbill.billing.invoice.api.formatters.ResourceBundleFactory;
 import org.killbill.billing.invoice.api.formatters.ResourceBundleFactory.ResourceBundleType;
 import org.killbill.billing.invoice.dao.InvoiceModelDao;
 import org.killbill.billing.invoice.model.CreditAdjInvoiceItem;
@@ -522,6 +525,34 @@ public class TestDefaultInvoiceFormatter extends InvoiceTestSuiteNoDB {
         System.out.println(formattedText);
     }
 
+    @Test(groups = "fast")
+    public void testCatalogBundlesSharedAcrossItems() throws Exception {
+        final Invoice invoice = new DefaultInvoice(UUID.randomUUID(), UUID.randomUUID(), null, new LocalDate(), new LocalDate(), Currency.USD, false, InvoiceStatus.COMMITTED);
+        for (int i = 0; i < 1000; i++) {
+            invoice.addInvoiceItem(new FixedPriceInvoiceItem(invoice.getId(), invoice.getAccountId(), null, null,
+                                                             "product-" + i, "plan-" + i, "phase-" + i, null,
+                                                             new LocalDate(), BigDecimal.TEN, Currency.USD));
+        }
+
+        final AtomicInteger nbBundlesCreated = new AtomicInteger();
+        final ResourceBundleFactory countingResourceBundleFactory = new ResourceBundleFactory() {
+            @Override
+            public ResourceBundle createBundle(final Locale locale, final String bundlePath, final ResourceBundleType type, final InternalTenantContext tenantContext) {
+                nbBundlesCreated.incrementAndGet();
+                return resourceBundleFactory.createBundle(locale, bundlePath, type, tenantContext);
+            }
+        };
+
+        final Map<String, Object> data = new HashMap<String, Object>();
+        data.put("invoice", new DefaultInvoiceFormatter(config, invoice, Locale.US, null, countingResourceBundleFactory, internalCallContext));
+        final String formattedText = templateEngine.executeTemplateText("{{#invoice.invoiceItems}}<td>{{planName}}</td><td>{{formattedAmount}}</td>{{/invoice.invoiceItems}}", data);
+
+        Assert.assertTrue(formattedText.startsWith("<td>plan-0</td><td>$10.00</td><td>plan-1</td>"));
+        Assert.assertTrue(formattedText.endsWith("<td>plan-999</td><td>$10.00</td>"));
+        // Catalog translation bundles (account locale and default locale) are created once for the whole invoice
+        Assert.assertEquals(nbBundlesCreated.get(), 2);
+    }
+
     private void checkOutput(final Invoice invoice, final String template, final String expected, final Locale locale) {
         final Map<String, Object> data = new HashMap<String, Object>();
         data.put("invoice", new DefaultInvoiceFormatter(config, invoice, locale, null, resourceBundleFactory, internalCallContext));
@@ -22,19 +22,26 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.joda.time.LocalDate;
+import org.killbill.billing.ErrorCode;
+import org.killbill.billing.catalog.DefaultInternationalPrice;
+import org.killbill.billing.catalog.DefaultPrice;
 import org.killbill.billing.catalog.DefaultTier;
 import org.killbill.billing.catalog.DefaultTieredBlock;
 import org.killbill.billing.catalog.DefaultUsage;
 import org.killbill.billing.catalog.api.BillingPeriod;
+import org.killbill.billing.catalog.api.CatalogApiException;
 import org.killbill.billing.catalog.api.Currency;
 import org.killbill.billing.catalog.api.TierBlockPolicy;
 import org.killbill.billing.catalog.api.Usage;
 import org.killbill.billing.catalog.api.UsageType;
 import org.killbill.billing.invoice.api.InvoiceItem;
+import org.killbill.billing.invoice.generator.InvoiceWithMetadata.TrackingRecordId;
 import org.killbill.billing.invoice.model.FixedPriceInvoiceItem;
 import org.killbill.billing.invoice.model.UsageInvoiceItem;
 import org.killbill.billing.invoice.usage.ContiguousIntervalUsageInArrear.UsageInArrearItemsAndNextNotificationDate;
@@ -415,6 +422,120 @@ public class TestContiguousIntervalConsumableInArrear extends TestUsageInArrearB
 
     }
 
+    @Test(groups = "fast")
+    public void testComputeMissingItemsWithAlreadyInvoicedTrackingIds() throws Exception {
+        // Used 130 + 271 = 401 => 5 blocks => 5 USD, already invoiced
+        final UsageInArrearItemsAndNextNotificationDate usageResult = computeMissingItemsWithAlreadyInvoicedFirstPeriod(new BigDecimal("5.0"));
+
+        // Only the record from the second period is new
+        assertEquals(usageResult.getTrackingIds().size(), 1);
+        final TrackingRecordId newTrackingId = usageResult.getTrackingIds().iterator().next();
+        assertEquals(newTrackingId.getTrackingId(), "tracking-2");
+        assertEquals(newTrackingId.getInvoiceId(), invoiceId);
+
+        // Only the second period gets billed: used 199 => 2 blocks => 2 USD
+        final List<InvoiceItem> result = usageResult.getInvoiceItems();
+        assertEquals(result.size(), 1);
+        assertEquals(result.get(0).getAmount().compareTo(new BigDecimal("2.0")), 0, String.format("%s != 2.0", result.get(0).getAmount()));
+        assertTrue(result.get(0).getStartDate().compareTo(new LocalDate(2014, 04, 15)) == 0);
+        assertTrue(result.get(0).getEndDate().compareTo(new LocalDate(2014, 05, 15)) == 0);
+    }
+
+    @Test(groups = "fast")
+    public void testComputeMissingItemsWithAlreadyInvoicedTrackingIdsAndDifferentBilledAmount() throws Exception {
+        // Used 130 + 271 = 401 => 5 blocks => 5 USD, but only 4 USD were invoiced (e.g. price change)
+        final UsageInArrearItemsAndNextNotificationDate usageResult = computeMissingItemsWithAlreadyInvoicedFirstPeriod(new BigDecimal("4.0"));
+
+        // Only the record from the second period is new
+        assertEquals(usageResult.getTrackingIds().size(), 1);
+        assertEquals(usageResult.getTrackingIds().iterator().next().getTrackingId(), "tracking-2");
+
+        // Although all its records were invoiced, the first period gets a 1 USD correction
+        final List<InvoiceItem> result = usageResult.getInvoiceItems();
+        assertEquals(result.size(), 2);
+        assertEquals(result.get(0).getAmount().compareTo(BigDecimal.ONE), 0, String.format("%s != 1.0", result.get(0).getAmount()));
+        assertTrue(result.get(0).getStartDate().compareTo(new LocalDate(2014, 03, 20)) == 0);
+        assertTrue(result.get(0).getEndDate().compareTo(new LocalDate(2014, 04, 15)) == 0);
+        assertEquals(result.get(1).getAmount().compareTo(new BigDecimal("2.0")), 0, String.format("%s != 2.0", result.get(1).getAmount()));
+        assertTrue(result.get(1).getStartDate().compareTo(new LocalDate(2014, 04, 15)) == 0);
+        assertTrue(result.get(1).getEndDate().compareTo(new LocalDate(2014, 05, 15)) == 0);
+    }
+
+    private UsageInArrearItemsAndNextNotificationDate computeMissingItemsWithAlreadyInvoicedFirstPeriod(final BigDecimal firstPeriodBilledAmount) throws Exception {
+        final LocalDate startDate = new LocalDate(2014, 03, 20);
+        final LocalDate firstBCDDate = new LocalDate(2014, 04, 15);
+        final LocalDate endDate = new LocalDate(2014, 05, 15);
+
+        // 2 items for startDate - firstBCDDate, already invoiced
+        final List<RawUsageRecord> rawUsageRecords = new ArrayList<RawUsageRecord>();
+        rawUsageRecords.add(new DefaultRawUsage(subscriptionId, new LocalDate(2014, 03, 20), "unit", 130L, "tracking-1"));
+        rawUsageRecords.add(new DefaultRawUsage(subscriptionId, new LocalDate(2014, 03, 21), "unit", 271L, "tracking-1"));
+        // 1 items for firstBCDDate - endDate
+        rawUsageRecords.add(new DefaultRawUsage(subscriptionId, new LocalDate(2014, 04, 15), "unit", 199L, "tracking-2"));
+
+        final UUID previousInvoiceId = UUID.randomUUID();
+        final Set<TrackingRecordId> existingTrackingIds = ImmutableSet.<TrackingRecordId>of(new TrackingRecordId("tracking-1", previousInvoiceId, subscriptionId, "unit", new LocalDate(2014, 03, 20)),
+                                                                                            new TrackingRecordId("tracking-1", previousInvoiceId, subscriptionId, "unit", new LocalDate(2014, 03, 21)));
+
+        final DefaultTieredBlock block = createDefaultTieredBlock("unit", 100, 10, BigDecimal.ONE);
+        final DefaultTier tier = createDefaultTierWithBlocks(block);
+        final DefaultUsage usage = createConsumableInArrearUsage(usageName, BillingPeriod.MONTHLY, TierBlockPolicy.ALL_TIERS, tier);
+
+        final BillingEvent event1 = createMockBillingEvent(startDate.toDateTimeAtStartOfDay(DateTimeZone.UTC), BillingPeriod.MONTHLY, Collections.<Usage>emptyList(), catalogEffectiveDate);
+        final BillingEvent event2 = createMockBillingEvent(endDate.toDateTimeAtStartOfDay(DateTimeZone.UTC), BillingPeriod.MONTHLY, Collections.<Usage>emptyList(), catalogEffectiveDate);
+
+        final ContiguousIntervalConsumableUsageInArrear intervalConsumableInArrear = new ContiguousIntervalConsumableUsageInArrear(usage, accountId, invoiceId, rawUsageRecords, existingTrackingIds, endDate, startDate, usageDetailMode, invoiceConfig, internalCallContext);
+        for (final BillingEvent event : ImmutableList.<BillingEvent>of(event1, event2)) {
+            intervalConsumableInArrear.addBillingEvent(event);
+            intervalConsumableInArrear.addAllSeenUnitTypesForBillingEvent(event, intervalConsumableInArrear.getUnitTypes());
+        }
+        intervalConsumableInArrear.build(true);
+
+        final List<InvoiceItem> invoiceItems = new ArrayList<InvoiceItem>();
+        final InvoiceItem ii1 = new UsageInvoiceItem(previousInvoiceId, accountId, bundleId, subscriptionId, productName, planName, phaseName,
+                                                     usage.getName(), null, startDate, firstBCDDate, firstPeriodBilledAmount, currency);
+        invoiceItems.add(ii1);
+
+        return intervalConsumableInArrear.computeMissingItemsAndNextNotificationDate(invoiceItems);
+    }
+
+    @Test(groups = "fast")
+    public void testComputeToBeBilledUsageWithUnpricedUnusedTier() throws Exception {
+
+        final DefaultTieredBlock block1 = createDefaultTieredBlock("unit", 100, 10, BigDecimal.ONE);
+        final DefaultTier tier1 = createDefaultTierWithBlocks(block1);
+
+        // No USD price on the second tier
+        final DefaultTieredBlock block2 = createDefaultTieredBlock("unit", 1000, 100, BigDecimal.ONE);
+        block2.setPrice(new DefaultInternationalPrice().setPrices(new DefaultPrice[]{new DefaultPrice().setCurrency(Currency.EUR).setValue(BigDecimal.ONE)}));
+        final DefaultTier tier2 = createDefaultTierWithBlocks(block2);
+
+        final LocalDate targetDate = new LocalDate(2014, 03, 20);
+
+        for (final TierBlockPolicy tierBlockPolicy : TierBlockPolicy.values()) {
+            final DefaultUsage usage = createConsumableInArrearUsage(usageName, BillingPeriod.MONTHLY, tierBlockPolicy, tier1, tier2);
+            final ContiguousIntervalConsumableUsageInArrear intervalConsumableInArrear = createContiguousIntervalConsumableInArrear(usage, ImmutableList.<RawUsageRecord>of(), targetDate, false,
+                                                                                                                                    createMockBillingEvent(targetDate.toDateTimeAtStartOfDay(DateTimeZone.UTC),
+                                                                                                                                                           BillingPeriod.MONTHLY,
+                                                                                                                                                           Collections.<Usage>emptyList(), catalogEffectiveDate)
+                                                                                                                                   );
+
+            // 111 units fit in the first tier: the second one doesn't need to be priced
+            final List<UsageConsumableInArrearTierUnitAggregate> result = intervalConsumableInArrear.computeToBeBilledConsumableInArrear(new DefaultRolledUpUnit("unit", 111L), ImmutableList.<UsageConsumableInArrearTierUnitAggregate>of());
+            assertEquals(result.size(), 1);
+            assertEquals(result.get(0).getTier(), 1);
+            assertEquals(result.get(0).getAmount().compareTo(new BigDecimal("2.0")), 0);
+
+            // 1001 units reach the second tier
+            try {
+                intervalConsumableInArrear.computeToBeBilledConsumableInArrear(new DefaultRolledUpUnit("unit", 1001L), ImmutableList.<UsageConsumableInArrearTierUnitAggregate>of());
+                Assert.fail("Second tier has no USD price");
+            } catch (final CatalogApiException e) {
+                assertEquals(e.getCode(), ErrorCode.CAT_NO_PRICE_FOR_CURRENCY.getCode());
+            }
+        }
+    }
+
     @Test(groups = "fast")
     public void testGetRolledUpUsage() throws Exception {
 
@@ -19,6 +19,7 @@ package org.killbill.billing.jaxrs;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
@@ -35,10 +36,16 @@ public class JaxrsExecutors {
     private static final String JAXRS_THREAD_PREFIX = "jaxrs-th-";
     private static final String JAXRS_TH_GROUP_NAME = "jaxrs-grp";
 
+    private static final String PARKED_ACCOUNTS_THREAD_PREFIX = "parked-accounts-th-";
+    private static final String PARKED_ACCOUNTS_JOB_THREAD_PREFIX = "parked-accounts-job-th-";
+    private static final String PARKED_ACCOUNTS_TH_GROUP_NAME = "parked-accounts-grp";
+
 
     private final JaxrsConfig JaxrsConfig;
 
     private volatile ExecutorService jaxrsExecutorService;
+    private volatile ExecutorService parkedAccountsExecutorService;
+    private volatile ExecutorService parkedAccountsJobExecutorService;
 
     @Inject
     public JaxrsExecutors(JaxrsConfig JaxrsConfig) {
@@ -48,6 +55,8 @@ public class JaxrsExecutors {
 
     public void initialize() {
         this.jaxrsExecutorService = createJaxrsExecutorService();
+        this.parkedAccountsExecutorService = createParkedAccountsExecutorService();
+        this.parkedAccountsJobExecutorService = createParkedAccountsJobExecutorService();
     }
 
 
@@ -56,12 +65,29 @@ public class JaxrsExecutors {
         jaxrsExecutorService.awaitTermination(TIMEOUT_EXECUTOR_SEC, TimeUnit.SECONDS);
         jaxrsExecutorService = null;
 
+        // Jobs are interrupted: they can be resumed from their last persisted cursor
+        parkedAccountsJobExecutorService.shutdownNow();
+        parkedAccountsExecutorService.shutdownNow();
+        parkedAccountsJobExecutorService.awaitTermination(TIMEOUT_EXECUTOR_SEC, TimeUnit.SECONDS);
+        parkedAccountsExecutorService.awaitTermination(TIMEOUT_EXECUTOR_SEC, TimeUnit.SECONDS);
+        parkedAccountsJobExecutorService = null;
+        parkedAccountsExecutorService = null;
     }
 
     public ExecutorService getJaxrsExecutorService() {
         return jaxrsExecutorService;
     }
 
+    // Bounded pool, shared across tenants, for the invoice generations of parked accounts jobs
+    public ExecutorService getParkedAccountsExecutorService() {
+        return parkedAccountsExecutorService;
+    }
+
+    // One thread per running parked accounts job (at most one per tenant), feeding the bounded pool above
+    public ExecutorService getParkedAccountsJobExecutorService() {
+        return parkedAccountsJobExecutorService;
+    }
+
     private ExecutorService createJaxrsExecutorService() {
         return new WithProfilingThreadPoolExecutor(JaxrsConfig.getJaxrsThreadNb(),
                                                    JaxrsConfig.getJaxrsThreadNb(),
@@ -79,4 +105,34 @@ public class JaxrsExecutors {
                                                    });
 
     }
+
+    private ExecutorService createParkedAccountsExecutorService() {
+        return new WithProfilingThreadPoolExecutor(JaxrsConfig.getParkedAccountsInvoiceGenerationThreadNb(),
+                                                   JaxrsConfig.getParkedAccountsInvoiceGenerationThreadNb(),
+                                                   0L,
+                                                   TimeUnit.MILLISECONDS,
+                                                   new LinkedBlockingQueue<Runnable>(),
+                                                   createThreadFactory(PARKED_ACCOUNTS_THREAD_PREFIX));
+    }
+
+    private ExecutorService createParkedAccountsJobExecutorService() {
+        return new WithProfilingThreadPoolExecutor(0,
+                                                   Integer.MAX_VALUE,
+                                                   60L,
+                                                   TimeUnit.SECONDS,
+                                                   new SynchronousQueue<Runnable>(),
+                                                   createThreadFactory(PARKED_ACCOUNTS_JOB_THREAD_PREFIX));
+    }
+
+    private ThreadFactory createThreadFactory(final String threadPrefix) {
+        return new ThreadFactory() {
+
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread th = new Thread(new ThreadGroup(PARKED_ACCOUNTS_TH_GROUP_NAME), r);
+                th.setName(threadPrefix + th.getId());
+                return th;
+            }
+        };
+    }
 }
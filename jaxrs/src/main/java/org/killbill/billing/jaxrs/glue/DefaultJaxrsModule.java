@@ -20,7 +20,9 @@ package org.killbill.billing.jaxrs.glue;
 import org.killbill.billing.jaxrs.DefaultJaxrsService;
 import org.killbill.billing.jaxrs.JaxrsExecutors;
 import org.killbill.billing.jaxrs.JaxrsService;
+import org.killbill.billing.jaxrs.util.CatalogResponseCache;
 import org.killbill.billing.jaxrs.util.JaxrsUriBuilder;
+import org.killbill.billing.jaxrs.util.ParkedAccountsInvoiceGenerator;
 import org.killbill.billing.platform.api.KillbillConfigSource;
 import org.killbill.billing.util.config.definition.JaxrsConfig;
 import org.killbill.billing.util.glue.KillBillModule;
@@ -39,6 +41,8 @@ public class DefaultJaxrsModule extends KillBillModule {
         bind(JaxrsConfig.class).toInstance(jaxrsConfig);
         bind(JaxrsUriBuilder.class).asEagerSingleton();
         bind(JaxrsExecutors.class).asEagerSingleton();
+        bind(CatalogResponseCache.class).asEagerSingleton();
+        bind(ParkedAccountsInvoiceGenerator.class).asEagerSingleton();
         bind(JaxrsService.class).to(DefaultJaxrsService.class).asEagerSingleton();
     }
 
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.jaxrs.json;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+@ApiModel(value="BulkAccount")
+public class BulkAccountJson {
+
+    @ApiModelProperty(required = true)
+    private final AccountJson account;
+    private final List<BulkSubscriptionsBundleJson> bulkSubscriptionsBundles;
+
+    @JsonCreator
+    public BulkAccountJson(@JsonProperty("account") @Nullable final AccountJson account,
+                           @JsonProperty("bulkSubscriptionsBundles") @Nullable final List<BulkSubscriptionsBundleJson> bulkSubscriptionsBundles) {
+        this.account = account;
+        this.bulkSubscriptionsBundles = bulkSubscriptionsBundles;
+    }
+
+    public AccountJson getAccount() {
+        return account;
+    }
+
+    public List<BulkSubscriptionsBundleJson> getBulkSubscriptionsBundles() {
+        return bulkSubscriptionsBundles;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkAccountJson{" +
+               "account=" + account +
+               ", bulkSubscriptionsBundles=" + bulkSubscriptionsBundles +
+               '}';
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final BulkAccountJson that = (BulkAccountJson) o;
+
+        if (account != null ? !account.equals(that.account) : that.account != null) {
+            return false;
+        }
+        return bulkSubscriptionsBundles != null ? bulkSubscriptionsBundles.equals(that.bulkSubscriptionsBundles) : that.bulkSubscriptionsBundles == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = account != null ? account.hashCode() : 0;
+        result = 31 * result + (bulkSubscriptionsBundles != null ? bulkSubscriptionsBundles.hashCode() : 0);
+        return result;
+    }
+}
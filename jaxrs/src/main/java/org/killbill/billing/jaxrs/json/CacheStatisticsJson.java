@@ -0,0 +1,141 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.jaxrs.json;
+
+import org.killbill.billing.util.cache.CacheController;
+import org.killbill.billing.util.cache.CacheStatistics;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.annotations.ApiModel;
+
+@ApiModel(value = "CacheStatistics")
+public class CacheStatisticsJson {
+
+    private final String cacheName;
+    private final Integer size;
+    private final Long hits;
+    private final Long misses;
+    private final Double hitRatio;
+    private final Long evictions;
+
+    @JsonCreator
+    public CacheStatisticsJson(@JsonProperty("cacheName") final String cacheName,
+                               @JsonProperty("size") final Integer size,
+                               @JsonProperty("hits") final Long hits,
+                               @JsonProperty("misses") final Long misses,
+                               @JsonProperty("hitRatio") final Double hitRatio,
+                               @JsonProperty("evictions") final Long evictions) {
+        this.cacheName = cacheName;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRatio = hitRatio;
+        this.evictions = evictions;
+    }
+
+    public CacheStatisticsJson(final CacheController<?, ?> cacheController) {
+        this(cacheController.getCacheType().getCacheName(), cacheController.size(), cacheController.getStatistics());
+    }
+
+    private CacheStatisticsJson(final String cacheName, final Integer size, final CacheStatistics statistics) {
+        this(cacheName,
+             size,
+             statistics == null ? null : statistics.getHits(),
+             statistics == null ? null : statistics.getMisses(),
+             statistics == null ? null : statistics.getHitRatio(),
+             statistics == null ? null : statistics.getEvictions());
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public Long getHits() {
+        return hits;
+    }
+
+    public Long getMisses() {
+        return misses;
+    }
+
+    public Double getHitRatio() {
+        return hitRatio;
+    }
+
+    public Long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CacheStatisticsJson{");
+        sb.append("cacheName='").append(cacheName).append('\'');
+        sb.append(", size=").append(size);
+        sb.append(", hits=").append(hits);
+        sb.append(", misses=").append(misses);
+        sb.append(", hitRatio=").append(hitRatio);
+        sb.append(", evictions=").append(evictions);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final CacheStatisticsJson that = (CacheStatisticsJson) o;
+
+        if (cacheName != null ? !cacheName.equals(that.cacheName) : that.cacheName != null) {
+            return false;
+        }
+        if (size != null ? !size.equals(that.size) : that.size != null) {
+            return false;
+        }
+        if (hits != null ? !hits.equals(that.hits) : that.hits != null) {
+            return false;
+        }
+        if (misses != null ? !misses.equals(that.misses) : that.misses != null) {
+            return false;
+        }
+        if (hitRatio != null ? !hitRatio.equals(that.hitRatio) : that.hitRatio != null) {
+            return false;
+        }
+        return evictions != null ? evictions.equals(that.evictions) : that.evictions == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = cacheName != null ? cacheName.hashCode() : 0;
+        result = 31 * result + (size != null ? size.hashCode() : 0);
+        result = 31 * result + (hits != null ? hits.hashCode() : 0);
+        result = 31 * result + (misses != null ? misses.hashCode() : 0);
+        result = 31 * result + (hitRatio != null ? hitRatio.hashCode() : 0);
+        result = 31 * result + (evictions != null ? evictions.hashCode() : 0);
+        return result;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.jaxrs.json;
+
+import org.killbill.billing.util.metrics.HotPathMetricStatistics;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.annotations.ApiModel;
+
+@ApiModel(value = "HotPathMetricStatistics")
+public class HotPathMetricStatisticsJson {
+
+    private final String name;
+    private final String type;
+    private final Long count;
+    private final Double min;
+    private final Double mean;
+    private final Double p50;
+    private final Double p90;
+    private final Double p99;
+    private final Double p999;
+    private final Double max;
+
+    @JsonCreator
+    public HotPathMetricStatisticsJson(@JsonProperty("name") final String name,
+                                       @JsonProperty("type") final String type,
+                                       @JsonProperty("count") final Long count,
+                                       @JsonProperty("min") final Double min,
+                                       @JsonProperty("mean") final Double mean,
+                                       @JsonProperty("p50") final Double p50,
+                                       @JsonProperty("p90") final Double p90,
+                                       @JsonProperty("p99") final Double p99,
+                                       @JsonProperty("p999") final Double p999,
+                                       @JsonProperty("max") final Double max) {
+        this.name = name;
+        this.type = type;
+        this.count = count;
+        this.min = min;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    public HotPathMetricStatisticsJson(final HotPathMetricStatistics statistics) {
+        this(statistics.getName(),
+             statistics.getType(),
+             statistics.getCount(),
+             statistics.getMin(),
+             statistics.getMean(),
+             statistics.getP50(),
+             statistics.getP90(),
+             statistics.getP99(),
+             statistics.getP999(),
+             statistics.getMax());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public Double getMin() {
+        return min;
+    }
+
+    public Double getMean() {
+        return mean;
+    }
+
+    public Double getP50() {
+        return p50;
+    }
+
+    public Double getP90() {
+        return p90;
+    }
+
+    public Double getP99() {
+        return p99;
+    }
+
+    public Double getP999() {
+        return p999;
+    }
+
+    public Double getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("HotPathMetricStatisticsJson{");
+        sb.append("name='").append(name).append('\'');
+        sb.append(", type='").append(type).append('\'');
+        sb.append(", count=").append(count);
+        sb.append(", min=").append(min);
+        sb.append(", mean=").append(mean);
+        sb.append(", p50=").append(p50);
+        sb.append(", p90=").append(p90);
+        sb.append(", p99=").append(p99);
+        sb.append(", p999=").append(p999);
+        sb.append(", max=").append(max);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final HotPathMetricStatisticsJson that = (HotPathMetricStatisticsJson) o;
+
+        if (name != null ? !name.equals(that.name) : that.name != null) {
+            return false;
+        }
+        if (type != null ? !type.equals(that.type) : that.type != null) {
+            return false;
+        }
+        if (count != null ? !count.equals(that.count) : that.count != null) {
+            return false;
+        }
+        if (min != null ? !min.equals(that.min) : that.min != null) {
+            return false;
+        }
+        if (mean != null ? !mean.equals(that.mean) : that.mean != null) {
+            return false;
+        }
+        if (p50 != null ? !p50.equals(that.p50) : that.p50 != null) {
+            return false;
+        }
+        if (p90 != null ? !p90.equals(that.p90) : that.p90 != null) {
+            return false;
+        }
+        if (p99 != null ? !p99.equals(that.p99) : that.p99 != null) {
+            return false;
+        }
+        if (p999 != null ? !p999.equals(that.p999) : that.p999 != null) {
+            return false;
+        }
+        return max != null ? max.equals(that.max) : that.max == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = name != null ? name.hashCode() : 0;
+        result = 31 * result + (type != null ? type.hashCode() : 0);
+        result = 31 * result + (count != null ? count.hashCode() : 0);
+        result = 31 * result + (min != null ? min.hashCode() : 0);
+        result = 31 * result + (mean != null ? mean.hashCode() : 0);
+        result = 31 * result + (p50 != null ? p50.hashCode() : 0);
+        result = 31 * result + (p90 != null ? p90.hashCode() : 0);
+        result = 31 * result + (p99 != null ? p99.hashCode() : 0);
+        result = 31 * result + (p999 != null ? p999.hashCode() : 0);
+        result = 31 * result + (max != null ? max.hashCode() : 0);
+        return result;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.jaxrs.json;
+
+import java.util.Map;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.jaxrs.util.ParkedAccountsInvoiceGenerationJob;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.annotations.ApiModel;
+
+@ApiModel(value = "InvoiceGenerationJob")
+public class InvoiceGenerationJobJson {
+
+    private final String status;
+    private final DateTime startDate;
+    private final DateTime endDate;
+    private final String cursor;
+    private final Long nbProcessedAccounts;
+    private final Map<String, Long> nbAccountsByResult;
+
+    @JsonCreator
+    public InvoiceGenerationJobJson(@JsonProperty("status") final String status,
+                                    @JsonProperty("startDate") final DateTime startDate,
+                                    @JsonProperty("endDate") final DateTime endDate,
+                                    @JsonProperty("cursor") final String cursor,
+                                    @JsonProperty("nbProcessedAccounts") final Long nbProcessedAccounts,
+                                    @JsonProperty("nbAccountsByResult") final Map<String, Long> nbAccountsByResult) {
+        this.status = status;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.cursor = cursor;
+        this.nbProcessedAccounts = nbProcessedAccounts;
+        this.nbAccountsByResult = nbAccountsByResult;
+    }
+
+    public InvoiceGenerationJobJson(final ParkedAccountsInvoiceGenerationJob job) {
+        this(job.getStatus().toString(),
+             job.getStartDate(),
+             job.getEndDate(),
+             job.getCursor(),
+             job.getNbProcessedAccounts(),
+             job.getNbAccountsByResult());
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public DateTime getStartDate() {
+        return startDate;
+    }
+
+    public DateTime getEndDate() {
+        return endDate;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public Long getNbProcessedAccounts() {
+        return nbProcessedAccounts;
+    }
+
+    public Map<String, Long> getNbAccountsByResult() {
+        return nbAccountsByResult;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("InvoiceGenerationJobJson{");
+        sb.append("status='").append(status).append('\'');
+        sb.append(", startDate=").append(startDate);
+        sb.append(", endDate=").append(endDate);
+        sb.append(", cursor='").append(cursor).append('\'');
+        sb.append(", nbProcessedAccounts=").append(nbProcessedAccounts);
+        sb.append(", nbAccountsByResult=").append(nbAccountsByResult);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final InvoiceGenerationJobJson that = (InvoiceGenerationJobJson) o;
+
+        if (status != null ? !status.equals(that.status) : that.status != null) {
+            return false;
+        }
+        if (startDate != null ? startDate.compareTo(that.startDate) != 0 : that.startDate != null) {
+            return false;
+        }
+        if (endDate != null ? endDate.compareTo(that.endDate) != 0 : that.endDate != null) {
+            return false;
+        }
+        if (cursor != null ? !cursor.equals(that.cursor) : that.cursor != null) {
+            return false;
+        }
+        if (nbProcessedAccounts != null ? !nbProcessedAccounts.equals(that.nbProcessedAccounts) : that.nbProcessedAccounts != null) {
+            return false;
+        }
+        return nbAccountsByResult != null ? nbAccountsByResult.equals(that.nbAccountsByResult) : that.nbAccountsByResult == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = status != null ? status.hashCode() : 0;
+        result = 31 * result + (startDate != null ? startDate.hashCode() : 0);
+        result = 31 * result + (endDate != null ? endDate.hashCode() : 0);
+        result = 31 * result + (cursor != null ? cursor.hashCode() : 0);
+        result = 31 * result + (nbProcessedAccounts != null ? nbProcessedAccounts.hashCode() : 0);
+        result = 31 * result + (nbAccountsByResult != null ? nbAccountsByResult.hashCode() : 0);
+        return result;
+    }
+}
@@ -19,9 +19,15 @@ package org.killbill.billing.jaxrs.resources;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import javax.annotation.Nullable;
@@ -45,17 +51,37 @@ import javax.ws.rs.core.StreamingOutput;
 
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
 import org.killbill.billing.ErrorCode;
 import org.killbill.billing.ObjectType;
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.account.api.AccountApiException;
+import org.killbill.billing.account.api.AccountData;
+import org.killbill.billing.account.api.AccountInternalApi;
 import org.killbill.billing.account.api.AccountUserApi;
 import org.killbill.billing.account.api.ImmutableAccountData;
+import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.catalog.api.StaticCatalog;
 import org.killbill.billing.catalog.api.VersionedCatalog;
+import org.killbill.billing.entitlement.api.BaseEntitlementWithAddOnsSpecifier;
+import org.killbill.billing.entitlement.api.EntitlementApi;
+import org.killbill.billing.entitlement.api.EntitlementApiException;
+import org.killbill.billing.entitlement.api.EntitlementSpecifier;
 import org.killbill.billing.invoice.api.InvoiceApiException;
+import org.killbill.billing.invoice.api.InvoiceInternalApi;
 import org.killbill.billing.invoice.api.InvoiceUserApi;
+import org.killbill.billing.jaxrs.json.AccountJson;
 import org.killbill.billing.jaxrs.json.AdminPaymentJson;
+import org.killbill.billing.jaxrs.json.BulkAccountJson;
+import org.killbill.billing.jaxrs.json.BulkSubscriptionsBundleJson;
+import org.killbill.billing.jaxrs.json.CacheStatisticsJson;
+import org.killbill.billing.jaxrs.json.HotPathMetricStatisticsJson;
+import org.killbill.billing.jaxrs.json.InvoiceGenerationJobJson;
+import org.killbill.billing.jaxrs.json.SubscriptionJson;
 import org.killbill.billing.jaxrs.util.Context;
 import org.killbill.billing.jaxrs.util.JaxrsUriBuilder;
+import org.killbill.billing.jaxrs.util.ParkedAccountsInvoiceGenerationJob;
+import org.killbill.billing.jaxrs.util.ParkedAccountsInvoiceGenerator;
 import org.killbill.billing.payment.api.AdminPaymentApi;
 import org.killbill.billing.payment.api.InvoicePaymentApi;
 import org.killbill.billing.payment.api.Payment;
@@ -76,9 +102,13 @@ import org.killbill.billing.util.cache.Cachable.CacheType;
 import org.killbill.billing.util.cache.CacheController;
 import org.killbill.billing.util.cache.CacheControllerDispatcher;
 import org.killbill.billing.util.callcontext.CallContext;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.billing.util.callcontext.TenantContext;
 import org.killbill.billing.util.config.tenant.PerTenantConfig;
 import org.killbill.billing.util.entity.Pagination;
+import org.killbill.billing.util.metrics.HotPathMetricStatistics;
+import org.killbill.billing.util.metrics.HotPathMetrics;
+import org.killbill.billing.util.search.SearchTokenReindexer;
 import org.killbill.billing.util.tag.Tag;
 import org.killbill.billing.util.tag.dao.SystemTags;
 import org.killbill.bus.api.BusEvent;
@@ -105,6 +135,8 @@ import io.swagger.annotations.ApiResponses;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM;
+import static org.killbill.billing.jaxrs.resources.SubscriptionResourceHelpers.buildBaseEntitlementWithAddOnsSpecifier;
+import static org.killbill.billing.jaxrs.resources.SubscriptionResourceHelpers.buildEntitlementSpecifier;
 
 @Singleton
 @Path(JaxrsResource.ADMIN_PATH)
@@ -121,6 +153,12 @@ public class AdminResource extends JaxRsResourceBase {
     private final PersistentBus persistentBus;
     private final NotificationQueueService notificationQueueService;
     private final KillbillHealthcheck killbillHealthcheck;
+    private final ParkedAccountsInvoiceGenerator parkedAccountsInvoiceGenerator;
+    private final SearchTokenReindexer searchTokenReindexer;
+    private final InvoiceInternalApi invoiceInternalApi;
+    private final AccountInternalApi accountInternalApi;
+    private final EntitlementApi entitlementApi;
+    private final InternalCallContextFactory internalCallContextFactory;
 
     @Inject
     public AdminResource(final JaxrsUriBuilder uriBuilder,
@@ -138,6 +176,12 @@ public class AdminResource extends JaxRsResourceBase {
                          final PersistentBus persistentBus,
                          final NotificationQueueService notificationQueueService,
                          final KillbillHealthcheck killbillHealthcheck,
+                         final ParkedAccountsInvoiceGenerator parkedAccountsInvoiceGenerator,
+                         final SearchTokenReindexer searchTokenReindexer,
+                         final InvoiceInternalApi invoiceInternalApi,
+                         final AccountInternalApi accountInternalApi,
+                         final EntitlementApi entitlementApi,
+                         final InternalCallContextFactory internalCallContextFactory,
                          final Clock clock,
                          final Context context) {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountUserApi, paymentApi, invoicePaymentApi, null, clock, context);
@@ -149,6 +193,12 @@ public class AdminResource extends JaxRsResourceBase {
         this.persistentBus = persistentBus;
         this.notificationQueueService = notificationQueueService;
         this.killbillHealthcheck = killbillHealthcheck;
+        this.parkedAccountsInvoiceGenerator = parkedAccountsInvoiceGenerator;
+        this.searchTokenReindexer = searchTokenReindexer;
+        this.invoiceInternalApi = invoiceInternalApi;
+        this.accountInternalApi = accountInternalApi;
+        this.entitlementApi = entitlementApi;
+        this.internalCallContextFactory = internalCallContextFactory;
     }
 
     @GET
@@ -325,6 +375,202 @@ public class AdminResource extends JaxRsResourceBase {
                        .build();
     }
 
+    @POST
+    @Produces(APPLICATION_JSON)
+    @Path("/invoices/job")
+    @ApiOperation(value = "Start (or resume) a background invoice generation for all parked accounts", response = InvoiceGenerationJobJson.class)
+    @ApiResponses(value = {@ApiResponse(code = 201, message = "Job successfully started"),
+                           @ApiResponse(code = 200, message = "Job already running")})
+    public Response startInvoiceGenerationJobForParkedAccounts(@QueryParam("fromStart") @DefaultValue("false") final Boolean fromStart,
+                                                               @HeaderParam(HDR_CREATED_BY) final String createdBy,
+                                                               @HeaderParam(HDR_REASON) final String reason,
+                                                               @HeaderParam(HDR_COMMENT) final String comment,
+                                                               @javax.ws.rs.core.Context final HttpServletRequest request) throws TenantApiException {
+        final CallContext callContext = context.createCallContextNoAccountId(createdBy, reason, comment, request);
+
+        final ParkedAccountsInvoiceGenerationJob currentJob = parkedAccountsInvoiceGenerator.getJob(callContext.getTenantId());
+        final ParkedAccountsInvoiceGenerationJob job = parkedAccountsInvoiceGenerator.startJob(fromStart, callContext);
+        final Status status = job == currentJob ? Status.OK : Status.CREATED;
+        return Response.status(status).entity(new InvoiceGenerationJobJson(job)).build();
+    }
+
+    @GET
+    @Produces(APPLICATION_JSON)
+    @Path("/invoices/job")
+    @ApiOperation(value = "Retrieve the progress of the last background invoice generation for all parked accounts", response = InvoiceGenerationJobJson.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Successful operation"),
+                           @ApiResponse(code = 404, message = "No job started on this node")})
+    public Response getInvoiceGenerationJobForParkedAccounts(@javax.ws.rs.core.Context final HttpServletRequest request) {
+        final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
+        final ParkedAccountsInvoiceGenerationJob job = parkedAccountsInvoiceGenerator.getJob(tenantContext.getTenantId());
+        if (job == null) {
+            return Response.status(Status.NOT_FOUND).build();
+        }
+        return Response.status(Status.OK).entity(new InvoiceGenerationJobJson(job)).build();
+    }
+
+    @DELETE
+    @Produces(APPLICATION_JSON)
+    @Path("/invoices/job")
+    @ApiOperation(value = "Stop the background invoice generation for all parked accounts (it can be resumed later on)")
+    @ApiResponses(value = {@ApiResponse(code = 204, message = "Successful operation"),
+                           @ApiResponse(code = 404, message = "No job started on this node")})
+    public Response stopInvoiceGenerationJobForParkedAccounts(@javax.ws.rs.core.Context final HttpServletRequest request) {
+        final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
+        final ParkedAccountsInvoiceGenerationJob job = parkedAccountsInvoiceGenerator.stopJob(tenantContext.getTenantId());
+        if (job == null) {
+            return Response.status(Status.NOT_FOUND).build();
+        }
+        return Response.status(Status.NO_CONTENT).build();
+    }
+
+    @GET
+    @Path("/" + CACHE)
+    @Produces(APPLICATION_JSON)
+    @ApiOperation(value = "Retrieve the statistics of the given Cache if specified, otherwise of all caches", response = CacheStatisticsJson.class, responseContainer = "List")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Successful operation"),
+                           @ApiResponse(code = 400, message = "Cache name does not exist or is not alive")})
+    public Response getCacheStatistics(@QueryParam("cacheName") final String cacheName,
+                                       @javax.ws.rs.core.Context final HttpServletRequest request) {
+        final List<CacheType> cacheTypes;
+        if (null != cacheName && !cacheName.isEmpty()) {
+            final CacheType cacheType = CacheType.findByName(cacheName);
+            if (cacheType == null) {
+                log.warn("Cache for specified cacheName='{}' does not exist or is not alive", cacheName);
+                return Response.status(Status.BAD_REQUEST).build();
+            }
+            cacheTypes = ImmutableList.<CacheType>of(cacheType);
+        } else {
+            cacheTypes = ImmutableList.<CacheType>copyOf(CacheType.values());
+        }
+
+        final List<CacheStatisticsJson> result = new LinkedList<CacheStatisticsJson>();
+        for (final CacheType cacheType : cacheTypes) {
+            final CacheController<Object, Object> cacheController = cacheControllerDispatcher.getCacheController(cacheType);
+            if (cacheController != null) {
+                result.add(new CacheStatisticsJson(cacheController));
+            }
+        }
+        return Response.status(Status.OK).entity(result).build();
+    }
+
+    @GET
+    @Path("/" + METRICS)
+    @Produces(APPLICATION_JSON)
+    @ApiOperation(value = "Retrieve the hot-path timers (in milliseconds) and histograms, optionally filtered by name prefix", response = HotPathMetricStatisticsJson.class, responseContainer = "List")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Successful operation")})
+    public Response getHotPathMetrics(@QueryParam("prefix") final String prefix,
+                                      @javax.ws.rs.core.Context final HttpServletRequest request) {
+        final List<HotPathMetricStatisticsJson> result = new LinkedList<HotPathMetricStatisticsJson>();
+        for (final HotPathMetricStatistics statistics : HotPathMetrics.getStatistics()) {
+            if (Strings.isNullOrEmpty(prefix) || statistics.getName().startsWith(prefix)) {
+                result.add(new HotPathMetricStatisticsJson(statistics));
+            }
+        }
+        return Response.status(Status.OK).entity(result).build();
+    }
+
+    @PUT
+    @Produces(APPLICATION_JSON)
+    @Path("/" + SEARCH_TOKENS)
+    @ApiOperation(value = "Rebuild the search index of the accounts and payments of the tenant (required for the records created before the index was introduced)", response = Map.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Successful operation")})
+    public Response reindexSearchTokens(@HeaderParam(HDR_CREATED_BY) final String createdBy,
+                                        @HeaderParam(HDR_REASON) final String reason,
+                                        @HeaderParam(HDR_COMMENT) final String comment,
+                                        @javax.ws.rs.core.Context final HttpServletRequest request) {
+        final CallContext callContext = context.createCallContextNoAccountId(createdBy, reason, comment, request);
+
+        final Map<String, Long> result = new LinkedHashMap<String, Long>();
+        for (final ObjectType objectType : SearchTokenReindexer.getSearchableObjectTypes()) {
+            result.put(objectType.toString(), searchTokenReindexer.reindex(objectType, callContext));
+        }
+        return Response.status(Status.OK).entity(result).build();
+    }
+
+    @PUT
+    @Produces(APPLICATION_JSON)
+    @Path("/" + ACCOUNTS + "/{accountId:" + UUID_PATTERN + "}/" + CBA)
+    @ApiOperation(value = "Recompute the running credit balance of the account from its invoice items", response = BigDecimal.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Successful operation"),
+                           @ApiResponse(code = 400, message = "Invalid account id supplied")})
+    public Response refreshAccountCBA(@PathParam("accountId") final UUID accountId,
+                                      @HeaderParam(HDR_CREATED_BY) final String createdBy,
+                                      @HeaderParam(HDR_REASON) final String reason,
+                                      @HeaderParam(HDR_COMMENT) final String comment,
+                                      @javax.ws.rs.core.Context final HttpServletRequest request) {
+        final CallContext callContext = context.createCallContextWithAccountId(accountId, createdBy, reason, comment, request);
+        final BigDecimal accountCBA = invoiceInternalApi.refreshAccountCBA(accountId, internalCallContextFactory.createInternalCallContext(accountId, callContext));
+        return Response.status(Status.OK).entity(accountCBA).build();
+    }
+
+    @POST
+    @Consumes(APPLICATION_JSON)
+    @Produces(APPLICATION_JSON)
+    @Path("/" + ACCOUNTS)
+    @ApiOperation(value = "Import accounts and their subscriptions in bulk", response = AccountJson.class, responseContainer = "List")
+    @ApiResponses(value = {@ApiResponse(code = 201, message = "Accounts created successfully"),
+                           @ApiResponse(code = 400, message = "Invalid account data supplied"),
+                           @ApiResponse(code = 409, message = "Account already exists")})
+    public Response importAccounts(final List<BulkAccountJson> json,
+                                   @QueryParam(QUERY_ENTITLEMENT_REQUESTED_DT) final String entitlementDate,
+                                   @QueryParam(QUERY_BILLING_REQUESTED_DT) final String billingDate,
+                                   @QueryParam(QUERY_MIGRATED) @DefaultValue("false") final Boolean isMigrated,
+                                   @QueryParam(QUERY_PLUGIN_PROPERTY) final List<String> pluginPropertiesString,
+                                   @HeaderParam(HDR_CREATED_BY) final String createdBy,
+                                   @HeaderParam(HDR_REASON) final String reason,
+                                   @HeaderParam(HDR_COMMENT) final String comment,
+                                   @javax.ws.rs.core.Context final HttpServletRequest request) throws AccountApiException, EntitlementApiException {
+        verifyNonNullOrEmpty(json, "BulkAccountJson body should be specified");
+
+        final List<AccountData> accountsData = new ArrayList<AccountData>(json.size());
+        for (final BulkAccountJson bulkAccountJson : json) {
+            verifyNonNullOrEmpty(bulkAccountJson.getAccount(), "BulkAccountJson account should be specified for each element");
+            accountsData.add(bulkAccountJson.getAccount().toAccount(null));
+        }
+
+        final Iterable<PluginProperty> pluginProperties = extractPluginProperties(pluginPropertiesString);
+        final LocalDate resolvedEntitlementDate = toLocalDate(entitlementDate);
+        final LocalDate resolvedBillingDate = toLocalDate(billingDate);
+
+        // All accounts are created in a single transaction
+        final CallContext callContextNoAccountId = context.createCallContextNoAccountId(createdBy, reason, comment, request);
+        final InternalCallContext internalCallContext = internalCallContextFactory.createInternalCallContextWithoutAccountRecordId(callContextNoAccountId);
+        final List<Account> accounts = accountInternalApi.createAccounts(accountsData, internalCallContext);
+
+        // The subscriptions of each account are then created in a single transaction per account
+        final List<AccountJson> result = new ArrayList<AccountJson>(accounts.size());
+        for (int i = 0; i < accounts.size(); i++) {
+            final Account account = accounts.get(i);
+            final List<BulkSubscriptionsBundleJson> bulkSubscriptionsBundles = json.get(i).getBulkSubscriptionsBundles();
+            if (bulkSubscriptionsBundles != null && !bulkSubscriptionsBundles.isEmpty()) {
+                final Collection<BaseEntitlementWithAddOnsSpecifier> baseEntitlementWithAddOnsSpecifierList = new ArrayList<BaseEntitlementWithAddOnsSpecifier>();
+                for (final BulkSubscriptionsBundleJson subscriptionsBundleJson : bulkSubscriptionsBundles) {
+                    verifyNonNullOrEmpty(subscriptionsBundleJson.getBaseEntitlementAndAddOns(), "BulkSubscriptionsBundleJson baseEntitlementAndAddOns should be specified for each element");
+
+                    final Collection<EntitlementSpecifier> entitlementSpecifierList = new ArrayList<EntitlementSpecifier>();
+                    for (final SubscriptionJson entitlement : subscriptionsBundleJson.getBaseEntitlementAndAddOns()) {
+                        verifyNonNullOrEmpty(entitlement, "SubscriptionJson body should be specified for each element");
+                        entitlementSpecifierList.add(buildEntitlementSpecifier(entitlement, account.getCurrency(), entitlement.getExternalKey()));
+                    }
+
+                    final SubscriptionJson baseEntitlement = subscriptionsBundleJson.getBaseEntitlementAndAddOns().get(0);
+                    baseEntitlementWithAddOnsSpecifierList.add(buildBaseEntitlementWithAddOnsSpecifier(entitlementSpecifierList,
+                                                                                                       resolvedEntitlementDate,
+                                                                                                       resolvedBillingDate,
+                                                                                                       null,
+                                                                                                       baseEntitlement.getBundleExternalKey(),
+                                                                                                       isMigrated));
+                }
+
+                final CallContext callContext = context.createCallContextWithAccountId(account.getId(), createdBy, reason, comment, request);
+                entitlementApi.createBaseEntitlementsWithAddOns(account.getId(), baseEntitlementWithAddOnsSpecifierList, false, pluginProperties, callContext);
+            }
+            result.add(new AccountJson(account, null, null, null));
+        }
+        return Response.status(Status.CREATED).entity(result).build();
+    }
+
     @DELETE
     @Path("/" + CACHE)
     @Produces(APPLICATION_JSON)
@@ -22,6 +22,7 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 
 import javax.annotation.Nullable;
 import javax.servlet.http.HttpServletRequest;
@@ -33,7 +34,9 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
 
@@ -67,6 +70,9 @@ import org.killbill.billing.jaxrs.json.CatalogJson.PriceListJson;
 import org.killbill.billing.jaxrs.json.CatalogJson.ProductJson;
 import org.killbill.billing.jaxrs.json.PlanDetailJson;
 import org.killbill.billing.jaxrs.json.SimplePlanJson;
+import org.killbill.billing.jaxrs.util.CatalogResponseCache;
+import org.killbill.billing.jaxrs.util.CatalogResponseCache.Format;
+import org.killbill.billing.jaxrs.util.CatalogResponseCache.RenderedCatalog;
 import org.killbill.billing.jaxrs.util.Context;
 import org.killbill.billing.jaxrs.util.JaxrsUriBuilder;
 import org.killbill.billing.payment.api.InvoicePaymentApi;
@@ -81,6 +87,7 @@ import org.killbill.clock.Clock;
 import org.killbill.commons.metrics.TimedResource;
 import org.killbill.xmlloader.XMLWriter;
 
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.swagger.annotations.Api;
@@ -98,6 +105,7 @@ public class CatalogResource extends JaxRsResourceBase {
 
     private final CatalogUserApi catalogUserApi;
     private final SubscriptionApi subscriptionApi;
+    private final CatalogResponseCache catalogResponseCache;
 
     @Inject
     public CatalogResource(final JaxrsUriBuilder uriBuilder,
@@ -109,11 +117,13 @@ public class CatalogResource extends JaxRsResourceBase {
                            final InvoicePaymentApi invoicePaymentApi,
                            final CatalogUserApi catalogUserApi,
                            final SubscriptionApi subscriptionApi,
+                           final CatalogResponseCache catalogResponseCache,
                            final Clock clock,
                            final Context context) {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountUserApi, paymentApi, invoicePaymentApi, null, clock, context);
         this.catalogUserApi = catalogUserApi;
         this.subscriptionApi = subscriptionApi;
+        this.catalogResponseCache = catalogResponseCache;
     }
 
     //
@@ -128,6 +138,7 @@ public class CatalogResource extends JaxRsResourceBase {
     @ApiResponses(value = {})
     public Response getCatalogXmlOriginal(@QueryParam(QUERY_REQUESTED_DT) final String requestedDate,
                                           @QueryParam(QUERY_ACCOUNT_ID) final UUID accountId,
+                                          @javax.ws.rs.core.Context final Request jaxrsRequest,
                                           @javax.ws.rs.core.Context final HttpServletRequest request) throws Exception {
         final TenantContext tenantContext = accountId != null ?
                                             context.createTenantContextWithAccountId(accountId, request) :
@@ -138,13 +149,18 @@ public class CatalogResource extends JaxRsResourceBase {
                                             null;
 
         final VersionedCatalog catalog = catalogUserApi.getCatalog(catalogName, tenantContext);
-        JaxRsResourceBase.filterCatalogVersions(catalog, catalogDateVersion);
+        final RenderedCatalog renderedCatalog = catalogResponseCache.getRenderedCatalog(catalog, catalogDateVersion, Format.XML, new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                final VersionedCatalog filteredCatalog = JaxRsResourceBase.filterCatalogVersions(catalog, catalogDateVersion);
 
-        // This assumes serializableClass has the right JAXB annotations
-        final Class serializableClass = catalog.getClass();
-        final String result = XMLWriter.writeXML(catalog, serializableClass);
+                // This assumes serializableClass has the right JAXB annotations
+                final Class serializableClass = filteredCatalog.getClass();
+                return XMLWriter.writeXML(filteredCatalog, serializableClass);
+            }
+        });
 
-        return Response.status(Status.OK).entity(result).build();
+        return buildRenderedCatalogResponse(renderedCatalog, jaxrsRequest);
     }
 
     @TimedResource
@@ -155,8 +171,9 @@ public class CatalogResource extends JaxRsResourceBase {
     @ApiResponses(value = {})
     public Response getCatalogXml(@QueryParam(QUERY_REQUESTED_DT) final String requestedDate,
                                   @QueryParam(QUERY_ACCOUNT_ID) final UUID accountId,
+                                  @javax.ws.rs.core.Context final Request jaxrsRequest,
                                   @javax.ws.rs.core.Context final HttpServletRequest request) throws Exception {
-        return getCatalogXmlOriginal(requestedDate, accountId, request);
+        return getCatalogXmlOriginal(requestedDate, accountId, jaxrsRequest, request);
     }
 
     @TimedResource
@@ -197,6 +214,7 @@ public class CatalogResource extends JaxRsResourceBase {
     @ApiResponses(value = {})
     public Response getCatalogJson(@QueryParam(QUERY_REQUESTED_DT) final String requestedDate,
                                    @QueryParam(QUERY_ACCOUNT_ID) final UUID accountId,
+                                   @javax.ws.rs.core.Context final Request jaxrsRequest,
                                    @javax.ws.rs.core.Context final HttpServletRequest request) throws Exception {
 
         final TenantContext tenantContext = accountId != null ?
@@ -207,14 +225,22 @@ public class CatalogResource extends JaxRsResourceBase {
                                             null;
 
         final VersionedCatalog catalog = catalogUserApi.getCatalog(catalogName, tenantContext);
-        JaxRsResourceBase.filterCatalogVersions(catalog, catalogDateVersion);
-
-        final List<CatalogJson> result = new ArrayList<CatalogJson>();
-        for (final StaticCatalog v : catalog.getVersions()) {
-            result.add(new CatalogJson(v));
-        }
+        final RenderedCatalog renderedCatalog = catalogResponseCache.getRenderedCatalog(catalog, catalogDateVersion, Format.JSON, new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                final List<StaticCatalog> versions = catalogDateVersion == null ?
+                                                     catalog.getVersions() :
+                                                     ImmutableList.<StaticCatalog>of(catalog.getVersion(catalogDateVersion.toDate()));
+
+                final List<CatalogJson> result = new ArrayList<CatalogJson>();
+                for (final StaticCatalog v : versions) {
+                    result.add(new CatalogJson(v));
+                }
+                return mapper.writeValueAsString(result);
+            }
+        });
 
-        return Response.status(Status.OK).entity(result).build();
+        return buildRenderedCatalogResponse(renderedCatalog, jaxrsRequest);
     }
 
     @TimedResource
@@ -401,6 +427,15 @@ public class CatalogResource extends JaxRsResourceBase {
         return Response.status(Status.OK).entity(priceListJson).build();
     }
 
+    private Response buildRenderedCatalogResponse(final RenderedCatalog renderedCatalog, final Request jaxrsRequest) {
+        // The catalog didn't change since the client retrieved it (If-None-Match)
+        final ResponseBuilder notModifiedResponseBuilder = jaxrsRequest.evaluatePreconditions(renderedCatalog.getEntityTag());
+        if (notModifiedResponseBuilder != null) {
+            return notModifiedResponseBuilder.build();
+        }
+        return Response.status(Status.OK).entity(renderedCatalog.getContent()).tag(renderedCatalog.getEntityTag()).build();
+    }
+
     private SubscriptionEvent getLastEventBeforeDate(final UUID subscriptionId, final String requestedDateString, final HttpServletRequest request) throws SubscriptionApiException {
         final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
         final DateTime requestedDateTime = requestedDateString != null ?
@@ -52,6 +52,7 @@ import org.killbill.billing.util.audit.AuditLogWithHistory;
 import org.killbill.billing.util.callcontext.TenantContext;
 import org.killbill.billing.util.customfield.CustomField;
 import org.killbill.billing.util.entity.Pagination;
+import org.killbill.billing.util.entity.dao.SeekPaginationToken;
 import org.killbill.clock.Clock;
 import org.killbill.commons.metrics.TimedResource;
 
@@ -94,11 +95,12 @@ public class CustomFieldResource extends JaxRsResourceBase {
     @ApiResponses(value = {})
     public Response getCustomFields(@QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                     @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                    @QueryParam(QUERY_SEARCH_TOKEN) final String token,
                                     @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                                     @javax.ws.rs.core.Context final HttpServletRequest request) throws CustomFieldApiException {
-        final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
+        final TenantContext tenantContext = SeekPaginationToken.withToken(context.createTenantContextNoAccountId(request), token);
         final Pagination<CustomField> customFields = customFieldUserApi.getCustomFields(offset, limit, tenantContext);
-        final URI nextPageUri = uriBuilder.nextPage(CustomFieldResource.class, "getCustomFields", customFields.getNextOffset(), limit, ImmutableMap.<String, String>of(QUERY_AUDIT, auditMode.getLevel().toString()));
+        final URI nextPageUri = uriBuilder.nextPage(CustomFieldResource.class, "getCustomFields", customFields, limit, ImmutableMap.<String, String>of(QUERY_AUDIT, auditMode.getLevel().toString()));
 
         return buildStreamingPaginationResponse(customFields,
                                                 new Function<CustomField, CustomFieldJson>() {
@@ -124,21 +126,22 @@ public class CustomFieldResource extends JaxRsResourceBase {
                                                  @Nullable @QueryParam("fieldValue") final String fieldValue,
                                                  @QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                                  @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                                 @QueryParam(QUERY_SEARCH_TOKEN) final String token,
                                                  @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                                                  @javax.ws.rs.core.Context final HttpServletRequest request) {
 
         Preconditions.checkNotNull(objectType);
         Preconditions.checkNotNull(fieldName);
 
-        final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
+        final TenantContext tenantContext = SeekPaginationToken.withToken(context.createTenantContextNoAccountId(request), token);
         final Pagination<CustomField> customFields = fieldValue != null ?
                                                      customFieldUserApi.searchCustomFields(fieldName, fieldValue, ObjectType.valueOf(objectType), offset, limit, tenantContext) :
                                                      customFieldUserApi.searchCustomFields(fieldName,  ObjectType.valueOf(objectType), offset, limit, tenantContext);
 
-        final URI nextPageUri = uriBuilder.nextPage(CustomFieldResource.class, "searchCustomFields", customFields.getNextOffset(), limit, ImmutableMap.<String, String>of("objectType", objectType,
-                                                                                                                                                                          "fieldName", fieldName,
-                                                                                                                                                                          "fieldValue", MoreObjects.firstNonNull(fieldValue, ""),
-                                                                                                                                                                          QUERY_AUDIT, auditMode.getLevel().toString()));
+        final URI nextPageUri = uriBuilder.nextPage(CustomFieldResource.class, "searchCustomFields", customFields, limit, ImmutableMap.<String, String>of("objectType", objectType,
+                                                                                                                                                          "fieldName", fieldName,
+                                                                                                                                                          "fieldValue", MoreObjects.firstNonNull(fieldValue, ""),
+                                                                                                                                                          QUERY_AUDIT, auditMode.getLevel().toString()));
         return buildStreamingPaginationResponse(customFields,
                                                 new Function<CustomField, CustomFieldJson>() {
                                                     @Override
@@ -162,12 +165,13 @@ public class CustomFieldResource extends JaxRsResourceBase {
     public Response searchCustomFields(@PathParam("searchKey") final String searchKey,
                                        @QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                        @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                       @QueryParam(QUERY_SEARCH_TOKEN) final String token,
                                        @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                                        @javax.ws.rs.core.Context final HttpServletRequest request) throws CustomFieldApiException {
-        final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
+        final TenantContext tenantContext = SeekPaginationToken.withToken(context.createTenantContextNoAccountId(request), token);
         final Pagination<CustomField> customFields = customFieldUserApi.searchCustomFields(searchKey, offset, limit, tenantContext);
-        final URI nextPageUri = uriBuilder.nextPage(CustomFieldResource.class, "searchCustomFields", customFields.getNextOffset(), limit, ImmutableMap.<String, String>of("searchKey", searchKey,
-                                                                                                                                                                          QUERY_AUDIT, auditMode.getLevel().toString()));
+        final URI nextPageUri = uriBuilder.nextPage(CustomFieldResource.class, "searchCustomFields", customFields, limit, ImmutableMap.<String, String>of("searchKey", searchKey,
+                                                                                                                                                          QUERY_AUDIT, auditMode.getLevel().toString()));
         return buildStreamingPaginationResponse(customFields,
                                                 new Function<CustomField, CustomFieldJson>() {
                                                     @Override
@@ -18,7 +18,11 @@
 
 package org.killbill.billing.jaxrs.resources;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.net.URI;
@@ -103,6 +107,7 @@ import org.killbill.billing.util.customfield.CustomField;
 import org.killbill.billing.util.customfield.StringCustomField;
 import org.killbill.billing.util.entity.Entity;
 import org.killbill.billing.util.entity.Pagination;
+import org.killbill.billing.util.entity.dao.SeekPaginationToken;
 import org.killbill.billing.util.jackson.ObjectMapper;
 import org.killbill.billing.util.tag.Tag;
 import org.killbill.billing.util.tag.TagDefinition;
@@ -361,14 +366,19 @@ public abstract class JaxRsResourceBase implements JaxrsResource {
             }
         };
 
-        return Response.status(Status.OK)
-                       .entity(json)
-                       .header(HDR_PAGINATION_CURRENT_OFFSET, entities.getCurrentOffset())
-                       .header(HDR_PAGINATION_NEXT_OFFSET, entities.getNextOffset())
-                       .header(HDR_PAGINATION_TOTAL_NB_RECORDS, entities.getTotalNbRecords())
-                       .header(HDR_PAGINATION_MAX_NB_RECORDS, entities.getMaxNbRecords())
-                       .header(HDR_PAGINATION_NEXT_PAGE_URI, nextPageUri)
-                       .build();
+        final ResponseBuilder responseBuilder = Response.status(Status.OK).entity(json);
+        if (SeekPaginationToken.isSeekPagination(entities)) {
+            // Offsets are meaningless in seek pagination mode (and the counts aren't computed)
+            responseBuilder.header(HDR_PAGINATION_NEXT_TOKEN, SeekPaginationToken.getNextToken(entities));
+        } else {
+            responseBuilder.header(HDR_PAGINATION_CURRENT_OFFSET, entities.getCurrentOffset())
+                           .header(HDR_PAGINATION_NEXT_OFFSET, entities.getNextOffset())
+                           .header(HDR_PAGINATION_TOTAL_NB_RECORDS, entities.getTotalNbRecords())
+                           .header(HDR_PAGINATION_MAX_NB_RECORDS, entities.getMaxNbRecords());
+        }
+
+        return responseBuilder.header(HDR_PAGINATION_NEXT_PAGE_URI, nextPageUri)
+                              .build();
     }
 
     protected void validatePaymentMethodForAccount(final UUID accountId, final UUID paymentMethodId, final CallContext callContext) throws PaymentApiException {
@@ -811,18 +821,33 @@ public abstract class JaxRsResourceBase implements JaxrsResource {
         }));
     }
 
-    public static void filterCatalogVersions(final VersionedCatalog fullCatalog, @Nullable final DateTime requestedDate) {
+    public static VersionedCatalog filterCatalogVersions(final VersionedCatalog fullCatalog, @Nullable final DateTime requestedDate) throws IOException, ClassNotFoundException {
 
         if (requestedDate == null) {
-            return;
+            return fullCatalog;
         }
 
-        final StaticCatalog target = fullCatalog.getVersion(requestedDate.toDate());
+        // The catalog returned by the API is shared (cached): since we cannot reconstruct a DefaultVersionedCatalog
+        // with all its JAXB annotations, we filter the versions list of a copy instead
+        final VersionedCatalog filteredCatalog = copyCatalog(fullCatalog);
+        final StaticCatalog target = filteredCatalog.getVersion(requestedDate.toDate());
+        filteredCatalog.getVersions().clear();
+        filteredCatalog.getVersions().add(target);
+        return filteredCatalog;
+    }
+
+    private static VersionedCatalog copyCatalog(final VersionedCatalog catalog) throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ObjectOutputStream objectOutputStream = new ObjectOutputStream(out);
+        objectOutputStream.writeObject(catalog);
+        objectOutputStream.close();
 
-        // Since we cannot reconstruct a DefaultVersionedCatalog with all its JAXB annotation
-        // we filter the existing versions list from the original object
-        fullCatalog.getVersions().clear();
-        fullCatalog.getVersions().add(target);
+        final ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()));
+        try {
+            return (VersionedCatalog) objectInputStream.readObject();
+        } finally {
+            objectInputStream.close();
+        }
     }
 
 }
@@ -51,6 +51,7 @@ public interface JaxrsResource {
     String HDR_PAGINATION_TOTAL_NB_RECORDS = "X-Killbill-Pagination-TotalNbRecords";
     String HDR_PAGINATION_MAX_NB_RECORDS = "X-Killbill-Pagination-MaxNbRecords";
     String HDR_PAGINATION_NEXT_PAGE_URI = "X-Killbill-Pagination-NextPageUri";
+    String HDR_PAGINATION_NEXT_TOKEN = "X-Killbill-Pagination-NextToken";
 
     /*
      * Patterns
@@ -82,6 +83,7 @@ public interface JaxrsResource {
     String QUERY_ENTITLEMENT_POLICY = "entitlementPolicy";
     String QUERY_SEARCH_OFFSET = "offset";
     String QUERY_SEARCH_LIMIT = "limit";
+    String QUERY_SEARCH_TOKEN = "token";
     String QUERY_ENTITLEMENT_EFFECTIVE_FROM_DT = "effectiveFromDate";
     String QUERY_FORCE_NEW_BCD_WITH_PAST_EFFECTIVE_DATE = "forceNewBcdWithPastEffectiveDate";
 
@@ -292,6 +294,9 @@ public interface JaxrsResource {
 
     String CACHE = "cache";
     String HEALTHCHECK = "healthcheck";
+    String METRICS = "metrics";
+    String SEARCH_TOKENS = "searchTokens";
+    String CBA = "cba";
 
     String QUERY_INCLUDED_DELETED = "includedDeleted";
     String AUDIT_LOG = "auditLogs";
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.jaxrs.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.core.EntityTag;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.catalog.api.VersionedCatalog;
+import org.killbill.billing.util.config.definition.JaxrsConfig;
+
+import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+//
+// Rendered (JSON or XML) representations of the catalogs, with their ETag.
+//
+// Entries are keyed by catalog instance (weak keys, i.e. identity): whenever the catalog of a tenant changes (upload, deletion,
+// invalidation callback triggered by another node, ...), the catalog cache returns a new instance and the representations of the old one
+// are never served again. Catalogs which aren't cached (e.g. returned by a plugin without version) are rendered every time.
+//
+// The representations of a catalog only depend on the version selected by the requested date (if any), which is what the entries are
+// keyed by, so arbitrary requested dates don't grow the cache.
+//
+@Singleton
+public class CatalogResponseCache {
+
+    public enum Format {
+        JSON,
+        XML
+    }
+
+    private static final String ALL_VERSIONS = "ALL";
+
+    private final Cache<VersionedCatalog, ConcurrentMap<String, RenderedCatalog>> renderedCatalogs;
+
+    @Inject
+    public CatalogResponseCache(final JaxrsConfig jaxrsConfig) {
+        this.renderedCatalogs = CacheBuilder.newBuilder()
+                                            .weakKeys()
+                                            .maximumSize(jaxrsConfig.getCatalogResponseCacheSize())
+                                            .build();
+    }
+
+    public RenderedCatalog getRenderedCatalog(final VersionedCatalog catalog,
+                                              @Nullable final DateTime requestedDate,
+                                              final Format format,
+                                              final Callable<String> renderer) throws Exception {
+        // Must be computed before rendering, as the renderer may filter the catalog versions
+        final String key = String.format("%s-%s", format, requestedDate == null ? ALL_VERSIONS : catalog.getVersion(requestedDate.toDate()).getEffectiveDate().getTime());
+
+        final ConcurrentMap<String, RenderedCatalog> renderedVersions;
+        try {
+            renderedVersions = renderedCatalogs.get(catalog, new Callable<ConcurrentMap<String, RenderedCatalog>>() {
+                @Override
+                public ConcurrentMap<String, RenderedCatalog> call() {
+                    return new ConcurrentHashMap<String, RenderedCatalog>();
+                }
+            });
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+
+        RenderedCatalog renderedCatalog = renderedVersions.get(key);
+        if (renderedCatalog == null) {
+            // Concurrent requests may render the same catalog, only one representation is kept
+            final RenderedCatalog newRenderedCatalog = new RenderedCatalog(renderer.call());
+            renderedCatalog = renderedVersions.putIfAbsent(key, newRenderedCatalog);
+            if (renderedCatalog == null) {
+                renderedCatalog = newRenderedCatalog;
+            }
+        }
+        return renderedCatalog;
+    }
+
+    public static class RenderedCatalog {
+
+        private final String content;
+        private final EntityTag entityTag;
+
+        RenderedCatalog(final String content) {
+            this.content = content;
+            // Based on the content only, so that it is stable across nodes and catalog cache invalidations
+            this.entityTag = new EntityTag(Hashing.sha256().hashString(content, Charsets.UTF_8).toString());
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public EntityTag getEntityTag() {
+            return entityTag;
+        }
+    }
+}
@@ -18,10 +18,13 @@
 
 package org.killbill.billing.jaxrs.util;
 
+import java.util.LinkedList;
+import java.util.List;
 import java.util.UUID;
 
 import javax.servlet.ServletRequest;
 
+import org.killbill.billing.callcontext.ContextResolutionCache;
 import org.killbill.billing.jaxrs.resources.JaxrsResource;
 import org.killbill.billing.tenant.api.Tenant;
 import org.killbill.billing.util.UUIDs;
@@ -38,6 +41,9 @@ import com.google.inject.Inject;
 
 public class Context {
 
+    // Resolution caches of the contexts created for the request (reported once the request completes)
+    public static final String RESOLUTION_CACHES_REQUEST_ATTRIBUTE = "killbill_resolution_caches";
+
     private final CallOrigin origin;
     private final UserType userType;
     private final CallContextFactory contextFactory;
@@ -66,6 +72,7 @@ public class Context {
                                                                              comment, getOrCreateUserToken());
 
             populateMDCContext(callContext);
+            trackResolutionCache(callContext, request);
 
             return callContext;
         } catch (final NullPointerException e) {
@@ -89,6 +96,7 @@ public class Context {
         }
 
         populateMDCContext(tenantContext);
+        trackResolutionCache(tenantContext, request);
 
         return tenantContext;
     }
@@ -118,6 +126,27 @@ public class Context {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    public static List<ContextResolutionCache> getResolutionCaches(final ServletRequest request) {
+        final Object resolutionCaches = request.getAttribute(RESOLUTION_CACHES_REQUEST_ATTRIBUTE);
+        return resolutionCaches == null ? null : (List<ContextResolutionCache>) resolutionCaches;
+    }
+
+    private void trackResolutionCache(final TenantContext tenantContext, final ServletRequest request) {
+        final ContextResolutionCache resolutionCache = InternalCallContextFactory.getResolutionCache(tenantContext);
+        if (resolutionCache == null) {
+            return;
+        }
+
+        List<ContextResolutionCache> resolutionCaches = getResolutionCaches(request);
+        if (resolutionCaches == null) {
+            // Contexts are created by the thread servicing the request
+            resolutionCaches = new LinkedList<ContextResolutionCache>();
+            request.setAttribute(RESOLUTION_CACHES_REQUEST_ATTRIBUTE, resolutionCaches);
+        }
+        resolutionCaches.add(resolutionCache);
+    }
+
     private void populateMDCContext(final CallContext callContext) {
         // InternalCallContextFactory will do it for us
         internalCallContextFactory.createInternalCallContextWithoutAccountRecordId(callContext);
@@ -32,6 +32,8 @@ import javax.ws.rs.core.UriInfo;
 import org.killbill.billing.jaxrs.resources.JaxRsResourceBase;
 import org.killbill.billing.jaxrs.resources.JaxrsResource;
 import org.killbill.billing.util.config.definition.JaxrsConfig;
+import org.killbill.billing.util.entity.Pagination;
+import org.killbill.billing.util.entity.dao.SeekPaginationToken;
 
 import com.google.common.base.MoreObjects;
 
@@ -117,14 +119,23 @@ public class JaxrsUriBuilder {
         return objectId != null ? uriBuilder.build(objectId) : uriBuilder.build();
     }
 
-    public URI nextPage(final Class<? extends JaxrsResource> theClass, final String getMethodName, final Long nextOffset, final Long limit, final Map<String, String> params) {
-        if (nextOffset == null || limit == null) {
+    public URI nextPage(final Class<? extends JaxrsResource> theClass, final String getMethodName, final Pagination<?> pagination, final Long limit, final Map<String, String> params) {
+        // In seek pagination mode, the offset is meaningless: the next page starts after the last record returned
+        final boolean seekPagination = SeekPaginationToken.isSeekPagination(pagination);
+        final String nextToken = seekPagination ? SeekPaginationToken.getNextToken(pagination) : null;
+        final Long nextOffset = seekPagination ? null : pagination.getNextOffset();
+        if ((seekPagination ? nextToken == null : nextOffset == null) || limit == null) {
             // End of pagination?
             return null;
         }
 
-        final UriBuilder uriBuilder = getUriBuilder(theClass, getMethodName).queryParam(JaxRsResourceBase.QUERY_SEARCH_OFFSET, nextOffset)
-                                                                            .queryParam(JaxRsResourceBase.QUERY_SEARCH_LIMIT, limit);
+        final UriBuilder uriBuilder = getUriBuilder(theClass, getMethodName);
+        if (nextToken != null) {
+            uriBuilder.queryParam(JaxRsResourceBase.QUERY_SEARCH_TOKEN, nextToken);
+        } else {
+            uriBuilder.queryParam(JaxRsResourceBase.QUERY_SEARCH_OFFSET, nextOffset);
+        }
+        uriBuilder.queryParam(JaxRsResourceBase.QUERY_SEARCH_LIMIT, limit);
         for (final String key : params.keySet()) {
             uriBuilder.queryParam(key, params.get(key));
         }
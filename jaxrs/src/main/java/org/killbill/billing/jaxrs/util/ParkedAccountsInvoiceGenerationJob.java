@@ -0,0 +1,136 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.jaxrs.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import org.joda.time.DateTime;
+
+// Progress of the (background) invoice generation for all parked accounts of a tenant, see ParkedAccountsInvoiceGenerator
+public class ParkedAccountsInvoiceGenerationJob {
+
+    public enum JobStatus {
+        RUNNING,
+        STOPPED,
+        COMPLETED,
+        FAILED
+    }
+
+    private final UUID tenantId;
+    private final DateTime startDate;
+    private final AtomicLong nbProcessedAccounts = new AtomicLong(0);
+    // Number of accounts per invoice generation result (OK or ErrorCode)
+    private final ConcurrentMap<String, AtomicLong> nbAccountsByResult = new ConcurrentHashMap<String, AtomicLong>();
+
+    private volatile JobStatus status = JobStatus.RUNNING;
+    private volatile boolean stopRequested = false;
+    private volatile String cursor;
+    private volatile DateTime endDate;
+
+    public ParkedAccountsInvoiceGenerationJob(@Nullable final UUID tenantId, final DateTime startDate, final String cursor) {
+        this.tenantId = tenantId;
+        this.startDate = startDate;
+        this.cursor = cursor;
+    }
+
+    void recordResult(final String result) {
+        AtomicLong counter = nbAccountsByResult.get(result);
+        if (counter == null) {
+            final AtomicLong newCounter = new AtomicLong(0);
+            counter = nbAccountsByResult.putIfAbsent(result, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+            }
+        }
+        counter.incrementAndGet();
+        nbProcessedAccounts.incrementAndGet();
+    }
+
+    void requestStop() {
+        stopRequested = true;
+    }
+
+    boolean isStopRequested() {
+        return stopRequested;
+    }
+
+    void setCursor(final String cursor) {
+        this.cursor = cursor;
+    }
+
+    void complete(final JobStatus status, final DateTime endDate) {
+        this.endDate = endDate;
+        this.status = status;
+    }
+
+    @Nullable
+    public UUID getTenantId() {
+        return tenantId;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public DateTime getStartDate() {
+        return startDate;
+    }
+
+    @Nullable
+    public DateTime getEndDate() {
+        return endDate;
+    }
+
+    // Continuation token of the first batch of parked accounts not yet (fully) processed
+    public String getCursor() {
+        return cursor;
+    }
+
+    public long getNbProcessedAccounts() {
+        return nbProcessedAccounts.get();
+    }
+
+    public Map<String, Long> getNbAccountsByResult() {
+        final Map<String, Long> result = new TreeMap<String, Long>();
+        for (final Map.Entry<String, AtomicLong> entry : nbAccountsByResult.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ParkedAccountsInvoiceGenerationJob{");
+        sb.append("tenantId=").append(tenantId);
+        sb.append(", status=").append(status);
+        sb.append(", startDate=").append(startDate);
+        sb.append(", endDate=").append(endDate);
+        sb.append(", cursor='").append(cursor).append('\'');
+        sb.append(", nbProcessedAccounts=").append(nbProcessedAccounts);
+        sb.append(", nbAccountsByResult=").append(nbAccountsByResult);
+        sb.append('}');
+        return sb.toString();
+    }
+}
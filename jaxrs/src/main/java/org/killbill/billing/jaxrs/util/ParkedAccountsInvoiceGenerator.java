@@ -0,0 +1,298 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.jaxrs.util;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.shiro.SecurityUtils;
+import org.apache.shiro.subject.Subject;
+import org.killbill.billing.ErrorCode;
+import org.killbill.billing.ObjectType;
+import org.killbill.billing.invoice.api.InvoiceApiException;
+import org.killbill.billing.invoice.api.InvoiceUserApi;
+import org.killbill.billing.jaxrs.JaxrsExecutors;
+import org.killbill.billing.jaxrs.util.ParkedAccountsInvoiceGenerationJob.JobStatus;
+import org.killbill.billing.tenant.api.TenantApiException;
+import org.killbill.billing.tenant.api.TenantUserApi;
+import org.killbill.billing.util.api.TagUserApi;
+import org.killbill.billing.util.callcontext.CallContext;
+import org.killbill.billing.util.callcontext.CallContextFactory;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.config.definition.JaxrsConfig;
+import org.killbill.billing.util.entity.Pagination;
+import org.killbill.billing.util.entity.dao.SeekPaginationToken;
+import org.killbill.billing.util.tag.Tag;
+import org.killbill.billing.util.tag.dao.SystemTags;
+import org.killbill.clock.Clock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+//
+// Background invoice generation for all parked accounts of a tenant.
+//
+// The __PARK__ tags are walked in batches (seek pagination, so that accounts being unparked don't shift the next batches),
+// the invoice generations of each batch being fanned out to a bounded pool shared across tenants and throttled per tenant.
+// Once a batch has been fully processed, the cursor of the next one is persisted as a tenant key: a stopped (or interrupted,
+// e.g. by a restart) job can be resumed from there. Accounts of a partially processed batch which are still parked are processed again.
+//
+@Singleton
+public class ParkedAccountsInvoiceGenerator {
+
+    public static final String OK = "OK";
+
+    // Not a system TenantKey: updates aren't broadcast
+    static final String CURSOR_TENANT_KEY = "PARKED_ACCOUNTS_INVOICE_GENERATION_CURSOR";
+
+    // The empty token starts from the first parked account (see SeekPaginationToken)
+    private static final String FIRST_BATCH_CURSOR = "";
+
+    // Multi-tenancy may not have been configured
+    private static final UUID NO_TENANT_KEY = new UUID(0L, 0L);
+
+    private static final Logger log = LoggerFactory.getLogger(ParkedAccountsInvoiceGenerator.class);
+
+    private final TagUserApi tagUserApi;
+    private final InvoiceUserApi invoiceUserApi;
+    private final TenantUserApi tenantUserApi;
+    private final JaxrsExecutors jaxrsExecutors;
+    private final JaxrsConfig jaxrsConfig;
+    private final CallContextFactory callContextFactory;
+    private final InternalCallContextFactory internalCallContextFactory;
+    private final Clock clock;
+
+    // Last job per tenant
+    private final ConcurrentMap<UUID, ParkedAccountsInvoiceGenerationJob> jobs = new ConcurrentHashMap<UUID, ParkedAccountsInvoiceGenerationJob>();
+    private final ConcurrentMap<UUID, RateLimiter> rateLimiters = new ConcurrentHashMap<UUID, RateLimiter>();
+
+    @Inject
+    public ParkedAccountsInvoiceGenerator(final TagUserApi tagUserApi,
+                                          final InvoiceUserApi invoiceUserApi,
+                                          final TenantUserApi tenantUserApi,
+                                          final JaxrsExecutors jaxrsExecutors,
+                                          final JaxrsConfig jaxrsConfig,
+                                          final CallContextFactory callContextFactory,
+                                          final InternalCallContextFactory internalCallContextFactory,
+                                          final Clock clock) {
+        this.tagUserApi = tagUserApi;
+        this.invoiceUserApi = invoiceUserApi;
+        this.tenantUserApi = tenantUserApi;
+        this.jaxrsExecutors = jaxrsExecutors;
+        this.jaxrsConfig = jaxrsConfig;
+        this.callContextFactory = callContextFactory;
+        this.internalCallContextFactory = internalCallContextFactory;
+        this.clock = clock;
+    }
+
+    // Start a job for the tenant (from the persisted cursor unless fromStart is set), or return the one already running
+    public ParkedAccountsInvoiceGenerationJob startJob(final boolean fromStart, final CallContext callContext) throws TenantApiException {
+        final UUID tenantKey = getTenantKey(callContext.getTenantId());
+        synchronized (jobs) {
+            final ParkedAccountsInvoiceGenerationJob currentJob = jobs.get(tenantKey);
+            if (currentJob != null && currentJob.getStatus() == JobStatus.RUNNING) {
+                return currentJob;
+            }
+
+            final String cursor = fromStart ? FIRST_BATCH_CURSOR : getPersistedCursor(callContext);
+            final ParkedAccountsInvoiceGenerationJob job = new ParkedAccountsInvoiceGenerationJob(callContext.getTenantId(), clock.getUTCNow(), cursor);
+            jobs.put(tenantKey, job);
+
+            // Permissions are checked against the subject which started the job
+            final Subject subject = SecurityUtils.getSubject();
+            jaxrsExecutors.getParkedAccountsJobExecutorService().submit(subject.associateWith(new Runnable() {
+                @Override
+                public void run() {
+                    runJob(job, subject, getRateLimiter(tenantKey), callContext);
+                }
+            }));
+            return job;
+        }
+    }
+
+    @Nullable
+    public ParkedAccountsInvoiceGenerationJob getJob(@Nullable final UUID tenantId) {
+        return jobs.get(getTenantKey(tenantId));
+    }
+
+    // The invoice generations already submitted are completed, but the cursor isn't moved past the current batch
+    @Nullable
+    public ParkedAccountsInvoiceGenerationJob stopJob(@Nullable final UUID tenantId) {
+        final ParkedAccountsInvoiceGenerationJob job = jobs.get(getTenantKey(tenantId));
+        if (job != null) {
+            job.requestStop();
+        }
+        return job;
+    }
+
+    private void runJob(final ParkedAccountsInvoiceGenerationJob job, final Subject subject, @Nullable final RateLimiter rateLimiter, final CallContext callContext) {
+        final List<Future<?>> invoiceGenerations = new LinkedList<Future<?>>();
+        try {
+            String cursor = job.getCursor();
+            while (!job.isStopRequested()) {
+                final List<UUID> accountIds = new LinkedList<UUID>();
+                final String nextCursor = getParkedAccountIds(cursor, accountIds, callContext);
+
+                // Shared by the invoice generations of the batch: the record ids of all its accounts are resolved with a single query
+                final CallContext batchCallContext = refresh(callContext);
+                internalCallContextFactory.getRecordIdsFromObjects(accountIds, ObjectType.ACCOUNT, batchCallContext);
+
+                for (final UUID accountId : accountIds) {
+                    if (job.isStopRequested()) {
+                        break;
+                    }
+                    if (rateLimiter != null) {
+                        rateLimiter.acquire();
+                    }
+                    invoiceGenerations.add(jaxrsExecutors.getParkedAccountsExecutorService().submit(subject.associateWith(new Runnable() {
+                        @Override
+                        public void run() {
+                            triggerInvoiceGeneration(job, accountId, batchCallContext);
+                        }
+                    })));
+                }
+                for (final Future<?> invoiceGeneration : invoiceGenerations) {
+                    invoiceGeneration.get();
+                }
+                invoiceGenerations.clear();
+
+                if (job.isStopRequested()) {
+                    break;
+                }
+
+                if (nextCursor == null) {
+                    tenantUserApi.deleteTenantKey(CURSOR_TENANT_KEY, refresh(callContext));
+                    job.complete(JobStatus.COMPLETED, clock.getUTCNow());
+                    log.info("Invoice generation for parked accounts completed: {}", job);
+                    return;
+                }
+
+                cursor = nextCursor;
+                tenantUserApi.updateTenantKeyValue(CURSOR_TENANT_KEY, cursor, refresh(callContext));
+                job.setCursor(cursor);
+            }
+            job.complete(JobStatus.STOPPED, clock.getUTCNow());
+            log.info("Invoice generation for parked accounts stopped: {}", job);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(invoiceGenerations);
+            job.complete(JobStatus.STOPPED, clock.getUTCNow());
+            log.warn("Invoice generation for parked accounts interrupted: {}", job);
+        } catch (final ExecutionException e) {
+            cancel(invoiceGenerations);
+            job.complete(JobStatus.FAILED, clock.getUTCNow());
+            log.warn("Invoice generation for parked accounts failed: {}", job, e);
+        } catch (final TenantApiException e) {
+            cancel(invoiceGenerations);
+            job.complete(JobStatus.FAILED, clock.getUTCNow());
+            log.warn("Invoice generation for parked accounts failed: {}", job, e);
+        } catch (final RuntimeException e) {
+            cancel(invoiceGenerations);
+            job.complete(JobStatus.FAILED, clock.getUTCNow());
+            log.warn("Invoice generation for parked accounts failed: {}", job, e);
+        }
+    }
+
+    // Returns the cursor of the next batch, or null if this is the last one
+    private String getParkedAccountIds(final String cursor, final List<UUID> accountIds, final CallContext callContext) {
+        final Pagination<Tag> tags = tagUserApi.searchTags(SystemTags.PARK_TAG_DEFINITION_NAME, 0L, (long) jaxrsConfig.getParkedAccountsInvoiceGenerationBatchSize(), SeekPaginationToken.withToken(callContext, cursor));
+        try {
+            for (final Tag tag : tags) {
+                accountIds.add(tag.getObjectId());
+            }
+        } finally {
+            try {
+                tags.close();
+            } catch (final IOException e) {
+                log.warn("Unable to close the parked accounts pagination", e);
+            }
+        }
+        return SeekPaginationToken.getNextToken(tags);
+    }
+
+    private void triggerInvoiceGeneration(final ParkedAccountsInvoiceGenerationJob job, final UUID accountId, final CallContext callContext) {
+        try {
+            invoiceUserApi.triggerInvoiceGeneration(accountId, clock.getUTCToday(), callContext);
+            job.recordResult(OK);
+        } catch (final InvoiceApiException e) {
+            if (e.getCode() != ErrorCode.INVOICE_NOTHING_TO_DO.getCode()) {
+                log.warn("Unable to trigger invoice generation for accountId='{}'", accountId);
+            }
+            job.recordResult(ErrorCode.fromCode(e.getCode()).toString());
+        } catch (final RuntimeException e) {
+            log.warn("Unable to trigger invoice generation for accountId='{}'", accountId, e);
+            job.recordResult(ErrorCode.__UNKNOWN_ERROR_CODE.toString());
+        }
+    }
+
+    private String getPersistedCursor(final CallContext callContext) throws TenantApiException {
+        final List<String> values = tenantUserApi.getTenantValuesForKey(CURSOR_TENANT_KEY, callContext);
+        return values.isEmpty() ? FIRST_BATCH_CURSOR : values.get(values.size() - 1);
+    }
+
+    // Jobs can run for hours: the (created and updated) dates of the context of the request which started the job would be stale
+    private CallContext refresh(final CallContext callContext) {
+        return callContextFactory.createCallContext(null,
+                                                    callContext.getTenantId(),
+                                                    callContext.getUserName(),
+                                                    callContext.getCallOrigin(),
+                                                    callContext.getUserType(),
+                                                    callContext.getReasonCode(),
+                                                    callContext.getComments(),
+                                                    callContext.getUserToken());
+    }
+
+    @Nullable
+    private RateLimiter getRateLimiter(final UUID tenantKey) {
+        final double rate = jaxrsConfig.getParkedAccountsInvoiceGenerationRate();
+        if (rate <= 0) {
+            return null;
+        }
+
+        RateLimiter rateLimiter = rateLimiters.get(tenantKey);
+        if (rateLimiter == null) {
+            final RateLimiter newRateLimiter = RateLimiter.create(rate);
+            rateLimiter = rateLimiters.putIfAbsent(tenantKey, newRateLimiter);
+            if (rateLimiter == null) {
+                rateLimiter = newRateLimiter;
+            }
+        }
+        return rateLimiter;
+    }
+
+    private void cancel(final Iterable<Future<?>> invoiceGenerations) {
+        for (final Future<?> invoiceGeneration : invoiceGenerations) {
+            invoiceGeneration.cancel(false);
+        }
+    }
+
+    private UUID getTenantKey(@Nullable final UUID tenantId) {
+        return tenantId == null ? NO_TENANT_KEY : tenantId;
+    }
+}
@@ -40,8 +40,8 @@ import org.killbill.billing.catalog.api.Plan;
 import org.killbill.billing.catalog.api.PlanPhase;
 import org.killbill.billing.catalog.api.Usage;
 import org.killbill.billing.catalog.api.VersionedCatalog;
+import org.killbill.billing.entitlement.BlockingStateTimeline;
 import org.killbill.billing.entitlement.api.BlockingState;
-import org.killbill.billing.entitlement.api.BlockingStateType;
 import org.killbill.billing.junction.BillingEvent;
 import org.killbill.billing.junction.BlockingInternalApi;
 import org.killbill.billing.subscription.api.SubscriptionBase;
@@ -89,19 +89,12 @@ public class BlockingCalculator {
 
         final List<BlockingState> blockingEvents = blockingApi.getBlockingAllForAccount(catalog, context);
 
-        final Iterable<BlockingState> accountBlockingEvents = Iterables.filter(blockingEvents, new Predicate<BlockingState>() {
-            @Override
-            public boolean apply(final BlockingState input) {
-                return BlockingStateType.ACCOUNT == input.getType();
-            }
-        });
-
-        final Map<UUID, List<BlockingState>> perBundleBlockingEvents = getPerTypeBlockingEvents(BlockingStateType.SUBSCRIPTION_BUNDLE, blockingEvents);
-        final Map<UUID, List<BlockingState>> perSubscriptionBlockingEvents = getPerTypeBlockingEvents(BlockingStateType.SUBSCRIPTION, blockingEvents);
+        final BlockingStateTimeline blockingStateTimeline = new BlockingStateTimeline(blockingEvents);
+        final List<BlockingState> accountBlockingEvents = blockingStateTimeline.getAccountBlockingStates();
 
         for (final UUID bundleId : subscriptionsForAccount.keySet()) {
 
-            final List<BlockingState> bundleBlockingEvents = perBundleBlockingEvents.get(bundleId) != null ? perBundleBlockingEvents.get(bundleId) : ImmutableList.<BlockingState>of();
+            final List<BlockingState> bundleBlockingEvents = blockingStateTimeline.getBundleBlockingStates(bundleId);
 
             for (final SubscriptionBase subscription : subscriptionsForAccount.get(bundleId)) {
                 // Avoid inserting additional events for subscriptions that don't even have a START event
@@ -109,7 +102,7 @@ public class BlockingCalculator {
                     continue;
                 }
 
-                final List<BlockingState> subscriptionBlockingEvents = perSubscriptionBlockingEvents.get(subscription.getId()) != null ? perSubscriptionBlockingEvents.get(subscription.getId()) : ImmutableList.<BlockingState>of();
+                final List<BlockingState> subscriptionBlockingEvents = blockingStateTimeline.getSubscriptionBlockingStates(subscription.getId());
                 final List<BlockingState> aggregateSubscriptionBlockingEvents = getAggregateBlockingEventsPerSubscription(subscription.getEndDate(), subscriptionBlockingEvents, bundleBlockingEvents, accountBlockingEvents);
                 final List<DisabledDuration> accountBlockingDurations = createBlockingDurations(aggregateSubscriptionBlockingEvents);
 
@@ -148,24 +141,6 @@ public class BlockingCalculator {
         return result;
     }
 
-    final Map<UUID, List<BlockingState>> getPerTypeBlockingEvents(final BlockingStateType type, final List<BlockingState> blockingEvents) {
-        final Iterable<BlockingState> bundleBlockingEvents = Iterables.filter(blockingEvents, new Predicate<BlockingState>() {
-            @Override
-            public boolean apply(final BlockingState input) {
-                return type == input.getType();
-            }
-        });
-
-        final Map<UUID, List<BlockingState>> perTypeBlockingEvents = new HashMap<UUID, List<BlockingState>>();
-        for (final BlockingState cur : bundleBlockingEvents) {
-            if (!perTypeBlockingEvents.containsKey(cur.getBlockedId())) {
-                perTypeBlockingEvents.put(cur.getBlockedId(), new ArrayList<BlockingState>());
-            }
-            perTypeBlockingEvents.get(cur.getBlockedId()).add(cur);
-        }
-        return perTypeBlockingEvents;
-    }
-
     protected SortedSet<BillingEvent> eventsToRemove(final List<DisabledDuration> disabledDuration,
                                                      final SortedSet<BillingEvent> subscriptionBillingEvents) {
         final SortedSet<BillingEvent> result = new TreeSet<BillingEvent>();
@@ -54,6 +54,9 @@ import org.killbill.billing.subscription.api.user.SubscriptionBillingEvent;
 import org.killbill.billing.tag.TagInternalApi;
 import org.killbill.billing.util.UUIDs;
 import org.killbill.billing.util.bcd.BillCycleDayCalculator;
+import org.killbill.billing.util.metrics.HotPathHistogram;
+import org.killbill.billing.util.metrics.HotPathMetrics;
+import org.killbill.billing.util.metrics.HotPathTimer;
 import org.killbill.billing.util.tag.ControlTagType;
 import org.killbill.billing.util.tag.Tag;
 import org.slf4j.Logger;
@@ -70,6 +73,10 @@ import com.google.inject.Inject;
 public class DefaultInternalBillingApi implements BillingInternalApi {
 
     private static final Logger log = LoggerFactory.getLogger(DefaultInternalBillingApi.class);
+
+    private static final HotPathTimer BILLING_EVENTS_TIMER = HotPathMetrics.timer(DefaultInternalBillingApi.class, "getBillingEventsForAccount");
+    private static final HotPathHistogram BILLING_EVENTS_PER_ACCOUNT_HISTOGRAM = HotPathMetrics.histogram(DefaultInternalBillingApi.class, "billingEventsPerAccount");
+
     private final AccountInternalApi accountApi;
     private final SubscriptionBaseInternalApi subscriptionApi;
     private final CatalogInternalApi catalogInternalApi;
@@ -91,14 +98,24 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
 
     @Override
     public BillingEventSet getBillingEventsForAccountAndUpdateAccountBCD(final UUID accountId, final DryRunArguments dryRunArguments, final InternalCallContext context) throws CatalogApiException, AccountApiException, SubscriptionBaseApiException {
+        final long startNanos = BILLING_EVENTS_TIMER.start();
+        try {
+            final BillingEventSet result = computeBillingEventsForAccount(accountId, dryRunArguments, context);
+            BILLING_EVENTS_PER_ACCOUNT_HISTOGRAM.update(result.size());
+            return result;
+        } finally {
+            BILLING_EVENTS_TIMER.stop(startNanos);
+        }
+    }
+
+    private BillingEventSet computeBillingEventsForAccount(final UUID accountId, final DryRunArguments dryRunArguments, final InternalCallContext context) throws CatalogApiException, AccountApiException, SubscriptionBaseApiException {
         final VersionedCatalog fullCatalog = catalogInternalApi.getFullCatalog(true, true, context);
 
         // Check to see if billing is off for the account
-        final List<Tag> tagsForAccount = tagApi.getTagsForAccount(false, context);
-        final List<Tag> accountTags = getTagsForObjectType(ObjectType.ACCOUNT, tagsForAccount, null);
-        final boolean found_AUTO_INVOICING_OFF = is_AUTO_INVOICING_OFF(accountTags);
-        final boolean found_INVOICING_DRAFT = is_AUTO_INVOICING_DRAFT(accountTags);
-        final boolean found_INVOICING_REUSE_DRAFT = is_AUTO_INVOICING_REUSE_DRAFT(accountTags);
+        final Set<ControlTagType> accountControlTags = tagApi.getControlTags(accountId, ObjectType.ACCOUNT, context);
+        final boolean found_AUTO_INVOICING_OFF = is_AUTO_INVOICING_OFF(accountControlTags);
+        final boolean found_INVOICING_DRAFT = accountControlTags.contains(ControlTagType.AUTO_INVOICING_DRAFT);
+        final boolean found_INVOICING_REUSE_DRAFT = accountControlTags.contains(ControlTagType.AUTO_INVOICING_REUSE_DRAFT);
 
         final Set<UUID> skippedSubscriptions = new HashSet<UUID>();
         final DefaultBillingEventSet result;
@@ -113,8 +130,10 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
 
         final List<SubscriptionBaseBundle> bundles = subscriptionApi.getBundlesForAccount(accountId, context);
         final ImmutableAccountData account = accountApi.getImmutableAccountDataById(accountId, context);
+        // Only the bundle tags are needed past this point, so let the database do the filtering
+        final List<Tag> bundleTagsForAccount = tagApi.getTagsForAccountType(ObjectType.BUNDLE, false, context);
         result = new DefaultBillingEventSet(false, found_INVOICING_DRAFT, found_INVOICING_REUSE_DRAFT);
-        addBillingEventsForBundles(bundles, account, dryRunArguments, context, result, skippedSubscriptions, subscriptionsForAccount, fullCatalog, tagsForAccount);
+        addBillingEventsForBundles(bundles, account, dryRunArguments, context, result, skippedSubscriptions, subscriptionsForAccount, fullCatalog, bundleTagsForAccount);
         if (result.isEmpty()) {
             log.info("No billing event for accountId='{}'", accountId);
             return result;
@@ -146,7 +165,7 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
                                             final Set<UUID> skipSubscriptionsSet,
                                             final Map<UUID, List<SubscriptionBase>> subscriptionsForAccount,
                                             final VersionedCatalog catalog,
-                                            final List<Tag> tagsForAccount) throws AccountApiException, CatalogApiException, SubscriptionBaseApiException {
+                                            final List<Tag> bundleTagsForAccount) throws AccountApiException, CatalogApiException, SubscriptionBaseApiException {
         final int currentAccountBCD = accountApi.getBCD(context);
         addBillingEventsForBundles(bundles,
                                    account,
@@ -156,7 +175,7 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
                                    skipSubscriptionsSet,
                                    subscriptionsForAccount,
                                    catalog,
-                                   tagsForAccount,
+                                   bundleTagsForAccount,
                                    currentAccountBCD);
     }
 
@@ -168,7 +187,7 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
                                             final Set<UUID> skipSubscriptionsSet,
                                             final Map<UUID, List<SubscriptionBase>> subscriptionsForAccount,
                                             final VersionedCatalog catalog,
-                                            final List<Tag> tagsForAccount,
+                                            final List<Tag> bundleTagsForAccount,
                                             final int currentAccountBCD) throws AccountApiException, CatalogApiException, SubscriptionBaseApiException {
         // In dryRun mode, when we care about invoice generated for new BASE subscription, no such bundle exists yet; we still
         // want to tap into subscriptionBase logic, so we make up a bundleId
@@ -195,7 +214,7 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
             }
 
             // Check if billing is off for the bundle
-            final List<Tag> bundleTags = getTagsForObjectType(ObjectType.BUNDLE, tagsForAccount, bundle.getId());
+            final List<Tag> bundleTags = getTagsForObjectType(ObjectType.BUNDLE, bundleTagsForAccount, bundle.getId());
             boolean found_AUTO_INVOICING_OFF = is_AUTO_INVOICING_OFF(bundleTags);
             if (found_AUTO_INVOICING_OFF) {
                 for (final SubscriptionBase subscription : subscriptions) { // billing is off so list sub ids in set to be excluded
@@ -217,7 +236,7 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
             // Because we now have computed the real BCD, we need to re-compute the BillingEvents BCD for ACCOUNT alignments (see BillCycleDayCalculator#calculateBcdForAlignment).
             // The code could maybe be optimized (no need to re-run the full function?), but since it's run once per account, it's probably not worth it.
             result.clear();
-            addBillingEventsForBundles(bundles, account, dryRunArguments, context, result, skipSubscriptionsSet, subscriptionsForAccount, catalog, tagsForAccount, accountBCDCandidate);
+            addBillingEventsForBundles(bundles, account, dryRunArguments, context, result, skipSubscriptionsSet, subscriptionsForAccount, catalog, bundleTagsForAccount, accountBCDCandidate);
 
             final boolean dryRunMode = dryRunArguments != null;
             if (!dryRunMode) {
@@ -327,22 +346,13 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
         }));
     }
 
-    private boolean is_AUTO_INVOICING_DRAFT(final List<Tag> tags) {
-        return Iterables.any(tags, new Predicate<Tag>() {
-            @Override
-            public boolean apply(final Tag input) {
-                return input.getTagDefinitionId().equals(ControlTagType.AUTO_INVOICING_DRAFT.getId());
-            }
-        });
-    }
-
-    private boolean is_AUTO_INVOICING_REUSE_DRAFT(final List<Tag> tags) {
-        return Iterables.any(tags, new Predicate<Tag>() {
-            @Override
-            public boolean apply(final Tag input) {
-                return input.getTagDefinitionId().equals(ControlTagType.AUTO_INVOICING_REUSE_DRAFT.getId());
+    private boolean is_AUTO_INVOICING_OFF(final Set<ControlTagType> controlTags) {
+        for (final ControlTagType controlTag : controlTags) {
+            if (controlTag.getAutoInvoicingOff()) {
+                return true;
             }
-        });
+        }
+        return false;
     }
 
     private List<Tag> getTagsForObjectType(final ObjectType objectType, final List<Tag> tags, @Nullable final UUID objectId) {
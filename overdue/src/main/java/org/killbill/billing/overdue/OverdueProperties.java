@@ -19,6 +19,7 @@ package org.killbill.billing.overdue;
 import org.skife.config.Config;
 import org.skife.config.Default;
 import org.skife.config.Description;
+import org.skife.config.TimeSpan;
 
 import org.killbill.billing.util.config.definition.KillbillConfig;
 
@@ -28,4 +29,14 @@ public interface OverdueProperties extends KillbillConfig {
     @Default("NoOverdueConfig.xml")
     @Description("Overdue configuration location. Either in the classpath or in the filesystem")
     public String getConfigURI();
+
+    @Config("org.killbill.overdue.refresh.debounceWindow")
+    @Default("0s")
+    @Description("Delay before refreshing the overdue state of an account after an invoice, payment or tag event: events received during that window are coalesced into a single refresh (ignored if set to 0s)")
+    public TimeSpan getRefreshDebounceWindow();
+
+    @Config("org.killbill.overdue.refresh.childrenBatchSize")
+    @Default("100")
+    @Description("Number of child accounts whose overdue refresh is queued per transaction")
+    public int getRefreshChildrenBatchSize();
 }
@@ -61,7 +61,6 @@ import org.killbill.billing.util.api.TagApiException;
 import org.killbill.billing.util.callcontext.CallContext;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.billing.util.tag.ControlTagType;
-import org.killbill.billing.util.tag.Tag;
 import org.killbill.bus.api.PersistentBus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -343,13 +342,7 @@ public class OverdueStateApplicator {
         try {
             final UUID accountId = accountApi.getByRecordId(context.getAccountRecordId(), context);
 
-            final List<Tag> accountTags = tagApi.getTags(accountId, ObjectType.ACCOUNT, context);
-            for (final Tag cur : accountTags) {
-                if (cur.getTagDefinitionId().equals(ControlTagType.OVERDUE_ENFORCEMENT_OFF.getId())) {
-                    return true;
-                }
-            }
-            return false;
+            return tagApi.getControlTags(accountId, ObjectType.ACCOUNT, context).contains(ControlTagType.OVERDUE_ENFORCEMENT_OFF);
         } catch (final AccountApiException e) {
             throw new OverdueException(e);
         }
@@ -18,11 +18,8 @@
 
 package org.killbill.billing.overdue.listener;
 
-import java.util.List;
 import java.util.UUID;
 
-import javax.inject.Named;
-
 import org.killbill.billing.ObjectType;
 import org.killbill.billing.account.api.Account;
 import org.killbill.billing.account.api.AccountInternalApi;
@@ -39,11 +36,9 @@ import org.killbill.billing.overdue.api.OverdueConfig;
 import org.killbill.billing.overdue.caching.OverdueConfigCache;
 import org.killbill.billing.overdue.config.DefaultOverdueConfig;
 import org.killbill.billing.overdue.config.DefaultOverdueState;
-import org.killbill.billing.overdue.glue.DefaultOverdueModule;
-import org.killbill.billing.overdue.notification.OverdueAsyncBusNotificationKey;
 import org.killbill.billing.overdue.notification.OverdueAsyncBusNotificationKey.OverdueAsyncBusNotificationAction;
-import org.killbill.billing.overdue.notification.OverdueAsyncBusNotifier;
-import org.killbill.billing.overdue.notification.OverduePoster;
+import org.killbill.billing.overdue.notification.OverdueRefreshCoalescer;
+import org.killbill.billing.tag.TagInternalApi;
 import org.killbill.billing.util.cache.Cachable.CacheType;
 import org.killbill.billing.util.cache.CacheController;
 import org.killbill.billing.util.cache.CacheControllerDispatcher;
@@ -53,7 +48,6 @@ import org.killbill.billing.util.callcontext.UserType;
 import org.killbill.billing.util.dao.NonEntityDao;
 import org.killbill.billing.util.tag.ControlTagType;
 import org.killbill.bus.api.BusEvent;
-import org.killbill.clock.Clock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -67,32 +61,33 @@ public class OverdueListener {
 
     private final InternalCallContextFactory internalCallContextFactory;
     private final CacheController<String, UUID> objectIdCacheController;
-    private final Clock clock;
-    private final OverduePoster asyncPoster;
+    private final OverdueRefreshCoalescer refreshCoalescer;
     private final OverdueConfigCache overdueConfigCache;
     private final NonEntityDao nonEntityDao;
     private final AccountInternalApi accountApi;
+    private final TagInternalApi tagApi;
 
     @Inject
     public OverdueListener(final NonEntityDao nonEntityDao,
                            final CacheControllerDispatcher cacheControllerDispatcher,
-                           final Clock clock,
-                           @Named(DefaultOverdueModule.OVERDUE_NOTIFIER_ASYNC_BUS_NAMED)  final OverduePoster asyncPoster,
+                           final OverdueRefreshCoalescer refreshCoalescer,
                            final OverdueConfigCache overdueConfigCache,
                            final InternalCallContextFactory internalCallContextFactory,
-                           final AccountInternalApi accountApi) {
+                           final AccountInternalApi accountApi,
+                           final TagInternalApi tagApi) {
         this.nonEntityDao = nonEntityDao;
-        this.clock = clock;
-        this.asyncPoster = asyncPoster;
+        this.refreshCoalescer = refreshCoalescer;
         this.overdueConfigCache = overdueConfigCache;
         this.objectIdCacheController = cacheControllerDispatcher.getCacheController(CacheType.OBJECT_ID);
         this.internalCallContextFactory = internalCallContextFactory;
         this.accountApi = accountApi;
+        this.tagApi = tagApi;
     }
 
     @AllowConcurrentEvents
     @Subscribe
     public void handleTagInsert(final ControlTagCreationInternalEvent event) {
+        tagApi.invalidateControlTags(event.getObjectId());
         if (event.getTagDefinition().getName().equals(ControlTagType.OVERDUE_ENFORCEMENT_OFF.toString()) && event.getObjectType() == ObjectType.ACCOUNT) {
             final InternalCallContext internalCallContext = createCallContext(event.getUserToken(), event.getSearchKey1(), event.getSearchKey2());
             insertBusEventIntoNotificationQueue(event.getObjectId(), OverdueAsyncBusNotificationAction.CLEAR, internalCallContext);
@@ -105,6 +100,7 @@ public class OverdueListener {
     @AllowConcurrentEvents
     @Subscribe
     public void handleTagRemoval(final ControlTagDeletionInternalEvent event) {
+        tagApi.invalidateControlTags(event.getObjectId());
         if (event.getTagDefinition().getName().equals(ControlTagType.OVERDUE_ENFORCEMENT_OFF.toString()) && event.getObjectType() == ObjectType.ACCOUNT) {
             insertBusEventIntoNotificationQueue(event.getObjectId(), event);
         } else if (event.getTagDefinition().getName().equals(ControlTagType.WRITTEN_OFF.toString()) && event.getObjectType() == ObjectType.INVOICE) {
@@ -158,8 +154,7 @@ public class OverdueListener {
             return;
         }
 
-        OverdueAsyncBusNotificationKey notificationKey = new OverdueAsyncBusNotificationKey(accountId, action);
-        asyncPoster.insertOverdueNotification(accountId, callContext.getCreatedDate(), OverdueAsyncBusNotifier.OVERDUE_ASYNC_BUS_NOTIFIER_QUEUE, notificationKey, callContext);
+        refreshCoalescer.insertNotification(accountId, action, callContext);
 
         try {
             // Refresh parent
@@ -167,21 +162,18 @@ public class OverdueListener {
             if (account.getParentAccountId() != null && account.isPaymentDelegatedToParent()) {
                 final InternalTenantContext parentAccountInternalTenantContext = internalCallContextFactory.createInternalTenantContext(account.getParentAccountId(), callContext);
                 final InternalCallContext parentAccountContext = internalCallContextFactory.createInternalCallContext(parentAccountInternalTenantContext.getAccountRecordId(), callContext);
-                notificationKey = new OverdueAsyncBusNotificationKey(account.getParentAccountId(), action);
-                asyncPoster.insertOverdueNotification(account.getParentAccountId(), callContext.getCreatedDate(), OverdueAsyncBusNotifier.OVERDUE_ASYNC_BUS_NOTIFIER_QUEUE, notificationKey, parentAccountContext);
+                refreshCoalescer.insertNotification(account.getParentAccountId(), action, parentAccountContext);
             }
 
             // Refresh children
-            final List<Account> childrenAccounts = accountApi.getChildrenAccounts(accountId, callContext);
-            if (childrenAccounts != null) {
-                for (final Account childAccount : childrenAccounts) {
-                    if (childAccount.isPaymentDelegatedToParent()) {
-                        final InternalTenantContext internalTenantContext = internalCallContextFactory.createInternalTenantContext(childAccount.getId(), callContext);
-                        final InternalCallContext accountContext = internalCallContextFactory.createInternalCallContext(internalTenantContext.getAccountRecordId(), callContext);
-                        notificationKey = new OverdueAsyncBusNotificationKey(childAccount.getId(), action);
-                        asyncPoster.insertOverdueNotification(childAccount.getId(), callContext.getCreatedDate(), OverdueAsyncBusNotifier.OVERDUE_ASYNC_BUS_NOTIFIER_QUEUE, notificationKey, accountContext);
-                    }
+            if (action == OverdueAsyncBusNotificationAction.REFRESH) {
+                // Lazily: the children are only looked up when the (coalesced) notification is processed. Most accounts
+                // don't have any child though, so check that first (cheap indexed lookup) to not queue a no-op notification.
+                if (accountApi.hasChildrenAccounts(accountId, callContext)) {
+                    refreshCoalescer.insertNotification(accountId, OverdueAsyncBusNotificationAction.REFRESH_CHILDREN, callContext);
                 }
+            } else {
+                refreshCoalescer.insertChildrenNotifications(accountId, action, callContext);
             }
         } catch (final Exception e) {
             log.error("Error loading child accounts from accountId='{}'", accountId);
@@ -19,6 +19,8 @@
 package org.killbill.billing.overdue.notification;
 
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.UUID;
 
 import javax.inject.Named;
@@ -60,32 +62,70 @@ public abstract class DefaultOverduePosterBase implements OverduePoster {
     }
 
     @Override
-    public <T extends OverdueCheckNotificationKey> void insertOverdueNotification(final UUID accountId, final DateTime futureNotificationTime, final String overdueQueueName, final T notificationKey, final InternalCallContext context) {
+    public <T extends OverdueCheckNotificationKey> boolean insertOverdueNotification(final UUID accountId, final DateTime futureNotificationTime, final String overdueQueueName, final T notificationKey, final InternalCallContext context) {
         try {
             final NotificationQueue overdueQueue = notificationQueueService.getNotificationQueue(DefaultOverdueService.OVERDUE_SERVICE_NAME,
                                                                                                  overdueQueueName);
 
-            transactionalSqlDao.execute(false, new EntitySqlDaoTransactionWrapper<Void>() {
+            return transactionalSqlDao.execute(false, new EntitySqlDaoTransactionWrapper<Boolean>() {
                 @Override
-                public Void inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
-                    // Check if we already have notifications for that key
-                    final Class<T> clazz = (Class<T>) notificationKey.getClass();
-                    final Iterable<NotificationEventWithMetadata<T>> futureNotifications = getFutureNotificationsForAccountInTransaction(entitySqlDaoWrapperFactory, overdueQueue,
-                                                                                                                                         clazz, context);
+                public Boolean inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
+                    return insertOverdueNotificationFromTransaction(entitySqlDaoWrapperFactory, overdueQueue, accountId, futureNotificationTime, notificationKey, context);
+                }
+            });
+        } catch (final NoSuchNotificationQueue e) {
+            log.error("Attempting to put items on a non-existent queue (DefaultOverdueCheck).", e);
+            return false;
+        }
+    }
+
+    @Override
+    public <T extends OverdueCheckNotificationKey> int insertOverdueNotifications(final DateTime futureNotificationTime, final String overdueQueueName, final Map<T, InternalCallContext> notificationKeys) {
+        if (notificationKeys.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            final NotificationQueue overdueQueue = notificationQueueService.getNotificationQueue(DefaultOverdueService.OVERDUE_SERVICE_NAME,
+                                                                                                 overdueQueueName);
 
-                    final boolean shouldInsertNewNotification = cleanupFutureNotificationsFormTransaction(entitySqlDaoWrapperFactory, futureNotifications, futureNotificationTime, overdueQueue);
-                    if (shouldInsertNewNotification) {
-                        log.debug("Queuing overdue check notification. Account id: {}, timestamp: {}", accountId.toString(), futureNotificationTime.toString());
-                        overdueQueue.recordFutureNotificationFromTransaction(entitySqlDaoWrapperFactory.getHandle().getConnection(), futureNotificationTime, notificationKey, context.getUserToken(), context.getAccountRecordId(), context.getTenantRecordId());
-                    } else {
-                        log.debug("Skipping queuing overdue check notification. Account id: {}, timestamp: {}", accountId.toString(), futureNotificationTime.toString());
+            return transactionalSqlDao.execute(false, new EntitySqlDaoTransactionWrapper<Integer>() {
+                @Override
+                public Integer inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
+                    int nbInserted = 0;
+                    for (final Entry<T, InternalCallContext> entry : notificationKeys.entrySet()) {
+                        if (insertOverdueNotificationFromTransaction(entitySqlDaoWrapperFactory, overdueQueue, entry.getKey().getUuidKey(), futureNotificationTime, entry.getKey(), entry.getValue())) {
+                            nbInserted++;
+                        }
                     }
-                    return null;
+                    return nbInserted;
                 }
             });
         } catch (final NoSuchNotificationQueue e) {
             log.error("Attempting to put items on a non-existent queue (DefaultOverdueCheck).", e);
+            return 0;
+        }
+    }
+
+    private <T extends OverdueCheckNotificationKey> boolean insertOverdueNotificationFromTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory,
+                                                                                                    final NotificationQueue overdueQueue,
+                                                                                                    final UUID accountId,
+                                                                                                    final DateTime futureNotificationTime,
+                                                                                                    final T notificationKey,
+                                                                                                    final InternalCallContext context) throws Exception {
+        // Check if we already have notifications for that key
+        final Class<T> clazz = (Class<T>) notificationKey.getClass();
+        final Iterable<NotificationEventWithMetadata<T>> futureNotifications = getFutureNotificationsForAccountInTransaction(entitySqlDaoWrapperFactory, overdueQueue,
+                                                                                                                             clazz, context);
+
+        final boolean shouldInsertNewNotification = cleanupFutureNotificationsFormTransaction(entitySqlDaoWrapperFactory, futureNotifications, futureNotificationTime, notificationKey, overdueQueue);
+        if (shouldInsertNewNotification) {
+            log.debug("Queuing overdue check notification. Account id: {}, timestamp: {}", accountId.toString(), futureNotificationTime.toString());
+            overdueQueue.recordFutureNotificationFromTransaction(entitySqlDaoWrapperFactory.getHandle().getConnection(), futureNotificationTime, notificationKey, context.getUserToken(), context.getAccountRecordId(), context.getTenantRecordId());
+        } else {
+            log.debug("Skipping queuing overdue check notification. Account id: {}, timestamp: {}", accountId.toString(), futureNotificationTime.toString());
         }
+        return shouldInsertNewNotification;
     }
 
     @Override
@@ -128,6 +168,7 @@ public abstract class DefaultOverduePosterBase implements OverduePoster {
 
     protected abstract <T extends OverdueCheckNotificationKey> boolean cleanupFutureNotificationsFormTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory,
                                                                                                                  final Iterable<NotificationEventWithMetadata<T>> futureNotifications,
-                                                                                                                 final DateTime futureNotificationTime, final NotificationQueue overdueQueue);
+                                                                                                                 final DateTime futureNotificationTime, final T notificationKey,
+                                                                                                                 final NotificationQueue overdueQueue);
 
 }
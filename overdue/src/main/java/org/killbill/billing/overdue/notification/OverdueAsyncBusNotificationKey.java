@@ -29,7 +29,9 @@ public class OverdueAsyncBusNotificationKey extends OverdueCheckNotificationKey
 
     public enum OverdueAsyncBusNotificationAction {
         REFRESH,
-        CLEAR
+        CLEAR,
+        // Fan-out of the REFRESH to the child accounts paying through this account
+        REFRESH_CHILDREN
     }
 
     @JsonCreator
@@ -21,8 +21,11 @@ package org.killbill.billing.overdue.notification;
 import java.util.UUID;
 
 import org.joda.time.DateTime;
+import org.killbill.billing.account.api.AccountApiException;
+import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.overdue.OverdueProperties;
 import org.killbill.billing.overdue.listener.OverdueDispatcher;
+import org.killbill.billing.overdue.notification.OverdueAsyncBusNotificationKey.OverdueAsyncBusNotificationAction;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.notificationq.api.NotificationEvent;
 import org.killbill.notificationq.api.NotificationQueueService;
@@ -37,12 +40,15 @@ public class OverdueAsyncBusNotifier extends DefaultOverdueNotifierBase implemen
 
     public static final String OVERDUE_ASYNC_BUS_NOTIFIER_QUEUE = "overdue-async-bus-queue";
 
+    private final OverdueRefreshCoalescer refreshCoalescer;
 
     @Inject
     public OverdueAsyncBusNotifier(final NotificationQueueService notificationQueueService, final OverdueProperties config,
                                    final InternalCallContextFactory internalCallContextFactory,
-                                   final OverdueDispatcher dispatcher) {
+                                   final OverdueDispatcher dispatcher,
+                                   final OverdueRefreshCoalescer refreshCoalescer) {
         super(notificationQueueService, config, internalCallContextFactory, dispatcher);
+        this.refreshCoalescer = refreshCoalescer;
     }
 
     @Override
@@ -66,6 +72,9 @@ public class OverdueAsyncBusNotifier extends DefaultOverdueNotifierBase implemen
                 case REFRESH:
                     dispatcher.processOverdueForAccount(key.getUuidKey(), eventDate, createCallContext(userToken, accountRecordId, tenantRecordId));
                     break;
+                case REFRESH_CHILDREN:
+                    refreshChildren(key.getUuidKey(), createCallContext(userToken, accountRecordId, tenantRecordId));
+                    break;
                 default:
                     throw new RuntimeException("Unexpected action " + key.getAction() + " for account " + key.getUuidKey());
             }
@@ -74,5 +83,13 @@ public class OverdueAsyncBusNotifier extends DefaultOverdueNotifierBase implemen
         }
     }
 
+    private void refreshChildren(final UUID parentAccountId, final InternalCallContext context) {
+        try {
+            refreshCoalescer.insertChildrenNotifications(parentAccountId, OverdueAsyncBusNotificationAction.REFRESH, context);
+        } catch (final AccountApiException e) {
+            log.error("Error loading child accounts from accountId='{}'", parentAccountId, e);
+        }
+    }
+
 
 }
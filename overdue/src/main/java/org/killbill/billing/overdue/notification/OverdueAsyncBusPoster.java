@@ -18,6 +18,8 @@
 
 package org.killbill.billing.overdue.notification;
 
+import java.util.Iterator;
+
 import javax.inject.Named;
 
 import org.joda.time.DateTime;
@@ -31,7 +33,6 @@ import org.killbill.notificationq.api.NotificationQueue;
 import org.killbill.notificationq.api.NotificationQueueService;
 import org.skife.jdbi.v2.IDBI;
 
-import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
 
 import static org.killbill.billing.util.glue.IDBISetup.MAIN_RO_IDBI_NAMED;
@@ -49,11 +50,26 @@ public class OverdueAsyncBusPoster extends DefaultOverduePosterBase {
     protected <T extends OverdueCheckNotificationKey> boolean cleanupFutureNotificationsFormTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory,
                                                                                                         final Iterable<NotificationEventWithMetadata<T>> futureNotifications,
                                                                                                         final DateTime futureNotificationTime,
+                                                                                                        final T notificationKey,
                                                                                                         final NotificationQueue overdueQueue) {
-        // If we already have notification for that account we don't insert the new one
+        // If we already have notification for that account we don't insert the new one: the pending one will see the latest state.
         // Note that this is slightly incorrect because we could for instance already have a REFRESH and insert a CLEAR, but if that were the case,
         // if means overdue state would change very rapidly and the behavior would anyway be non deterministic
-        // Note: don't use isEmpty() to go through all results to close the connection
-        return Iterables.size(futureNotifications) == 0;
+        // The fan-out to the children is independent though: a pending REFRESH doesn't cover it (and vice versa)
+        final boolean isChildrenRefresh = isChildrenRefresh(notificationKey);
+        boolean shouldInsertNewNotification = true;
+        final Iterator<NotificationEventWithMetadata<T>> iterator = futureNotifications.iterator();
+        // Note: go through all results to close the connection
+        while (iterator.hasNext()) {
+            if (isChildrenRefresh(iterator.next().getEvent()) == isChildrenRefresh) {
+                shouldInsertNewNotification = false;
+            }
+        }
+        return shouldInsertNewNotification;
+    }
+
+    private static boolean isChildrenRefresh(final OverdueCheckNotificationKey notificationKey) {
+        return notificationKey instanceof OverdueAsyncBusNotificationKey &&
+               ((OverdueAsyncBusNotificationKey) notificationKey).getAction() == OverdueAsyncBusNotificationKey.OverdueAsyncBusNotificationAction.REFRESH_CHILDREN;
     }
 }
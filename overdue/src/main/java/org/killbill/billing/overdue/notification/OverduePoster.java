@@ -18,6 +18,7 @@
 
 package org.killbill.billing.overdue.notification;
 
+import java.util.Map;
 import java.util.UUID;
 
 import org.joda.time.DateTime;
@@ -25,7 +26,11 @@ import org.killbill.billing.callcontext.InternalCallContext;
 
 public interface OverduePoster {
 
-    public <T extends OverdueCheckNotificationKey> void insertOverdueNotification(final UUID accountId, final DateTime futureNotificationTime, final String overdueQueueName, final T notificationKey, final InternalCallContext context);
+    // Returns false if the notification wasn't inserted, because an existing one already covers it
+    public <T extends OverdueCheckNotificationKey> boolean insertOverdueNotification(final UUID accountId, final DateTime futureNotificationTime, final String overdueQueueName, final T notificationKey, final InternalCallContext context);
+
+    // Same as insertOverdueNotification, for several accounts (in a single transaction). Returns the number of notifications inserted
+    public <T extends OverdueCheckNotificationKey> int insertOverdueNotifications(final DateTime futureNotificationTime, final String overdueQueueName, final Map<T, InternalCallContext> notificationKeys);
 
     public <T extends OverdueCheckNotificationKey> void clearOverdueCheckNotifications(UUID accountId, final String overdueQueueName, final Class<T> clazz, final InternalCallContext context);
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.overdue.notification;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Named;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.account.api.AccountApiException;
+import org.killbill.billing.account.api.AccountInternalApi;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.overdue.OverdueProperties;
+import org.killbill.billing.overdue.glue.DefaultOverdueModule;
+import org.killbill.billing.overdue.notification.OverdueAsyncBusNotificationKey.OverdueAsyncBusNotificationAction;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.clock.Clock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.inject.Inject;
+
+/**
+ * Entry point to queue overdue refreshes on the async bus queue.
+ * <p/>
+ * At most one refresh is pending per account: when a notification already exists for the account, the new one is dropped
+ * (the pending one will see the latest state). When a debounce window is configured, the refresh is delayed by that window,
+ * so that bursts of events (e.g. a bill run, or a payment on a parent account) for the same account only trigger one refresh.
+ * The notifications known to be pending on this node are remembered in memory to avoid going to the database at all.
+ * <p/>
+ * The fan-out to the child accounts is itself queued (REFRESH_CHILDREN) and processed in batches by the notifier.
+ */
+public class OverdueRefreshCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueRefreshCoalescer.class);
+
+    private static final String METRICS_PREFIX = "overdue.asyncBus.";
+    private static final long MAX_PENDING_NOTIFICATIONS = 100000;
+
+    private final OverduePoster asyncPoster;
+    private final AccountInternalApi accountApi;
+    private final InternalCallContextFactory internalCallContextFactory;
+    private final Clock clock;
+    private final long debounceWindowMillis;
+    private final int childrenBatchSize;
+    // Effective date of the notifications queued by this node, per tenant, account and action
+    private final Cache<String, DateTime> pendingNotifications;
+    private final Counter insertedNotifications;
+    private final Counter suppressedNotifications;
+
+    @Inject
+    public OverdueRefreshCoalescer(@Named(DefaultOverdueModule.OVERDUE_NOTIFIER_ASYNC_BUS_NAMED) final OverduePoster asyncPoster,
+                                   final AccountInternalApi accountApi,
+                                   final InternalCallContextFactory internalCallContextFactory,
+                                   final OverdueProperties config,
+                                   final Clock clock,
+                                   final MetricRegistry metricRegistry) {
+        this.asyncPoster = asyncPoster;
+        this.accountApi = accountApi;
+        this.internalCallContextFactory = internalCallContextFactory;
+        this.clock = clock;
+        this.debounceWindowMillis = config.getRefreshDebounceWindow().getMillis();
+        this.childrenBatchSize = Math.max(1, config.getRefreshChildrenBatchSize());
+        if (debounceWindowMillis > 0) {
+            this.pendingNotifications = CacheBuilder.newBuilder()
+                                                    .maximumSize(MAX_PENDING_NOTIFICATIONS)
+                                                    .expireAfterWrite(debounceWindowMillis, TimeUnit.MILLISECONDS)
+                                                    .build();
+        } else {
+            this.pendingNotifications = null;
+        }
+        this.insertedNotifications = metricRegistry.counter(METRICS_PREFIX + "inserted");
+        this.suppressedNotifications = metricRegistry.counter(METRICS_PREFIX + "suppressed");
+    }
+
+    public void insertNotification(final UUID accountId, final OverdueAsyncBusNotificationAction action, final InternalCallContext context) {
+        final DateTime now = clock.getUTCNow();
+        final String pendingKey = context.getTenantRecordId() + "::" + accountId + "::" + action;
+        if (isPending(pendingKey, now)) {
+            log.debug("Skipping overdue notification action='{}' for accountId='{}': already pending", action, accountId);
+            suppressedNotifications.inc();
+            return;
+        }
+
+        final DateTime effectiveDate = getEffectiveDate(context);
+        final OverdueAsyncBusNotificationKey notificationKey = new OverdueAsyncBusNotificationKey(accountId, action);
+        if (asyncPoster.insertOverdueNotification(accountId, effectiveDate, OverdueAsyncBusNotifier.OVERDUE_ASYNC_BUS_NOTIFIER_QUEUE, notificationKey, context)) {
+            insertedNotifications.inc();
+            if (pendingNotifications != null) {
+                pendingNotifications.put(pendingKey, effectiveDate);
+            }
+        } else {
+            suppressedNotifications.inc();
+        }
+    }
+
+    public void insertChildrenNotifications(final UUID parentAccountId, final OverdueAsyncBusNotificationAction action, final InternalCallContext context) throws AccountApiException {
+        final List<Account> childrenAccounts = accountApi.getChildrenAccounts(parentAccountId, context);
+        if (childrenAccounts == null || childrenAccounts.isEmpty()) {
+            return;
+        }
+
+        final DateTime effectiveDate = getEffectiveDate(context);
+        for (final List<Account> batch : Lists.partition(childrenAccounts, childrenBatchSize)) {
+            final Map<OverdueAsyncBusNotificationKey, InternalCallContext> notificationKeys = new LinkedHashMap<OverdueAsyncBusNotificationKey, InternalCallContext>();
+            for (final Account childAccount : batch) {
+                if (childAccount.isPaymentDelegatedToParent()) {
+                    final InternalTenantContext internalTenantContext = internalCallContextFactory.createInternalTenantContext(childAccount.getId(), context);
+                    final InternalCallContext accountContext = internalCallContextFactory.createInternalCallContext(internalTenantContext.getAccountRecordId(), context);
+                    notificationKeys.put(new OverdueAsyncBusNotificationKey(childAccount.getId(), action), accountContext);
+                }
+            }
+
+            final int nbInserted = asyncPoster.insertOverdueNotifications(effectiveDate, OverdueAsyncBusNotifier.OVERDUE_ASYNC_BUS_NOTIFIER_QUEUE, notificationKeys);
+            insertedNotifications.inc(nbInserted);
+            suppressedNotifications.inc(notificationKeys.size() - nbInserted);
+        }
+    }
+
+    private boolean isPending(final String pendingKey, final DateTime now) {
+        if (pendingNotifications == null) {
+            return false;
+        }
+
+        // Once the notification is due, it may already be processing: a new event needs a new refresh
+        final DateTime pendingEffectiveDate = pendingNotifications.getIfPresent(pendingKey);
+        return pendingEffectiveDate != null && now.isBefore(pendingEffectiveDate);
+    }
+
+    private DateTime getEffectiveDate(final InternalCallContext context) {
+        return debounceWindowMillis > 0 ? context.getCreatedDate().plus(debounceWindowMillis) : context.getCreatedDate();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.overdue.notification;
+
+import java.util.UUID;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.overdue.OverdueTestSuiteWithEmbeddedDB;
+import org.killbill.billing.overdue.notification.OverdueAsyncBusNotificationKey.OverdueAsyncBusNotificationAction;
+import org.killbill.billing.overdue.service.DefaultOverdueService;
+import org.killbill.notificationq.api.NotificationQueue;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+
+public class TestOverdueAsyncBusPoster extends OverdueTestSuiteWithEmbeddedDB {
+
+    @Test(groups = "slow")
+    public void testShouldCoalesceNotificationsPerAction() throws Exception {
+        final NotificationQueue asyncBusQueue = notificationQueueService.getNotificationQueue(DefaultOverdueService.OVERDUE_SERVICE_NAME,
+                                                                                              OverdueAsyncBusNotifier.OVERDUE_ASYNC_BUS_NOTIFIER_QUEUE);
+        final UUID accountId = UUID.randomUUID();
+        // Far enough in the future for the notifications not to be processed
+        final DateTime futureNotificationTime = clock.getUTCNow().plusDays(10);
+
+        Assert.assertTrue(insertNotification(accountId, OverdueAsyncBusNotificationAction.REFRESH, futureNotificationTime));
+        Assert.assertFalse(insertNotification(accountId, OverdueAsyncBusNotificationAction.REFRESH, futureNotificationTime.plusDays(1)));
+        Assert.assertFalse(insertNotification(accountId, OverdueAsyncBusNotificationAction.CLEAR, futureNotificationTime));
+
+        // The fan-out to the children isn't covered by the pending refresh
+        Assert.assertTrue(insertNotification(accountId, OverdueAsyncBusNotificationAction.REFRESH_CHILDREN, futureNotificationTime));
+        Assert.assertEquals(asyncPoster.insertOverdueNotifications(futureNotificationTime,
+                                                                   OverdueAsyncBusNotifier.OVERDUE_ASYNC_BUS_NOTIFIER_QUEUE,
+                                                                   ImmutableMap.<OverdueAsyncBusNotificationKey, InternalCallContext>of(new OverdueAsyncBusNotificationKey(accountId, OverdueAsyncBusNotificationAction.REFRESH_CHILDREN), internalCallContext)),
+                            0);
+
+        Assert.assertEquals(Iterables.size(asyncBusQueue.getFutureNotificationForSearchKeys(internalCallContext.getAccountRecordId(), internalCallContext.getTenantRecordId())), 2);
+    }
+
+    private boolean insertNotification(final UUID accountId, final OverdueAsyncBusNotificationAction action, final DateTime futureNotificationTime) {
+        final OverdueAsyncBusNotificationKey notificationKey = new OverdueAsyncBusNotificationKey(accountId, action);
+        return asyncPoster.insertOverdueNotification(accountId, futureNotificationTime, OverdueAsyncBusNotifier.OVERDUE_ASYNC_BUS_NOTIFIER_QUEUE, notificationKey, internalCallContext);
+    }
+}
@@ -135,6 +135,7 @@ public class DefaultPaymentGatewayApi extends DefaultApiBase implements PaymentG
         final List<String> controlPluginNames = paymentOptions.getPaymentControlPluginNames();
         return dispatchWithExceptionHandling(account,
                                              JOINER.join(controlPluginNames),
+                                             callContext,
                                              new Callable<PluginDispatcherReturnType<T>>() {
                                                  @Override
                                                  public PluginDispatcherReturnType<T> call() throws Exception {
@@ -164,6 +164,21 @@ public class MultiTenantPaymentConfig extends MultiTenantConfigBase implements P
         return staticConfig.getPaymentPluginThreadNb();
     }
 
+    @Override
+    public int getMaxConcurrentPluginCallsPerTenant() {
+        return staticConfig.getMaxConcurrentPluginCallsPerTenant();
+    }
+
+    @Override
+    public int getPaymentPluginInfoBulkThreadNb() {
+        return staticConfig.getPaymentPluginInfoBulkThreadNb();
+    }
+
+    @Override
+    public TimeSpan getPaymentPluginInfoBulkTimeout() {
+        return staticConfig.getPaymentPluginInfoBulkTimeout();
+    }
+
     @Override
     public int getMaxGlobalLockRetries() {
         return staticConfig.getMaxGlobalLockRetries();
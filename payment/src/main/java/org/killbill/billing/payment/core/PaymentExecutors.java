@@ -17,6 +17,7 @@
 
 package org.killbill.billing.payment.core;
 
+import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
@@ -24,8 +25,11 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 
+import org.killbill.billing.util.concurrent.TenantConcurrencyLimiter;
+import org.killbill.billing.util.concurrent.TenantConcurrencyLimiter.Permit;
 import org.killbill.billing.util.config.definition.PaymentConfig;
 import org.killbill.commons.concurrent.Executors;
 import org.killbill.commons.concurrent.WithProfilingThreadPoolExecutor;
@@ -43,6 +47,7 @@ public class PaymentExecutors {
     public static final String PLUGIN_EXECUTOR_NAMED = "PluginExecutor";
 
     private final PaymentConfig paymentConfig;
+    private final TenantConcurrencyLimiter pluginCallsLimiter = new TenantConcurrencyLimiter(PaymentExecutors.class, "pluginCalls");
 
     private volatile ThreadPoolExecutor pluginExecutorService;
     private volatile ScheduledExecutorService janitorExecutorService;
@@ -79,6 +84,18 @@ public class PaymentExecutors {
         return janitorExecutorService;
     }
 
+    // Tasks running on the plugin executor shouldn't wait on other tasks of that same (bounded) executor
+    public boolean isPluginExecutorThread() {
+        return Thread.currentThread().getName().startsWith(PLUGIN_THREAD_PREFIX);
+    }
+
+    // Cap the share of the plugin executor a single tenant can use (nested dispatches, from a plugin thread, aren't capped)
+    @Nullable
+    public Permit acquirePluginExecutorPermit(@Nullable final UUID tenantId, final long timeout, final TimeUnit unit) throws InterruptedException {
+        final int maxConcurrentPluginCalls = isPluginExecutorThread() ? 0 : paymentConfig.getMaxConcurrentPluginCallsPerTenant();
+        return pluginCallsLimiter.acquire(tenantId, maxConcurrentPluginCalls, timeout, unit);
+    }
+
     private ThreadPoolExecutor createPluginExecutorService() {
         final int minThreadNb = DEFAULT_MIN_PLUGIN_THREADS < paymentConfig.getPaymentPluginThreadNb() ? DEFAULT_MIN_PLUGIN_THREADS : paymentConfig.getPaymentPluginThreadNb();
         return new WithProfilingThreadPoolExecutor(minThreadNb,
@@ -85,6 +85,7 @@ public class PaymentGatewayProcessor extends ProcessorBase {
         if (shouldDispatch) {
             return dispatchWithExceptionHandling(null,
                                                  pluginName,
+                                                 callContext,
                                                  new Callable<PluginDispatcherReturnType<GatewayNotification>>() {
                                                      @Override
                                                      public PluginDispatcherReturnType<GatewayNotification> call() throws PaymentApiException {
@@ -112,6 +113,7 @@ public class PaymentGatewayProcessor extends ProcessorBase {
         if (shouldDispatch) {
             return dispatchWithExceptionHandling(account,
                                                  pluginName,
+                                                 callContext,
                                                  new Callable<PluginDispatcherReturnType<HostedPaymentPageFormDescriptor>>() {
                                                      @Override
                                                      public PluginDispatcherReturnType<HostedPaymentPageFormDescriptor> call() throws PaymentApiException {
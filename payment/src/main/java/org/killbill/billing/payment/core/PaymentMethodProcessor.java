@@ -121,6 +121,7 @@ public class PaymentMethodProcessor extends ProcessorBase {
             throws PaymentApiException {
         return dispatchWithExceptionHandling(account,
                                              paymentPluginServiceName,
+                                             callContext,
                                              new CallableWithAccountLock<UUID, PaymentApiException>(locker,
                                                                                                     account.getId(),
                                                                                                     paymentConfig,
@@ -206,6 +207,7 @@ public class PaymentMethodProcessor extends ProcessorBase {
 
         return dispatchWithExceptionHandling(account,
                                              JOINER.join(paymentControlPluginNames),
+                                             callContext,
                                              new Callable<PluginDispatcherReturnType<T>>() {
                                                  @Override
                                                  public PluginDispatcherReturnType<T> call() throws Exception {
@@ -22,14 +22,24 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 
+import org.apache.shiro.util.ThreadContext;
 import org.killbill.billing.ErrorCode;
 import org.killbill.billing.account.api.AccountInternalApi;
 import org.killbill.billing.callcontext.InternalTenantContext;
@@ -49,6 +59,7 @@ import org.killbill.billing.payment.dao.PaymentModelDao;
 import org.killbill.billing.payment.dao.PaymentTransactionModelDao;
 import org.killbill.billing.payment.dao.PluginPropertySerializer;
 import org.killbill.billing.payment.dao.PluginPropertySerializer.PluginPropertySerializerException;
+import org.killbill.billing.payment.dispatcher.CallableWithRequestData;
 import org.killbill.billing.payment.plugin.api.PaymentPluginApi;
 import org.killbill.billing.payment.plugin.api.PaymentPluginApiException;
 import org.killbill.billing.payment.plugin.api.PaymentTransactionInfoPlugin;
@@ -56,14 +67,19 @@ import org.killbill.billing.payment.retry.DefaultRetryService;
 import org.killbill.billing.payment.retry.PaymentRetryNotificationKey;
 import org.killbill.billing.platform.api.KillbillService.KILLBILL_SERVICES;
 import org.killbill.billing.tag.TagInternalApi;
+import org.killbill.billing.util.UUIDs;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.billing.util.callcontext.TenantContext;
+import org.killbill.billing.util.config.definition.PaymentConfig;
 import org.killbill.billing.util.entity.DefaultPagination;
 import org.killbill.billing.util.entity.Pagination;
 import org.killbill.billing.util.entity.dao.DefaultPaginationHelper.EntityPaginationBuilder;
 import org.killbill.billing.util.entity.dao.DefaultPaginationHelper.SourcePaginationBuilder;
+import org.killbill.billing.util.metrics.HotPathCounter;
+import org.killbill.billing.util.metrics.HotPathMetrics;
 import org.killbill.clock.Clock;
 import org.killbill.commons.locker.GlobalLocker;
+import org.killbill.commons.request.Request;
 import org.killbill.notificationq.api.NotificationEvent;
 import org.killbill.notificationq.api.NotificationEventWithMetadata;
 import org.killbill.notificationq.api.NotificationQueue;
@@ -71,6 +87,7 @@ import org.killbill.notificationq.api.NotificationQueueService;
 import org.killbill.notificationq.api.NotificationQueueService.NoSuchNotificationQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
@@ -78,11 +95,13 @@ import com.google.common.base.Predicate;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Ordering;
+import com.google.common.collect.Sets;
 
 import static org.killbill.billing.util.entity.dao.DefaultPaginationHelper.getEntityPagination;
 import static org.killbill.billing.util.entity.dao.DefaultPaginationHelper.getEntityPaginationFromPlugins;
@@ -94,9 +113,12 @@ public class PaymentRefresher extends ProcessorBase {
 
     private static final String SCHEDULED = "SCHEDULED";
     private static final ImmutableList<PluginProperty> PLUGIN_PROPERTIES = ImmutableList.<PluginProperty>of();
+    private static final HotPathCounter PLUGIN_INFO_BULK_INCOMPLETE_COUNTER = HotPathMetrics.counter(PaymentRefresher.class, "pluginInfoBulkIncomplete");
 
     private final NotificationQueueService notificationQueueService;
     private final IncompletePaymentTransactionTask incompletePaymentTransactionTask;
+    private final PaymentExecutors paymentExecutors;
+    private final PaymentConfig paymentConfig;
 
     @Inject
     public PaymentRefresher(final PaymentPluginServiceRegistration paymentPluginServiceRegistration,
@@ -108,10 +130,14 @@ public class PaymentRefresher extends ProcessorBase {
                             final InvoiceInternalApi invoiceApi,
                             final Clock clock,
                             final NotificationQueueService notificationQueueService,
-                            final IncompletePaymentTransactionTask incompletePaymentTransactionTask) {
+                            final IncompletePaymentTransactionTask incompletePaymentTransactionTask,
+                            final PaymentExecutors paymentExecutors,
+                            final PaymentConfig paymentConfig) {
         super(paymentPluginServiceRegistration, accountUserApi, paymentDao, tagUserApi, locker, internalCallContextFactory, invoiceApi, clock);
         this.notificationQueueService = notificationQueueService;
         this.incompletePaymentTransactionTask = incompletePaymentTransactionTask;
+        this.paymentExecutors = paymentExecutors;
+        this.paymentConfig = paymentConfig;
     }
 
     protected boolean invokeJanitor(final UUID accountId,
@@ -188,29 +214,15 @@ public class PaymentRefresher extends ProcessorBase {
         final List<PaymentModelDao> paymentsModelDao = paymentDao.getPaymentsForAccount(accountId, tenantContext);
         final List<PaymentTransactionModelDao> transactionsModelDao = paymentDao.getTransactionsForAccount(accountId, tenantContext);
 
-        final Map<UUID, PaymentPluginApi> paymentPluginByPaymentMethodId = new HashMap<UUID, PaymentPluginApi>();
-        final Collection<UUID> absentPlugins = new HashSet<UUID>();
+        // Plugin info is retrieved upfront, for all payments at once (the Janitor is still invoked sequentially below)
+        final Map<UUID, List<PaymentTransactionInfoPlugin>> pluginInfoByPaymentId = withPluginInfo ?
+                                                                                 getPaymentTransactionInfoPluginsForPayments(paymentsModelDao, context, tenantContext) :
+                                                                                 ImmutableMap.<UUID, List<PaymentTransactionInfoPlugin>>of();
         final List<Payment> transformedPayments = Lists.<PaymentModelDao, Payment>transform(paymentsModelDao,
                                                                                             new Function<PaymentModelDao, Payment>() {
                                                                                                 @Override
                                                                                                 public Payment apply(final PaymentModelDao paymentModelDao) {
-                                                                                                    List<PaymentTransactionInfoPlugin> pluginInfo = null;
-
-                                                                                                    if (withPluginInfo) {
-                                                                                                        PaymentPluginApi pluginApi = paymentPluginByPaymentMethodId.get(paymentModelDao.getPaymentMethodId());
-                                                                                                        if (pluginApi == null && !absentPlugins.contains(paymentModelDao.getPaymentMethodId())) {
-                                                                                                            try {
-                                                                                                                pluginApi = getPaymentProviderPlugin(paymentModelDao.getPaymentMethodId(), true, tenantContext);
-                                                                                                                paymentPluginByPaymentMethodId.put(paymentModelDao.getPaymentMethodId(), pluginApi);
-                                                                                                            } catch (final PaymentApiException e) {
-                                                                                                                log.warn("Unable to retrieve pluginApi for payment method " + paymentModelDao.getPaymentMethodId());
-                                                                                                                absentPlugins.add(paymentModelDao.getPaymentMethodId());
-                                                                                                            }
-                                                                                                        }
-
-                                                                                                        pluginInfo = getPaymentTransactionInfoPluginsIfNeeded(pluginApi, paymentModelDao, context);
-                                                                                                    }
-
+                                                                                                    final List<PaymentTransactionInfoPlugin> pluginInfo = withPluginInfo ? pluginInfoByPaymentId.get(paymentModelDao.getId()) : null;
                                                                                                     return toPayment(paymentModelDao, transactionsModelDao, pluginInfo, withAttempts, isApiPayment, tenantContext);
                                                                                                 }
                                                                                             });
@@ -645,6 +657,121 @@ public class PaymentRefresher extends ProcessorBase {
         return tenantContextWithAccountRecordId;
     }
 
+    // Used in bulk get API (getAccountPayments): plugin calls are issued concurrently on the plugin executor (with bounded parallelism),
+    // within an overall deadline. Payments for which the plugin info couldn't be retrieved (in time) are returned without plugin info.
+    private Map<UUID, List<PaymentTransactionInfoPlugin>> getPaymentTransactionInfoPluginsForPayments(final Iterable<PaymentModelDao> paymentsModelDao,
+                                                                                                   final TenantContext context,
+                                                                                                   final InternalTenantContext tenantContext) {
+        final Map<UUID, PaymentPluginApi> paymentPluginByPaymentMethodId = new HashMap<UUID, PaymentPluginApi>();
+        final Collection<UUID> absentPlugins = new HashSet<UUID>();
+        final Map<UUID, Callable<List<PaymentTransactionInfoPlugin>>> pluginCallsByPaymentId = new LinkedHashMap<UUID, Callable<List<PaymentTransactionInfoPlugin>>>();
+        for (final PaymentModelDao paymentModelDao : paymentsModelDao) {
+            if (pluginCallsByPaymentId.containsKey(paymentModelDao.getId())) {
+                continue;
+            }
+
+            PaymentPluginApi pluginApi = paymentPluginByPaymentMethodId.get(paymentModelDao.getPaymentMethodId());
+            if (pluginApi == null && !absentPlugins.contains(paymentModelDao.getPaymentMethodId())) {
+                try {
+                    pluginApi = getPaymentProviderPlugin(paymentModelDao.getPaymentMethodId(), true, tenantContext);
+                    paymentPluginByPaymentMethodId.put(paymentModelDao.getPaymentMethodId(), pluginApi);
+                } catch (final PaymentApiException e) {
+                    log.warn("Unable to retrieve pluginApi for payment method " + paymentModelDao.getPaymentMethodId());
+                    absentPlugins.add(paymentModelDao.getPaymentMethodId());
+                }
+            }
+            if (pluginApi == null) {
+                continue;
+            }
+
+            final PaymentPluginApi paymentPluginApi = pluginApi;
+            pluginCallsByPaymentId.put(paymentModelDao.getId(),
+                                       new Callable<List<PaymentTransactionInfoPlugin>>() {
+                                           @Override
+                                           public List<PaymentTransactionInfoPlugin> call() {
+                                               return getPaymentTransactionInfoPluginsIfNeeded(paymentPluginApi, paymentModelDao, context);
+                                           }
+                                       });
+        }
+
+        final Map<UUID, List<PaymentTransactionInfoPlugin>> pluginInfoByPaymentId = new HashMap<UUID, List<PaymentTransactionInfoPlugin>>();
+        final ExecutorService pluginExecutor = paymentExecutors.getPluginExecutorService();
+        final int parallelism = Math.min(paymentConfig.getPaymentPluginInfoBulkThreadNb(), pluginCallsByPaymentId.size());
+        if (parallelism <= 1 || pluginExecutor == null || paymentExecutors.isPluginExecutorThread()) {
+            for (final Map.Entry<UUID, Callable<List<PaymentTransactionInfoPlugin>>> entry : pluginCallsByPaymentId.entrySet()) {
+                try {
+                    pluginInfoByPaymentId.put(entry.getKey(), entry.getValue().call());
+                } catch (final Exception e) {
+                    // Callables don't throw checked exceptions
+                    throw new IllegalStateException(e);
+                }
+            }
+            return pluginInfoByPaymentId;
+        }
+
+        final long deadlineMillis = System.currentTimeMillis() + paymentConfig.getPaymentPluginInfoBulkTimeout().getMillis();
+        final CompletionService<List<PaymentTransactionInfoPlugin>> completionService = new ExecutorCompletionService<List<PaymentTransactionInfoPlugin>>(pluginExecutor);
+        final Map<Future<List<PaymentTransactionInfoPlugin>>, UUID> inFlight = new HashMap<Future<List<PaymentTransactionInfoPlugin>>, UUID>();
+        final Iterator<Map.Entry<UUID, Callable<List<PaymentTransactionInfoPlugin>>>> toSubmit = pluginCallsByPaymentId.entrySet().iterator();
+        try {
+            while (inFlight.size() < parallelism && toSubmit.hasNext()) {
+                submitPluginCall(completionService, toSubmit.next(), inFlight);
+            }
+
+            while (!inFlight.isEmpty()) {
+                final long remainingMillis = deadlineMillis - System.currentTimeMillis();
+                final Future<List<PaymentTransactionInfoPlugin>> future = remainingMillis > 0 ? completionService.poll(remainingMillis, TimeUnit.MILLISECONDS) : null;
+                if (future == null) {
+                    log.warn("Timeout ({}) while retrieving plugin info for account payments", paymentConfig.getPaymentPluginInfoBulkTimeout());
+                    break;
+                }
+
+                final UUID paymentId = inFlight.remove(future);
+                try {
+                    pluginInfoByPaymentId.put(paymentId, future.get());
+                } catch (final ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+
+                if (toSubmit.hasNext()) {
+                    submitPluginCall(completionService, toSubmit.next(), inFlight);
+                }
+            }
+        } catch (final InterruptedException e) {
+            log.warn("Interrupted while retrieving plugin info");
+            Thread.currentThread().interrupt();
+        } finally {
+            // Don't interrupt the plugin calls in flight (plugins may not handle it gracefully): their results are simply ignored
+            for (final Future<List<PaymentTransactionInfoPlugin>> future : inFlight.keySet()) {
+                future.cancel(false);
+            }
+        }
+
+        final Collection<UUID> paymentIdsWithoutPluginInfo = Sets.<UUID>difference(pluginCallsByPaymentId.keySet(), pluginInfoByPaymentId.keySet());
+        if (!paymentIdsWithoutPluginInfo.isEmpty()) {
+            PLUGIN_INFO_BULK_INCOMPLETE_COUNTER.inc();
+            log.warn("Payments returned without plugin info: {}", paymentIdsWithoutPluginInfo);
+        }
+
+        return pluginInfoByPaymentId;
+    }
+
+    private void submitPluginCall(final CompletionService<List<PaymentTransactionInfoPlugin>> completionService,
+                                  final Map.Entry<UUID, Callable<List<PaymentTransactionInfoPlugin>>> pluginCall,
+                                  final Map<Future<List<PaymentTransactionInfoPlugin>>, UUID> inFlight) {
+        // Wrap the callable to keep the original request data
+        final Callable<List<PaymentTransactionInfoPlugin>> callableWithRequestData = new CallableWithRequestData<List<PaymentTransactionInfoPlugin>>(Request.getPerThreadRequestData(),
+                                                                                                                                                    UUIDs.getRandom(),
+                                                                                                                                                    ThreadContext.getSecurityManager(),
+                                                                                                                                                    ThreadContext.getSubject(),
+                                                                                                                                                    MDC.getCopyOfContextMap(),
+                                                                                                                                                    pluginCall.getValue());
+        inFlight.put(completionService.submit(callableWithRequestData), pluginCall.getKey());
+    }
+
     // Used in bulk get API (getAccountPayments / getPayments)
     private List<PaymentTransactionInfoPlugin> getPaymentTransactionInfoPluginsIfNeeded(@Nullable final PaymentPluginApi pluginApi, final PaymentModelDao paymentModelDao, final TenantContext context) {
         if (pluginApi == null) {
@@ -67,7 +67,7 @@ public abstract class OperationCallbackBase<CallbackOperationResult, CallbackOpe
                                                                                                                                            account.getId(),
                                                                                                                                            paymentConfig,
                                                                                                                                            callback);
-            final OperationResult operationResult = PaymentPluginDispatcher.dispatchWithExceptionHandling(account, pluginNames, task, paymentPluginDispatcher);
+            final OperationResult operationResult = PaymentPluginDispatcher.dispatchWithExceptionHandling(account, pluginNames, paymentStateContext.getCallContext(), task, paymentPluginDispatcher);
             return operationResult;
         } catch (final PaymentApiException e) {
             throw unwrapExceptionFromDispatchedTask(e);
@@ -19,6 +19,7 @@ package org.killbill.billing.payment.core.sm.payments;
 
 import java.math.BigDecimal;
 import java.util.Iterator;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.killbill.automaton.Operation.OperationCallback;
 import org.killbill.automaton.OperationException;
@@ -88,6 +89,10 @@ public abstract class PaymentOperation extends OperationCallbackBase<PaymentTran
 
     @Override
     protected OperationException unwrapExceptionFromDispatchedTask(final PaymentApiException e) {
+        if (e.getCause() instanceof RejectedExecutionException) {
+            // The call was rejected before reaching the plugin (see PluginDispatcher): we know the transaction didn't happen
+            return convertToErroredPaymentState(e, PaymentPluginStatus.CANCELED);
+        }
         return convertToUnknownTransactionStatusAndErroredPaymentState(e);
     }
 
@@ -98,7 +103,10 @@ public abstract class PaymentOperation extends OperationCallbackBase<PaymentTran
     //   be fixed by Janitor.
     //
     private OperationException convertToUnknownTransactionStatusAndErroredPaymentState(final Exception e) {
+        return convertToErroredPaymentState(e, PaymentPluginStatus.UNDEFINED);
+    }
 
+    private OperationException convertToErroredPaymentState(final Exception e, final PaymentPluginStatus paymentPluginStatus) {
         final PaymentTransactionInfoPlugin paymentInfoPlugin = new DefaultNoOpPaymentInfoPlugin(paymentStateContext.getPaymentId(),
                                                                                                 paymentStateContext.getTransactionId(),
                                                                                                 paymentStateContext.getTransactionType(),
@@ -106,7 +114,7 @@ public abstract class PaymentOperation extends OperationCallbackBase<PaymentTran
                                                                                                 paymentStateContext.getCurrency(),
                                                                                                 paymentStateContext.getCallContext().getCreatedDate(),
                                                                                                 paymentStateContext.getCallContext().getCreatedDate(),
-                                                                                                PaymentPluginStatus.UNDEFINED,
+                                                                                                paymentPluginStatus,
                                                                                                 null,
                                                                                                 null);
         paymentStateContext.setPaymentTransactionInfoPlugin(paymentInfoPlugin);
@@ -65,6 +65,7 @@ public interface PaymentAttemptSqlDao extends EntitySqlDao<PaymentAttemptModelDa
     @SqlQuery
     Iterator<PaymentAttemptModelDao> getByStateNameAcrossTenants(@Bind("stateName") final String stateName,
                                                                  @Bind("createdBeforeDate") final Date createdBeforeDate,
+                                                                 @Bind("fromRecordId") final Long fromRecordId,
                                                                  @Bind("offset") final Long offset,
                                                                  @Bind("rowCount") final Long rowCount,
                                                                  @Define("ordering") final String ordering);
@@ -32,6 +32,7 @@ import org.killbill.commons.jdbi.statement.SmartFetchSize;
 import org.killbill.billing.payment.api.PaymentMethod;
 import org.killbill.billing.util.audit.ChangeType;
 import org.killbill.billing.util.entity.dao.Audited;
+import org.killbill.billing.util.entity.dao.CancellableQuery;
 import org.killbill.billing.util.entity.dao.EntitySqlDao;
 import org.killbill.commons.jdbi.template.KillBillSqlDaoStringTemplate;
 import org.skife.jdbi.v2.sqlobject.customizers.Define;
@@ -67,7 +68,9 @@ public interface PaymentMethodSqlDao extends EntitySqlDao<PaymentMethodModelDao,
 
     @SqlQuery
     @SmartFetchSize(shouldStream = true)
+    @CancellableQuery
     public Iterator<PaymentMethodModelDao> getByPluginName(@Bind("pluginName") final String pluginName,
+                                                           @Bind("fromRecordId") final Long fromRecordId,
                                                            @Bind("offset") final Long offset,
                                                            @Bind("rowCount") final Long rowCount,
                                                            @Define("ordering") final String ordering,
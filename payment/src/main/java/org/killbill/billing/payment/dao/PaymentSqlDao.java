@@ -27,6 +27,7 @@ import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.payment.api.Payment;
 import org.killbill.billing.util.audit.ChangeType;
 import org.killbill.billing.util.entity.dao.Audited;
+import org.killbill.billing.util.entity.dao.CancellableQuery;
 import org.killbill.billing.util.entity.dao.EntitySqlDao;
 import org.killbill.commons.jdbi.binder.SmartBindBean;
 import org.killbill.commons.jdbi.statement.SmartFetchSize;
@@ -70,7 +71,9 @@ public interface PaymentSqlDao extends EntitySqlDao<PaymentModelDao, Payment> {
 
     @SqlQuery
     @SmartFetchSize(shouldStream = true)
+    @CancellableQuery
     public Iterator<PaymentModelDao> searchByState(@BindIn("states") final Collection<String> paymentStates,
+                                                   @Bind("fromRecordId") final Long fromRecordId,
                                                    @Bind("offset") final Long offset,
                                                    @Bind("rowCount") final Long rowCount,
                                                    @Define("ordering") final String ordering,
@@ -82,7 +85,9 @@ public interface PaymentSqlDao extends EntitySqlDao<PaymentModelDao, Payment> {
 
     @SqlQuery
     @SmartFetchSize(shouldStream = true)
+    @CancellableQuery
     public Iterator<PaymentModelDao> getByPluginName(@Bind("pluginName") final String pluginName,
+                                                     @Bind("fromRecordId") final Long fromRecordId,
                                                      @Bind("offset") final Long offset,
                                                      @Bind("rowCount") final Long rowCount,
                                                      @Define("ordering") final String ordering,
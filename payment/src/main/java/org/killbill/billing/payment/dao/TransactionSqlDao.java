@@ -65,6 +65,7 @@ public interface TransactionSqlDao extends EntitySqlDao<PaymentTransactionModelD
     Iterator<PaymentTransactionModelDao> getByTransactionStatusPriorDateAcrossTenants(@BindIn("statuses") final Collection<String> statuses,
                                                                                       @Bind("createdBeforeDate") final Date createdBeforeDate,
                                                                                       @Bind("createdAfterDate") final Date createdAfterDate,
+                                                                                      @Bind("fromRecordId") final Long fromRecordId,
                                                                                       @Bind("offset") final Long offset,
                                                                                       @Bind("rowCount") final Long rowCount,
                                                                                       @Define("ordering") final String ordering);
@@ -19,7 +19,10 @@ package org.killbill.billing.payment.dispatcher;
 
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeoutException;
 
 import javax.annotation.Nullable;
@@ -28,6 +31,9 @@ import org.killbill.billing.ErrorCode;
 import org.killbill.billing.account.api.Account;
 import org.killbill.billing.payment.api.PaymentApiException;
 import org.killbill.billing.payment.dispatcher.PluginDispatcher.PluginDispatcherReturnType;
+import org.killbill.billing.util.callcontext.TenantContext;
+import org.killbill.billing.util.metrics.HotPathMetrics;
+import org.killbill.billing.util.metrics.HotPathTimer;
 import org.killbill.commons.locker.LockFailedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,16 +44,29 @@ public class PaymentPluginDispatcher {
 
     private static final Logger log = LoggerFactory.getLogger(PaymentPluginDispatcher.class);
 
-    public static <ReturnType> ReturnType dispatchWithExceptionHandling(@Nullable final Account account, final String pluginNames, final Callable<PluginDispatcherReturnType<ReturnType>> callable, final PluginDispatcher<ReturnType> pluginDispatcher) throws PaymentApiException {
+    private static final HotPathTimer PLUGIN_TIMEOUT_TIMER = HotPathMetrics.timer(PaymentPluginDispatcher.class, "timeout");
+
+    // Plugin call latency, per plugin (or list of plugins), including the time spent in the plugin executor queue
+    private static final ConcurrentMap<String, HotPathTimer> pluginTimers = new ConcurrentHashMap<String, HotPathTimer>();
+
+    public static <ReturnType> ReturnType dispatchWithExceptionHandling(@Nullable final Account account,
+                                                                        final String pluginNames,
+                                                                        @Nullable final TenantContext tenantContext,
+                                                                        final Callable<PluginDispatcherReturnType<ReturnType>> callable,
+                                                                        final PluginDispatcher<ReturnType> pluginDispatcher) throws PaymentApiException {
         final UUID accountId = account != null ? account.getId() : null;
         final String accountExternalKey = account != null ? account.getExternalKey() : "";
+        final UUID tenantId = tenantContext != null ? tenantContext.getTenantId() : null;
 
+        final long startNanos = System.nanoTime();
         try {
             log.debug("Calling plugin(s) {}", pluginNames);
-            final ReturnType result = pluginDispatcher.dispatchWithTimeout(callable);
+            final ReturnType result = pluginDispatcher.dispatchWithTimeout(callable, tenantId);
+            getPluginTimer(pluginNames).stop(startNanos);
             log.debug("Successful plugin(s) call of {} for account {} with result {}", pluginNames, accountExternalKey, result);
             return result;
         } catch (final TimeoutException e) {
+            PLUGIN_TIMEOUT_TIMER.stop(startNanos);
             final String errorMessage = String.format("Call TIMEOUT for accountId='%s' accountExternalKey='%s' plugin='%s'", accountId, accountExternalKey, pluginNames);
             log.warn(errorMessage);
             throw new PaymentApiException(ErrorCode.PAYMENT_PLUGIN_TIMEOUT, accountId, errorMessage);
@@ -59,6 +78,10 @@ public class PaymentPluginDispatcher {
         } catch (final ExecutionException e) {
             if (e.getCause() instanceof PaymentApiException) {
                 throw (PaymentApiException) e.getCause();
+            } else if (e.getCause() instanceof RejectedExecutionException) {
+                final String errorMessage = String.format("Call REJECTED for accountId='%s' accountExternalKey='%s' plugin='%s': %s", accountId, accountExternalKey, pluginNames, e.getCause().getMessage());
+                log.warn(errorMessage);
+                throw new PaymentApiException(e.getCause(), ErrorCode.PAYMENT_INTERNAL_ERROR, errorMessage);
             } else if (e.getCause() instanceof LockFailedException) {
                 final String format = String.format("Failed to lock accountExternalKey='%s'", accountExternalKey);
                 log.warn(format);
@@ -69,4 +92,14 @@ public class PaymentPluginDispatcher {
             }
         }
     }
+
+    private static HotPathTimer getPluginTimer(@Nullable final String pluginNames) {
+        final String key = MoreObjects.firstNonNull(pluginNames, "");
+        HotPathTimer timer = pluginTimers.get(key);
+        if (timer == null) {
+            timer = HotPathMetrics.timer(PaymentPluginDispatcher.class, key);
+            pluginTimers.putIfAbsent(key, timer);
+        }
+        return timer;
+    }
 }
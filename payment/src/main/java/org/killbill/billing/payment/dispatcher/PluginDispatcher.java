@@ -18,16 +18,21 @@
 
 package org.killbill.billing.payment.dispatcher;
 
+import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import javax.annotation.Nullable;
+
 import org.apache.shiro.util.ThreadContext;
 import org.killbill.billing.payment.core.PaymentExecutors;
 import org.killbill.billing.util.UUIDs;
+import org.killbill.billing.util.concurrent.TenantConcurrencyLimiter.Permit;
 import org.killbill.commons.profiling.Profiling;
 import org.killbill.commons.profiling.ProfilingData;
 import org.killbill.commons.request.Request;
@@ -49,13 +54,35 @@ public class PluginDispatcher<ReturnType> {
 
     // TODO Once we switch fully to automata, should this throw PaymentPluginApiException instead?
     public ReturnType dispatchWithTimeout(final Callable<PluginDispatcherReturnType<ReturnType>> task) throws TimeoutException, ExecutionException, InterruptedException {
-        return dispatchWithTimeout(task, timeoutSeconds, DEFAULT_PLUGIN_TIMEOUT_UNIT);
+        return dispatchWithTimeout(task, null);
+    }
+
+    public ReturnType dispatchWithTimeout(final Callable<PluginDispatcherReturnType<ReturnType>> task, @Nullable final UUID tenantId) throws TimeoutException, ExecutionException, InterruptedException {
+        return dispatchWithTimeout(task, tenantId, timeoutSeconds, DEFAULT_PLUGIN_TIMEOUT_UNIT);
     }
 
     @VisibleForTesting
     ReturnType dispatchWithTimeout(final Callable<PluginDispatcherReturnType<ReturnType>> task, final long timeout, final TimeUnit unit)
             throws TimeoutException, ExecutionException, InterruptedException {
+        return dispatchWithTimeout(task, null, timeout, unit);
+    }
 
+    @VisibleForTesting
+    ReturnType dispatchWithTimeout(final Callable<PluginDispatcherReturnType<ReturnType>> task, @Nullable final UUID tenantId, final long timeout, final TimeUnit unit)
+            throws TimeoutException, ExecutionException, InterruptedException {
+        // The time spent waiting for a slot counts against the timeout
+        final long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        final Permit permit = paymentExecutors.acquirePluginExecutorPermit(tenantId, timeout, unit);
+        if (permit == null) {
+            // Not a timeout: the plugin wasn't called, so the outcome of the call is known
+            throw new ExecutionException(new RejectedExecutionException(String.format("Too many concurrent plugin calls for tenantId='%s'", tenantId)));
+        }
+
+        return submitAndWait(task, permit, deadlineNanos);
+    }
+
+    private ReturnType submitAndWait(final Callable<PluginDispatcherReturnType<ReturnType>> task, final Permit permit, final long deadlineNanos)
+            throws TimeoutException, ExecutionException, InterruptedException {
         final ExecutorService pluginExecutor = paymentExecutors.getPluginExecutorService();
 
         // Wrap existing callable to keep the original requestId
@@ -66,8 +93,27 @@ public class PluginDispatcher<ReturnType> {
                                                                                                                      MDC.getCopyOfContextMap(),
                                                                                                                      task);
 
-        final Future<PluginDispatcherReturnType<ReturnType>> future = pluginExecutor.submit(callableWithRequestData);
-        final PluginDispatcherReturnType<ReturnType> pluginDispatcherResult = future.get(timeout, unit);
+        // The permit is held until the plugin call returns, even if we stop waiting for it (timeout), as the plugin thread is still busy
+        final Callable<PluginDispatcherReturnType<ReturnType>> callableWithPermit = new Callable<PluginDispatcherReturnType<ReturnType>>() {
+            @Override
+            public PluginDispatcherReturnType<ReturnType> call() throws Exception {
+                try {
+                    return callableWithRequestData.call();
+                } finally {
+                    permit.release();
+                }
+            }
+        };
+
+        final Future<PluginDispatcherReturnType<ReturnType>> future;
+        try {
+            future = pluginExecutor.submit(callableWithPermit);
+        } catch (final RuntimeException e) {
+            // Task not submitted
+            permit.release();
+            throw e;
+        }
+        final PluginDispatcherReturnType<ReturnType> pluginDispatcherResult = future.get(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
 
         if (pluginDispatcherResult instanceof WithProfilingPluginDispatcherReturnType) {
             // Transfer state from dispatch thread into current one.
@@ -26,6 +26,7 @@ import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.control.plugin.api.PaymentControlPluginApi;
 import org.killbill.billing.events.ControlTagDeletionInternalEvent;
 import org.killbill.billing.osgi.api.OSGIServiceRegistration;
+import org.killbill.billing.tag.TagInternalApi;
 import org.killbill.billing.util.callcontext.CallOrigin;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.billing.util.callcontext.UserType;
@@ -44,19 +45,24 @@ public class PaymentTagHandler {
     private final AccountInternalApi accountApi;
     private final InternalCallContextFactory internalCallContextFactory;
     private final PaymentControlPluginApi invoicePaymentControlPlugin;
+    private final TagInternalApi tagInternalApi;
 
     @Inject
     public PaymentTagHandler(final AccountInternalApi accountApi,
                              final OSGIServiceRegistration<PaymentControlPluginApi> paymentControlPluginRegistry,
-                             final InternalCallContextFactory internalCallContextFactory) {
+                             final InternalCallContextFactory internalCallContextFactory,
+                             final TagInternalApi tagInternalApi) {
         this.accountApi = accountApi;
         this.invoicePaymentControlPlugin = paymentControlPluginRegistry.getServiceForName(InvoicePaymentControlPluginApi.PLUGIN_NAME);
         this.internalCallContextFactory = internalCallContextFactory;
+        this.tagInternalApi = tagInternalApi;
     }
 
     @AllowConcurrentEvents
     @Subscribe
     public void process_AUTO_PAY_OFF_removal(final ControlTagDeletionInternalEvent event) {
+        // Make sure the payment code doesn't see a stale control tag entry, regardless of the order in which listeners are invoked
+        tagInternalApi.invalidateControlTags(event.getObjectId());
         if (event.getTagDefinition().getName().equals(ControlTagType.AUTO_PAY_OFF.toString()) && event.getObjectType() == ObjectType.ACCOUNT) {
             final UUID accountId = event.getObjectId();
             processUnpaid_AUTO_PAY_OFF_payments(accountId, event.getSearchKey1(), event.getSearchKey2(), event.getUserToken());
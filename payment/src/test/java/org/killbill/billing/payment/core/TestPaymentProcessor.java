@@ -18,8 +18,10 @@
 package org.killbill.billing.payment.core;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 
@@ -41,6 +43,7 @@ import org.killbill.billing.payment.api.TransactionStatus;
 import org.killbill.billing.payment.api.TransactionType;
 import org.killbill.billing.payment.plugin.api.PaymentPluginStatus;
 import org.killbill.billing.payment.provider.MockPaymentProviderPlugin;
+import org.killbill.billing.platform.api.KillbillConfigSource;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -63,6 +66,13 @@ public class TestPaymentProcessor extends PaymentTestSuiteWithEmbeddedDB {
     private PaymentBusListener paymentBusListener;
     private Account account;
 
+    @Override
+    protected KillbillConfigSource getConfigSource(final Map<String, String> extraProperties) {
+        final Map<String, String> allExtraProperties = new HashMap<String, String>(extraProperties);
+        allExtraProperties.put("org.killbill.payment.plugin.info.bulk.timeout", "1s");
+        return super.getConfigSource(allExtraProperties);
+    }
+
     @BeforeMethod(groups = "slow")
     public void setUp() throws Exception {
         if (hasFailed()) {
@@ -99,6 +109,57 @@ public class TestPaymentProcessor extends PaymentTestSuiteWithEmbeddedDB {
         paymentBusListener.verify(1, 0, 1, account.getId(), paymentId, TEN, TransactionStatus.SUCCESS);
     }
 
+    @Test(groups = "slow")
+    public void testGetAccountPaymentsWithPluginInfo() throws Exception {
+        final List<UUID> paymentIds = new LinkedList<UUID>();
+        for (int i = 0; i < 7; i++) {
+            final Payment authorization = paymentProcessor.createAuthorization(true, null, account, null, null, TEN, CURRENCY, null, UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+                                                                               null, null, SHOULD_LOCK_ACCOUNT, ImmutableList.<PluginProperty>of(), callContext, internalCallContext);
+            paymentIds.add(authorization.getId());
+        }
+
+        // Plugin info is retrieved concurrently, but payments are still returned in order, with their plugin info
+        final List<Payment> payments = paymentControlAwareRefresher.getAccountPayments(account.getId(), true, false, true, callContext, internalCallContext);
+        Assert.assertEquals(payments.size(), paymentIds.size());
+        for (int i = 0; i < payments.size(); i++) {
+            Assert.assertEquals(payments.get(i).getId(), paymentIds.get(i));
+            Assert.assertEquals(payments.get(i).getTransactions().size(), 1);
+            Assert.assertNotNull(payments.get(i).getTransactions().get(0).getPaymentInfoPlugin());
+        }
+    }
+
+    @Test(groups = "slow")
+    public void testGetAccountPaymentsWithSlowPlugin() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            paymentProcessor.createAuthorization(true, null, account, null, null, TEN, CURRENCY, null, UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+                                                 null, null, SHOULD_LOCK_ACCOUNT, ImmutableList.<PluginProperty>of(), callContext, internalCallContext);
+        }
+
+        // Slower than the plugin info deadline (see getConfigSource)
+        mockPaymentProviderPlugin.makeGetPaymentInfoWaitSomeMilliseconds(3000);
+        try {
+            // Payments are returned once the deadline is reached, without plugin info
+            final List<Payment> payments = paymentControlAwareRefresher.getAccountPayments(account.getId(), true, false, true, callContext, internalCallContext);
+            Assert.assertEquals(payments.size(), 3);
+            for (final Payment payment : payments) {
+                Assert.assertEquals(payment.getTransactions().size(), 1);
+                Assert.assertNull(payment.getTransactions().get(0).getPaymentInfoPlugin());
+            }
+
+            // Plugin calls in flight are left to complete (not interrupted)
+            Awaitility.await()
+                      .until(new Callable<Boolean>() {
+                          @Override
+                          public Boolean call() throws Exception {
+                              return mockPaymentProviderPlugin.getGetPaymentInfoCompletedCalls() == 3;
+                          }
+                      });
+            Assert.assertEquals(mockPaymentProviderPlugin.getGetPaymentInfoInterruptedCalls(), 0);
+        } finally {
+            mockPaymentProviderPlugin.makeGetPaymentInfoWaitSomeMilliseconds(0);
+        }
+    }
+
     @Test(groups = "slow")
     public void testClassicFlow() throws Exception {
         final String paymentExternalKey = UUID.randomUUID().toString();
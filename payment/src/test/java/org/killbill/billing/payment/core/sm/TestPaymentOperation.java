@@ -19,6 +19,9 @@ package org.killbill.billing.payment.core.sm;
 
 import java.math.BigDecimal;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.annotation.Nullable;
 
@@ -29,12 +32,15 @@ import org.killbill.billing.catalog.api.Currency;
 import org.killbill.billing.payment.PaymentTestSuiteNoDB;
 import org.killbill.billing.payment.api.PaymentApiException;
 import org.killbill.billing.payment.api.PluginProperty;
+import org.killbill.billing.payment.api.TransactionStatus;
 import org.killbill.billing.payment.api.TransactionType;
 import org.killbill.billing.payment.core.PaymentPluginServiceRegistration;
+import org.killbill.billing.payment.core.PaymentTransactionInfoPluginConverter;
 import org.killbill.billing.payment.core.sm.payments.PaymentOperation;
 import org.killbill.billing.payment.dao.PaymentDao;
 import org.killbill.billing.payment.dao.PaymentMethodModelDao;
 import org.killbill.billing.payment.dispatcher.PluginDispatcher;
+import org.killbill.billing.payment.dispatcher.PluginDispatcher.PluginDispatcherReturnType;
 import org.killbill.billing.payment.plugin.api.PaymentPluginApiException;
 import org.killbill.billing.payment.plugin.api.PaymentPluginStatus;
 import org.killbill.billing.payment.plugin.api.PaymentTransactionInfoPlugin;
@@ -81,6 +87,27 @@ public class TestPaymentOperation extends PaymentTestSuiteNoDB {
         Assert.assertEquals(paymentStateContext.getPaymentTransactionInfoPlugin().getStatus(), PaymentPluginStatus.UNDEFINED);
     }
 
+    @Test(groups = "fast")
+    public void testPluginCallRejected() throws Exception {
+        // The tenant has reached its maximum number of concurrent plugin calls
+        final PluginDispatcher<OperationResult> rejectingPluginDispatcher = Mockito.mock(PluginDispatcher.class);
+        Mockito.when(rejectingPluginDispatcher.dispatchWithTimeout(Mockito.<Callable<PluginDispatcherReturnType<OperationResult>>>any(), Mockito.<UUID>any()))
+               .thenThrow(new ExecutionException(new RejectedExecutionException("Too many concurrent plugin calls")));
+        setUp(PaymentPluginStatus.PROCESSED, rejectingPluginDispatcher);
+
+        try {
+            paymentOperation.doOperationCallback();
+            Assert.fail();
+        } catch (final OperationException e) {
+            Assert.assertEquals(e.getOperationResult(), OperationResult.EXCEPTION);
+        }
+
+        // The plugin wasn't called: the transaction isn't left UNKNOWN
+        Assert.assertNotNull(paymentStateContext.getPaymentTransactionInfoPlugin());
+        Assert.assertEquals(paymentStateContext.getPaymentTransactionInfoPlugin().getStatus(), PaymentPluginStatus.CANCELED);
+        Assert.assertEquals(PaymentTransactionInfoPluginConverter.toTransactionStatus(paymentStateContext.getPaymentTransactionInfoPlugin()), TransactionStatus.PLUGIN_FAILURE);
+    }
+
     @Test(groups = "fast")
     public void testPaymentPending() throws Exception {
         setUp(PaymentPluginStatus.PENDING);
@@ -104,8 +131,11 @@ public class TestPaymentOperation extends PaymentTestSuiteNoDB {
     }
 
     private void setUp(final PaymentPluginStatus paymentPluginStatus) throws Exception {
+        setUp(paymentPluginStatus, new PluginDispatcher<OperationResult>(1, paymentExecutors));
+    }
+
+    private void setUp(final PaymentPluginStatus paymentPluginStatus, final PluginDispatcher<OperationResult> paymentPluginDispatcher) throws Exception {
         final GlobalLocker locker = new MemoryGlobalLocker();
-        final PluginDispatcher<OperationResult> paymentPluginDispatcher = new PluginDispatcher<OperationResult>(1, paymentExecutors);
         paymentStateContext = new PaymentStateContext(true,
                                                       UUID.randomUUID(),
                                                       null, null,
@@ -18,8 +18,13 @@
 
 package org.killbill.billing.payment.dispatcher;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -27,6 +32,7 @@ import org.killbill.billing.ErrorCode;
 import org.killbill.billing.payment.PaymentTestSuiteNoDB;
 import org.killbill.billing.payment.api.PaymentApiException;
 import org.killbill.billing.payment.dispatcher.PluginDispatcher.PluginDispatcherReturnType;
+import org.killbill.billing.platform.api.KillbillConfigSource;
 import org.killbill.billing.util.UUIDs;
 import org.killbill.commons.request.Request;
 import org.killbill.commons.request.RequestData;
@@ -41,6 +47,13 @@ public class TestPluginDispatcher extends PaymentTestSuiteNoDB {
 
     private PluginDispatcher<String> stringPluginDispatcher;
 
+    @Override
+    protected KillbillConfigSource getConfigSource(final Map<String, String> extraProperties) {
+        final Map<String, String> allExtraProperties = new HashMap<String, String>(extraProperties);
+        allExtraProperties.put("org.killbill.payment.plugin.tenant.maxConcurrentCalls", "1");
+        return super.getConfigSource(allExtraProperties);
+    }
+
     @BeforeMethod(groups = "fast")
     public void beforeMethod() throws Exception {
         if (hasFailed()) {
@@ -128,6 +141,46 @@ public class TestPluginDispatcher extends PaymentTestSuiteNoDB {
     }
 
 
+    @Test(groups = "fast")
+    public void testTimedOutCallHoldsTenantPermit() throws Exception {
+        final UUID tenantId = UUID.randomUUID();
+        final CountDownLatch pluginCallLatch = new CountDownLatch(1);
+
+        try {
+            stringPluginDispatcher.dispatchWithTimeout(new Callable<PluginDispatcherReturnType<String>>() {
+                @Override
+                public PluginDispatcherReturnType<String> call() throws Exception {
+                    pluginCallLatch.await();
+                    return PluginDispatcher.<String>createPluginDispatcherReturnType("slow");
+                }
+            }, tenantId, 100, TimeUnit.MILLISECONDS);
+            Assert.fail("Failed : should have had Timeout exception");
+        } catch (final TimeoutException e) {
+        }
+
+        final Callable<PluginDispatcherReturnType<String>> fastCall = new Callable<PluginDispatcherReturnType<String>>() {
+            @Override
+            public PluginDispatcherReturnType<String> call() throws Exception {
+                return PluginDispatcher.<String>createPluginDispatcherReturnType("fast");
+            }
+        };
+
+        // The plugin is still processing the first call, the permit of the tenant isn't available
+        try {
+            stringPluginDispatcher.dispatchWithTimeout(fastCall, tenantId, 100, TimeUnit.MILLISECONDS);
+            Assert.fail("Failed : should have had RejectedExecutionException");
+        } catch (final ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+
+        // Other tenants aren't impacted
+        Assert.assertEquals(stringPluginDispatcher.dispatchWithTimeout(fastCall, UUID.randomUUID(), 100, TimeUnit.MILLISECONDS), "fast");
+
+        // The permit is released once the first call returns
+        pluginCallLatch.countDown();
+        Assert.assertEquals(stringPluginDispatcher.dispatchWithTimeout(fastCall, tenantId, 5, TimeUnit.SECONDS), "fast");
+    }
+
     @Test(groups = "fast")
     public void testDispatchWithRequestData() throws TimeoutException, PaymentApiException, ExecutionException, InterruptedException {
 
@@ -78,6 +78,9 @@ public class MockPaymentProviderPlugin implements PaymentPluginApi {
     private final AtomicBoolean makeNextPaymentPending = new AtomicBoolean(false);
     private final AtomicBoolean makeNextPaymentUnknown = new AtomicBoolean(false);
     private final AtomicInteger makePluginWaitSomeMilliseconds = new AtomicInteger(0);
+    private final AtomicInteger makeGetPaymentInfoWaitSomeMilliseconds = new AtomicInteger(0);
+    private final AtomicInteger getPaymentInfoCompletedCalls = new AtomicInteger(0);
+    private final AtomicInteger getPaymentInfoInterruptedCalls = new AtomicInteger(0);
     private final AtomicReference<BigDecimal> overrideNextProcessedAmount = new AtomicReference<BigDecimal>();
     private final AtomicReference<Currency> overrideNextProcessedCurrency = new AtomicReference<Currency>();
 
@@ -209,6 +212,9 @@ public class MockPaymentProviderPlugin implements PaymentPluginApi {
         makeNextPaymentPending.set(false);
         makeNextPaymentUnknown.set(false);
         makePluginWaitSomeMilliseconds.set(0);
+        makeGetPaymentInfoWaitSomeMilliseconds.set(0);
+        getPaymentInfoCompletedCalls.set(0);
+        getPaymentInfoInterruptedCalls.set(0);
         overrideNextProcessedAmount.set(null);
         paymentMethods.clear();
         payments.clear();
@@ -244,6 +250,18 @@ public class MockPaymentProviderPlugin implements PaymentPluginApi {
         makePluginWaitSomeMilliseconds.set(milliseconds);
     }
 
+    public void makeGetPaymentInfoWaitSomeMilliseconds(final int milliseconds) {
+        makeGetPaymentInfoWaitSomeMilliseconds.set(milliseconds);
+    }
+
+    public int getGetPaymentInfoCompletedCalls() {
+        return getPaymentInfoCompletedCalls.get();
+    }
+
+    public int getGetPaymentInfoInterruptedCalls() {
+        return getPaymentInfoInterruptedCalls.get();
+    }
+
     public void overrideNextProcessedAmount(final BigDecimal amount) {
         overrideNextProcessedAmount.set(amount);
     }
@@ -323,6 +341,16 @@ public class MockPaymentProviderPlugin implements PaymentPluginApi {
     @Override
     public List<PaymentTransactionInfoPlugin> getPaymentInfo(final UUID kbAccountId, final UUID kbPaymentId, final Iterable<PluginProperty> properties, final TenantContext context) throws PaymentPluginApiException {
         updateLastThreadState();
+        if (makeGetPaymentInfoWaitSomeMilliseconds.get() > 0) {
+            try {
+                Thread.sleep(makeGetPaymentInfoWaitSomeMilliseconds.get());
+            } catch (InterruptedException e) {
+                getPaymentInfoInterruptedCalls.incrementAndGet();
+                Thread.currentThread().interrupt();
+                throw new PaymentPluginApiException("An Interruption occurred while the Thread was sleeping.", e);
+            }
+        }
+        getPaymentInfoCompletedCalls.incrementAndGet();
         final List<PaymentTransactionInfoPlugin> result = paymentTransactions.get(kbPaymentId.toString());
         return result != null ? result : ImmutableList.<PaymentTransactionInfoPlugin>of();
     }
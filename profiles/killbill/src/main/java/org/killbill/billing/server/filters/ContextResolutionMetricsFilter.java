@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.server.filters;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.inject.Singleton;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.killbill.billing.callcontext.ContextResolutionCache;
+import org.killbill.billing.jaxrs.util.Context;
+import org.killbill.billing.util.metrics.HotPathHistogram;
+import org.killbill.billing.util.metrics.HotPathMetrics;
+
+// Record, once the response has been written (streaming included), how many record id and account data lookups
+// of the request were served by the resolution caches of its contexts
+@Singleton
+public class ContextResolutionMetricsFilter implements Filter {
+
+    private static final HotPathHistogram HITS_HISTOGRAM = HotPathMetrics.histogram(ContextResolutionCache.class, "hitsPerRequest");
+    private static final HotPathHistogram ROUND_TRIPS_HISTOGRAM = HotPathMetrics.histogram(ContextResolutionCache.class, "roundTripsPerRequest");
+
+    @Override
+    public void init(final FilterConfig filterConfig) throws ServletException {
+    }
+
+    @Override
+    public void doFilter(final ServletRequest request, final ServletResponse response, final FilterChain chain) throws IOException, ServletException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            final List<ContextResolutionCache> resolutionCaches = Context.getResolutionCaches(request);
+            if (resolutionCaches != null) {
+                long hits = 0;
+                long roundTrips = 0;
+                for (final ContextResolutionCache resolutionCache : resolutionCaches) {
+                    hits += resolutionCache.getHits();
+                    roundTrips += resolutionCache.getRoundTrips();
+                }
+                HITS_HISTOGRAM.update(hits);
+                ROUND_TRIPS_HISTOGRAM.update(roundTrips);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
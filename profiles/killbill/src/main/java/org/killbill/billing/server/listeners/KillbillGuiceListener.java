@@ -27,6 +27,7 @@ import org.killbill.billing.jaxrs.resources.JaxRsResourceBase;
 import org.killbill.billing.jaxrs.util.KillbillEventHandler;
 import org.killbill.billing.platform.api.KillbillConfigSource;
 import org.killbill.billing.platform.config.DefaultKillbillConfigSource;
+import org.killbill.billing.server.filters.ContextResolutionMetricsFilter;
 import org.killbill.billing.server.filters.KillbillMDCInsertingServletFilter;
 import org.killbill.billing.server.filters.ProfilingContainerResponseFilter;
 import org.killbill.billing.server.filters.RequestDataFilter;
@@ -73,6 +74,9 @@ public class KillbillGuiceListener extends KillbillPlatformGuiceListener {
         // Logback default MDC
         builder.addFilter("/*", MDCInsertingServletFilter.class);
 
+        // Per-request context resolution metrics
+        builder.addFilter("/*", ContextResolutionMetricsFilter.class);
+
         // Kill Bill specific MDC
         builder.addJerseyFilter(KillbillMDCInsertingServletFilter.class.getName());
 
@@ -24,6 +24,7 @@ import org.apache.shiro.cache.CacheManager;
 import org.killbill.billing.server.security.KillbillJdbcTenantRealm;
 import org.killbill.billing.util.config.definition.SecurityConfig;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 
@@ -34,17 +35,19 @@ public class KillbillJdbcTenantRealmProvider implements Provider<KillbillJdbcTen
     private final SecurityConfig securityConfig;
     private final CacheManager cacheManager;
     private final DataSource dataSource;
+    private final MetricRegistry metricRegistry;
 
     @Inject
-    public KillbillJdbcTenantRealmProvider(final SecurityConfig securityConfig, final CacheManager cacheManager, @Named(SHIRO_DATA_SOURCE_ID) final DataSource dataSource) {
+    public KillbillJdbcTenantRealmProvider(final SecurityConfig securityConfig, final CacheManager cacheManager, @Named(SHIRO_DATA_SOURCE_ID) final DataSource dataSource, final MetricRegistry metricRegistry) {
         this.securityConfig = securityConfig;
         this.cacheManager = cacheManager;
         this.dataSource = dataSource;
+        this.metricRegistry = metricRegistry;
     }
 
     @Override
     public KillbillJdbcTenantRealm get() {
-        final KillbillJdbcTenantRealm killbillJdbcTenantRealm = new KillbillJdbcTenantRealm(dataSource, securityConfig);
+        final KillbillJdbcTenantRealm killbillJdbcTenantRealm = new KillbillJdbcTenantRealm(dataSource, securityConfig, metricRegistry);
 
         // Set the cache manager
         // Note: the DefaultWebSecurityManager used for RBAC will have all of its realms (set in KillBillShiroWebModule)
@@ -34,8 +34,11 @@ import org.apache.shiro.codec.Hex;
 import org.apache.shiro.realm.jdbc.JdbcRealm;
 import org.apache.shiro.util.ByteSource;
 import org.killbill.billing.util.config.definition.SecurityConfig;
+import org.killbill.billing.util.security.shiro.CachingCredentialsMatcher;
 import org.killbill.billing.util.security.shiro.KillbillCredentialsMatcher;
 
+import com.codahale.metrics.MetricRegistry;
+
 /**
  * @see {shiro.ini}
  */
@@ -46,7 +49,7 @@ public class KillbillJdbcTenantRealm extends JdbcRealm {
     private final DataSource dataSource;
     private final SecurityConfig securityConfig;
 
-    public KillbillJdbcTenantRealm(final DataSource dataSource, final SecurityConfig securityConfig) {
+    public KillbillJdbcTenantRealm(final DataSource dataSource, final SecurityConfig securityConfig, final MetricRegistry metricRegistry) {
         super();
 
         this.dataSource = dataSource;
@@ -56,7 +59,7 @@ public class KillbillJdbcTenantRealm extends JdbcRealm {
         // See JavaDoc warning: https://shiro.apache.org/static/1.2.3/apidocs/org/apache/shiro/realm/AuthenticatingRealm.html
         setAuthenticationCachingEnabled(true);
 
-        configureSecurity();
+        configureSecurity(metricRegistry);
         configureQueries();
         configureDataSource();
     }
@@ -74,9 +77,12 @@ public class KillbillJdbcTenantRealm extends JdbcRealm {
         return authenticationInfo;
     }
 
-    private void configureSecurity() {
+    private void configureSecurity(final MetricRegistry metricRegistry) {
         setSaltStyle(SaltStyle.COLUMN);
-        setCredentialsMatcher(KillbillCredentialsMatcher.getCredentialsMatcher(securityConfig));
+        // The authentication cache only avoids the database lookup: the submitted secret still needs to be verified
+        final CachingCredentialsMatcher credentialsMatcher = new CachingCredentialsMatcher(KillbillCredentialsMatcher.getCredentialsMatcher(securityConfig), securityConfig);
+        credentialsMatcher.registerMetrics(metricRegistry, getClass().getSimpleName());
+        setCredentialsMatcher(credentialsMatcher);
     }
 
     private void configureQueries() {
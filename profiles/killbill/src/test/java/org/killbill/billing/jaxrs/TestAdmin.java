@@ -23,10 +23,15 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
 
 import org.joda.time.DateTime;
 import org.killbill.billing.catalog.api.BillingPeriod;
 import org.killbill.billing.catalog.api.ProductCategory;
+import org.killbill.billing.jaxrs.json.InvoiceGenerationJobJson;
 import org.killbill.billing.client.JaxrsResource;
 import org.killbill.billing.client.KillBillClientException;
 import org.killbill.billing.client.RequestOptions;
@@ -53,6 +58,8 @@ import static org.testng.Assert.assertNotNull;
 
 public class TestAdmin extends TestJaxrsBase {
 
+    private static final String INVOICE_GENERATION_JOB_URI = "/1.0/kb/admin/invoices/job";
+
     @Test(groups = "slow")
     public void testAdminPaymentEndpoint() throws Exception {
         final Account account = createAccountWithDefaultPaymentMethod();
@@ -156,6 +163,96 @@ public class TestAdmin extends TestJaxrsBase {
         Assert.assertEquals(invoiceApi.getInvoices(requestOptions).getPaginationMaxNbRecords(), 15);
     }
 
+    @Test(groups = "slow")
+    public void testAdminInvoiceGenerationJob() throws Exception {
+        final DateTime initialDate = new DateTime(2012, 4, 25, 0, 3, 42, 0);
+        clock.setDeltaFromReality(initialDate.getMillis() - clock.getUTCNow().getMillis());
+
+        final List<UUID> accounts = new LinkedList<UUID>();
+        for (int i = 0; i < 3; i++) {
+            final Account accountJson = createAccountWithDefaultPaymentMethod();
+            assertNotNull(accountJson);
+            accounts.add(accountJson.getAccountId());
+
+            createSubscription(accountJson.getAccountId(),
+                               UUID.randomUUID().toString(),
+                               "Shotgun",
+                               ProductCategory.BASE,
+                               BillingPeriod.MONTHLY);
+            clock.addDays(2);
+        }
+
+        // Trigger first non-trial invoice
+        for (int i = 0; i < 3; i++) {
+            callbackServlet.pushExpectedEvents(ExtBusEventType.SUBSCRIPTION_PHASE, ExtBusEventType.INVOICE_CREATION, ExtBusEventType.INVOICE_PAYMENT_SUCCESS, ExtBusEventType.PAYMENT_SUCCESS);
+        }
+        clock.addDays(32);
+        callbackServlet.assertListenerStatus();
+        Assert.assertEquals(invoiceApi.getInvoices(requestOptions).getPaginationMaxNbRecords(), 6);
+
+        // Upload the config
+        final ObjectMapper mapper = new ObjectMapper();
+        final Map<String, String> perTenantProperties = new HashMap<String, String>();
+        perTenantProperties.put("org.killbill.invoice.enabled", "false");
+        final String perTenantConfig = mapper.writeValueAsString(perTenantProperties);
+        callbackServlet.pushExpectedEvent(ExtBusEventType.TENANT_CONFIG_CHANGE);
+        tenantApi.uploadPerTenantConfiguration(perTenantConfig, requestOptions);
+        callbackServlet.assertListenerStatus();
+
+        // Verify the second invoice isn't generated (accounts are parked)
+        for (int i = 0; i < 3; i++) {
+            callbackServlet.pushExpectedEvents(ExtBusEventType.TAG_CREATION);
+        }
+        clock.addDays(32);
+        callbackServlet.assertListenerStatus();
+        Assert.assertEquals(invoiceApi.getInvoices(requestOptions).getPaginationMaxNbRecords(), 6);
+
+        // No job yet (404)
+        Assert.assertNull(killBillHttpClient.doGet(INVOICE_GENERATION_JOB_URI, requestOptions));
+
+        // Fix all accounts in the background
+        for (int i = 0; i < 3; i++) {
+            callbackServlet.pushExpectedEvents(ExtBusEventType.TAG_DELETION, ExtBusEventType.INVOICE_CREATION, ExtBusEventType.INVOICE_PAYMENT_SUCCESS, ExtBusEventType.PAYMENT_SUCCESS);
+        }
+        final Response response = killBillHttpClient.doPost(INVOICE_GENERATION_JOB_URI, null, requestOptions);
+        Assert.assertEquals(response.getStatusCode(), 201);
+        callbackServlet.assertListenerStatus();
+
+        final InvoiceGenerationJobJson job = waitForInvoiceGenerationJob(mapper);
+        Assert.assertEquals(job.getNbProcessedAccounts(), (Long) 3L);
+        Assert.assertEquals(job.getNbAccountsByResult().size(), 1);
+        Assert.assertEquals(job.getNbAccountsByResult().get("OK"), (Long) 3L);
+        Assert.assertEquals(invoiceApi.getInvoices(requestOptions).getPaginationMaxNbRecords(), 9);
+
+        // No parked account left
+        final Response response2 = killBillHttpClient.doPost(INVOICE_GENERATION_JOB_URI, null, requestOptions);
+        Assert.assertEquals(response2.getStatusCode(), 201);
+        final InvoiceGenerationJobJson job2 = waitForInvoiceGenerationJob(mapper);
+        Assert.assertEquals(job2.getNbProcessedAccounts(), (Long) 0L);
+        Assert.assertTrue(job2.getNbAccountsByResult().isEmpty());
+    }
+
+    private InvoiceGenerationJobJson waitForInvoiceGenerationJob(final ObjectMapper mapper) throws Exception {
+        Awaitility.await()
+                  .atMost(10, TimeUnit.SECONDS)
+                  .until(new Callable<Boolean>() {
+                      @Override
+                      public Boolean call() throws Exception {
+                          return !"RUNNING".equals(getInvoiceGenerationJob(mapper).getStatus());
+                      }
+                  });
+        final InvoiceGenerationJobJson job = getInvoiceGenerationJob(mapper);
+        Assert.assertEquals(job.getStatus(), "COMPLETED");
+        Assert.assertNotNull(job.getEndDate());
+        return job;
+    }
+
+    private InvoiceGenerationJobJson getInvoiceGenerationJob(final ObjectMapper mapper) throws Exception {
+        final Response response = killBillHttpClient.doGet(INVOICE_GENERATION_JOB_URI, requestOptions);
+        Assert.assertEquals(response.getStatusCode(), 200);
+        return mapper.readValue(response.getResponseBody(), InvoiceGenerationJobJson.class);
+    }
+
     private void doCapture(final Payment payment, final boolean expectException) throws KillBillClientException {
         // Payment object does not export state, this is purely internal, so to verify that we indeed changed to Failed, we can attempt
         // a capture, which should fail
@@ -20,11 +20,13 @@ package org.killbill.billing.jaxrs;
 import java.io.File;
 import java.nio.charset.Charset;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.killbill.automaton.StateMachineConfig;
 import org.killbill.billing.account.api.ImmutableAccountData;
 import org.killbill.billing.catalog.api.StaticCatalog;
+import org.killbill.billing.client.RequestOptions;
 import org.killbill.billing.client.model.gen.Account;
 import org.killbill.billing.client.model.gen.Tenant;
 import org.killbill.billing.notification.plugin.api.ExtBusEventType;
@@ -32,9 +34,14 @@ import org.killbill.billing.overdue.api.OverdueConfig;
 import org.killbill.billing.util.cache.Cachable.CacheType;
 import org.killbill.billing.util.cache.CacheController;
 import org.killbill.billing.util.config.tenant.PerTenantConfig;
+import org.killbill.billing.util.jackson.ObjectMapper;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import com.ning.http.client.Response;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.collect.ImmutableMultimap;
 import com.google.common.io.Files;
 import com.google.common.io.Resources;
 
@@ -74,6 +81,23 @@ public class TestCache extends TestJaxrsBase {
         Assert.assertEquals(cache.size(), 0);
     }
 
+    @Test(groups = "slow", description = "Can retrieve the statistics of a Cache by name")
+    public void testCacheStatistics() throws Exception {
+        final Response response = killBillHttpClient.doGet("/1.0/kb/admin/cache", RequestOptions.builder()
+                                                                                                .withQueryParams(ImmutableMultimap.<String, String>of("cacheName", CacheType.RECORD_ID.getCacheName()))
+                                                                                                .build());
+        Assert.assertEquals(response.getStatusCode(), 200);
+
+        final ObjectMapper mapper = new ObjectMapper();
+        final List<Map<String, Object>> statistics = mapper.readValue(response.getResponseBody(), new TypeReference<List<Map<String, Object>>>() {});
+        Assert.assertEquals(statistics.size(), 1);
+        Assert.assertEquals(statistics.get(0).get("cacheName"), CacheType.RECORD_ID.getCacheName());
+        // The default tenant created for all integration tests
+        Assert.assertEquals(statistics.get(0).get("size"), 1);
+        assertNotNull(statistics.get(0).get("hitRatio"));
+        assertNotNull(statistics.get(0).get("evictions"));
+    }
+
     @Test(groups = "slow", description = "Can Invalidate (clear) all Account Caches by accountId")
     public void testInvalidateCacheByAccount() throws Exception {
         final Account input = createAccountNoPMBundleAndSubscription();
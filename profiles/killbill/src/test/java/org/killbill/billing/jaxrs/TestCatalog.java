@@ -31,7 +31,9 @@ import org.killbill.billing.catalog.api.BillingPeriod;
 import org.killbill.billing.catalog.api.Currency;
 import org.killbill.billing.catalog.api.ProductCategory;
 import org.killbill.billing.catalog.api.TimeUnit;
+import org.killbill.billing.client.JaxrsResource;
 import org.killbill.billing.client.KillBillClientException;
+import org.killbill.billing.client.RequestOptions;
 import org.killbill.billing.client.model.Catalogs;
 import org.killbill.billing.client.model.gen.Catalog;
 import org.killbill.billing.client.model.gen.Plan;
@@ -43,6 +45,7 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.ning.http.client.Response;
 
 public class TestCatalog extends TestJaxrsBase {
 
@@ -233,4 +236,31 @@ public class TestCatalog extends TestJaxrsBase {
         Assert.assertEquals(1, versions.size());
         Assert.assertEquals(versions.get(0).compareTo(DateTime.parse("2013-02-08T00:00:00+00:00")), 0);
     }
+
+    @Test(groups = "slow", description = "Can retrieve the catalog only if it changed")
+    public void testGetCatalogJsonWithETag() throws Exception {
+        catalogApi.addSimplePlan(new SimplePlan("bar-monthly", "Bar", ProductCategory.BASE, Currency.USD, BigDecimal.TEN, BillingPeriod.MONTHLY, 0, TimeUnit.UNLIMITED, ImmutableList.<String>of()), requestOptions);
+
+        final Response response = killBillHttpClient.doGet(JaxrsResource.CATALOG_PATH, requestOptions);
+        Assert.assertEquals(response.getStatusCode(), 200);
+        final String eTag = response.getHeader("ETag");
+        Assert.assertNotNull(eTag);
+
+        // Catalog didn't change
+        final RequestOptions conditionalRequestOptions = requestOptions.extend().withHeader("If-None-Match", eTag).build();
+        final Response notModifiedResponse = killBillHttpClient.doGet(JaxrsResource.CATALOG_PATH, conditionalRequestOptions);
+        Assert.assertEquals(notModifiedResponse.getStatusCode(), 304);
+        Assert.assertEquals(notModifiedResponse.getHeader("ETag"), eTag);
+
+        // Catalog changed
+        catalogApi.addSimplePlan(new SimplePlan("bar-annual", "Bar", ProductCategory.BASE, Currency.USD, new BigDecimal("100.00"), BillingPeriod.ANNUAL, 0, TimeUnit.UNLIMITED, ImmutableList.<String>of()), requestOptions);
+        final Response modifiedResponse = killBillHttpClient.doGet(JaxrsResource.CATALOG_PATH, conditionalRequestOptions);
+        Assert.assertEquals(modifiedResponse.getStatusCode(), 200);
+        Assert.assertNotEquals(modifiedResponse.getHeader("ETag"), eTag);
+        Assert.assertTrue(modifiedResponse.getResponseBody().contains("bar-annual"));
+
+        final List<Catalog> catalogsJson = catalogApi.getCatalogJson(null, null, requestOptions);
+        Assert.assertEquals(catalogsJson.size(), 1);
+        Assert.assertEquals(catalogsJson.get(0).getPriceLists().get(0).getPlans().size(), 2);
+    }
 }
@@ -362,6 +362,12 @@ public class DefaultSubscriptionInternalApi extends DefaultSubscriptionBaseCreat
         }
     }
 
+    @Override
+    public void setChargedThroughDates(final Map<UUID, DateTime> chargedThruDates, final InternalCallContext context) throws SubscriptionBaseApiException {
+        // No need to rebuild the subscriptions (catalog and events lookups), only their bundle is needed
+        dao.updateChargedThroughDates(chargedThruDates, context);
+    }
+
     @Override
     public List<EffectiveSubscriptionInternalEvent> getAllTransitions(final SubscriptionBase subscription, final InternalTenantContext context) {
         final List<SubscriptionBaseTransition> transitions = subscription.getAllTransitions();
@@ -58,6 +58,12 @@ public interface BundleSqlDao extends EntitySqlDao<SubscriptionBundleModelDao, S
                                         @Bind("lastSysUpdateDate") Date lastSysUpdate,
                                         @SmartBindBean final InternalCallContext context);
 
+    @SqlUpdate
+    @Audited(ChangeType.UPDATE)
+    public void updateBundlesLastSysTime(@BindIn("ids") final Collection<String> ids,
+                                         @Bind("lastSysUpdateDate") Date lastSysUpdate,
+                                         @SmartBindBean final InternalCallContext context);
+
     @SqlQuery
     public SubscriptionBundleModelDao getBundlesFromAccountAndKey(@Bind("accountId") String accountId,
                                                                   @Bind("externalKey") String externalKey,
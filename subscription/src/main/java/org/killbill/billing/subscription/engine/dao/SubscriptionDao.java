@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import org.joda.time.DateTime;
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.catalog.api.CatalogApiException;
@@ -77,6 +78,8 @@ public interface SubscriptionDao extends EntityDao<SubscriptionBundleModelDao, S
     // Update
     void updateChargedThroughDate(DefaultSubscriptionBase subscription, InternalCallContext context);
 
+    void updateChargedThroughDates(Map<UUID, DateTime> chargedThroughDates, InternalCallContext context);
+
     // Event apis
     void createNextPhaseEvent(DefaultSubscriptionBase subscription, SubscriptionBaseEvent readyPhaseEvent, SubscriptionBaseEvent nextPhase, InternalCallContext context);
 
@@ -16,6 +16,7 @@
 
 package org.killbill.billing.subscription.engine.dao;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -31,6 +32,7 @@ import org.killbill.commons.jdbi.template.KillBillSqlDaoStringTemplate;
 import org.skife.jdbi.v2.sqlobject.Bind;
 import org.skife.jdbi.v2.sqlobject.SqlQuery;
 import org.skife.jdbi.v2.sqlobject.SqlUpdate;
+import org.skife.jdbi.v2.unstable.BindIn;
 
 
 @KillBillSqlDaoStringTemplate
@@ -49,4 +51,10 @@ public interface SubscriptionSqlDao extends EntitySqlDao<SubscriptionModelDao, S
     public void updateChargedThroughDate(@Bind("id") String id, @Bind("chargedThroughDate") Date chargedThroughDate,
                                          @SmartBindBean final InternalCallContext context);
 
+    @SqlUpdate
+    @Audited(ChangeType.UPDATE)
+    public void updateChargedThroughDates(@BindIn("ids") final Collection<String> ids,
+                                          @Bind("chargedThroughDate") Date chargedThroughDate,
+                                          @SmartBindBean final InternalCallContext context);
+
 }
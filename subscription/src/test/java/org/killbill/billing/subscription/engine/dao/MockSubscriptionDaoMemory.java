@@ -349,6 +349,18 @@ public class MockSubscriptionDaoMemory extends MockEntityDaoBase<SubscriptionBun
         }
     }
 
+    @Override
+    public void updateChargedThroughDates(final Map<UUID, DateTime> chargedThroughDates, final InternalCallContext context) {
+        for (final UUID subscriptionId : chargedThroughDates.keySet()) {
+            for (final DefaultSubscriptionBase subscription : subscriptions) {
+                if (subscription.getId().equals(subscriptionId)) {
+                    updateChargedThroughDate(new DefaultSubscriptionBase(new SubscriptionBuilder(subscription).setChargedThroughDate(chargedThroughDates.get(subscriptionId))), context);
+                    break;
+                }
+            }
+        }
+    }
+
     @Override
     public void cancelSubscriptionsOnBasePlanEvent(final DefaultSubscriptionBase subscription, final SubscriptionBaseEvent event, final List<DefaultSubscriptionBase> subscriptions, final List<SubscriptionBaseEvent> cancelEvents, final SubscriptionCatalog catalog, final InternalCallContext context) {
         cancelSubscriptions(subscriptions, cancelEvents, catalog, context);
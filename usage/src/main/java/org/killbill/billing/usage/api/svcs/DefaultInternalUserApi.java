@@ -17,7 +17,12 @@
 
 package org.killbill.billing.usage.api.svcs;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import javax.inject.Inject;
 
@@ -69,4 +74,29 @@ public class DefaultInternalUserApi extends BaseUserApi implements InternalUserA
             }
         }));
     }
+
+    @Override
+    public List<RawUsageRecord> getPluginRawUsageForAccount(final LocalDate startDate, final LocalDate endDate, final InternalTenantContext internalTenantContext) {
+        final TenantContext tenantContext = internalCallContextFactory.createTenantContext(internalTenantContext);
+        return getAccountUsageFromPlugin(startDate, endDate, tenantContext);
+    }
+
+    @Override
+    public List<RawUsageRecord> getRawUsageForSubscription(final UUID subscriptionId, final LocalDate startDate, final LocalDate endDate, final InternalTenantContext internalTenantContext) {
+        // Convert the rows as they are read, so that we don't hold both the model daos and the records in memory.
+        // The unit types are shared across records, as there are usually only a few of them.
+        final List<RawUsageRecord> result = new ArrayList<RawUsageRecord>();
+        final Map<String, String> unitTypes = new HashMap<String, String>();
+        final Iterator<RolledUpUsageModelDao> usage = rolledUpUsageDao.getRawUsageForSubscription(subscriptionId, startDate, endDate, internalTenantContext);
+        while (usage.hasNext()) {
+            final RolledUpUsageModelDao input = usage.next();
+            String unitType = unitTypes.get(input.getUnitType());
+            if (unitType == null) {
+                unitType = input.getUnitType();
+                unitTypes.put(unitType, unitType);
+            }
+            result.add(new DefaultRawUsage(subscriptionId, input.getRecordDate(), unitType, input.getAmount(), input.getTrackingId()));
+        }
+        return result;
+    }
 }
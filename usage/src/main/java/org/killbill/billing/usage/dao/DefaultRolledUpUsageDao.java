@@ -18,6 +18,7 @@
 
 package org.killbill.billing.usage.dao;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
@@ -65,4 +66,9 @@ public class DefaultRolledUpUsageDao implements RolledUpUsageDao {
     public List<RolledUpUsageModelDao> getRawUsageForAccount(final LocalDate startDate, final LocalDate endDate, final InternalTenantContext context) {
         return dbRouter.onDemand(true).getRawUsageForAccount(startDate.toDate(), endDate.toDate(), context);
     }
+
+    @Override
+    public Iterator<RolledUpUsageModelDao> getRawUsageForSubscription(final UUID subscriptionId, final LocalDate startDate, final LocalDate endDate, final InternalTenantContext context) {
+        return dbRouter.onDemand(true).getRawUsageForSubscription(subscriptionId, startDate.toDate(), endDate.toDate(), context);
+    }
 }
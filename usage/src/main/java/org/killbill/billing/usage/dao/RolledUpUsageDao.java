@@ -16,6 +16,7 @@
 
 package org.killbill.billing.usage.dao;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
@@ -34,4 +35,7 @@ public interface RolledUpUsageDao {
     List<RolledUpUsageModelDao> getAllUsageForSubscription(UUID subscriptionId, LocalDate startDate, LocalDate endDate, InternalTenantContext context);
 
     List<RolledUpUsageModelDao> getRawUsageForAccount(LocalDate startDate, LocalDate endDate, InternalTenantContext context);
+
+    // Streamed (the connection is released once the iterator is exhausted), ordered by record date and unit type
+    Iterator<RolledUpUsageModelDao> getRawUsageForSubscription(UUID subscriptionId, LocalDate startDate, LocalDate endDate, InternalTenantContext context);
 }
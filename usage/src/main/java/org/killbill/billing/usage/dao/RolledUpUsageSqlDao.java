@@ -19,6 +19,7 @@
 package org.killbill.billing.usage.dao;
 
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,6 +27,7 @@ import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.util.entity.Entity;
 import org.killbill.billing.util.entity.dao.EntitySqlDao;
 import org.killbill.commons.jdbi.binder.SmartBindBean;
+import org.killbill.commons.jdbi.statement.SmartFetchSize;
 import org.killbill.commons.jdbi.template.KillBillSqlDaoStringTemplate;
 import org.skife.jdbi.v2.sqlobject.Bind;
 import org.skife.jdbi.v2.sqlobject.SqlQuery;
@@ -55,4 +57,11 @@ public interface RolledUpUsageSqlDao extends EntitySqlDao<RolledUpUsageModelDao,
     List<RolledUpUsageModelDao> getRawUsageForAccount(@Bind("startDate") final Date startDate,
                                                       @Bind("endDate") final Date endDate,
                                                       @SmartBindBean final InternalTenantContext context);
+
+    @SqlQuery
+    @SmartFetchSize(shouldStream = true)
+    Iterator<RolledUpUsageModelDao> getRawUsageForSubscription(@Bind("subscriptionId") final UUID subscriptionId,
+                                                               @Bind("startDate") final Date startDate,
+                                                               @Bind("endDate") final Date endDate,
+                                                               @SmartBindBean final InternalTenantContext context);
 }
@@ -27,6 +27,8 @@ import org.killbill.billing.util.UUIDs;
 import org.skife.jdbi.v2.exceptions.UnableToExecuteStatementException;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
+
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.fail;
 
@@ -96,6 +98,43 @@ public class TestDefaultRolledUpUsageDao extends UsageTestSuiteWithEmbeddedDB {
         assertEquals(result.get(2).getAmount().compareTo(amount3), 0);
     }
 
+    @Test(groups = "slow")
+    public void testRawUsageForSubscriptionSortedByDateAndUnitType() {
+        final UUID subscriptionId = UUID.randomUUID();
+        final String unitType1 = "foo";
+        final String unitType2 = "bar";
+        final LocalDate startDate = new LocalDate(2013, 1, 1);
+        final LocalDate endDate = new LocalDate(2013, 2, 1);
+
+        // Recorded out of order
+        RolledUpUsageModelDao usage1 = new RolledUpUsageModelDao(subscriptionId, unitType1, startDate.plusDays(1), 10L, UUID.randomUUID().toString());
+        RolledUpUsageModelDao usage2 = new RolledUpUsageModelDao(subscriptionId, unitType1, startDate, 5L, UUID.randomUUID().toString());
+        RolledUpUsageModelDao usage3 = new RolledUpUsageModelDao(subscriptionId, unitType2, startDate, 13L, UUID.randomUUID().toString());
+        // Outside of the range
+        RolledUpUsageModelDao usage4 = new RolledUpUsageModelDao(subscriptionId, unitType2, endDate, 7L, UUID.randomUUID().toString());
+        // Another subscription
+        RolledUpUsageModelDao usage5 = new RolledUpUsageModelDao(UUID.randomUUID(), unitType2, startDate, 3L, UUID.randomUUID().toString());
+        List<RolledUpUsageModelDao> usages = new ArrayList<RolledUpUsageModelDao>();
+        usages.add(usage1);
+        usages.add(usage2);
+        usages.add(usage3);
+        usages.add(usage4);
+        usages.add(usage5);
+        rolledUpUsageDao.record(usages, internalCallContext);
+
+        final List<RolledUpUsageModelDao> result = ImmutableList.<RolledUpUsageModelDao>copyOf(rolledUpUsageDao.getRawUsageForSubscription(subscriptionId, startDate, endDate, internalCallContext));
+        assertEquals(result.size(), 3);
+        assertEquals(result.get(0).getRecordDate().compareTo(startDate), 0);
+        assertEquals(result.get(0).getUnitType(), unitType2);
+        assertEquals(result.get(0).getAmount().compareTo(13L), 0);
+        assertEquals(result.get(1).getRecordDate().compareTo(startDate), 0);
+        assertEquals(result.get(1).getUnitType(), unitType1);
+        assertEquals(result.get(1).getAmount().compareTo(5L), 0);
+        assertEquals(result.get(2).getRecordDate().compareTo(startDate.plusDays(1)), 0);
+        assertEquals(result.get(2).getUnitType(), unitType1);
+        assertEquals(result.get(2).getAmount().compareTo(10L), 0);
+    }
+
     @Test(groups = "slow")
     public void testNoEntries() {
         final UUID subscriptionId = UUID.randomUUID();
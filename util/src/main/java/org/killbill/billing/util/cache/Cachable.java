@@ -49,6 +49,7 @@ public @interface Cachable {
     String ACCOUNT_BCD_CACHE_NAME = "account-bcd";
     String ACCOUNT_ID_FROM_BUNDLE_ID_CACHE_NAME = "account-id-from-bundle-id";
     String BUNDLE_ID_FROM_SUBSCRIPTION_ID_CACHE_NAME = "bundle-id-from-subscription-id";
+    String CONTROL_TAGS_CACHE_NAME = "control-tags";
 
     CacheType value();
 
@@ -98,7 +99,10 @@ public @interface Cachable {
         ACCOUNT_ID_FROM_BUNDLE_ID(ACCOUNT_ID_FROM_BUNDLE_ID_CACHE_NAME, UUID.class, UUID.class, false),
 
         /* Entitlement id to Bundle id cache */
-        BUNDLE_ID_FROM_SUBSCRIPTION_ID(BUNDLE_ID_FROM_SUBSCRIPTION_ID_CACHE_NAME, UUID.class, UUID.class, false);
+        BUNDLE_ID_FROM_SUBSCRIPTION_ID(BUNDLE_ID_FROM_SUBSCRIPTION_ID_CACHE_NAME, UUID.class, UUID.class, false),
+
+        /* Mapping from object 'id (UUID)' -> bitset of active control tags, indexed by ControlTagType ordinal (Long) */
+        CONTROL_TAGS(CONTROL_TAGS_CACHE_NAME, UUID.class, Long.class, false);
 
         private final String cacheName;
         private final Class keyType;
@@ -38,6 +38,9 @@ public interface CacheController<K, V> {
 
     int size();
 
+    // Null if statistics aren't available (e.g. not enabled by the underlying provider)
+    CacheStatistics getStatistics();
+
     void removeAll();
 
     CacheType getCacheType();
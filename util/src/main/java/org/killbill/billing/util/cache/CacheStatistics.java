@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.cache;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+import javax.management.AttributeList;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// JSR-107 statistics of a cache (see CacheStatisticsMXBean)
+public class CacheStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheStatistics.class);
+
+    private static final String[] ATTRIBUTES = {"CacheHits", "CacheMisses", "CacheEvictions"};
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    public CacheStatistics(final long hits, final long misses, final long evictions) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    // The statistics are only exposed through JMX (enable-statistics in ehcache.xml)
+    @Nullable
+    static CacheStatistics fromJmx(final String cacheName) {
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final Set<ObjectName> objectNames = mBeanServer.queryNames(new ObjectName("javax.cache:type=CacheStatistics,CacheManager=*,Cache=" + cacheName), null);
+            if (objectNames.isEmpty()) {
+                return null;
+            }
+
+            final AttributeList attributes = mBeanServer.getAttributes(objectNames.iterator().next(), ATTRIBUTES);
+            if (attributes.size() != ATTRIBUTES.length) {
+                return null;
+            }
+            return new CacheStatistics((Long) attributes.asList().get(0).getValue(),
+                                       (Long) attributes.asList().get(1).getValue(),
+                                       (Long) attributes.asList().get(2).getValue());
+        } catch (final JMException e) {
+            logger.warn("Unable to retrieve statistics for cacheName='{}'", cacheName, e);
+            return null;
+        }
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRatio() {
+        final long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CacheStatistics{");
+        sb.append("hits=").append(hits);
+        sb.append(", misses=").append(misses);
+        sb.append(", evictions=").append(evictions);
+        sb.append('}');
+        return sb.toString();
+    }
+}
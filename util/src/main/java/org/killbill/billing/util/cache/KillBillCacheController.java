@@ -71,10 +71,10 @@ public class KillBillCacheController<K, V> implements CacheController<K, V> {
 
         V value;
         try {
-            if (!isKeyInCache(key)) {
+            // Single lookup (this also keeps the hit/miss statistics accurate)
+            value = cache.get(key);
+            if (value == null) {
                 value = computeAndCacheValue(key, cacheLoaderArgument);
-            } else {
-                value = cache.get(key);
             }
         } catch (final CacheException e) {
             logger.warn("Unable to retrieve cached value for key='{}' and cacheLoaderArgument='{}'", key, cacheLoaderArgument, e);
@@ -124,6 +124,11 @@ public class KillBillCacheController<K, V> implements CacheController<K, V> {
         return Iterables.size(cache);
     }
 
+    @Override
+    public CacheStatistics getStatistics() {
+        return CacheStatistics.fromJmx(cache.getName());
+    }
+
     @Override
     public CacheType getCacheType() {
         return baseCacheLoader.getCacheType();
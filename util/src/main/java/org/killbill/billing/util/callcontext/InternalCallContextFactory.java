@@ -18,6 +18,11 @@
 
 package org.killbill.billing.util.callcontext;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.annotation.Nullable;
@@ -29,6 +34,9 @@ import org.killbill.billing.ObjectType;
 import org.killbill.billing.account.api.AccountApiException;
 import org.killbill.billing.account.api.ImmutableAccountData;
 import org.killbill.billing.account.api.ImmutableAccountInternalApi;
+import org.killbill.billing.callcontext.CallContextBase;
+import org.killbill.billing.callcontext.ContextResolutionCache;
+import org.killbill.billing.callcontext.DefaultTenantContext;
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.util.account.AccountDateTimeUtils;
@@ -115,6 +123,11 @@ public class InternalCallContextFactory {
     public InternalTenantContext createInternalTenantContextWithoutAccountRecordId(final TenantContext context) {
         // If tenant id is null, this will default to the default tenant record id (multi-tenancy disabled)
         final Long tenantRecordId = getTenantRecordIdSafe(context);
+        final Long seekFromRecordId = getSeekFromRecordId(context);
+        if (seekFromRecordId != null) {
+            populateMDCContext(null, null, tenantRecordId);
+            return new InternalTenantContext(tenantRecordId, null, null, null, seekFromRecordId);
+        }
         return createInternalTenantContext(tenantRecordId, null);
     }
 
@@ -144,7 +157,7 @@ public class InternalCallContextFactory {
         //                         "tenant of the pointed object (%s) and the callcontext (%s) don't match!", tenantRecordIdFromObject, tenantRecordIdFromContext);
         final Long tenantRecordId = getTenantRecordIdSafe(context);
         final Long accountRecordId = getAccountRecordIdSafe(objectId, objectType, context);
-        return createInternalTenantContext(tenantRecordId, accountRecordId);
+        return createInternalTenantContext(tenantRecordId, accountRecordId, getResolutionCache(context));
     }
 
     /**
@@ -155,12 +168,16 @@ public class InternalCallContextFactory {
      * @return internal tenant callcontext
      */
     public InternalTenantContext createInternalTenantContext(final Long tenantRecordId, @Nullable final Long accountRecordId) {
+        return createInternalTenantContext(tenantRecordId, accountRecordId, null);
+    }
+
+    private InternalTenantContext createInternalTenantContext(final Long tenantRecordId, @Nullable final Long accountRecordId, @Nullable final ContextResolutionCache resolutionCache) {
         populateMDCContext(null, accountRecordId, tenantRecordId);
 
         if (accountRecordId == null) {
             return new InternalTenantContext(tenantRecordId);
         } else {
-            final ImmutableAccountData immutableAccountData = getImmutableAccountData(accountRecordId, tenantRecordId);
+            final ImmutableAccountData immutableAccountData = getImmutableAccountData(accountRecordId, tenantRecordId, resolutionCache);
             final DateTimeZone fixedOffsetTimeZone = immutableAccountData.getFixedOffsetTimeZone();
             final DateTime referenceTime = immutableAccountData.getReferenceTime();
             return new InternalTenantContext(tenantRecordId, accountRecordId, fixedOffsetTimeZone, referenceTime);
@@ -210,14 +227,15 @@ public class InternalCallContextFactory {
                                          context.getReasonCode(),
                                          context.getComments(),
                                          context.getCreatedDate(),
-                                         context.getUpdatedDate());
+                                         context.getUpdatedDate(),
+                                         getResolutionCache(context));
     }
 
     // Used by the payment retry service
     public InternalCallContext createInternalCallContext(final UUID objectId, final ObjectType objectType, final String userName,
                                                          final CallOrigin callOrigin, final UserType userType, @Nullable final UUID userToken, final Long tenantRecordId) {
         final Long accountRecordId = getAccountRecordIdSafe(objectId, objectType, tenantRecordId);
-        return createInternalCallContext(tenantRecordId, accountRecordId, userName, callOrigin, userType, userToken, null, null, null, null);
+        return createInternalCallContext(tenantRecordId, accountRecordId, userName, callOrigin, userType, userToken, null, null, null, null, null);
     }
 
     /**
@@ -235,7 +253,7 @@ public class InternalCallContextFactory {
      */
     public InternalCallContext createInternalCallContext(@Nullable final Long tenantRecordId, @Nullable final Long accountRecordId, final String userName,
                                                          final CallOrigin callOrigin, final UserType userType, @Nullable final UUID userToken) {
-        return createInternalCallContext(tenantRecordId, accountRecordId, userName, callOrigin, userType, userToken, null, null, null, null);
+        return createInternalCallContext(tenantRecordId, accountRecordId, userName, callOrigin, userType, userToken, null, null, null, null, null);
     }
 
     /**
@@ -256,7 +274,7 @@ public class InternalCallContextFactory {
 
     // Used when we need to re-hydrate the callcontext with the account_record_id (when creating the account)
     public InternalCallContext createInternalCallContext(final Long accountRecordId, final InternalCallContext context) {
-        final ImmutableAccountData immutableAccountData = getImmutableAccountData(accountRecordId, context.getTenantRecordId());
+        final ImmutableAccountData immutableAccountData = getImmutableAccountData(accountRecordId, context.getTenantRecordId(), null);
         final DateTimeZone fixedOffsetTimeZone = immutableAccountData.getFixedOffsetTimeZone();
         final DateTime referenceTime = immutableAccountData.getReferenceTime();
         populateMDCContext(context.getUserToken(), accountRecordId, context.getTenantRecordId());
@@ -286,7 +304,8 @@ public class InternalCallContextFactory {
                                                           @Nullable final String reasonCode,
                                                           @Nullable final String comment,
                                                           @Nullable final DateTime createdDate,
-                                                          @Nullable final DateTime updatedDate) {
+                                                          @Nullable final DateTime updatedDate,
+                                                          @Nullable final ContextResolutionCache resolutionCache) {
         final Long nonNulTenantRecordId = MoreObjects.firstNonNull(tenantRecordId, INTERNAL_TENANT_RECORD_ID);
 
         final DateTimeZone fixedOffsetTimeZone;
@@ -296,7 +315,7 @@ public class InternalCallContextFactory {
             fixedOffsetTimeZone = null;
             referenceTime = null;
         } else {
-            final ImmutableAccountData immutableAccountData = getImmutableAccountData(accountRecordId, nonNulTenantRecordId);
+            final ImmutableAccountData immutableAccountData = getImmutableAccountData(accountRecordId, nonNulTenantRecordId, resolutionCache);
             fixedOffsetTimeZone = immutableAccountData.getFixedOffsetTimeZone();
             referenceTime = immutableAccountData.getReferenceTime();
         }
@@ -317,12 +336,23 @@ public class InternalCallContextFactory {
                                        updatedDate != null ? createdDate : clock.getUTCNow());
     }
 
-    private ImmutableAccountData getImmutableAccountData(final Long accountRecordId, final Long tenantRecordId) {
+    private ImmutableAccountData getImmutableAccountData(final Long accountRecordId, final Long tenantRecordId, @Nullable final ContextResolutionCache resolutionCache) {
         Preconditions.checkNotNull(accountRecordId, "Missing accountRecordId");
+        if (resolutionCache != null) {
+            final ImmutableAccountData resolvedImmutableAccountData = resolutionCache.getImmutableAccountData(accountRecordId);
+            if (resolvedImmutableAccountData != null) {
+                return resolvedImmutableAccountData;
+            }
+            resolutionCache.recordRoundTrip();
+        }
+
         final InternalTenantContext tmp = new InternalTenantContext(tenantRecordId, accountRecordId, null, null);
         try {
             final ImmutableAccountData immutableAccountData = accountInternalApi.getImmutableAccountDataByRecordId(accountRecordId, tmp);
             Preconditions.checkNotNull(immutableAccountData, "Unable to retrieve immutableAccountData");
+            if (resolutionCache != null) {
+                resolutionCache.putImmutableAccountData(accountRecordId, immutableAccountData);
+            }
             return immutableAccountData;
         } catch (final AccountApiException e) {
             throw new RuntimeException(e);
@@ -358,7 +388,19 @@ public class InternalCallContextFactory {
     public Long getRecordIdFromObject(final UUID objectId, final ObjectType objectType, final TenantContext context) {
         try {
             if (objectBelongsToTheRightTenant(objectId, objectType, context)) {
-                return nonEntityDao.retrieveRecordIdFromObject(objectId, objectType, recordIdCacheController);
+                final ContextResolutionCache resolutionCache = getResolutionCache(context);
+                final String key = getResolutionCacheKey(CacheType.RECORD_ID, objectId, objectType);
+                final Long resolvedRecordId = resolutionCache != null ? resolutionCache.getRecordId(key) : null;
+                if (resolvedRecordId != null) {
+                    return resolvedRecordId;
+                }
+
+                final Long recordId = nonEntityDao.retrieveRecordIdFromObject(objectId, objectType, recordIdCacheController);
+                if (resolutionCache != null) {
+                    resolutionCache.recordRoundTrip();
+                    resolutionCache.putRecordId(key, recordId);
+                }
+                return recordId;
             } else {
                 return null;
             }
@@ -367,21 +409,59 @@ public class InternalCallContextFactory {
         }
     }
 
+    // Safe method to retrieve the record ids of a collection of objects: objects which don't exist or don't belong to the tenant are omitted.
+    // Unlike getRecordIdFromObject, only one query is issued for all the objects not already resolved by the context.
+    // For accounts, this also resolves what the internal contexts of these accounts need (e.g. when processing a page of accounts).
+    public Map<UUID, Long> getRecordIdsFromObjects(final Collection<UUID> objectIds, final ObjectType objectType, final TenantContext context) {
+        Preconditions.checkArgument(objectType != ObjectType.TENANT, "Bulk resolution isn't supported for tenants");
+
+        final ContextResolutionCache resolutionCache = getResolutionCache(context);
+        final Map<UUID, Long> recordIds = new HashMap<UUID, Long>();
+        final Set<UUID> unresolvedObjectIds = new HashSet<UUID>();
+        for (final UUID objectId : objectIds) {
+            final Long resolvedRecordId = resolutionCache != null ? resolutionCache.getRecordId(getResolutionCacheKey(CacheType.RECORD_ID, objectId, objectType)) : null;
+            if (resolvedRecordId != null) {
+                recordIds.put(objectId, resolvedRecordId);
+            } else {
+                unresolvedObjectIds.add(objectId);
+            }
+        }
+        if (unresolvedObjectIds.isEmpty()) {
+            return recordIds;
+        }
+
+        final Long tenantRecordId = getTenantRecordIdSafe(context);
+        final Map<UUID, Long> retrievedRecordIds = nonEntityDao.retrieveRecordIdsFromObjects(unresolvedObjectIds, objectType, tenantRecordId);
+        if (resolutionCache != null) {
+            resolutionCache.recordRoundTrip();
+            for (final Map.Entry<UUID, Long> entry : retrievedRecordIds.entrySet()) {
+                resolutionCache.putRecordId(getResolutionCacheKey(CacheType.RECORD_ID, entry.getKey(), objectType), entry.getValue());
+                if (objectType == ObjectType.ACCOUNT) {
+                    // The record id of an account is its account record id, and only the objects of the tenant were retrieved
+                    resolutionCache.putRecordId(getResolutionCacheKey(CacheType.ACCOUNT_RECORD_ID, entry.getKey(), objectType), entry.getValue());
+                    resolutionCache.putRecordId(getResolutionCacheKey(CacheType.TENANT_RECORD_ID, entry.getKey(), objectType), tenantRecordId);
+                }
+            }
+        }
+        recordIds.putAll(retrievedRecordIds);
+        return recordIds;
+    }
+
     //
     // Safe NonEntityDao private wrappers
     //
 
     private Long getAccountRecordIdSafe(final UUID objectId, final ObjectType objectType, final TenantContext context) {
         if (objectBelongsToTheRightTenant(objectId, objectType, context)) {
-            return getAccountRecordIdUnsafe(objectId, objectType);
+            return getAccountRecordIdUnsafe(objectId, objectType, getResolutionCache(context));
         } else {
             throw new IllegalStateException(String.format("Object id=%s type=%s doesn't belong to tenant id=%s", objectId, objectType, context.getTenantId()));
         }
     }
 
     private Long getAccountRecordIdSafe(final UUID objectId, final ObjectType objectType, final Long tenantRecordId) throws ObjectDoesNotExist {
-        if (objectBelongsToTheRightTenant(objectId, objectType, tenantRecordId)) {
-            return getAccountRecordIdUnsafe(objectId, objectType);
+        if (objectBelongsToTheRightTenant(objectId, objectType, tenantRecordId, null)) {
+            return getAccountRecordIdUnsafe(objectId, objectType, null);
         } else {
             throw new IllegalStateException(String.format("Object id=%s type=%s doesn't belong to tenant recordId=%s", objectId, objectType, tenantRecordId));
         }
@@ -395,7 +475,7 @@ public class InternalCallContextFactory {
         } else {
             // This is always safe coming from JAX-RS (the tenant context was created from the api key and secret),
             // but not when coming from plugins via API
-            return getTenantRecordIdUnsafe(context.getTenantId(), ObjectType.TENANT);
+            return getTenantRecordIdUnsafe(context.getTenantId(), ObjectType.TENANT, getResolutionCache(context));
         }
     }
 
@@ -416,11 +496,11 @@ public class InternalCallContextFactory {
         if (realTenantRecordId == null) {
             throw new ObjectDoesNotExist(String.format("Tenant id=%s doesn't exist!", context.getTenantId()));
         }
-        return objectBelongsToTheRightTenant(objectId, objectType, realTenantRecordId);
+        return objectBelongsToTheRightTenant(objectId, objectType, realTenantRecordId, getResolutionCache(context));
     }
 
-    private boolean objectBelongsToTheRightTenant(final UUID objectId, final ObjectType objectType, final Long realTenantRecordId) throws ObjectDoesNotExist {
-        final Long objectTenantRecordId = getTenantRecordIdUnsafe(objectId, objectType);
+    private boolean objectBelongsToTheRightTenant(final UUID objectId, final ObjectType objectType, final Long realTenantRecordId, @Nullable final ContextResolutionCache resolutionCache) throws ObjectDoesNotExist {
+        final Long objectTenantRecordId = getTenantRecordIdUnsafe(objectId, objectType, resolutionCache);
         return objectTenantRecordId.equals(realTenantRecordId);
     }
 
@@ -428,19 +508,66 @@ public class InternalCallContextFactory {
     // Unsafe methods - no context is validated
     //
 
-    private Long getAccountRecordIdUnsafe(final UUID objectId, final ObjectType objectType) {
-        return nonEntityDao.retrieveAccountRecordIdFromObject(objectId, objectType, accountRecordIdCacheController);
+    private Long getAccountRecordIdUnsafe(final UUID objectId, final ObjectType objectType, @Nullable final ContextResolutionCache resolutionCache) {
+        final String key = getResolutionCacheKey(CacheType.ACCOUNT_RECORD_ID, objectId, objectType);
+        final Long resolvedAccountRecordId = resolutionCache != null ? resolutionCache.getRecordId(key) : null;
+        if (resolvedAccountRecordId != null) {
+            return resolvedAccountRecordId;
+        }
+
+        final Long accountRecordId = nonEntityDao.retrieveAccountRecordIdFromObject(objectId, objectType, accountRecordIdCacheController);
+        if (resolutionCache != null) {
+            resolutionCache.recordRoundTrip();
+            resolutionCache.putRecordId(key, accountRecordId);
+        }
+        return accountRecordId;
     }
 
-    private Long getTenantRecordIdUnsafe(final UUID objectId, final ObjectType objectType) {
+    private Long getTenantRecordIdUnsafe(final UUID objectId, final ObjectType objectType, @Nullable final ContextResolutionCache resolutionCache) {
+        final String key = getResolutionCacheKey(CacheType.TENANT_RECORD_ID, objectId, objectType);
+        final Long resolvedTenantRecordId = resolutionCache != null ? resolutionCache.getRecordId(key) : null;
+        if (resolvedTenantRecordId != null) {
+            return resolvedTenantRecordId;
+        }
+
         final Long objectTenantRecordId = nonEntityDao.retrieveTenantRecordIdFromObject(objectId, objectType, tenantRecordIdCacheController);
+        if (resolutionCache != null) {
+            resolutionCache.recordRoundTrip();
+        }
         // The tenant should always exist at this point
         if (objectTenantRecordId == null) {
             throw new ObjectDoesNotExist(String.format("Object id=%s type=%s doesn't exist!", objectId, objectType));
         }
+        if (resolutionCache != null) {
+            resolutionCache.putRecordId(key, objectTenantRecordId);
+        }
         return objectTenantRecordId;
     }
 
+    //
+    // Request-scoped resolution (only available for contexts created by Kill Bill, e.g. from JAX-RS)
+    //
+
+    @Nullable
+    private static Long getSeekFromRecordId(final TenantContext context) {
+        return context instanceof DefaultTenantContext ? ((DefaultTenantContext) context).getSeekFromRecordId() : null;
+    }
+
+    @Nullable
+    public static ContextResolutionCache getResolutionCache(final TenantContext context) {
+        if (context instanceof CallContextBase) {
+            return ((CallContextBase) context).getResolutionCache();
+        } else if (context instanceof DefaultTenantContext) {
+            return ((DefaultTenantContext) context).getResolutionCache();
+        } else {
+            return null;
+        }
+    }
+
+    private static String getResolutionCacheKey(final CacheType cacheType, final UUID objectId, final ObjectType objectType) {
+        return cacheType.name() + CacheControllerDispatcher.CACHE_KEY_SEPARATOR + objectType.name() + CacheControllerDispatcher.CACHE_KEY_SEPARATOR + objectId;
+    }
+
     public static final class ObjectDoesNotExist extends IllegalStateException {
 
         public ObjectDoesNotExist(final String s) {
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.concurrent;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nullable;
+
+import org.killbill.billing.util.metrics.HotPathHistogram;
+import org.killbill.billing.util.metrics.HotPathMetrics;
+import org.killbill.billing.util.metrics.HotPathTimer;
+
+/**
+ * Caps the number of concurrent operations (e.g. invoice runs, payment plugin calls) per tenant, so that a large tenant
+ * can't monopolize the shared resources (threads, database connections, plugin pool).
+ * <p/>
+ * The cap is given on each call, so that it can be configured per tenant. For each tenant, the number of callers
+ * already in line (queue depth) and the wait time are recorded in the hot-path metrics.
+ */
+public class TenantConcurrencyLimiter {
+
+    // Returned when no cap applies
+    private static final Permit NO_OP_PERMIT = new Permit(null);
+
+    private final ConcurrentMap<Object, TenantSlots> slotsPerTenant = new ConcurrentHashMap<Object, TenantSlots>();
+    private final Class<?> klass;
+    private final String name;
+    private final HotPathTimer timeoutTimer;
+
+    public TenantConcurrencyLimiter(final Class<?> klass, final String name) {
+        this.klass = klass;
+        this.name = name;
+        this.timeoutTimer = HotPathMetrics.timer(klass, name, "timeout");
+    }
+
+    /**
+     * @param tenantKey      tenant identifier (e.g. tenant record id), null to bypass the cap
+     * @param maxConcurrency maximum number of concurrent operations for that tenant, 0 or less to bypass the cap
+     * @return the permit to release once the operation is done, or null if it couldn't be acquired in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Nullable
+    public Permit acquire(@Nullable final Object tenantKey, final int maxConcurrency, final long timeout, final TimeUnit unit) throws InterruptedException {
+        if (tenantKey == null || maxConcurrency <= 0) {
+            return NO_OP_PERMIT;
+        }
+
+        final TenantSlots slots = getSlots(tenantKey);
+        final long startNanos = System.nanoTime();
+        slots.lock.lock();
+        try {
+            slots.queueDepthHistogram.update(slots.waiting);
+            if (slots.active >= maxConcurrency) {
+                slots.waiting++;
+                try {
+                    long remainingNanos = unit.toNanos(timeout);
+                    while (slots.active >= maxConcurrency) {
+                        if (remainingNanos <= 0) {
+                            timeoutTimer.stop(startNanos);
+                            return null;
+                        }
+                        remainingNanos = slots.released.awaitNanos(remainingNanos);
+                    }
+                } finally {
+                    slots.waiting--;
+                }
+            }
+            slots.active++;
+        } finally {
+            slots.lock.unlock();
+        }
+
+        slots.waitTimer.stop(startNanos);
+        return new Permit(slots);
+    }
+
+    private TenantSlots getSlots(final Object tenantKey) {
+        TenantSlots slots = slotsPerTenant.get(tenantKey);
+        if (slots == null) {
+            final String tenant = String.valueOf(tenantKey);
+            slotsPerTenant.putIfAbsent(tenantKey, new TenantSlots(HotPathMetrics.histogram(klass, name, "queueDepth", tenant),
+                                                                  HotPathMetrics.timer(klass, name, "wait", tenant)));
+            slots = slotsPerTenant.get(tenantKey);
+        }
+        return slots;
+    }
+
+    public static final class Permit {
+
+        private final TenantSlots slots;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Permit(@Nullable final TenantSlots slots) {
+            this.slots = slots;
+        }
+
+        // Idempotent
+        public void release() {
+            if (slots == null || !released.compareAndSet(false, true)) {
+                return;
+            }
+
+            slots.lock.lock();
+            try {
+                slots.active--;
+                slots.released.signal();
+            } finally {
+                slots.lock.unlock();
+            }
+        }
+    }
+
+    private static final class TenantSlots {
+
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private final Condition released = lock.newCondition();
+        private final HotPathHistogram queueDepthHistogram;
+        private final HotPathTimer waitTimer;
+
+        // Guarded by lock
+        private int active = 0;
+        private int waiting = 0;
+
+        private TenantSlots(final HotPathHistogram queueDepthHistogram, final HotPathTimer waitTimer) {
+            this.queueDepthHistogram = queueDepthHistogram;
+            this.waitTimer = waitTimer;
+        }
+    }
+}
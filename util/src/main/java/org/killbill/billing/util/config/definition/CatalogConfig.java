@@ -27,4 +27,9 @@ public interface CatalogConfig extends KillbillConfig {
     @Default("SpyCarBasic.xml")
     @Description("Default Catalog location, either in the classpath or in the filesystem. For multi-tenancy, one should use APIs to load per-tenant catalog")
     String getCatalogURI();
+
+    @Config("org.killbill.catalog.override.warmup.maxPlans")
+    @Default("100")
+    @Description("Maximum number of (most recently created) overridden plans to load (in the background) in the cache when a tenant catalog is loaded, 0 to disable")
+    int getOverriddenPlansWarmUpMaxPlans();
 }
@@ -20,6 +20,7 @@ package org.killbill.billing.util.config.definition;
 import org.skife.config.Config;
 import org.skife.config.Default;
 import org.skife.config.Description;
+import org.skife.config.TimeSpan;
 
 public interface CurrencyConfig extends KillbillConfig {
 
@@ -27,4 +28,19 @@ public interface CurrencyConfig extends KillbillConfig {
     @Default("killbill-currency-plugin")
     @Description("Default currency provider to use")
     public String getDefaultCurrencyProvider();
+
+    @Config("org.killbill.currency.rates.cache.ttl")
+    @Default("5m")
+    @Description("How long current rates retrieved from the currency provider are used before being refreshed (0 to disable the cache)")
+    public TimeSpan getRatesCacheTtl();
+
+    @Config("org.killbill.currency.rates.cache.maxStale")
+    @Default("1h")
+    @Description("How long expired rates can still be used while they are being refreshed in the background")
+    public TimeSpan getRatesCacheMaxStale();
+
+    @Config("org.killbill.currency.rates.cache.maxEntries")
+    @Default("1000")
+    @Description("Max number of current, and of historical, (base currency, conversion date) rates kept in the cache")
+    public int getRatesCacheMaxEntries();
 }
@@ -88,6 +88,26 @@ public interface InvoiceConfig extends KillbillConfig {
     @Description("Maximum number of times the system will retry to grab global lock (with a 100ms wait each time)")
     int getMaxGlobalLockRetries();
 
+    @Config("org.killbill.invoice.tenant.maxConcurrentRuns")
+    @Default("0")
+    @Description("Maximum number of concurrent invoice runs triggered by bus events and notifications for a given tenant (0 to disable)")
+    int getMaxConcurrentInvoiceRunsPerTenant();
+
+    @Config("org.killbill.invoice.tenant.maxConcurrentRuns")
+    @Default("0")
+    @Description("Maximum number of concurrent invoice runs triggered by bus events and notifications for a given tenant (0 to disable)")
+    int getMaxConcurrentInvoiceRunsPerTenant(@Param("dummy") final InternalTenantContext tenantContext);
+
+    @Config("org.killbill.invoice.tenant.maxConcurrentRuns.waitTime")
+    @Default("0s")
+    @Description("Maximum time to wait for a slot when the tenant has reached its maximum number of concurrent invoice runs, before rescheduling the run")
+    TimeSpan getMaxConcurrentInvoiceRunsWaitTime();
+
+    @Config("org.killbill.invoice.tenant.maxConcurrentRuns.retries")
+    @Default("30s,1m,5m,15m,30m,1h,2h,4h,8h,1d")
+    @Description("Delays before which an invoice run rescheduled because the tenant had reached its maximum number of concurrent invoice runs should be retried")
+    List<TimeSpan> getMaxConcurrentInvoiceRunsRetries();
+
     @Config("org.killbill.invoice.plugin")
     @Default("")
     @Description("Default invoice plugin names")
@@ -49,4 +49,24 @@ public interface JaxrsConfig extends KillbillConfig {
     @DefaultNull
     @Description("Base host address to use for redirect URLs")
     String getJaxrsLocationHost();
+
+    @Config("org.killbill.jaxrs.catalog.cache.size")
+    @Default("100")
+    @Description("Maximum number of catalogs whose JSON and XML representations are cached (0 to disable)")
+    int getCatalogResponseCacheSize();
+
+    @Config("org.killbill.jaxrs.parkedAccounts.threads.pool.nb")
+    @Default("5")
+    @Description("Number of threads (shared across tenants) triggering invoice generations in parked accounts jobs")
+    int getParkedAccountsInvoiceGenerationThreadNb();
+
+    @Config("org.killbill.jaxrs.parkedAccounts.rate")
+    @Default("10")
+    @Description("Maximum number of invoice generations per second, per tenant, in parked accounts jobs (0 to disable)")
+    double getParkedAccountsInvoiceGenerationRate();
+
+    @Config("org.killbill.jaxrs.parkedAccounts.batch.size")
+    @Default("100")
+    @Description("Number of parked accounts processed before the job cursor is persisted")
+    int getParkedAccountsInvoiceGenerationBatchSize();
 }
@@ -125,6 +125,21 @@ public interface PaymentConfig extends KillbillConfig {
     @Description("Number of threads for plugin executor dispatcher")
     int getPaymentPluginThreadNb();
 
+    @Config("org.killbill.payment.plugin.tenant.maxConcurrentCalls")
+    @Default("0")
+    @Description("Maximum number of concurrent plugin calls for a given tenant (0 to disable), waiting at most the plugin timeout for a slot (the call then fails with a PLUGIN_FAILURE)")
+    int getMaxConcurrentPluginCallsPerTenant();
+
+    @Config("org.killbill.payment.plugin.info.bulk.threads.nb")
+    @Default("5")
+    @Description("Maximum number of concurrent plugin calls when retrieving plugin info for all payments of an account (1 to disable)")
+    int getPaymentPluginInfoBulkThreadNb();
+
+    @Config("org.killbill.payment.plugin.info.bulk.timeout")
+    @Default("60s")
+    @Description("Overall deadline when retrieving plugin info for all payments of an account")
+    TimeSpan getPaymentPluginInfoBulkTimeout();
+
     @Config("org.killbill.payment.globalLock.retries")
     @Default("50")
     @Description("Maximum number of times the system will retry to grab global lock (with a 100ms wait each time)")
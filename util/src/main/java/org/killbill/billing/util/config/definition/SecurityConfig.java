@@ -21,6 +21,7 @@ import org.skife.config.Config;
 import org.skife.config.Default;
 import org.skife.config.DefaultNull;
 import org.skife.config.Description;
+import org.skife.config.TimeSpan;
 
 public interface SecurityConfig extends KillbillConfig {
 
@@ -34,6 +35,16 @@ public interface SecurityConfig extends KillbillConfig {
     @Description("Sets the number of times submitted credentials will be hashed before comparing to the credentials stored in the system")
     public Integer getShiroNbHashIterations();
 
+    @Config("org.killbill.security.credentialsCache.maxSize")
+    @Default("1000")
+    @Description("Maximum number of successful credentials verifications to remember (0 to disable)")
+    public Integer getShiroCredentialsCacheMaxSize();
+
+    @Config("org.killbill.security.credentialsCache.ttl")
+    @Default("5m")
+    @Description("How long a successful credentials verification is remembered")
+    public TimeSpan getShiroCredentialsCacheTTL();
+
     // LDAP Realm
 
     @Config("org.killbill.security.ldap.userDnTemplate")
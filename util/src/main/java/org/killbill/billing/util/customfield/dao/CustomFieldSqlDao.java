@@ -26,6 +26,7 @@ import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.util.audit.ChangeType;
 import org.killbill.billing.util.customfield.CustomField;
 import org.killbill.billing.util.entity.dao.Audited;
+import org.killbill.billing.util.entity.dao.CancellableQuery;
 import org.killbill.billing.util.entity.dao.EntitySqlDao;
 import org.killbill.commons.jdbi.binder.SmartBindBean;
 import org.killbill.commons.jdbi.statement.SmartFetchSize;
@@ -57,8 +58,10 @@ public interface CustomFieldSqlDao extends EntitySqlDao<CustomFieldModelDao, Cus
 
     @SqlQuery
     @SmartFetchSize(shouldStream = true)
+    @CancellableQuery
     public Iterator<CustomFieldModelDao> searchByObjectTypeAndFieldName(@Bind("fieldName") String fieldName,
                                                                         @Bind("objectType") ObjectType objectType,
+                                                                        @Bind("fromRecordId") final Long fromRecordId,
                                                                         @Bind("offset") final Long offset,
                                                                         @Bind("rowCount") final Long rowCount,
                                                                         @Define("ordering") final String ordering,
@@ -72,9 +75,11 @@ public interface CustomFieldSqlDao extends EntitySqlDao<CustomFieldModelDao, Cus
 
     @SqlQuery
     @SmartFetchSize(shouldStream = true)
+    @CancellableQuery
     public Iterator<CustomFieldModelDao> searchByObjectTypeAndFieldNameValue(@Bind("fieldName") String fieldName,
                                                                              @Bind("fieldValue") final String fieldValue,
                                                                              @Bind("objectType") ObjectType objectType,
+                                                                             @Bind("fromRecordId") final Long fromRecordId,
                                                                              @Bind("offset") final Long offset,
                                                                              @Bind("rowCount") final Long rowCount,
                                                                              @Define("ordering") final String ordering,
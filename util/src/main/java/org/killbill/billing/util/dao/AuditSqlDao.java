@@ -45,6 +45,12 @@ public interface AuditSqlDao {
     public void insertAuditsFromTransaction(@SmartBindBean final Iterable<EntityAudit> audits,
                                             @SmartBindBean final InternalCallContext context);
 
+    // Same as above, but the account_record_id is taken from each audit (bulk insert of accounts)
+    @SqlBatch
+    @BatchChunkSize(1000) // Arbitrary value, just a safety mechanism in case of very large datasets
+    public void insertAuditsWithAccountRecordIdFromTransaction(@SmartBindBean("audit") final Iterable<EntityAudit> audits,
+                                                               @SmartBindBean final InternalCallContext context);
+
     @SqlQuery
     @SmartFetchSize(shouldStream = true)
     public Iterator<AuditLogModelDao> getAuditLogsForAccountRecordId(@SmartBindBean final InternalTenantContext context);
@@ -18,6 +18,10 @@
 
 package org.killbill.billing.util.dao;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import javax.annotation.Nullable;
@@ -38,6 +42,7 @@ import org.skife.jdbi.v2.IDBI;
 import org.skife.jdbi.v2.sqlobject.SqlObjectBuilder;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 
 import static org.killbill.billing.util.glue.IDBISetup.MAIN_RO_IDBI_NAMED;
 
@@ -76,6 +81,26 @@ public class DefaultNonEntityDao implements NonEntityDao {
         }, objectId.toString(), objectType, tableName, cache);
     }
 
+    @Override
+    public Map<UUID, Long> retrieveRecordIdsFromObjects(final Collection<UUID> objectIds, final ObjectType objectType, final Long tenantRecordId) {
+        final TableName tableName = TableName.fromObjectType(objectType);
+        Preconditions.checkNotNull(tableName, "%s is not a valid ObjectType", objectType);
+        if (objectIds.isEmpty()) {
+            return ImmutableMap.<UUID, Long>of();
+        }
+
+        final Collection<String> ids = new ArrayList<String>(objectIds.size());
+        for (final UUID objectId : objectIds) {
+            ids.add(objectId.toString());
+        }
+
+        final Map<UUID, Long> recordIds = new HashMap<UUID, Long>();
+        for (final RecordIdIdMappings mapping : dbRouter.onDemand(true).getRecordIdIdMappingsFromObjects(ids, tenantRecordId, tableName.getTableName())) {
+            recordIds.put(mapping.getId(), mapping.getRecordId());
+        }
+        return recordIds;
+    }
+
     @Override
     public Long retrieveAccountRecordIdFromObject(@Nullable final UUID objectId, final ObjectType objectType, @Nullable final CacheController<String, Long> cache) {
         return retrieveAccountRecordIdFromObjectInTransaction(objectId, objectType, cache, null);
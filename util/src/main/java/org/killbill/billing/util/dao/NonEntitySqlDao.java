@@ -18,6 +18,7 @@
 
 package org.killbill.billing.util.dao;
 
+import java.util.Collection;
 import java.util.UUID;
 
 import org.killbill.billing.callcontext.InternalTenantContext;
@@ -28,6 +29,7 @@ import org.skife.jdbi.v2.sqlobject.SqlQuery;
 import org.skife.jdbi.v2.sqlobject.customizers.Define;
 import org.skife.jdbi.v2.sqlobject.mixins.CloseMe;
 import org.skife.jdbi.v2.sqlobject.mixins.Transactional;
+import org.skife.jdbi.v2.unstable.BindIn;
 
 @KillBillSqlDaoStringTemplate
 public interface NonEntitySqlDao extends Transactional<NonEntitySqlDao>, CloseMe {
@@ -35,6 +37,11 @@ public interface NonEntitySqlDao extends Transactional<NonEntitySqlDao>, CloseMe
     @SqlQuery
     public Long getRecordIdFromObject(@Bind("id") String id, @Define("tableName") final String tableName);
 
+    @SqlQuery
+    public Iterable<RecordIdIdMappings> getRecordIdIdMappingsFromObjects(@BindIn("ids") final Collection<String> ids,
+                                                                         @Bind("tenantRecordId") final Long tenantRecordId,
+                                                                         @Define("tableName") final String tableName);
+
     @SqlQuery
     public UUID getIdFromObject(@Bind("recordId") Long recordId, @Define("tableName") final String tableName);
 
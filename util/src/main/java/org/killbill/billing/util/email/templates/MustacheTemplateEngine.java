@@ -17,15 +17,42 @@
 package org.killbill.billing.util.email.templates;
 
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.samskivert.mustache.Mustache;
 import com.samskivert.mustache.Template;
 
 public class MustacheTemplateEngine implements TemplateEngine {
 
+    // Compiled templates are keyed by their text, so updated (e.g. per-tenant) templates never hit a stale entry.
+    // Compiled templates are thread-safe and can be executed concurrently.
+    private static final int MAX_COMPILED_TEMPLATES = 100;
+
+    private final Cache<String, Template> compiledTemplates = CacheBuilder.newBuilder().maximumSize(MAX_COMPILED_TEMPLATES).build();
+
     @Override
     public String executeTemplateText(final String templateText, final Map<String, Object> data) {
-        final Template template = Mustache.compiler().nullValue("").compile(templateText);
-        return template.execute(data);
+        return getCompiledTemplate(templateText).execute(data);
+    }
+
+    private Template getCompiledTemplate(final String templateText) {
+        try {
+            return compiledTemplates.get(templateText,
+                                         new Callable<Template>() {
+                                             @Override
+                                             public Template call() {
+                                                 return Mustache.compiler().nullValue("").compile(templateText);
+                                             }
+                                         });
+        } catch (final ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (final UncheckedExecutionException e) {
+            // Propagate template syntax errors as-is
+            throw (RuntimeException) e.getCause();
+        }
     }
 }
@@ -36,6 +36,11 @@ public class DefaultPagination<T> implements Pagination<T>, Closeable {
     private final Long totalNbRecords;
     private final Long maxNbRecords;
     private final Iterator<T> delegateIterator;
+    // Underlying pagination (the delegate iterator is a view on top of it), if any
+    private final Closeable source;
+    // Seek (keyset) pagination mode: offsets and counts are meaningless, the next page starts after nextFromRecordId (null if done)
+    private final boolean seekPagination;
+    private final Long nextFromRecordId;
 
     // Builders when the streaming API can't be used (should only be used for tests)
     // Notes: elements should be the entire records set (regardless of filtering) otherwise maxNbRecords won't be accurate
@@ -57,9 +62,16 @@ public class DefaultPagination<T> implements Pagination<T>, Closeable {
         return new DefaultPagination<T>(offset, limit, (long) results.size(), (long) maxNbRecords, results.iterator());
     }
 
+    // Builder for the seek pagination mode (see DefaultPaginationSqlDaoHelper)
+    public static <T> DefaultPagination<T> buildSeekPagination(final Long offset, final Long limit, @Nullable final Long nextFromRecordId, final Iterator<T> results) {
+        return new DefaultPagination<T>(offset, limit, null, null, results, null, true, nextFromRecordId);
+    }
+
     // Constructor for DAO -> API bridge
     public DefaultPagination(final Pagination original, final Long limit, final Iterator<T> delegate) {
-        this(original.getCurrentOffset(), limit, original.getTotalNbRecords(), original.getMaxNbRecords(), delegate);
+        this(original.getCurrentOffset(), limit, original.getTotalNbRecords(), original.getMaxNbRecords(), delegate, original,
+             original instanceof DefaultPagination && ((DefaultPagination) original).isSeekPagination(),
+             original instanceof DefaultPagination ? ((DefaultPagination) original).getNextFromRecordId() : null);
     }
 
     // Constructor for DAO getAll calls
@@ -70,18 +82,31 @@ public class DefaultPagination<T> implements Pagination<T>, Closeable {
     public DefaultPagination(final Long currentOffset, final Long limit,
                              @Nullable final Long totalNbRecords, @Nullable final Long maxNbRecords,
                              final Iterator<T> delegateIterator) {
+        this(currentOffset, limit, totalNbRecords, maxNbRecords, delegateIterator, null, false, null);
+    }
+
+    private DefaultPagination(final Long currentOffset, final Long limit,
+                              @Nullable final Long totalNbRecords, @Nullable final Long maxNbRecords,
+                              final Iterator<T> delegateIterator, @Nullable final Closeable source,
+                              final boolean seekPagination, @Nullable final Long nextFromRecordId) {
         this.currentOffset = currentOffset;
         // See DefaultPaginationSqlDaoHelper
         this.limit = Math.abs(limit);
         this.totalNbRecords = totalNbRecords;
         this.maxNbRecords = maxNbRecords;
         this.delegateIterator = delegateIterator;
+        this.source = source;
+        this.seekPagination = seekPagination;
+        this.nextFromRecordId = nextFromRecordId;
     }
 
     @Override
     public void close() throws IOException {
-        if (delegateIterator instanceof Closeable) {
-            // Always the case with the current implementation (delegateIterator is a org.skife.jdbi.v2.ResultIterator)
+        if (source != null) {
+            // Don't go through the (transformed) remaining elements: this would fetch and convert all remaining rows
+            source.close();
+        } else if (delegateIterator instanceof Closeable) {
+            // Always the case with the current implementation (delegateIterator is a CancellableResultIterator or a org.skife.jdbi.v2.ResultIterator)
             ((Closeable) delegateIterator).close();
         } else {
             while (delegateIterator.hasNext()) {
@@ -115,6 +140,14 @@ public class DefaultPagination<T> implements Pagination<T>, Closeable {
         }
     }
 
+    public boolean isSeekPagination() {
+        return seekPagination;
+    }
+
+    public Long getNextFromRecordId() {
+        return nextFromRecordId;
+    }
+
     @Override
     public Long getMaxNbRecords() {
         return maxNbRecords;
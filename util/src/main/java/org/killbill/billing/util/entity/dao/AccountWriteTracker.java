@@ -0,0 +1,135 @@
+/*
+ * Copyright 2014-2018 Groupon, Inc
+ * Copyright 2014-2018 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.entity.dao;
+
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Last write time per account, to route the reads for accounts which have been modified recently to the RW DBI
+ * (read-your-writes), regardless of the thread, request or executor which did the write.
+ * <p/>
+ * Writes are recorded by the EntitySqlDao proxy (audited calls) once their transaction is committed (see
+ * EntitySqlDaoTransactionalJdbiWrapper), and entries expire after the configured window, which should cover the replication
+ * delay. Like DBRouterUntyped's thread state, this is static state (the DAOs create their routers directly) and it is local
+ * to the node.
+ */
+public final class AccountWriteTracker {
+
+    public static final long DEFAULT_WINDOW_MILLIS = 10000;
+
+    // Writes of the transactions in progress in this thread (innermost last)
+    private static final ThreadLocal<Deque<PendingWrites>> PENDING_WRITES = new ThreadLocal<Deque<PendingWrites>>() {
+        @Override
+        public Deque<PendingWrites> initialValue() {
+            return new LinkedList<PendingWrites>();
+        }
+    };
+
+    private static volatile long windowNanos;
+    private static volatile Cache<Long, Long> lastWriteNanos;
+
+    static {
+        setWindow(DEFAULT_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private AccountWriteTracker() {}
+
+    // A window of 0 disables the tracking
+    public static synchronized void setWindow(final long window, final TimeUnit unit) {
+        windowNanos = unit.toNanos(window);
+        lastWriteNanos = CacheBuilder.newBuilder()
+                                     .expireAfterWrite(windowNanos, TimeUnit.NANOSECONDS)
+                                     .<Long, Long>build();
+    }
+
+    static boolean isEnabled() {
+        return windowNanos > 0;
+    }
+
+    static void startTransaction() {
+        PENDING_WRITES.get().addLast(new PendingWrites());
+    }
+
+    /**
+     * @return true if the transaction wrote, and all its writes were made on behalf of known accounts
+     */
+    static boolean endTransaction() {
+        final PendingWrites pendingWrites = PENDING_WRITES.get().pollLast();
+        if (pendingWrites == null) {
+            return false;
+        }
+
+        // The window starts once the writes are visible to the other threads
+        for (final Long accountRecordId : pendingWrites.accountRecordIds) {
+            recordWriteNow(accountRecordId);
+        }
+        return !pendingWrites.hasUntrackedWrites && !pendingWrites.accountRecordIds.isEmpty();
+    }
+
+    static void recordWrite(@Nullable final Long accountRecordId) {
+        final PendingWrites pendingWrites = PENDING_WRITES.get().peekLast();
+        if (pendingWrites == null) {
+            recordWriteNow(accountRecordId);
+        } else if (accountRecordId == null) {
+            pendingWrites.hasUntrackedWrites = true;
+        } else {
+            pendingWrites.accountRecordIds.add(accountRecordId);
+        }
+    }
+
+    private static void recordWriteNow(@Nullable final Long accountRecordId) {
+        if (accountRecordId != null && isEnabled()) {
+            lastWriteNanos.put(accountRecordId, System.nanoTime());
+        }
+    }
+
+    /**
+     * @param accountRecordId account record id, if known
+     * @return time elapsed since the last write for that account, in nanoseconds, or null if it wasn't written within the window
+     */
+    @Nullable
+    static Long getLastWriteAgeNanos(@Nullable final Long accountRecordId) {
+        if (accountRecordId == null) {
+            return null;
+        }
+
+        final Long writeNanos = lastWriteNanos.getIfPresent(accountRecordId);
+        if (writeNanos == null) {
+            return null;
+        }
+
+        final long ageNanos = System.nanoTime() - writeNanos;
+        return ageNanos < windowNanos ? ageNanos : null;
+    }
+
+    private static final class PendingWrites {
+
+        private final Set<Long> accountRecordIds = new HashSet<Long>();
+        // Writes whose account isn't known (e.g. tenant level tables)
+        private boolean hasUntrackedWrites = false;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.entity.dao;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.skife.jdbi.v2.SQLStatement;
+import org.skife.jdbi.v2.StatementContext;
+import org.skife.jdbi.v2.sqlobject.SqlStatementCustomizer;
+import org.skife.jdbi.v2.sqlobject.SqlStatementCustomizerFactory;
+import org.skife.jdbi.v2.sqlobject.SqlStatementCustomizingAnnotation;
+import org.skife.jdbi.v2.tweak.BaseStatementCustomizer;
+
+// Streaming queries whose results can be aborted when closed early (see CancellableResultIterator)
+@SqlStatementCustomizingAnnotation(CancellableQuery.CancellableQueryFactory.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD})
+public @interface CancellableQuery {
+
+    public static class CancellableQueryFactory implements SqlStatementCustomizerFactory {
+
+        private static final BaseStatementCustomizer STATEMENT_CUSTOMIZER = new BaseStatementCustomizer() {
+            @Override
+            public void beforeExecution(final PreparedStatement stmt, final StatementContext ctx) throws SQLException {
+                CancellableResultIterator.setLastExecutedStatement(stmt);
+            }
+
+            @Override
+            public void cleanup(final StatementContext ctx) throws SQLException {
+                CancellableResultIterator.clearLastExecutedStatement(ctx.getStatement());
+            }
+        };
+
+        @Override
+        public SqlStatementCustomizer createForMethod(final Annotation annotation, final Class sqlObjectType, final Method method) {
+            return new SqlStatementCustomizer() {
+                @Override
+                public void apply(final SQLStatement q) throws SQLException {
+                    q.addStatementCustomizer(STATEMENT_CUSTOMIZER);
+                }
+            };
+        }
+
+        @Override
+        public SqlStatementCustomizer createForType(final Annotation annotation, final Class sqlObjectType) {
+            throw new UnsupportedOperationException("Not defined on types");
+        }
+
+        @Override
+        public SqlStatementCustomizer createForParameter(final Annotation annotation, final Class sqlObjectType, final Method method, final Object arg) {
+            throw new UnsupportedOperationException("Not defined on parameters");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.entity.dao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+//
+// Streamed results which are aborted when closed before the end: the underlying JDBC statement is cancelled, before
+// releasing the connection, instead of having the driver read (and discard) all remaining rows.
+//
+// The statement is captured (per-thread) by the @CancellableQuery customizer when the query is executed: the iterator must be
+// wrapped right after it has been returned by the SqlDao, in the same thread (see DefaultPaginationSqlDaoHelper).
+//
+public class CancellableResultIterator<T> implements Iterator<T>, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CancellableResultIterator.class);
+
+    private static final ThreadLocal<Statement> LAST_EXECUTED_STATEMENT = new ThreadLocal<Statement>();
+
+    private final Iterator<T> delegate;
+    private final Statement statement;
+
+    private CancellableResultIterator(final Iterator<T> delegate, @Nullable final Statement statement) {
+        this.delegate = delegate;
+        this.statement = statement;
+    }
+
+    // Forget any statement previously captured in this thread
+    static void reset() {
+        LAST_EXECUTED_STATEMENT.remove();
+    }
+
+    // If the query which returned these results wasn't annotated with @CancellableQuery, they will simply be closed
+    static <T> CancellableResultIterator<T> wrapLastExecutedQuery(final Iterator<T> results) {
+        final Statement statement = LAST_EXECUTED_STATEMENT.get();
+        reset();
+        return new CancellableResultIterator<T>(results, statement);
+    }
+
+    static void setLastExecutedStatement(final Statement statement) {
+        LAST_EXECUTED_STATEMENT.set(statement);
+    }
+
+    static void clearLastExecutedStatement(@Nullable final Statement statement) {
+        if (statement != null && LAST_EXECUTED_STATEMENT.get() == statement) {
+            reset();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return delegate.hasNext();
+    }
+
+    @Override
+    public T next() {
+        return delegate.next();
+    }
+
+    @Override
+    public void remove() {
+        delegate.remove();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            // Once all results have been read, the iterator (and the statement) is already closed
+            if (statement != null && delegate.hasNext()) {
+                logger.debug("Cancelling streaming query");
+                statement.cancel();
+            }
+        } catch (final SQLException e) {
+            logger.warn("Unable to cancel streaming query", e);
+        } catch (final RuntimeException e) {
+            logger.warn("Unable to cancel streaming query", e);
+        } finally {
+            if (delegate instanceof Closeable) {
+                // Releases the statement and the connection
+                ((Closeable) delegate).close();
+            }
+        }
+    }
+}
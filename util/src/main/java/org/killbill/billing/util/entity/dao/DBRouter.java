@@ -31,7 +31,7 @@ public class DBRouter<C> extends DBRouterUntyped {
     }
 
     public C onDemand(final boolean requestedRO) {
-        if (shouldUseRODBI(requestedRO)) {
+        if (recordRoute(shouldUseRODBI(requestedRO))) {
             return roOnDemand;
         } else {
             return onDemand;
@@ -17,6 +17,13 @@
 
 package org.killbill.billing.util.entity.dao;
 
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.killbill.billing.util.metrics.HotPathCounter;
+import org.killbill.billing.util.metrics.HotPathHistogram;
+import org.killbill.billing.util.metrics.HotPathMetrics;
 import org.killbill.commons.profiling.Profiling.WithProfilingCallback;
 import org.skife.jdbi.v2.Handle;
 import org.skife.jdbi.v2.IDBI;
@@ -33,6 +40,13 @@ public class DBRouterUntyped {
 
     private static final Logger logger = LoggerFactory.getLogger(DBRouterUntyped.class);
 
+    private static final HotPathCounter RO_DBI_COUNTER = HotPathMetrics.counter(DBRouterUntyped.class, "roDbi");
+    private static final HotPathCounter RW_DBI_COUNTER = HotPathMetrics.counter(DBRouterUntyped.class, "rwDbi");
+    // RO DBI allowed, but the thread did write
+    private static final HotPathCounter THREAD_WRITE_FALLBACK_COUNTER = HotPathMetrics.counter(DBRouterUntyped.class, "threadWriteFallback");
+    // RO DBI allowed, but the account was written recently: age of the write, in milliseconds
+    private static final HotPathHistogram ACCOUNT_WRITE_FALLBACK_HISTOGRAM = HotPathMetrics.histogram(DBRouterUntyped.class, "accountWriteFallback");
+
     private static final ThreadLocal<THREAD_STATE> CURRENT_THREAD_STATE = new ThreadLocal<THREAD_STATE>() {
         @Override
         public THREAD_STATE initialValue() {
@@ -40,6 +54,23 @@ public class DBRouterUntyped {
         }
     };
 
+    // State requested by the caller (API level), i.e. ignoring the writes in the thread
+    private static final ThreadLocal<THREAD_STATE> REQUESTED_THREAD_STATE = new ThreadLocal<THREAD_STATE>() {
+        @Override
+        public THREAD_STATE initialValue() {
+            return RW_ONLY;
+        }
+    };
+
+    // Whether all the writes of the thread were made on behalf of known accounts (see AccountWriteTracker): if so, READ_YOUR_WRITES
+    // reads of other accounts can still use the RO DBI
+    private static final ThreadLocal<Boolean> TRACKED_WRITES_ONLY = new ThreadLocal<Boolean>() {
+        @Override
+        public Boolean initialValue() {
+            return Boolean.TRUE;
+        }
+    };
+
     protected final IDBI dbi;
     protected final IDBI roDbi;
 
@@ -51,12 +82,18 @@ public class DBRouterUntyped {
     public static Object withRODBIAllowed(final boolean allowRODBI,
                                           final WithProfilingCallback<Object, Throwable> callback) throws Throwable {
         final THREAD_STATE currentState = getCurrentState();
+        final THREAD_STATE requestedState = REQUESTED_THREAD_STATE.get();
+        final Boolean trackedWritesOnly = TRACKED_WRITES_ONLY.get();
         CURRENT_THREAD_STATE.set(allowRODBI ? RO_ALLOWED : RW_ONLY);
+        REQUESTED_THREAD_STATE.set(allowRODBI ? RO_ALLOWED : RW_ONLY);
+        TRACKED_WRITES_ONLY.set(Boolean.TRUE);
 
         try {
             return callback.execute();
         } finally {
             CURRENT_THREAD_STATE.set(currentState);
+            REQUESTED_THREAD_STATE.set(requestedState);
+            TRACKED_WRITES_ONLY.set(trackedWritesOnly);
         }
     }
 
@@ -67,22 +104,50 @@ public class DBRouterUntyped {
 
     boolean shouldUseRODBI(final boolean requestedRO) {
         if (requestedRO) {
-            if (isRODBIAllowed()) {
-                logger.debug("Using RO DBI");
-                return true;
-            } else {
-                // Redirect to the rw instance, to work-around any replication delay
-                logger.debug("RO DBI requested, but thread state is {}, using RW DBI", getCurrentState());
-                return false;
-            }
+            return shouldUseRODBI(ReadConsistency.READ_YOUR_WRITES, null);
         } else {
             // Disable RO DBI for future calls in this thread
             disallowRODBI();
+            untrackedWrite();
             logger.debug("Using RW DBI");
             return false;
         }
     }
 
+    boolean shouldUseRODBI(final ReadConsistency consistency, @Nullable final Long accountRecordId) {
+        if (consistency == ReadConsistency.STRONG) {
+            logger.debug("Strong read, using RW DBI");
+            return false;
+        }
+
+        if (REQUESTED_THREAD_STATE.get() != RO_ALLOWED) {
+            logger.debug("RO DBI requested, but thread state is {}, using RW DBI", getCurrentState());
+            return false;
+        }
+
+        if (consistency == ReadConsistency.READ_YOUR_WRITES) {
+            // The writes of the thread are only tracked per account if they were all made on behalf of known accounts
+            final boolean useAccountWriteTracker = accountRecordId != null && AccountWriteTracker.isEnabled() && TRACKED_WRITES_ONLY.get();
+            if (!isRODBIAllowed() && !useAccountWriteTracker) {
+                // Redirect to the rw instance, to work-around any replication delay
+                logger.debug("RO DBI requested, but thread state is {}, using RW DBI", getCurrentState());
+                THREAD_WRITE_FALLBACK_COUNTER.inc();
+                return false;
+            }
+
+            final Long lastWriteAgeNanos = AccountWriteTracker.getLastWriteAgeNanos(accountRecordId);
+            if (lastWriteAgeNanos != null) {
+                // Same, the write could have happened in another thread (request, bus handler, executor, ...)
+                logger.debug("RO DBI requested, but accountRecordId={} was written {}ns ago, using RW DBI", accountRecordId, lastWriteAgeNanos);
+                ACCOUNT_WRITE_FALLBACK_HISTOGRAM.update(TimeUnit.NANOSECONDS.toMillis(lastWriteAgeNanos));
+                return false;
+            }
+        }
+
+        logger.debug("Using RO DBI");
+        return true;
+    }
+
     private boolean isRODBIAllowed() {
         return getCurrentState() == RO_ALLOWED;
     }
@@ -91,28 +156,66 @@ public class DBRouterUntyped {
         CURRENT_THREAD_STATE.set(RW_ONLY);
     }
 
+    // Writes (or RW reads) the AccountWriteTracker doesn't know about
+    static void untrackedWrite() {
+        TRACKED_WRITES_ONLY.set(Boolean.FALSE);
+    }
+
     public Handle getHandle(final boolean requestedRO) {
-        if (shouldUseRODBI(requestedRO)) {
+        return openHandle(shouldUseRODBI(requestedRO));
+    }
+
+    // Transaction whose writes are recorded per account by the caller (see EntitySqlDaoTransactionalJdbiWrapper)
+    Handle getHandleForTrackedWrites() {
+        disallowRODBI();
+        logger.debug("Using RW DBI");
+        return openHandle(false);
+    }
+
+    public Handle getHandle(final ReadConsistency consistency, @Nullable final Long accountRecordId) {
+        return openHandle(shouldUseRODBI(consistency, accountRecordId));
+    }
+
+    public <T> T onDemand(final boolean requestedRO, final Class<T> sqlObjectType) {
+        return attach(shouldUseRODBI(requestedRO), sqlObjectType);
+    }
+
+    public <T> T onDemand(final ReadConsistency consistency, @Nullable final Long accountRecordId, final Class<T> sqlObjectType) {
+        return attach(shouldUseRODBI(consistency, accountRecordId), sqlObjectType);
+    }
+
+    public <T> T inTransaction(final boolean requestedRO, final TransactionCallback<T> callback) {
+        if (recordRoute(shouldUseRODBI(requestedRO))) {
+            return roDbi.inTransaction(callback);
+        } else {
+            return dbi.inTransaction(callback);
+        }
+    }
+
+    private Handle openHandle(final boolean useRODBI) {
+        if (recordRoute(useRODBI)) {
             return roDbi.open();
         } else {
             return dbi.open();
         }
     }
 
-    public <T> T onDemand(final boolean requestedRO, final Class<T> sqlObjectType) {
-        if (shouldUseRODBI(requestedRO)) {
+    private <T> T attach(final boolean useRODBI, final Class<T> sqlObjectType) {
+        if (recordRoute(useRODBI)) {
             return roDbi.onDemand(sqlObjectType);
         } else {
             return dbi.onDemand(sqlObjectType);
         }
     }
 
-    public <T> T inTransaction(final boolean requestedRO, final TransactionCallback<T> callback) {
-        if (shouldUseRODBI(requestedRO)) {
-            return roDbi.inTransaction(callback);
+    // Primary/replica split
+    static boolean recordRoute(final boolean useRODBI) {
+        if (useRODBI) {
+            RO_DBI_COUNTER.inc();
         } else {
-            return dbi.inTransaction(callback);
+            RW_DBI_COUNTER.inc();
         }
+        return useRODBI;
     }
 
     public enum THREAD_STATE {
@@ -19,6 +19,7 @@
 package org.killbill.billing.util.entity.dao;
 
 import java.util.Iterator;
+import java.util.List;
 
 import javax.annotation.Nullable;
 
@@ -30,6 +31,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 
 public class DefaultPaginationSqlDaoHelper {
 
@@ -39,6 +42,9 @@ public class DefaultPaginationSqlDaoHelper {
     // but small enough to not impact very large deployments
     private static final Long DEFAULT_SIMPLE_PAGINATION_THRESHOLD = 20000L;
 
+    // Record ids start at 1: passed to the builders in offset mode
+    private static final Long NO_SEEK_FROM_RECORD_ID = 0L;
+
     private final EntitySqlDaoTransactionalJdbiWrapper transactionalSqlDao;
     private final Long simplePaginationThreshold;
 
@@ -63,12 +69,25 @@ public class DefaultPaginationSqlDaoHelper {
         final Ordering ordering = limitMaybeNegative >= 0 ? Ordering.ASC : Ordering.DESC;
         final Long limit = Math.abs(limitMaybeNegative);
 
+        final Long fromRecordId = context == null ? null : context.getSeekFromRecordId();
+        if (fromRecordId != null) {
+            return getSeekPagination(sqlDaoClazz, paginationIteratorBuilder, fromRecordId, offset, limit, ordering, context);
+        }
+
+        if (!paginationIteratorBuilder.isCountRequired()) {
+            // Counting all of the matching records can be as expensive as the search itself: only stream the requested page
+            final EntitySqlDao<M, E> sqlDao = transactionalSqlDao.onDemandForStreamingResults(ReadConsistency.EVENTUAL, context, sqlDaoClazz);
+            CancellableResultIterator.reset();
+            final Iterator<M> results = CancellableResultIterator.wrapLastExecutedQuery(paginationIteratorBuilder.build((S) sqlDao, NO_SEEK_FROM_RECORD_ID, offset, limit, ordering, context));
+            return new DefaultPagination<M>(offset, limit, null, null, results);
+        }
+
         // Note: the connection will be busy as we stream the results out: hence we cannot use
         // SQL_CALC_FOUND_ROWS / FOUND_ROWS on the actual query.
         // We still need to know the actual number of results, mainly for the UI so that it knows if it needs to fetch
         // more pages.
         // Note: for simple pagination (no search filter), this will be computed below instead (MaxNbRecords == TotalNbRecords)
-        final Long totalNbRecordsOrNull = transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<Long>() {
+        final Long totalNbRecordsOrNull = transactionalSqlDao.execute(ReadConsistency.EVENTUAL, context, new EntitySqlDaoTransactionWrapper<Long>() {
             @Override
             public Long inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
                 final EntitySqlDao<M, E> sqlDao = entitySqlDaoWrapperFactory.become(sqlDaoClazz);
@@ -78,7 +97,7 @@ public class DefaultPaginationSqlDaoHelper {
 
         // We usually always want to wrap our queries in an EntitySqlDaoTransactionWrapper... except here.
         // Since we want to stream the results out, we don't want to auto-commit when this method returns.
-        final EntitySqlDao<M, E> sqlDao = transactionalSqlDao.onDemandForStreamingResults(sqlDaoClazz);
+        final EntitySqlDao<M, E> sqlDao = transactionalSqlDao.onDemandForStreamingResults(ReadConsistency.EVENTUAL, context, sqlDaoClazz);
         final Long maxNbRecords;
         if (context == null) {
             maxNbRecords = null;
@@ -95,13 +114,41 @@ public class DefaultPaginationSqlDaoHelper {
                 maxNbRecords = sqlDao.getCount(context);
             }
         }
-        final Iterator<M> results = paginationIteratorBuilder.build((S) sqlDao, offset, limit, ordering, context);
+        // Make sure the results can be aborted if the caller doesn't read them all (e.g. the client went away)
+        CancellableResultIterator.reset();
+        final Iterator<M> results = CancellableResultIterator.wrapLastExecutedQuery(paginationIteratorBuilder.build((S) sqlDao, NO_SEEK_FROM_RECORD_ID, offset, limit, ordering, context));
 
         final Long totalNbRecords = totalNbRecordsOrNull == null ? maxNbRecords : totalNbRecordsOrNull;
 
         return new DefaultPagination<M>(offset, limit, totalNbRecords, maxNbRecords, results);
     }
 
+    // Seek (keyset) pagination: instead of having the database skip offset rows for every page (which degrades quadratically
+    // when walking large tables), resume right after the last record_id returned. The count queries are skipped as well,
+    // the caller relies on the next position (see DefaultPagination#getNextFromRecordId) to know whether there are more results.
+    private <E extends Entity, M extends EntityModelDao<E>, S extends EntitySqlDao<M, E>> Pagination<M> getSeekPagination(final Class<? extends EntitySqlDao<M, E>> sqlDaoClazz,
+                                                                                                                          final PaginationIteratorBuilder<M, E, S> paginationIteratorBuilder,
+                                                                                                                          final Long fromRecordId,
+                                                                                                                          final Long offset,
+                                                                                                                          final Long limit,
+                                                                                                                          final Ordering ordering,
+                                                                                                                          @Nullable final InternalTenantContext context) {
+        if (ordering != Ordering.ASC) {
+            throw new IllegalArgumentException("Seek pagination only supports a positive limit");
+        }
+
+        // The page needs to be fully read to find out the last record_id: this is bounded by the limit though
+        // (and this also releases the connection right away)
+        final EntitySqlDao<M, E> sqlDao = transactionalSqlDao.onDemandForStreamingResults(ReadConsistency.EVENTUAL, context, sqlDaoClazz);
+        final List<M> results = ImmutableList.<M>copyOf(paginationIteratorBuilder.build((S) sqlDao, fromRecordId, 0L, limit, ordering, context));
+
+        // A partial page means we've reached the end
+        final boolean hasMoreResults = !results.isEmpty() && results.size() >= limit;
+        final Long nextFromRecordId = hasMoreResults ? Iterables.<M>getLast(results).getRecordId() : null;
+
+        return DefaultPagination.<M>buildSeekPagination(offset, limit, nextFromRecordId, results.iterator());
+    }
+
     public abstract static class PaginationIteratorBuilder<M extends EntityModelDao<E>, E extends Entity, S extends EntitySqlDao<M, E>> {
 
         // Determine the totalNbRecords:
@@ -109,7 +156,13 @@ public class DefaultPaginationSqlDaoHelper {
         // - For get calls, return the total number of records (totalNbRecords == maxNbRecords)
         public abstract Long getCount(final S sqlDao, final InternalTenantContext context);
 
-        public abstract Iterator<M> build(final S sqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context);
+        // Whether the counts (totalNbRecords and maxNbRecords) need to be computed: searches served by an index can skip them
+        public boolean isCountRequired() {
+            return true;
+        }
+
+        // Results must be ordered by record_id and only contain records with a record_id strictly greater than fromRecordId
+        public abstract Iterator<M> build(final S sqlDao, final Long fromRecordId, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context);
     }
 
     public enum Ordering {
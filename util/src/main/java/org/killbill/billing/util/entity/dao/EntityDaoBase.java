@@ -166,7 +166,7 @@ public abstract class EntityDaoBase<M extends EntityModelDao<E>, E extends Entit
 
     @Override
     public M getByRecordId(final Long recordId, final InternalTenantContext context) {
-        return transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<M>() {
+        return transactionalSqlDao.execute(ReadConsistency.READ_YOUR_WRITES, context, new EntitySqlDaoTransactionWrapper<M>() {
 
             @Override
             public M inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
@@ -178,7 +178,7 @@ public abstract class EntityDaoBase<M extends EntityModelDao<E>, E extends Entit
 
     @Override
     public M getById(final UUID id, final InternalTenantContext context) throws U /* Does not throw anything, but allows class overriding this method to throw */{
-        return transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<M>() {
+        return transactionalSqlDao.execute(ReadConsistency.READ_YOUR_WRITES, context, new EntitySqlDaoTransactionWrapper<M>() {
 
             @Override
             public M inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
@@ -192,7 +192,7 @@ public abstract class EntityDaoBase<M extends EntityModelDao<E>, E extends Entit
     public Pagination<M> getAll(final InternalTenantContext context) {
         // We usually always want to wrap our queries in an EntitySqlDaoTransactionWrapper... except here.
         // Since we want to stream the results out, we don't want to auto-commit when this method returns.
-        final EntitySqlDao<M, E> sqlDao = transactionalSqlDao.onDemandForStreamingResults(realSqlDao);
+        final EntitySqlDao<M, E> sqlDao = transactionalSqlDao.onDemandForStreamingResults(ReadConsistency.EVENTUAL, context, realSqlDao);
 
         // Note: we need to perform the count before streaming the results, as the connection
         // will be busy as we stream the results out. This is also why we cannot use
@@ -214,8 +214,8 @@ public abstract class EntityDaoBase<M extends EntityModelDao<E>, E extends Entit
                                                   }
 
                                                   @Override
-                                                  public Iterator<M> build(final EntitySqlDao<M, E> sqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
-                                                      return sqlDao.get(offset, limit, getNaturalOrderingColumns(), ordering.toString(), context);
+                                                  public Iterator<M> build(final EntitySqlDao<M, E> sqlDao, final Long fromRecordId, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                                                      return sqlDao.get(fromRecordId, offset, limit, getNaturalOrderingColumns(), ordering.toString(), context);
                                                   }
                                               },
                                               offset,
@@ -225,7 +225,7 @@ public abstract class EntityDaoBase<M extends EntityModelDao<E>, E extends Entit
 
     @Override
     public Long getCount(final InternalTenantContext context) {
-        return transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<Long>() {
+        return transactionalSqlDao.execute(ReadConsistency.EVENTUAL, context, new EntitySqlDaoTransactionWrapper<Long>() {
 
             @Override
             public Long inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
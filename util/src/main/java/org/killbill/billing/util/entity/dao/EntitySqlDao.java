@@ -92,13 +92,27 @@ public interface EntitySqlDao<M extends EntityModelDao<E>, E extends Entity> ext
 
     @SqlQuery
     @SmartFetchSize(shouldStream = true)
+    @CancellableQuery
     public Iterator<M> search(@Bind("searchKey") final String searchKey,
                               @Bind("likeSearchKey") final String likeSearchKey,
+                              @Bind("fromRecordId") final Long fromRecordId,
                               @Bind("offset") final Long offset,
                               @Bind("rowCount") final Long rowCount,
                               @Define("ordering") final String ordering,
                               @SmartBindBean final InternalTenantContext context);
 
+    // See IndexedSearchKey
+    @SqlQuery
+    @SmartFetchSize(shouldStream = true)
+    @CancellableQuery
+    public Iterator<M> searchByToken(@Bind("objectType") final String objectType,
+                                     @Bind("tokenPattern") final String tokenPattern,
+                                     @Bind("fromRecordId") final Long fromRecordId,
+                                     @Bind("offset") final Long offset,
+                                     @Bind("rowCount") final Long rowCount,
+                                     @Define("ordering") final String ordering,
+                                     @SmartBindBean final InternalTenantContext context);
+
     @SqlQuery
     public Long getSearchCount(@Bind("searchKey") final String searchKey,
                                @Bind("likeSearchKey") final String likeSearchKey,
@@ -110,7 +124,9 @@ public interface EntitySqlDao<M extends EntityModelDao<E>, E extends Entity> ext
 
     @SqlQuery
     @SmartFetchSize(shouldStream = true)
-    public Iterator<M> get(@Bind("offset") final Long offset,
+    @CancellableQuery
+    public Iterator<M> get(@Bind("fromRecordId") final Long fromRecordId,
+                           @Bind("offset") final Long offset,
                            @Bind("rowCount") final Long rowCount,
                            @Define("orderBy") final String orderBy,
                            @Define("ordering") final String ordering,
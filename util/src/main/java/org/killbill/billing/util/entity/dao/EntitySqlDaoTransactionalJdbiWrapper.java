@@ -20,6 +20,7 @@ package org.killbill.billing.util.entity.dao;
 
 import javax.annotation.Nullable;
 
+import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.util.cache.CacheControllerDispatcher;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.billing.util.dao.NonEntityDao;
@@ -85,10 +86,31 @@ public class EntitySqlDaoTransactionalJdbiWrapper {
      * @return result from the transaction fo type ReturnType
      */
     public <ReturnType> ReturnType execute(final boolean requestedRO, final EntitySqlDaoTransactionWrapper<ReturnType> entitySqlDaoTransactionWrapper) {
+        if (requestedRO) {
+            return execute(dbRouter.getHandle(true), false, entitySqlDaoTransactionWrapper);
+        } else {
+            return execute(dbRouter.getHandleForTrackedWrites(), true, entitySqlDaoTransactionWrapper);
+        }
+    }
+
+    /**
+     * Read-only transaction, routed according to its consistency class (see {@link ReadConsistency})
+     *
+     * @param <ReturnType>                   object type to return from the transaction
+     * @param consistency                    consistency required by the reads
+     * @param context                        context of the reads, the account record id (if any) is used for read-your-writes
+     * @param entitySqlDaoTransactionWrapper transaction to execute
+     * @return result from the transaction fo type ReturnType
+     */
+    public <ReturnType> ReturnType execute(final ReadConsistency consistency, @Nullable final InternalTenantContext context, final EntitySqlDaoTransactionWrapper<ReturnType> entitySqlDaoTransactionWrapper) {
+        return execute(dbRouter.getHandle(consistency, getAccountRecordId(context)), false, entitySqlDaoTransactionWrapper);
+    }
+
+    private <ReturnType> ReturnType execute(final Handle handle, final boolean isRWTransaction, final EntitySqlDaoTransactionWrapper<ReturnType> entitySqlDaoTransactionWrapper) {
         final String debugInfo = logger.isDebugEnabled() ? getDebugInfo() : null;
 
-        final Handle handle = dbRouter.getHandle(requestedRO);
         logger.debug("DBI handle created, transaction: {}", debugInfo);
+        AccountWriteTracker.startTransaction();
         try {
             final EntitySqlDao<EntityModelDao<Entity>, Entity> entitySqlDao = handle.attach(InitialEntitySqlDao.class);
             // The transaction isolation level is now set at the pool level: this avoids 3 roundtrips for each transaction
@@ -101,6 +123,12 @@ public class EntitySqlDaoTransactionalJdbiWrapper {
         } finally {
             handle.close();
             logger.debug("DBI handle closed,  transaction: {}", debugInfo);
+
+            // Read-your-writes: the accounts written are recorded now that the transaction is committed. Other writes (e.g. raw
+            // SqlDao calls on the handle) are unknown, so the thread falls back to the RW DBI for all its READ_YOUR_WRITES reads.
+            if (!AccountWriteTracker.endTransaction() && isRWTransaction) {
+                DBRouterUntyped.untrackedWrite();
+            }
         }
     }
 
@@ -112,6 +140,10 @@ public class EntitySqlDaoTransactionalJdbiWrapper {
         return dbRouter.onDemand(true, sqlObjectType);
     }
 
+    public <M extends EntityModelDao<E>, E extends Entity, T extends EntitySqlDao<M, E>> T onDemandForStreamingResults(final ReadConsistency consistency, @Nullable final InternalTenantContext context, final Class<T> sqlObjectType) {
+        return dbRouter.onDemand(consistency, getAccountRecordId(context), sqlObjectType);
+    }
+
     /**
      * @param <ReturnType>                   object type to return from the transaction
      * @param <E>                            checked exception which can be thrown from the transaction
@@ -123,16 +155,41 @@ public class EntitySqlDaoTransactionalJdbiWrapper {
         try {
             return execute(ro, entitySqlDaoTransactionWrapper);
         } catch (final RuntimeException e) {
-            if (e.getCause() != null && exception != null && e.getCause().getClass().isAssignableFrom(exception)) {
-                throw (E) e.getCause();
-            } else if (e.getCause() != null && e.getCause() instanceof RuntimeException) {
-                throw (RuntimeException) e.getCause();
-            } else {
-                throw e;
-            }
+            throw unwrapException(exception, e);
         }
     }
 
+    /**
+     * @param <ReturnType>                   object type to return from the transaction
+     * @param <E>                            checked exception which can be thrown from the transaction
+     * @param consistency                    consistency required by the reads
+     * @param context                        context of the reads, the account record id (if any) is used for read-your-writes
+     * @param exception                      checked exception which can be thrown from the transaction
+     * @param entitySqlDaoTransactionWrapper transaction to execute
+     * @return result from the transaction fo type ReturnType
+     */
+    public <ReturnType, E extends Exception> ReturnType execute(final ReadConsistency consistency, @Nullable final InternalTenantContext context, @Nullable final Class<E> exception, final EntitySqlDaoTransactionWrapper<ReturnType> entitySqlDaoTransactionWrapper) throws E {
+        try {
+            return execute(consistency, context, entitySqlDaoTransactionWrapper);
+        } catch (final RuntimeException e) {
+            throw unwrapException(exception, e);
+        }
+    }
+
+    private static <E extends Exception> RuntimeException unwrapException(@Nullable final Class<E> exception, final RuntimeException e) throws E {
+        if (e.getCause() != null && exception != null && e.getCause().getClass().isAssignableFrom(exception)) {
+            throw (E) e.getCause();
+        } else if (e.getCause() != null && e.getCause() instanceof RuntimeException) {
+            return (RuntimeException) e.getCause();
+        } else {
+            return e;
+        }
+    }
+
+    private static Long getAccountRecordId(@Nullable final InternalTenantContext context) {
+        return context == null ? null : context.getAccountRecordId();
+    }
+
     private static String getDebugInfo() {
         final Throwable t = new Throwable();
         t.fillInStackTrace();
@@ -35,6 +35,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nullable;
 
@@ -48,6 +49,8 @@ import org.killbill.billing.util.dao.EntityAudit;
 import org.killbill.billing.util.dao.EntityHistoryModelDao;
 import org.killbill.billing.util.dao.TableName;
 import org.killbill.billing.util.entity.Entity;
+import org.killbill.billing.util.metrics.HotPathMetrics;
+import org.killbill.billing.util.metrics.HotPathTimer;
 import org.killbill.clock.Clock;
 import org.killbill.commons.profiling.Profiling;
 import org.killbill.commons.profiling.Profiling.WithProfilingCallback;
@@ -69,6 +72,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Ordering;
 
 /**
  * Wraps an instance of EntitySqlDao, performing extra work around each method (Sql query)
@@ -79,6 +83,9 @@ import com.google.common.collect.Iterables;
  */
 public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>, M extends EntityModelDao<E>, E extends Entity> implements InvocationHandler {
 
+    // Per SqlDao class and method (methods like getById are declared once, on EntitySqlDao)
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<Method, HotPathTimer>> hotPathTimers = new ConcurrentHashMap<Class<?>, ConcurrentMap<Method, HotPathTimer>>();
+
     private final Logger logger = LoggerFactory.getLogger(EntitySqlDaoWrapperInvocationHandler.class);
 
     private final Map<String, Annotation[][]> parameterAnnotationsByMethod = new ConcurrentHashMap<String, Annotation[][]>();
@@ -110,11 +117,17 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
 
     @Override
     public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        final HotPathTimer hotPathTimer = getHotPathTimer(method);
         try {
             return prof.executeWithProfiling(ProfilingFeatureType.DAO, getProfilingId(null, method), new WithProfilingCallback<Object, Throwable>() {
                 @Override
                 public Object execute() throws Throwable {
-                    return invokeSafely(method, args);
+                    final long startNanos = hotPathTimer.start();
+                    try {
+                        return invokeSafely(method, args);
+                    } finally {
+                        hotPathTimer.stop(startNanos);
+                    }
                 }
             });
         } catch (final Throwable t) {
@@ -153,6 +166,21 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
         return null;
     }
 
+    private HotPathTimer getHotPathTimer(final Method method) {
+        ConcurrentMap<Method, HotPathTimer> timersForSqlDao = hotPathTimers.get(sqlDaoClass);
+        if (timersForSqlDao == null) {
+            hotPathTimers.putIfAbsent(sqlDaoClass, new ConcurrentHashMap<Method, HotPathTimer>());
+            timersForSqlDao = hotPathTimers.get(sqlDaoClass);
+        }
+
+        HotPathTimer hotPathTimer = timersForSqlDao.get(method);
+        if (hotPathTimer == null) {
+            hotPathTimer = HotPathMetrics.timer(sqlDaoClass, method.getName());
+            timersForSqlDao.putIfAbsent(method, hotPathTimer);
+        }
+        return hotPathTimer;
+    }
+
     // Nice method name to ease debugging while looking at log files
     private void errorDuringTransaction(final Throwable t, final Method method, final String extraErrorMessage) throws Throwable {
         final StringBuilder errorMessageBuilder = new StringBuilder("Error during transaction for sql entity {} and method {}");
@@ -238,6 +266,8 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
         }
 
         InternalCallContext context = null;
+        // For bulk inserts of accounts, each audit entry needs its own account_record_id (the record_id of the account itself)
+        boolean isBulkAccountInsert = false;
         // Retrieve record_id(s) for audit and history tables
         final List<Long> entityRecordIds = new LinkedList<Long>();
         if (changeType == ChangeType.INSERT) {
@@ -251,10 +281,13 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
 
             // Snowflake
             if (TableName.ACCOUNT.equals(tableName)) {
-                Preconditions.checkState(entityIds.size() == 1, "Bulk insert of accounts isn't supported");
-                // AccountModelDao in practice
-                final TimeZoneAwareEntity accountModelDao = retrieveTimeZoneAwareEntityFromArguments(args);
-                context = internalCallContextFactory.createInternalCallContext(accountModelDao, entityRecordIds.get(0), contextMaybeWithoutAccountRecordId);
+                if (isBatchQuery) {
+                    isBulkAccountInsert = true;
+                } else {
+                    // AccountModelDao in practice
+                    final TimeZoneAwareEntity accountModelDao = retrieveTimeZoneAwareEntityFromArguments(args);
+                    context = internalCallContextFactory.createInternalCallContext(accountModelDao, entityRecordIds.get(0), contextMaybeWithoutAccountRecordId);
+                }
             }
         } else {
             // Rehydrate entry with latest state
@@ -278,12 +311,21 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
             Preconditions.checkState(entityIds.size() == 1, "Bulk insert of accounts isn't supported");
         } else {
             context = contextMaybeWithoutAccountRecordId;
-            final boolean tableWithoutAccountRecordId = tableName == TableName.TENANT || tableName == TableName.TENANT_BROADCASTS || tableName == TableName.TENANT_KVS || tableName == TableName.TAG_DEFINITIONS || tableName == TableName.SERVICE_BRODCASTS || tableName == TableName.NODE_INFOS;
+            final boolean tableWithoutAccountRecordId = isBulkAccountInsert || tableName == TableName.TENANT || tableName == TableName.TENANT_BROADCASTS || tableName == TableName.TENANT_KVS || tableName == TableName.TAG_DEFINITIONS || tableName == TableName.SERVICE_BRODCASTS || tableName == TableName.NODE_INFOS;
             Preconditions.checkState(context.getAccountRecordId() != null || tableWithoutAccountRecordId,
                                      "accountRecordId should be set for tableName=%s and changeType=%s", tableName, changeType);
         }
 
-        final Collection<M> reHydratedEntities = updateHistoryAndAudit(entityRecordIds, deletedAndUpdatedEntities, tableName, changeType, context);
+        final Collection<M> reHydratedEntities = updateHistoryAndAudit(entityRecordIds, deletedAndUpdatedEntities, tableName, changeType, isBulkAccountInsert, context);
+
+        // Read-your-writes for subsequent reads of that account, on any thread (recorded once the transaction is committed, see AccountWriteTracker)
+        if (isBulkAccountInsert) {
+            for (final Long accountRecordId : entityRecordIds) {
+                AccountWriteTracker.recordWrite(accountRecordId);
+            }
+        } else {
+            AccountWriteTracker.recordWrite(context.getAccountRecordId());
+        }
         if (method.getReturnType().equals(Void.TYPE)) {
             // Return early
             return null;
@@ -362,6 +404,7 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
                                                 final Map<Long, M> deletedAndUpdatedEntities,
                                                 final TableName tableName,
                                                 final ChangeType changeType,
+                                                final boolean isBulkAccountInsert,
                                                 final InternalCallContext context) throws Throwable {
         final Object reHydratedEntitiesOrNull = prof.executeWithProfiling(ProfilingFeatureType.DAO_DETAILS, getProfilingId("history/audit", null), new WithProfilingCallback<Object, Throwable>() {
             @Override
@@ -380,10 +423,14 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
                     }
                     Preconditions.checkState(reHydratedEntities.size() == entityRecordIds.size(), "Wrong number of reHydratedEntities=%s (entityRecordIds=%s)", reHydratedEntities, entityRecordIds);
 
-                    final Collection<Long> auditTargetRecordIds = insertHistories(reHydratedEntities, changeType, context);
+                    final List<Long> auditTargetRecordIds = insertHistories(reHydratedEntities, changeType, context);
                     // Note: audit entries point to the history record id
                     Preconditions.checkState(auditTargetRecordIds.size() == entityRecordIds.size(), "Wrong number of auditTargetRecordIds=%s (entityRecordIds=%s)", auditTargetRecordIds, entityRecordIds);
-                    insertAudits(auditTargetRecordIds, tableName, changeType, context);
+                    if (isBulkAccountInsert) {
+                        insertAccountAudits(reHydratedEntities, auditTargetRecordIds, tableName, changeType, context);
+                    } else {
+                        insertAudits(auditTargetRecordIds, tableName, changeType, context);
+                    }
 
                     return reHydratedEntities;
                 }
@@ -522,6 +569,29 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
         printSQLWarnings();
     }
 
+    // Bulk insert all audit logs for a bulk insert of accounts: the account_record_id of each audit log is the record_id of the account
+    private void insertAccountAudits(final Iterable<M> reHydratedAccountModelDaos,
+                                     final List<Long> historyRecordIds,
+                                     final TableName tableName,
+                                     final ChangeType changeType,
+                                     final InternalCallContext context) {
+        final TableName destinationTableName = MoreObjects.firstNonNull(tableName.getHistoryTableName(), tableName);
+
+        // The ordering of the generated keys isn't guaranteed, but they are increasing in the order the histories were inserted (see insertHistories)
+        final List<Long> sortedHistoryRecordIds = Ordering.<Long>natural().sortedCopy(historyRecordIds);
+
+        final Collection<EntityAudit> audits = new LinkedList<EntityAudit>();
+        final Iterator<Long> historyRecordIdsIterator = sortedHistoryRecordIds.iterator();
+        for (final M reHydratedAccountModelDao : reHydratedAccountModelDaos) {
+            final EntityAudit audit = new EntityAudit(destinationTableName, historyRecordIdsIterator.next(), changeType, context.getCreatedDate());
+            audit.setAccountRecordId(reHydratedAccountModelDao.getRecordId());
+            audits.add(audit);
+        }
+
+        sqlDao.insertAuditsWithAccountRecordIdFromTransaction(audits, context);
+        printSQLWarnings();
+    }
+
     private String getProfilingId(@Nullable final String prefix, @Nullable final Method method) {
         final StringBuilder stringBuilder = new StringBuilder().append(sqlDaoClass.getSimpleName());
 
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2014-2018 Groupon, Inc
+ * Copyright 2014-2018 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.entity.dao;
+
+/**
+ * Consistency class of a read, used by {@link DBRouterUntyped} to pick the RO DBI (replica) or the RW DBI (primary).
+ * <p/>
+ * In all cases, the RO DBI is only used if the thread allows it (see {@link DBRouterUntyped#withRODBIAllowed}).
+ */
+public enum ReadConsistency {
+    // Always go to the RW DBI
+    STRONG,
+    // Default: go to the RW DBI if the account was written recently on this node (see AccountWriteTracker), or if the thread wrote and the account isn't known
+    READ_YOUR_WRITES,
+    // Replication delay is acceptable (searches, pagination): go to the RO DBI even after a write in the thread
+    EVENTUAL
+}
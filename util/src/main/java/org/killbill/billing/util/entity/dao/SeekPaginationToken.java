@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.entity.dao;
+
+import javax.annotation.Nullable;
+
+import org.killbill.billing.callcontext.DefaultTenantContext;
+import org.killbill.billing.util.callcontext.TenantContext;
+import org.killbill.billing.util.entity.DefaultPagination;
+import org.killbill.billing.util.entity.Pagination;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.io.BaseEncoding;
+
+//
+// Continuation token for the seek (keyset) pagination mode of DefaultPaginationSqlDaoHelper.
+//
+// The public pagination APIs only know about offset/limit, so the requested position travels with the tenant context
+// passed to the API (see DefaultTenantContext#getSeekFromRecordId) and the next one is returned with the results
+// (see DefaultPagination#getNextFromRecordId). Paginated APIs not backed by DefaultPaginationSqlDaoHelper (e.g. plugins)
+// ignore the position and keep using offsets.
+//
+public class SeekPaginationToken {
+
+    // Record ids start at 1
+    private static final Long FIRST_PAGE_FROM_RECORD_ID = 0L;
+
+    private SeekPaginationToken() {}
+
+    // A (possibly empty, to start from the beginning) token switches the paginated calls made with the returned context to the seek mode
+    public static TenantContext withToken(final TenantContext context, @Nullable final String token) {
+        if (token == null) {
+            return context;
+        }
+        return new DefaultTenantContext(context.getAccountId(), context.getTenantId(), decode(token));
+    }
+
+    // Returns null if the pagination isn't in seek mode or if there are no more results
+    @Nullable
+    public static String getNextToken(final Pagination<?> pagination) {
+        if (!isSeekPagination(pagination)) {
+            return null;
+        }
+        final Long nextFromRecordId = ((DefaultPagination<?>) pagination).getNextFromRecordId();
+        return nextFromRecordId == null ? null : encode(nextFromRecordId);
+    }
+
+    // Whether the requested token was honored (otherwise, the offset mode was used)
+    public static boolean isSeekPagination(final Pagination<?> pagination) {
+        return pagination instanceof DefaultPagination && ((DefaultPagination<?>) pagination).isSeekPagination();
+    }
+
+    public static String encode(final Long fromRecordId) {
+        return BaseEncoding.base64Url().omitPadding().encode(String.valueOf(fromRecordId).getBytes(Charsets.UTF_8));
+    }
+
+    // An empty token starts a seek pagination from the first record
+    public static Long decode(final String token) {
+        if (Strings.isNullOrEmpty(token)) {
+            return FIRST_PAGE_FROM_RECORD_ID;
+        }
+
+        try {
+            final Long fromRecordId = Long.valueOf(new String(BaseEncoding.base64Url().omitPadding().decode(token), Charsets.UTF_8));
+            if (fromRecordId < FIRST_PAGE_FROM_RECORD_ID) {
+                throw new IllegalArgumentException(String.format("Invalid pagination token %s", token));
+            }
+            return fromRecordId;
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid pagination token %s", token), e);
+        }
+    }
+}
@@ -28,6 +28,7 @@ import org.killbill.billing.util.cache.BaseCacheLoader;
 import org.killbill.billing.util.cache.BundleIdFromSubscriptionIdCacheLoader;
 import org.killbill.billing.util.cache.CacheControllerDispatcher;
 import org.killbill.billing.util.cache.CacheControllerDispatcherProvider;
+import org.killbill.billing.util.cache.ControlTagsCacheLoader;
 import org.killbill.billing.util.cache.ImmutableAccountCacheLoader;
 import org.killbill.billing.util.cache.ObjectIdCacheLoader;
 import org.killbill.billing.util.cache.OverriddenPlanCacheLoader;
@@ -91,5 +92,6 @@ public class CacheModule extends KillBillModule {
         resultSetMapperSetBinder.addBinding().to(TenantStateMachineConfigCacheLoader.class).asEagerSingleton();
         resultSetMapperSetBinder.addBinding().to(AccountIdFromBundleIdCacheLoader.class).asEagerSingleton();
         resultSetMapperSetBinder.addBinding().to(BundleIdFromSubscriptionIdCacheLoader.class).asEagerSingleton();
+        resultSetMapperSetBinder.addBinding().to(ControlTagsCacheLoader.class).asEagerSingleton();
     }
 }
@@ -23,6 +23,7 @@ import java.io.IOException;
 import javax.sql.DataSource;
 
 import org.killbill.billing.platform.api.KillbillConfigSource;
+import org.killbill.billing.util.metrics.TimedGlobalLocker;
 import org.killbill.commons.embeddeddb.EmbeddedDB;
 import org.killbill.commons.locker.GlobalLocker;
 import org.killbill.commons.locker.memory.MemoryGlobalLocker;
@@ -42,13 +43,15 @@ public class GlobalLockerModule extends KillBillModule {
     @Singleton
     // Note: we need to inject the pooled DataSource here, not the (direct) one from EmbeddedDB
     protected GlobalLocker provideGlobalLocker(final DataSource dataSource, final EmbeddedDB embeddedDB) throws IOException {
+        final GlobalLocker globalLocker;
         if (EmbeddedDB.DBEngine.MYSQL.equals(embeddedDB.getDBEngine())) {
-            return new MySqlGlobalLocker(dataSource);
+            globalLocker = new MySqlGlobalLocker(dataSource);
         } else if (EmbeddedDB.DBEngine.POSTGRESQL.equals(embeddedDB.getDBEngine())) {
-            return new PostgreSQLGlobalLocker(dataSource);
+            globalLocker = new PostgreSQLGlobalLocker(dataSource);
         } else {
-            return new MemoryGlobalLocker();
+            globalLocker = new MemoryGlobalLocker();
         }
+        return new TimedGlobalLocker(globalLocker);
     }
 
     @Override
@@ -18,9 +18,14 @@
 
 package org.killbill.billing.util.glue;
 
+import java.util.concurrent.TimeUnit;
+
 import org.killbill.billing.platform.api.KillbillConfigSource;
+import org.killbill.billing.util.config.definition.DBRouterConfig;
 import org.killbill.billing.util.dao.DefaultNonEntityDao;
 import org.killbill.billing.util.dao.NonEntityDao;
+import org.killbill.billing.util.entity.dao.AccountWriteTracker;
+import org.skife.config.ConfigurationObjectFactory;
 
 public class NonEntityDaoModule extends KillBillModule {
 
@@ -30,6 +35,12 @@ public class NonEntityDaoModule extends KillBillModule {
 
     @Override
     protected void configure() {
+        final ConfigurationObjectFactory factory = new ConfigurationObjectFactory(skifeConfigSource);
+        final DBRouterConfig dbRouterConfig = factory.build(DBRouterConfig.class);
+        bind(DBRouterConfig.class).toInstance(dbRouterConfig);
+        // Static, like the rest of the DBRouterUntyped state
+        AccountWriteTracker.setWindow(dbRouterConfig.getReadYourWritesWindow().getMillis(), TimeUnit.MILLISECONDS);
+
         bind(NonEntityDao.class).to(DefaultNonEntityDao.class).asEagerSingleton();
     }
 }
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.metrics;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+
+/**
+ * Log-linear histogram (HdrHistogram-like): values below 32 are recorded exactly, larger values in 16 sub-buckets per
+ * power of two (i.e. with a relative error of at most 1/16). Recording a value is a few atomic increments and doesn't
+ * allocate, contrary to the default (sampling) reservoirs. Values are kept since the start of the JVM.
+ * <p/>
+ * Values larger than 2^48 (about 78 hours in nanoseconds) are recorded in the last bucket.
+ */
+public class BucketedReservoir implements Reservoir {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // Values below that threshold have their own bucket
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKET_COUNT;
+    private static final int LINEAR_LIMIT_EXPONENT = SUB_BUCKET_BITS + 1;
+    private static final int MAX_EXPONENT = 47;
+
+    static final int NB_BUCKETS = LINEAR_LIMIT + (MAX_EXPONENT - LINEAR_LIMIT_EXPONENT + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(NB_BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    @Override
+    public int size() {
+        return (int) Math.min(count.get(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void update(final long rawValue) {
+        final long value = rawValue < 0 ? 0 : rawValue;
+
+        counts.incrementAndGet(bucketIndex(value));
+        sum.addAndGet(value);
+        updateMin(value);
+        updateMax(value);
+        count.incrementAndGet();
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        final long[] bucketCounts = new long[NB_BUCKETS];
+        long total = 0;
+        for (int i = 0; i < NB_BUCKETS; i++) {
+            bucketCounts[i] = counts.get(i);
+            total += bucketCounts[i];
+        }
+        return new BucketedSnapshot(bucketCounts, total, sum.get(), min.get(), max.get());
+    }
+
+    static int bucketIndex(final long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return NB_BUCKETS - 1;
+        }
+        final int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1));
+        return LINEAR_LIMIT + (exponent - LINEAR_LIMIT_EXPONENT) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketLowerBound(final int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+
+        final int exponent = LINEAR_LIMIT_EXPONENT + (index - LINEAR_LIMIT) / SUB_BUCKET_COUNT;
+        final int subBucket = (index - LINEAR_LIMIT) % SUB_BUCKET_COUNT;
+        return ((long) (SUB_BUCKET_COUNT + subBucket)) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    static long bucketUpperBound(final int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+
+        final int exponent = LINEAR_LIMIT_EXPONENT + (index - LINEAR_LIMIT) / SUB_BUCKET_COUNT;
+        return bucketLowerBound(index) + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    private void updateMin(final long value) {
+        long current = min.get();
+        while (value < current && !min.compareAndSet(current, value)) {
+            current = min.get();
+        }
+    }
+
+    private void updateMax(final long value) {
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    private static final class BucketedSnapshot extends Snapshot {
+
+        private final long[] bucketCounts;
+        private final long total;
+        private final long sum;
+        private final long min;
+        private final long max;
+
+        private BucketedSnapshot(final long[] bucketCounts, final long total, final long sum, final long min, final long max) {
+            this.bucketCounts = bucketCounts;
+            this.total = total;
+            this.sum = sum;
+            this.min = total == 0 ? 0 : min;
+            this.max = total == 0 ? 0 : max;
+        }
+
+        @Override
+        public double getValue(final double quantile) {
+            if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+                throw new IllegalArgumentException(quantile + " is not in [0..1]");
+            }
+            if (total == 0) {
+                return 0.0;
+            }
+
+            final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                seen += bucketCounts[i];
+                if (seen >= rank) {
+                    return bucketValue(i);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * @return one (representative) value per non-empty bucket, in increasing order
+         */
+        @Override
+        public long[] getValues() {
+            int nbNonEmptyBuckets = 0;
+            for (final long bucketCount : bucketCounts) {
+                if (bucketCount > 0) {
+                    nbNonEmptyBuckets++;
+                }
+            }
+
+            final long[] values = new long[nbNonEmptyBuckets];
+            int j = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                if (bucketCounts[i] > 0) {
+                    values[j++] = bucketValue(i);
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(total, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public long getMax() {
+            return max;
+        }
+
+        @Override
+        public double getMean() {
+            return total == 0 ? 0.0 : (double) sum / total;
+        }
+
+        @Override
+        public long getMin() {
+            return min;
+        }
+
+        @Override
+        public double getStdDev() {
+            if (total <= 1) {
+                return 0.0;
+            }
+
+            final double mean = getMean();
+            double variance = 0.0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                if (bucketCounts[i] > 0) {
+                    final double diff = bucketValue(i) - mean;
+                    variance += bucketCounts[i] * diff * diff;
+                }
+            }
+            return Math.sqrt(variance / (total - 1));
+        }
+
+        @Override
+        public void dump(final OutputStream output) {
+            // One line per non-empty bucket: <lower bound> <upper bound> <count>
+            final PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            try {
+                for (int i = 0; i < bucketCounts.length; i++) {
+                    if (bucketCounts[i] > 0) {
+                        out.printf("%d %d %d%n", bucketLowerBound(i), bucketUpperBound(i), bucketCounts[i]);
+                    }
+                }
+            } finally {
+                out.flush();
+            }
+        }
+
+        // Middle of the bucket, within the observed bounds
+        private long bucketValue(final int index) {
+            final long lower = bucketLowerBound(index);
+            final long value = lower + (bucketUpperBound(index) - lower) / 2;
+            return Math.max(min, Math.min(max, value));
+        }
+    }
+}
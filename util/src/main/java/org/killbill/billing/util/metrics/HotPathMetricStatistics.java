@@ -0,0 +1,117 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Point-in-time view of a hot-path timer, histogram or counter. Timer values are in milliseconds, counters only have a count.
+ */
+public class HotPathMetricStatistics {
+
+    private final String name;
+    private final String type;
+    private final long count;
+    private final double min;
+    private final double mean;
+    private final double p50;
+    private final double p90;
+    private final double p99;
+    private final double p999;
+    private final double max;
+
+    @ConstructorProperties({"name", "type", "count", "min", "mean", "p50", "p90", "p99", "p999", "max"})
+    public HotPathMetricStatistics(final String name,
+                                   final String type,
+                                   final long count,
+                                   final double min,
+                                   final double mean,
+                                   final double p50,
+                                   final double p90,
+                                   final double p99,
+                                   final double p999,
+                                   final double max) {
+        this.name = name;
+        this.type = type;
+        this.count = count;
+        this.min = min;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public double getP90() {
+        return p90;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public double getP999() {
+        return p999;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("HotPathMetricStatistics{");
+        sb.append("name='").append(name).append('\'');
+        sb.append(", type='").append(type).append('\'');
+        sb.append(", count=").append(count);
+        sb.append(", min=").append(min);
+        sb.append(", mean=").append(mean);
+        sb.append(", p50=").append(p50);
+        sb.append(", p90=").append(p90);
+        sb.append(", p99=").append(p99);
+        sb.append(", p999=").append(p999);
+        sb.append(", max=").append(max);
+        sb.append('}');
+        return sb.toString();
+    }
+}
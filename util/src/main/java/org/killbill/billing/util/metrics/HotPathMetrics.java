@@ -0,0 +1,181 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricRegistryListener;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+
+/**
+ * Always-on timers, histograms and counters for the hot paths (invoice runs, billing events computation, plugin calls, global
+ * locks, DAO calls, ...), backed by allocation-free {@link BucketedReservoir}s.
+ * <p/>
+ * Like Profiling, this is static state, as some of the instrumented code (e.g. the EntitySqlDao proxy) isn't managed
+ * by Guice. Metrics are exported to the platform MetricRegistry (and JMX) by {@link HotPathMetricsExporter}.
+ * <p/>
+ * Handles are cached: callers should keep them in (static) fields instead of looking them up on each call.
+ */
+public final class HotPathMetrics {
+
+    private static final String TIMER_TYPE = "timer";
+    private static final String HISTOGRAM_TYPE = "histogram";
+    private static final String COUNTER_TYPE = "counter";
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final MetricRegistry registry = new MetricRegistry();
+    private static final ConcurrentMap<String, HotPathTimer> timers = new ConcurrentHashMap<String, HotPathTimer>();
+    private static final ConcurrentMap<String, HotPathHistogram> histograms = new ConcurrentHashMap<String, HotPathHistogram>();
+    private static final ConcurrentMap<String, HotPathCounter> counters = new ConcurrentHashMap<String, HotPathCounter>();
+
+    private static MetricRegistryListener exportListener;
+
+    private HotPathMetrics() {}
+
+    public static HotPathTimer timer(final Class<?> klass, final String... names) {
+        return timer(MetricRegistry.name(klass, names));
+    }
+
+    public static HotPathTimer timer(final String name) {
+        HotPathTimer timer = timers.get(name);
+        if (timer == null) {
+            final HotPathTimer newTimer = new HotPathTimer(new Timer(new BucketedReservoir()));
+            timer = timers.putIfAbsent(name, newTimer);
+            if (timer == null) {
+                registry.register(name, newTimer.getTimer());
+                timer = newTimer;
+            }
+        }
+        return timer;
+    }
+
+    public static HotPathHistogram histogram(final Class<?> klass, final String... names) {
+        return histogram(MetricRegistry.name(klass, names));
+    }
+
+    public static HotPathHistogram histogram(final String name) {
+        HotPathHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            final HotPathHistogram newHistogram = new HotPathHistogram(new Histogram(new BucketedReservoir()));
+            histogram = histograms.putIfAbsent(name, newHistogram);
+            if (histogram == null) {
+                registry.register(name, newHistogram.getHistogram());
+                histogram = newHistogram;
+            }
+        }
+        return histogram;
+    }
+
+    public static HotPathCounter counter(final Class<?> klass, final String... names) {
+        return counter(MetricRegistry.name(klass, names));
+    }
+
+    public static HotPathCounter counter(final String name) {
+        HotPathCounter counter = counters.get(name);
+        if (counter == null) {
+            final HotPathCounter newCounter = new HotPathCounter(new Counter());
+            counter = counters.putIfAbsent(name, newCounter);
+            if (counter == null) {
+                registry.register(name, newCounter.getCounter());
+                counter = newCounter;
+            }
+        }
+        return counter;
+    }
+
+    public static List<HotPathMetricStatistics> getStatistics() {
+        final List<HotPathMetricStatistics> result = new ArrayList<HotPathMetricStatistics>();
+        for (final Entry<String, Timer> entry : registry.getTimers().entrySet()) {
+            result.add(toStatistics(entry.getKey(), TIMER_TYPE, entry.getValue().getCount(), entry.getValue().getSnapshot(), NANOS_PER_MILLI));
+        }
+        for (final Entry<String, Histogram> entry : registry.getHistograms().entrySet()) {
+            result.add(toStatistics(entry.getKey(), HISTOGRAM_TYPE, entry.getValue().getCount(), entry.getValue().getSnapshot(), 1));
+        }
+        for (final Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+            result.add(new HotPathMetricStatistics(entry.getKey(), COUNTER_TYPE, entry.getValue().getCount(), 0, 0, 0, 0, 0, 0, 0));
+        }
+        return result;
+    }
+
+    /**
+     * Register all metrics, current and future, in the target registry. Only the last target is kept up-to-date.
+     */
+    public static synchronized void exportTo(final MetricRegistry target) {
+        if (exportListener != null) {
+            registry.removeListener(exportListener);
+        }
+        exportListener = new ExportListener(target);
+        // Existing metrics are replayed to the new listener
+        registry.addListener(exportListener);
+    }
+
+    private static HotPathMetricStatistics toStatistics(final String name, final String type, final long count, final Snapshot snapshot, final double scale) {
+        return new HotPathMetricStatistics(name,
+                                           type,
+                                           count,
+                                           snapshot.getMin() / scale,
+                                           snapshot.getMean() / scale,
+                                           snapshot.getMedian() / scale,
+                                           snapshot.getValue(0.9) / scale,
+                                           snapshot.get99thPercentile() / scale,
+                                           snapshot.get999thPercentile() / scale,
+                                           snapshot.getMax() / scale);
+    }
+
+    private static final class ExportListener extends MetricRegistryListener.Base {
+
+        private final MetricRegistry target;
+
+        private ExportListener(final MetricRegistry target) {
+            this.target = target;
+        }
+
+        @Override
+        public void onHistogramAdded(final String name, final Histogram histogram) {
+            register(name, histogram);
+        }
+
+        @Override
+        public void onCounterAdded(final String name, final Counter counter) {
+            register(name, counter);
+        }
+
+        @Override
+        public void onTimerAdded(final String name, final Timer timer) {
+            register(name, timer);
+        }
+
+        private void register(final String name, final Metric metric) {
+            try {
+                target.register(name, metric);
+            } catch (final IllegalArgumentException ignored) {
+                // Already exported (same platform registry)
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Expose the {@link HotPathMetrics} through the platform MetricRegistry (i.e. the metrics servlet and reporters)
+ * and a JMX bean (summary view).
+ */
+public class HotPathMetricsExporter implements HotPathMetricsMXBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotPathMetricsExporter.class);
+
+    @Inject
+    public HotPathMetricsExporter(final MetricRegistry metricRegistry) {
+        HotPathMetrics.exportTo(metricRegistry);
+        registerMBean();
+    }
+
+    @Override
+    public List<HotPathMetricStatistics> getMetrics() {
+        return HotPathMetrics.getStatistics();
+    }
+
+    private void registerMBean() {
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            mBeanServer.registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (final InstanceAlreadyExistsException ignored) {
+            // Another injector in the same JVM (the metrics being static, the existing bean has the same view)
+        } catch (final JMException e) {
+            logger.warn("Unable to register the hot-path metrics MBean", e);
+        }
+    }
+}
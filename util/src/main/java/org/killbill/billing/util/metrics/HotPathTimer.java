@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.Timer;
+
+/**
+ * Usage:
+ * <pre>
+ * final long startNanos = timer.start();
+ * try {
+ *     ...
+ * } finally {
+ *     timer.stop(startNanos);
+ * }
+ * </pre>
+ */
+public final class HotPathTimer {
+
+    private final Timer timer;
+
+    HotPathTimer(final Timer timer) {
+        this.timer = timer;
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void stop(final long startNanos) {
+        timer.update(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void update(final long duration, final TimeUnit unit) {
+        timer.update(duration, unit);
+    }
+
+    Timer getTimer() {
+        return timer;
+    }
+}
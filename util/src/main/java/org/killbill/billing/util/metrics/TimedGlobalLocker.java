@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.killbill.commons.locker.GlobalLock;
+import org.killbill.commons.locker.GlobalLocker;
+import org.killbill.commons.locker.LockFailedException;
+
+/**
+ * Record the time spent acquiring global locks (including the retries), per service.
+ */
+public class TimedGlobalLocker implements GlobalLocker {
+
+    private static final HotPathTimer LOCK_FAILED_TIMER = HotPathMetrics.timer(GlobalLocker.class, "lockFailed");
+
+    // The number of services (LockerType) is bounded
+    private final ConcurrentMap<String, HotPathTimer> lockWaitTimers = new ConcurrentHashMap<String, HotPathTimer>();
+    private final GlobalLocker delegate;
+
+    public TimedGlobalLocker(final GlobalLocker delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public GlobalLock lockWithNumberOfTries(final String service, final String lockKey, final int retry) throws LockFailedException {
+        final long startNanos = System.nanoTime();
+        boolean success = false;
+        try {
+            final GlobalLock lock = delegate.lockWithNumberOfTries(service, lockKey, retry);
+            success = true;
+            return lock;
+        } finally {
+            if (success) {
+                getLockWaitTimer(service).stop(startNanos);
+            } else {
+                LOCK_FAILED_TIMER.stop(startNanos);
+            }
+        }
+    }
+
+    private HotPathTimer getLockWaitTimer(final String service) {
+        HotPathTimer timer = lockWaitTimers.get(service);
+        if (timer == null) {
+            timer = HotPathMetrics.timer(GlobalLocker.class, "lockWait", service);
+            lockWaitTimers.putIfAbsent(service, timer);
+        }
+        return timer;
+    }
+
+    @Override
+    public boolean isFree(final String service, final String lockKey) {
+        return delegate.isFree(service, lockKey);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.search;
+
+import javax.annotation.Nullable;
+
+/**
+ * Search key served by the search_tokens index, instead of the (full scan) like search.
+ * <p/>
+ * Supported syntax:
+ * <ul>
+ * <li>"value" (double quotes): exact match on a searchable value or one of its words</li>
+ * <li>value* (trailing star): prefix match on a searchable value or one of its words</li>
+ * </ul>
+ * Matches are case insensitive. Any other search key is handled by the legacy search.
+ */
+public class IndexedSearchKey {
+
+    private static final String QUOTE = "\"";
+    private static final String PREFIX_WILDCARD = "*";
+
+    public enum Mode {
+        EXACT,
+        PREFIX
+    }
+
+    private final Mode mode;
+    private final String token;
+
+    @Nullable
+    public static IndexedSearchKey parse(@Nullable final String searchKey) {
+        if (searchKey == null) {
+            return null;
+        }
+
+        final String trimmedSearchKey = searchKey.trim();
+        final String token;
+        final Mode mode;
+        if (trimmedSearchKey.length() > 2 && trimmedSearchKey.startsWith(QUOTE) && trimmedSearchKey.endsWith(QUOTE)) {
+            token = SearchTokenizer.normalize(trimmedSearchKey.substring(1, trimmedSearchKey.length() - 1));
+            mode = Mode.EXACT;
+        } else if (trimmedSearchKey.length() > 1 && trimmedSearchKey.endsWith(PREFIX_WILDCARD)) {
+            token = SearchTokenizer.normalize(trimmedSearchKey.substring(0, trimmedSearchKey.length() - 1));
+            mode = Mode.PREFIX;
+        } else {
+            return null;
+        }
+
+        return token == null ? null : new IndexedSearchKey(mode, token);
+    }
+
+    private IndexedSearchKey(final Mode mode, final String token) {
+        this.mode = mode;
+        this.token = token;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    // Pattern for the token like clause: no leading wildcard, so that the index can be used
+    public String getTokenPattern() {
+        final String escapedToken = token.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return mode == Mode.PREFIX ? escapedToken + "%" : escapedToken;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("IndexedSearchKey{");
+        sb.append("mode=").append(mode);
+        sb.append(", token='").append(token).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.killbill.billing.ObjectType;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.skife.jdbi.v2.Handle;
+
+/**
+ * Maintains the search_tokens rows of the searchable objects. Must be invoked from the transaction creating or updating
+ * the object, so that the index is always in sync with the table.
+ */
+public class SearchTokenIndex {
+
+    public static void indexFromTransaction(final Handle handle,
+                                            final ObjectType objectType,
+                                            final Long targetRecordId,
+                                            final Iterable<String> values,
+                                            final InternalCallContext context) {
+        create(handle.attach(SearchTokenSqlDao.class), toSearchTokens(objectType, targetRecordId, values), context);
+    }
+
+    public static void reindexFromTransaction(final Handle handle,
+                                              final ObjectType objectType,
+                                              final Long targetRecordId,
+                                              final Iterable<String> values,
+                                              final InternalCallContext context) {
+        final SearchTokenSqlDao searchTokenSqlDao = handle.attach(SearchTokenSqlDao.class);
+        searchTokenSqlDao.deleteByTargetRecordId(objectType.toString(), targetRecordId, context);
+        create(searchTokenSqlDao, toSearchTokens(objectType, targetRecordId, values), context);
+    }
+
+    private static void create(final SearchTokenSqlDao searchTokenSqlDao, final List<SearchTokenModelDao> searchTokens, final InternalCallContext context) {
+        if (!searchTokens.isEmpty()) {
+            searchTokenSqlDao.create(searchTokens, context);
+        }
+    }
+
+    private static List<SearchTokenModelDao> toSearchTokens(final ObjectType objectType, final Long targetRecordId, final Iterable<String> values) {
+        final Set<String> tokens = SearchTokenizer.tokenize(values);
+        final List<SearchTokenModelDao> searchTokens = new ArrayList<SearchTokenModelDao>(tokens.size());
+        for (final String token : tokens) {
+            searchTokens.add(new SearchTokenModelDao(objectType, targetRecordId, token));
+        }
+        return searchTokens;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.search;
+
+import org.killbill.billing.ObjectType;
+
+public class SearchTokenModelDao {
+
+    private ObjectType objectType;
+    private Long targetRecordId;
+    private String token;
+
+    public SearchTokenModelDao() { /* For the DAO mapper */ }
+
+    public SearchTokenModelDao(final ObjectType objectType, final Long targetRecordId, final String token) {
+        this.objectType = objectType;
+        this.targetRecordId = targetRecordId;
+        this.token = token;
+    }
+
+    public ObjectType getObjectType() {
+        return objectType;
+    }
+
+    public void setObjectType(final ObjectType objectType) {
+        this.objectType = objectType;
+    }
+
+    public Long getTargetRecordId() {
+        return targetRecordId;
+    }
+
+    public void setTargetRecordId(final Long targetRecordId) {
+        this.targetRecordId = targetRecordId;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(final String token) {
+        this.token = token;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SearchTokenModelDao{");
+        sb.append("objectType=").append(objectType);
+        sb.append(", targetRecordId=").append(targetRecordId);
+        sb.append(", token='").append(token).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.search;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import org.killbill.billing.ObjectType;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.util.callcontext.CallContext;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.dao.TableName;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.IDBI;
+import org.skife.jdbi.v2.StatementContext;
+import org.skife.jdbi.v2.TransactionCallback;
+import org.skife.jdbi.v2.TransactionStatus;
+import org.skife.jdbi.v2.tweak.ResultSetMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Rebuilds the search_tokens rows of the searchable objects of a tenant. This is required for the records created before
+ * the search_tokens table was introduced: the migration cannot backfill it, as the tokenization isn't portable SQL.
+ * <p/>
+ * Records are processed by batches (one transaction per batch), from the most recent one to the oldest one. Reindexing a
+ * record replaces its tokens, so the process can safely be restarted.
+ */
+public class SearchTokenReindexer {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchTokenReindexer.class);
+
+    private static final long BATCH_SIZE = 1000;
+
+    // Must match the values indexed by the DAOs (see DefaultAccountDao#getSearchableValues and DefaultPaymentDao#createNewPaymentWithNewTransaction)
+    private static final Map<ObjectType, List<String>> SEARCHABLE_COLUMNS = ImmutableMap.<ObjectType, List<String>>of(ObjectType.ACCOUNT, ImmutableList.<String>of("name", "email", "external_key", "company_name"),
+                                                                                                                      ObjectType.PAYMENT, ImmutableList.<String>of("external_key"));
+
+    private final IDBI dbi;
+    private final InternalCallContextFactory internalCallContextFactory;
+
+    @Inject
+    public SearchTokenReindexer(final IDBI dbi, final InternalCallContextFactory internalCallContextFactory) {
+        this.dbi = dbi;
+        this.internalCallContextFactory = internalCallContextFactory;
+    }
+
+    public static Set<ObjectType> getSearchableObjectTypes() {
+        return SEARCHABLE_COLUMNS.keySet();
+    }
+
+    // Returns the number of records reindexed
+    public long reindex(final ObjectType objectType, final CallContext callContext) {
+        final List<String> searchableColumns = SEARCHABLE_COLUMNS.get(objectType);
+        Preconditions.checkArgument(searchableColumns != null, "%s isn't searchable", objectType);
+
+        final String tableName = TableName.fromObjectType(objectType).getTableName();
+        final String columns = Joiner.on(", ").join(searchableColumns);
+        final InternalCallContext context = internalCallContextFactory.createInternalCallContextWithoutAccountRecordId(callContext);
+
+        long nbReindexed = 0;
+        Long beforeRecordId = Long.MAX_VALUE;
+        while (true) {
+            final Long lastRecordId = beforeRecordId;
+            final List<SearchableRecord> records = dbi.inTransaction(new TransactionCallback<List<SearchableRecord>>() {
+                @Override
+                public List<SearchableRecord> inTransaction(final Handle handle, final TransactionStatus status) throws Exception {
+                    final List<SearchableRecord> records = handle.attach(SearchTokenSqlDao.class).getSearchableRecords(tableName, columns, lastRecordId, BATCH_SIZE, context);
+                    for (final SearchableRecord record : records) {
+                        SearchTokenIndex.reindexFromTransaction(handle, objectType, record.getRecordId(), record.getValues(), context);
+                    }
+                    return records;
+                }
+            });
+            if (records.isEmpty()) {
+                break;
+            }
+
+            nbReindexed += records.size();
+            beforeRecordId = records.get(records.size() - 1).getRecordId();
+            log.info("Reindexed {} {} records for tenantRecordId='{}' (down to recordId='{}')", nbReindexed, objectType, context.getTenantRecordId(), beforeRecordId);
+        }
+        return nbReindexed;
+    }
+
+    public static class SearchableRecord {
+
+        private final Long recordId;
+        private final List<String> values;
+
+        public SearchableRecord(final Long recordId, final List<String> values) {
+            this.recordId = recordId;
+            this.values = values;
+        }
+
+        public Long getRecordId() {
+            return recordId;
+        }
+
+        public List<String> getValues() {
+            return values;
+        }
+    }
+
+    // The record id, followed by the searchable columns
+    public static class SearchableRecordMapper implements ResultSetMapper<SearchableRecord> {
+
+        @Override
+        public SearchableRecord map(final int index, final ResultSet r, final StatementContext ctx) throws SQLException {
+            final int nbColumns = r.getMetaData().getColumnCount();
+            final List<String> values = new ArrayList<String>(nbColumns - 1);
+            for (int i = 2; i <= nbColumns; i++) {
+                values.add(r.getString(i));
+            }
+            return new SearchableRecord(r.getLong(1), values);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.search;
+
+import java.util.List;
+
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.util.search.SearchTokenReindexer.SearchableRecord;
+import org.killbill.billing.util.search.SearchTokenReindexer.SearchableRecordMapper;
+import org.killbill.commons.jdbi.binder.SmartBindBean;
+import org.killbill.commons.jdbi.template.KillBillSqlDaoStringTemplate;
+import org.skife.jdbi.v2.sqlobject.Bind;
+import org.skife.jdbi.v2.sqlobject.SqlBatch;
+import org.skife.jdbi.v2.sqlobject.SqlQuery;
+import org.skife.jdbi.v2.sqlobject.SqlUpdate;
+import org.skife.jdbi.v2.sqlobject.customizers.BatchChunkSize;
+import org.skife.jdbi.v2.sqlobject.customizers.Define;
+import org.skife.jdbi.v2.sqlobject.customizers.Mapper;
+
+@KillBillSqlDaoStringTemplate
+public interface SearchTokenSqlDao {
+
+    @SqlBatch
+    @BatchChunkSize(1000) // Arbitrary value, just a safety mechanism in case of very large datasets
+    public void create(@SmartBindBean final Iterable<SearchTokenModelDao> searchTokens,
+                       @SmartBindBean final InternalCallContext context);
+
+    @SqlUpdate
+    public void deleteByTargetRecordId(@Bind("objectType") final String objectType,
+                                       @Bind("targetRecordId") final Long targetRecordId,
+                                       @SmartBindBean final InternalCallContext context);
+
+    @SqlQuery
+    public List<String> getTokensByTargetRecordId(@Bind("objectType") final String objectType,
+                                                  @Bind("targetRecordId") final Long targetRecordId,
+                                                  @SmartBindBean final InternalTenantContext context);
+
+    // See SearchTokenReindexer
+    @SqlQuery
+    @Mapper(SearchableRecordMapper.class)
+    public List<SearchableRecord> getSearchableRecords(@Define("tableName") final String tableName,
+                                                       @Define("searchableColumns") final String searchableColumns,
+                                                       @Bind("beforeRecordId") final Long beforeRecordId,
+                                                       @Bind("rowCount") final Long rowCount,
+                                                       @SmartBindBean final InternalTenantContext context);
+}
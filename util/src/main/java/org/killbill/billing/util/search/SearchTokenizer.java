@@ -0,0 +1,74 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.Strings;
+
+/**
+ * Tokens stored in the search_tokens table for the searchable values of an object.
+ * <p/>
+ * Each value is indexed as a whole (lower-cased), as well as each of its words (e.g. "john.doe@acme.com" is indexed as
+ * "john.doe@acme.com", "john", "doe", "acme" and "com"), so that exact and prefix searches can use the token index instead
+ * of scanning the table.
+ */
+public class SearchTokenizer {
+
+    // Size of the token column
+    public static final int MAX_TOKEN_LENGTH = 255;
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    public static Set<String> tokenize(final Iterable<String> values) {
+        final Set<String> tokens = new LinkedHashSet<String>();
+        for (final String value : values) {
+            final String normalizedValue = normalize(value);
+            if (normalizedValue == null) {
+                continue;
+            }
+
+            tokens.add(normalizedValue);
+            for (final String word : WORD_SEPARATOR.split(normalizedValue)) {
+                if (!word.isEmpty()) {
+                    tokens.add(truncate(word));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    @Nullable
+    public static String normalize(@Nullable final String value) {
+        if (Strings.isNullOrEmpty(value)) {
+            return null;
+        }
+
+        final String normalizedValue = value.trim().toLowerCase(Locale.ROOT);
+        return normalizedValue.isEmpty() ? null : truncate(normalizedValue);
+    }
+
+    private static String truncate(final String token) {
+        return token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.security.shiro;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.apache.shiro.authc.AuthenticationInfo;
+import org.apache.shiro.authc.AuthenticationToken;
+import org.apache.shiro.authc.SaltedAuthenticationInfo;
+import org.apache.shiro.authc.credential.CredentialsMatcher;
+import org.apache.shiro.util.ByteSource;
+import org.killbill.billing.util.config.definition.SecurityConfig;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+//
+// Remembers successful credentials verifications, to avoid paying for the (deliberately slow) hashing on each request.
+//
+// Entries are keyed by a keyed digest (HMAC with a random, per-JVM, key) of the principal, the submitted credentials and
+// the stored credentials (hash and salt): the submitted credentials are never kept in memory and updating the stored
+// credentials (e.g. password change, on any node) naturally misses the cache. Failed verifications are never cached.
+//
+public class CachingCredentialsMatcher implements CredentialsMatcher {
+
+    private static final String METRICS_PREFIX = "security.credentialsCache.";
+
+    private final CredentialsMatcher delegate;
+    private final HashFunction keyedDigest;
+    private final Cache<HashCode, Boolean> verifiedCredentials;
+
+    public CachingCredentialsMatcher(final CredentialsMatcher delegate, final SecurityConfig securityConfig) {
+        this.delegate = delegate;
+
+        final byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.keyedDigest = Hashing.hmacSha256(key);
+
+        final int maxSize = securityConfig.getShiroCredentialsCacheMaxSize();
+        this.verifiedCredentials = maxSize > 0 ?
+                                   CacheBuilder.newBuilder()
+                                               .maximumSize(maxSize)
+                                               .expireAfterWrite(securityConfig.getShiroCredentialsCacheTTL().getMillis(), TimeUnit.MILLISECONDS)
+                                               .recordStats()
+                                               .<HashCode, Boolean>build() :
+                                   null;
+    }
+
+    @Override
+    public boolean doCredentialsMatch(final AuthenticationToken token, final AuthenticationInfo info) {
+        if (verifiedCredentials == null) {
+            return delegate.doCredentialsMatch(token, info);
+        }
+
+        final HashCode cacheKey = computeCacheKey(token, info);
+        if (cacheKey != null && verifiedCredentials.getIfPresent(cacheKey) != null) {
+            return true;
+        }
+
+        final boolean match = delegate.doCredentialsMatch(token, info);
+        if (match && cacheKey != null) {
+            verifiedCredentials.put(cacheKey, Boolean.TRUE);
+        }
+        return match;
+    }
+
+    public void registerMetrics(final MetricRegistry metricRegistry, final String realmName) {
+        if (verifiedCredentials == null) {
+            return;
+        }
+
+        final String prefix = METRICS_PREFIX + realmName + ".";
+        metricRegistry.remove(prefix + "hitRate");
+        metricRegistry.register(prefix + "hitRate",
+                                new RatioGauge() {
+                                    @Override
+                                    protected Ratio getRatio() {
+                                        return Ratio.of(verifiedCredentials.stats().hitCount(), verifiedCredentials.stats().requestCount());
+                                    }
+                                });
+        metricRegistry.remove(prefix + "size");
+        metricRegistry.register(prefix + "size",
+                                new Gauge<Long>() {
+                                    @Override
+                                    public Long getValue() {
+                                        return verifiedCredentials.size();
+                                    }
+                                });
+    }
+
+    @Nullable
+    private HashCode computeCacheKey(final AuthenticationToken token, final AuthenticationInfo info) {
+        final byte[] submittedCredentials = toBytes(token.getCredentials());
+        final byte[] storedCredentials = toBytes(info.getCredentials());
+        if (token.getPrincipal() == null || submittedCredentials == null || storedCredentials == null) {
+            return null;
+        }
+
+        final Hasher hasher = keyedDigest.newHasher();
+        putLengthPrefixed(hasher, ByteSource.Util.bytes(token.getPrincipal().toString()).getBytes());
+        putLengthPrefixed(hasher, submittedCredentials);
+        putLengthPrefixed(hasher, storedCredentials);
+        if (info instanceof SaltedAuthenticationInfo && ((SaltedAuthenticationInfo) info).getCredentialsSalt() != null) {
+            putLengthPrefixed(hasher, ((SaltedAuthenticationInfo) info).getCredentialsSalt().getBytes());
+        }
+        return hasher.hash();
+    }
+
+    private static void putLengthPrefixed(final Hasher hasher, final byte[] bytes) {
+        hasher.putInt(bytes.length).putBytes(bytes);
+    }
+
+    @Nullable
+    private static byte[] toBytes(@Nullable final Object credentials) {
+        if (credentials == null || !ByteSource.Util.isCompatible(credentials)) {
+            return null;
+        }
+        return ByteSource.Util.bytes(credentials).getBytes();
+    }
+}
@@ -25,8 +25,11 @@ import org.apache.shiro.realm.jdbc.JdbcRealm;
 import org.apache.shiro.subject.PrincipalCollection;
 import org.killbill.billing.platform.glue.KillBillPlatformModuleBase;
 import org.killbill.billing.util.config.definition.SecurityConfig;
+import org.killbill.billing.util.security.shiro.CachingCredentialsMatcher;
 import org.killbill.billing.util.security.shiro.KillbillCredentialsMatcher;
 
+import com.codahale.metrics.MetricRegistry;
+
 public class KillBillJdbcRealm extends JdbcRealm {
 
     protected static final String KILLBILL_SALTED_AUTHENTICATION_QUERY = "select password, password_salt from users where username = ? and is_active = '1'";
@@ -35,12 +38,17 @@ public class KillBillJdbcRealm extends JdbcRealm {
 
     private final DataSource dataSource;
     private final SecurityConfig securityConfig;
+    private final CachingCredentialsMatcher credentialsMatcher;
 
     @Inject
-    public KillBillJdbcRealm(@Named(KillBillPlatformModuleBase.SHIRO_DATA_SOURCE_ID) final DataSource dataSource, final SecurityConfig securityConfig) {
+    public KillBillJdbcRealm(@Named(KillBillPlatformModuleBase.SHIRO_DATA_SOURCE_ID) final DataSource dataSource, final SecurityConfig securityConfig, final MetricRegistry metricRegistry) {
         super();
         this.dataSource = dataSource;
         this.securityConfig = securityConfig;
+        // Successful verifications are remembered by the credentials matcher instead (keyed on the stored credentials, which are
+        // always looked-up), so updated or deactivated users don't need any invalidation
+        this.credentialsMatcher = new CachingCredentialsMatcher(KillbillCredentialsMatcher.getCredentialsMatcher(securityConfig), securityConfig);
+        this.credentialsMatcher.registerMetrics(metricRegistry, getClass().getSimpleName());
 
         // TODO Enable when we add support for cache invalidation
         // See JavaDoc warning: https://shiro.apache.org/static/1.2.3/apidocs/org/apache/shiro/realm/AuthenticatingRealm.html
@@ -63,7 +71,7 @@ public class KillBillJdbcRealm extends JdbcRealm {
 
     private void configureSecurity() {
         setSaltStyle(SaltStyle.COLUMN);
-        setCredentialsMatcher(KillbillCredentialsMatcher.getCredentialsMatcher(securityConfig));
+        setCredentialsMatcher(credentialsMatcher);
     }
 
     private void configureDataSource() {
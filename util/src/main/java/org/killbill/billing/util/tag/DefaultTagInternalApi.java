@@ -17,6 +17,7 @@
 package org.killbill.billing.util.tag;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.inject.Inject;
@@ -76,6 +77,16 @@ public class DefaultTagInternalApi implements TagInternalApi {
         return toTagList(tagDao.getTagsForAccountType(objectType, includedDeleted, internalTenantContext));
     }
 
+    @Override
+    public Set<ControlTagType> getControlTags(final UUID objectId, final ObjectType objectType, final InternalTenantContext context) {
+        return tagDao.getControlTagsForObject(objectId, objectType, context);
+    }
+
+    @Override
+    public void invalidateControlTags(final UUID objectId) {
+        tagDao.invalidateControlTagsForObject(objectId);
+    }
+
     @Override
     public void addTag(final UUID objectId, final ObjectType objectType, final UUID tagDefinitionId, final InternalCallContext context)
             throws TagApiException {
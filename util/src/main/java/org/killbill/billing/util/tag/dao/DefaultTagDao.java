@@ -20,7 +20,9 @@ package org.killbill.billing.util.tag.dao;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.inject.Named;
 
@@ -35,7 +37,11 @@ import org.killbill.billing.util.api.TagApiException;
 import org.killbill.billing.util.audit.AuditLogWithHistory;
 import org.killbill.billing.util.audit.ChangeType;
 import org.killbill.billing.util.audit.dao.AuditDao;
+import org.killbill.billing.util.cache.Cachable.CacheType;
+import org.killbill.billing.util.cache.CacheController;
 import org.killbill.billing.util.cache.CacheControllerDispatcher;
+import org.killbill.billing.util.cache.CacheLoaderArgument;
+import org.killbill.billing.util.cache.ControlTagsCacheLoader;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.billing.util.dao.NonEntityDao;
 import org.killbill.billing.util.dao.TableName;
@@ -57,7 +63,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Predicate;
-import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
@@ -71,6 +76,9 @@ public class DefaultTagDao extends EntityDaoBase<TagModelDao, Tag, TagApiExcepti
     private final TagEventBuilder tagEventBuilder;
     private final PersistentBus bus;
     private final AuditDao auditDao;
+    private final CacheController<UUID, Long> controlTagsCacheController;
+    // Bumped on each control tags invalidation, to detect a load racing with an invalidation
+    private final AtomicLong controlTagsGeneration = new AtomicLong();
 
     @Inject
     public DefaultTagDao(final IDBI dbi, @Named(MAIN_RO_IDBI_NAMED) final IDBI roDbi, final TagEventBuilder tagEventBuilder, final PersistentBus bus, final Clock clock,
@@ -79,6 +87,7 @@ public class DefaultTagDao extends EntityDaoBase<TagModelDao, Tag, TagApiExcepti
         this.tagEventBuilder = tagEventBuilder;
         this.bus = bus;
         this.auditDao = auditDao;
+        this.controlTagsCacheController = controllerDispatcher.getCacheController(CacheType.CONTROL_TAGS);
     }
 
     @Override
@@ -98,13 +107,38 @@ public class DefaultTagDao extends EntityDaoBase<TagModelDao, Tag, TagApiExcepti
 
     @Override
     public List<TagModelDao> getTagsForAccountType(final ObjectType objectType, final boolean includedDeleted, final InternalTenantContext internalTenantContext) {
-        final List<TagModelDao> allTags = getTagsForAccount(includedDeleted, internalTenantContext);
-        return ImmutableList.<TagModelDao>copyOf(Collections2.filter(allTags, new Predicate<TagModelDao>() {
+        return transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<List<TagModelDao>>() {
             @Override
-            public boolean apply(final TagModelDao input) {
-                return input.getObjectType() == objectType;
+            public List<TagModelDao> inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
+                final TagSqlDao tagSqlDao = entitySqlDaoWrapperFactory.become(TagSqlDao.class);
+                if (includedDeleted) {
+                    return tagSqlDao.getTagsForAccountTypeIncludedDeleted(objectType, internalTenantContext);
+                } else {
+                    return tagSqlDao.getTagsForAccountType(objectType, internalTenantContext);
+                }
             }
-        }));
+        });
+    }
+
+    @Override
+    public Set<ControlTagType> getControlTagsForObject(final UUID objectId, final ObjectType objectType, final InternalTenantContext internalTenantContext) {
+        Long controlTagsBitSet = controlTagsCacheController.get(objectId, createControlTagsCacheLoaderArgument(objectType, internalTenantContext));
+        if (controlTagsBitSet == null) {
+            // The load raced with an invalidation and wasn't cached: go to the database
+            controlTagsBitSet = loadControlTagsBitSet(objectId, objectType, internalTenantContext);
+        }
+        return TagModelDaoHelper.fromControlTagsBitSet(controlTagsBitSet);
+    }
+
+    @Override
+    public void invalidateControlTagsForObject(final UUID objectId) {
+        // Bump first: a load which started before the change either sees the new generation (and isn't cached) or is removed below
+        controlTagsGeneration.incrementAndGet();
+        controlTagsCacheController.remove(objectId);
+    }
+
+    private long loadControlTagsBitSet(final UUID objectId, final ObjectType objectType, final InternalTenantContext context) {
+        return TagModelDaoHelper.toControlTagsBitSet(getTagsForObject(objectId, objectType, false, context));
     }
 
     @Override
@@ -204,6 +238,7 @@ public class DefaultTagDao extends EntityDaoBase<TagModelDao, Tag, TagApiExcepti
 
         validateApplicableObjectTypes(entity.getTagDefinitionId(), entity.getObjectType());
         transactionalSqlDao.execute(false, TagApiException.class, getCreateEntitySqlDaoTransactionWrapper(entity, context));
+        invalidateControlTagsForObject(entity.getObjectId());
     }
 
     private void validateApplicableObjectTypes(final UUID tagDefinitionId, final ObjectType objectType) throws TagApiException {
@@ -250,7 +285,23 @@ public class DefaultTagDao extends EntityDaoBase<TagModelDao, Tag, TagApiExcepti
                 return null;
             }
         });
+        invalidateControlTagsForObject(objectId);
+
+    }
 
+    private CacheLoaderArgument createControlTagsCacheLoaderArgument(final ObjectType objectType, final InternalTenantContext context) {
+        final ControlTagsCacheLoader.LoaderCallback loaderCallback = new ControlTagsCacheLoader.LoaderCallback() {
+            @Override
+            public Long loadControlTags(final UUID objectId, final ObjectType objectType, final InternalTenantContext context) {
+                final long generation = controlTagsGeneration.get();
+                final long controlTagsBitSet = loadControlTagsBitSet(objectId, objectType, context);
+                // Possibly stale if the tags changed while loading: null isn't cached
+                return controlTagsGeneration.get() == generation ? controlTagsBitSet : null;
+            }
+        };
+        final Object[] args = new Object[1];
+        args[0] = loaderCallback;
+        return new CacheLoaderArgument(objectType, args, context);
     }
 
     @Override
@@ -263,8 +314,8 @@ public class DefaultTagDao extends EntityDaoBase<TagModelDao, Tag, TagApiExcepti
                                                   }
 
                                                   @Override
-                                                  public Iterator<TagModelDao> build(final TagSqlDao tagSqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
-                                                      return tagSqlDao.search(searchKey, String.format("%%%s%%", searchKey), offset, limit, ordering.toString(), context);
+                                                  public Iterator<TagModelDao> build(final TagSqlDao tagSqlDao, final Long fromRecordId, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                                                      return tagSqlDao.search(searchKey, String.format("%%%s%%", searchKey), fromRecordId, offset, limit, ordering.toString(), context);
                                                   }
                                               },
                                               offset,
@@ -17,6 +17,7 @@
 package org.killbill.billing.util.tag.dao;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.killbill.billing.ObjectType;
@@ -27,6 +28,7 @@ import org.killbill.billing.util.api.TagApiException;
 import org.killbill.billing.util.audit.AuditLogWithHistory;
 import org.killbill.billing.util.entity.Pagination;
 import org.killbill.billing.util.entity.dao.EntityDao;
+import org.killbill.billing.util.tag.ControlTagType;
 import org.killbill.billing.util.tag.Tag;
 
 public interface TagDao extends EntityDao<TagModelDao, Tag, TagApiException> {
@@ -41,6 +43,11 @@ public interface TagDao extends EntityDao<TagModelDao, Tag, TagApiException> {
 
     List<TagModelDao> getTagsForAccount(boolean includedDeleted, InternalTenantContext internalTenantContext);
 
+    // Served from the CONTROL_TAGS cache, only hits the database on a miss
+    Set<ControlTagType> getControlTagsForObject(UUID objectId, ObjectType objectType, InternalTenantContext internalTenantContext);
+
+    void invalidateControlTagsForObject(UUID objectId);
+
     List<AuditLogWithHistory> getTagAuditLogsWithHistoryForId(UUID tagId, AuditLevel auditLevel, InternalTenantContext context);
 
 }
@@ -16,6 +16,9 @@
 
 package org.killbill.billing.util.tag.dao;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.killbill.billing.util.tag.ControlTagType;
@@ -43,4 +46,26 @@ public class TagModelDaoHelper {
 
         return false;
     }
+
+    // Bit i is set if the ControlTagType with ordinal i is active
+    public static long toControlTagsBitSet(final List<TagModelDao> tags) {
+        long bitSet = 0L;
+        for (final TagModelDao tag : tags) {
+            final ControlTagType controlTagType = ControlTagType.getTypeFromId(tag.getTagDefinitionId());
+            if (controlTagType != null) {
+                bitSet |= 1L << controlTagType.ordinal();
+            }
+        }
+        return bitSet;
+    }
+
+    public static Set<ControlTagType> fromControlTagsBitSet(final long bitSet) {
+        final Set<ControlTagType> result = EnumSet.noneOf(ControlTagType.class);
+        for (final ControlTagType controlTagType : ControlTagType.values()) {
+            if ((bitSet & (1L << controlTagType.ordinal())) != 0) {
+                result.add(controlTagType);
+            }
+        }
+        return result;
+    }
 }
@@ -50,4 +50,12 @@ public interface TagSqlDao extends EntitySqlDao<TagModelDao, Tag> {
     List<TagModelDao> getTagsForObjectIncludedDeleted(@Bind("objectId") UUID objectId,
                                                       @Bind("objectType") ObjectType objectType,
                                                       @SmartBindBean InternalTenantContext internalTenantContext);
+
+    @SqlQuery
+    List<TagModelDao> getTagsForAccountType(@Bind("objectType") ObjectType objectType,
+                                            @SmartBindBean InternalTenantContext internalTenantContext);
+
+    @SqlQuery
+    List<TagModelDao> getTagsForAccountTypeIncludedDeleted(@Bind("objectType") ObjectType objectType,
+                                                           @SmartBindBean InternalTenantContext internalTenantContext);
 }
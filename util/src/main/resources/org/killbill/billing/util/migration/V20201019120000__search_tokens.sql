@@ -0,0 +1,10 @@
+CREATE TABLE search_tokens (
+    record_id serial unique,
+    object_type varchar(30) NOT NULL,
+    target_record_id bigint /*! unsigned */ not null,
+    token varchar(255) NOT NULL,
+    tenant_record_id bigint /*! unsigned */ not null default 0,
+    PRIMARY KEY(record_id)
+) /*! CHARACTER SET utf8 COLLATE utf8_bin */;
+CREATE INDEX search_tokens_tenant_object_type_token ON search_tokens(tenant_record_id, object_type, token);
+CREATE INDEX search_tokens_target_record_id_object_type ON search_tokens(target_record_id, object_type);
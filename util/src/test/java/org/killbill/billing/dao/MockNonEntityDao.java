@@ -18,6 +18,7 @@
 
 package org.killbill.billing.dao;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -32,6 +33,8 @@ import org.killbill.billing.util.dao.NonEntitySqlDao;
 import org.killbill.billing.util.dao.TableName;
 import org.skife.jdbi.v2.Handle;
 
+import com.google.common.collect.ImmutableMap;
+
 import static org.killbill.billing.ObjectType.ACCOUNT;
 
 public class MockNonEntityDao implements NonEntityDao {
@@ -62,6 +65,11 @@ public class MockNonEntityDao implements NonEntityDao {
         return null;
     }
 
+    @Override
+    public Map<UUID, Long> retrieveRecordIdsFromObjects(final Collection<UUID> objectIds, final ObjectType objectType, final Long tenantRecordId) {
+        return ImmutableMap.<UUID, Long>of();
+    }
+
     @Override
     public Long retrieveAccountRecordIdFromObject(final UUID objectId, final ObjectType objectType, @Nullable final CacheController<String, Long> cache) {
         return accountRecordIdMappings.get(objectId);
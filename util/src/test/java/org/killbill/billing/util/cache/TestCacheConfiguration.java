@@ -0,0 +1,85 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.cache;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheManager;
+import javax.inject.Inject;
+
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourceType;
+import org.ehcache.expiry.Duration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.killbill.billing.ObjectType;
+import org.killbill.billing.util.UtilTestSuiteNoDB;
+import org.killbill.billing.util.cache.Cachable.CacheType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestCacheConfiguration extends UtilTestSuiteNoDB {
+
+    @Inject
+    private CacheManager cacheManager;
+
+    @Test(groups = "fast")
+    public void testPerCacheTypeConfiguration() throws Exception {
+        final CacheRuntimeConfiguration<Object, Object> recordIdConfiguration = getRuntimeConfiguration(CacheType.RECORD_ID);
+        Assert.assertEquals(recordIdConfiguration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize(), 250000L);
+        Assert.assertEquals(recordIdConfiguration.getExpiry().getExpiryForCreation("key", 1L), Duration.INFINITE);
+
+        final CacheRuntimeConfiguration<Object, Object> accountConfiguration = getRuntimeConfiguration(CacheType.ACCOUNT_IMMUTABLE);
+        Assert.assertEquals(accountConfiguration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize(), 50000L);
+        Assert.assertEquals(accountConfiguration.getExpiry().getExpiryForAccess(1L, null), new Duration(1, TimeUnit.HOURS));
+
+        // Not invalidated across nodes: short time-to-live
+        final CacheRuntimeConfiguration<Object, Object> controlTagsConfiguration = getRuntimeConfiguration(CacheType.CONTROL_TAGS);
+        Assert.assertEquals(controlTagsConfiguration.getExpiry().getExpiryForCreation(UUID.randomUUID(), 1L), new Duration(10, TimeUnit.SECONDS));
+
+        final CacheRuntimeConfiguration<Object, Object> catalogConfiguration = getRuntimeConfiguration(CacheType.TENANT_CATALOG);
+        Assert.assertEquals(catalogConfiguration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize(), 500L);
+        Assert.assertNull(catalogConfiguration.getResourcePools().getPoolForResource(ResourceType.Core.OFFHEAP));
+    }
+
+    @Test(groups = "fast")
+    public void testStatistics() throws Exception {
+        final CacheController<Object, Object> cacheController = cacheControllerDispatcher.getCacheController(CacheType.ACCOUNT_ID_FROM_BUNDLE_ID);
+        final UUID bundleId = UUID.randomUUID();
+        final UUID accountId = UUID.randomUUID();
+        cacheController.putIfAbsent(bundleId, accountId);
+
+        final CacheStatistics before = cacheController.getStatistics();
+        Assert.assertNotNull(before);
+
+        Assert.assertEquals(cacheController.get(bundleId, new CacheLoaderArgument(ObjectType.BUNDLE)), accountId);
+        Assert.assertEquals(cacheController.get(bundleId, new CacheLoaderArgument(ObjectType.BUNDLE)), accountId);
+
+        final CacheStatistics after = cacheController.getStatistics();
+        Assert.assertEquals(after.getHits() - before.getHits(), 2);
+        Assert.assertEquals(after.getMisses(), before.getMisses());
+        Assert.assertTrue(after.getHitRatio() > 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheRuntimeConfiguration<Object, Object> getRuntimeConfiguration(final CacheType cacheType) {
+        final Eh107Configuration<Object, Object> configuration = cacheManager.getCache(cacheType.getCacheName(), cacheType.getKeyType(), cacheType.getValueType())
+                                                                   .getConfiguration(Eh107Configuration.class);
+        return configuration.unwrap(CacheRuntimeConfiguration.class);
+    }
+}
@@ -19,10 +19,13 @@
 package org.killbill.billing.util.callcontext;
 
 import java.util.Date;
+import java.util.Map;
 import java.util.UUID;
 
 import org.killbill.billing.ObjectType;
 import org.killbill.billing.account.api.ImmutableAccountData;
+import org.killbill.billing.callcontext.ContextResolutionCache;
+import org.killbill.billing.callcontext.DefaultCallContext;
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.util.UtilTestSuiteWithEmbeddedDB;
@@ -34,6 +37,8 @@ import org.skife.jdbi.v2.util.LongMapper;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
+
 public class TestInternalCallContextFactory extends UtilTestSuiteWithEmbeddedDB {
 
     @Test(groups = "slow")
@@ -91,6 +96,83 @@ public class TestInternalCallContextFactory extends UtilTestSuiteWithEmbeddedDB
         verifyInternalCallContext(context);
     }
 
+    @Test(groups = "slow")
+    public void testRecordIdsAreResolvedOncePerContext() throws Exception {
+        final UUID invoiceId1 = UUID.randomUUID();
+        final UUID invoiceId2 = UUID.randomUUID();
+        final Long accountRecordId = 19384013L;
+
+        final ImmutableAccountData immutableAccountData = Mockito.mock(ImmutableAccountData.class);
+        Mockito.when(immutableAccountInternalApi.getImmutableAccountDataByRecordId(Mockito.<Long>eq(accountRecordId), Mockito.<InternalTenantContext>any())).thenReturn(immutableAccountData);
+
+        dbi.withHandle(new HandleCallback<Void>() {
+            @Override
+            public Void withHandle(final Handle handle) throws Exception {
+                for (final UUID invoiceId : ImmutableList.<UUID>of(invoiceId1, invoiceId2)) {
+                    handle.execute("insert into invoices (id, account_id, invoice_date, target_date, currency, status, migrated, created_by, created_date, account_record_id, tenant_record_id) values " +
+                                   "(?, ?, ?, ?, 'USD', 'COMMITTED', '0', 'test', ?, ?, ?)", invoiceId.toString(), UUID.randomUUID().toString(), new Date(), new Date(), new Date(), accountRecordId, internalCallContext.getTenantRecordId());
+                }
+                return null;
+            }
+        });
+
+        final DefaultCallContext requestContext = new DefaultCallContext(callContext);
+        final ContextResolutionCache resolutionCache = requestContext.getResolutionCache();
+
+        final InternalCallContext context1 = internalCallContextFactory.createInternalCallContext(invoiceId1, ObjectType.INVOICE, requestContext);
+        Assert.assertEquals(context1.getAccountRecordId(), accountRecordId);
+        // Tenant record id of the invoice, account record id of the invoice and account data
+        Assert.assertEquals(resolutionCache.getRoundTrips(), 3);
+        Assert.assertEquals(resolutionCache.getHits(), 0);
+
+        final InternalCallContext context2 = internalCallContextFactory.createInternalCallContext(invoiceId1, ObjectType.INVOICE, requestContext);
+        Assert.assertEquals(context2.getAccountRecordId(), accountRecordId);
+        Assert.assertEquals(resolutionCache.getRoundTrips(), 3);
+        Assert.assertEquals(resolutionCache.getHits(), 3);
+
+        final Map<UUID, Long> recordIds = internalCallContextFactory.getRecordIdsFromObjects(ImmutableList.<UUID>of(invoiceId1, invoiceId2, UUID.randomUUID()), ObjectType.INVOICE, requestContext);
+        Assert.assertEquals(recordIds.size(), 2);
+        Assert.assertEquals(recordIds.get(invoiceId1), internalCallContextFactory.getRecordIdFromObject(invoiceId1, ObjectType.INVOICE, callContext));
+        Assert.assertEquals(recordIds.get(invoiceId2), internalCallContextFactory.getRecordIdFromObject(invoiceId2, ObjectType.INVOICE, callContext));
+        Assert.assertEquals(resolutionCache.getRoundTrips(), 4);
+
+        // Already resolved, no additional query
+        Assert.assertEquals(internalCallContextFactory.getRecordIdsFromObjects(ImmutableList.<UUID>of(invoiceId1, invoiceId2), ObjectType.INVOICE, requestContext), recordIds);
+        Assert.assertEquals(resolutionCache.getRoundTrips(), 4);
+    }
+
+    @Test(groups = "slow")
+    public void testAccountRecordIdsAreResolvedInBulk() throws Exception {
+        final UUID accountId = UUID.randomUUID();
+        final Long accountRecordId = dbi.withHandle(new HandleCallback<Long>() {
+            @Override
+            public Long withHandle(final Handle handle) throws Exception {
+                final Update stmt = handle.createStatement("insert into accounts (id, external_key, email, name, first_name_length, reference_time, time_zone, created_date, created_by, updated_date, updated_by, tenant_record_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                int position = 0;
+                for (final Object arg : new Object[]{accountId.toString(), accountId.toString(), "yo@t.com", "toto", 4, new Date(), "UTC", new Date(), "i", new Date(), "j", internalCallContext.getTenantRecordId()}) {
+                    stmt.bind(position++, arg);
+                }
+                return stmt.executeAndReturnGeneratedKeys(new LongMapper(), "record_id").first();
+            }
+        });
+
+        final ImmutableAccountData immutableAccountData = Mockito.mock(ImmutableAccountData.class);
+        Mockito.when(immutableAccountInternalApi.getImmutableAccountDataByRecordId(Mockito.<Long>eq(accountRecordId), Mockito.<InternalTenantContext>any())).thenReturn(immutableAccountData);
+
+        final DefaultCallContext requestContext = new DefaultCallContext(callContext);
+        final ContextResolutionCache resolutionCache = requestContext.getResolutionCache();
+
+        final Map<UUID, Long> recordIds = internalCallContextFactory.getRecordIdsFromObjects(ImmutableList.<UUID>of(accountId), ObjectType.ACCOUNT, requestContext);
+        Assert.assertEquals(recordIds.get(accountId), accountRecordId);
+        Assert.assertEquals(resolutionCache.getRoundTrips(), 1);
+
+        // Only the account data is still retrieved
+        final InternalCallContext context = internalCallContextFactory.createInternalCallContext(accountId, ObjectType.ACCOUNT, requestContext);
+        Assert.assertEquals(context.getAccountRecordId(), accountRecordId);
+        Assert.assertEquals(resolutionCache.getRoundTrips(), 2);
+        Assert.assertEquals(resolutionCache.getHits(), 2);
+    }
+
     private void verifyInternalCallContext(final InternalCallContext context) {
         Assert.assertEquals(context.getCallOrigin(), callContext.getCallOrigin());
         Assert.assertEquals(context.getComments(), callContext.getComments());
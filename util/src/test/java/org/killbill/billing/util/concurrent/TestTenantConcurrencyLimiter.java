@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.killbill.billing.util.UtilTestSuiteNoDB;
+import org.killbill.billing.util.concurrent.TenantConcurrencyLimiter.Permit;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestTenantConcurrencyLimiter extends UtilTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testCapPerTenant() throws Exception {
+        final TenantConcurrencyLimiter limiter = new TenantConcurrencyLimiter(TestTenantConcurrencyLimiter.class, "testCapPerTenant");
+
+        final Permit permit1 = limiter.acquire(1L, 2, 10, TimeUnit.MILLISECONDS);
+        final Permit permit2 = limiter.acquire(1L, 2, 10, TimeUnit.MILLISECONDS);
+        Assert.assertNotNull(permit1);
+        Assert.assertNotNull(permit2);
+
+        // Tenant 1 is at capacity
+        Assert.assertNull(limiter.acquire(1L, 2, 10, TimeUnit.MILLISECONDS));
+        // But not tenant 2
+        final Permit otherTenantPermit = limiter.acquire(2L, 2, 10, TimeUnit.MILLISECONDS);
+        Assert.assertNotNull(otherTenantPermit);
+        // No cap
+        Assert.assertNotNull(limiter.acquire(1L, 0, 10, TimeUnit.MILLISECONDS));
+        Assert.assertNotNull(limiter.acquire(null, 2, 10, TimeUnit.MILLISECONDS));
+
+        permit1.release();
+        // Releasing twice doesn't free an extra slot
+        permit1.release();
+        final Permit permit3 = limiter.acquire(1L, 2, 10, TimeUnit.MILLISECONDS);
+        Assert.assertNotNull(permit3);
+        Assert.assertNull(limiter.acquire(1L, 2, 10, TimeUnit.MILLISECONDS));
+
+        permit2.release();
+        permit3.release();
+        otherTenantPermit.release();
+    }
+
+    @Test(groups = "fast")
+    public void testWaitForSlot() throws Exception {
+        final TenantConcurrencyLimiter limiter = new TenantConcurrencyLimiter(TestTenantConcurrencyLimiter.class, "testWaitForSlot");
+
+        final Permit permit = limiter.acquire(1L, 1, 10, TimeUnit.MILLISECONDS);
+        Assert.assertNotNull(permit);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Permit> waiter = executor.submit(new Callable<Permit>() {
+                @Override
+                public Permit call() throws Exception {
+                    return limiter.acquire(1L, 1, 10, TimeUnit.SECONDS);
+                }
+            });
+
+            Thread.sleep(100);
+            Assert.assertFalse(waiter.isDone());
+
+            permit.release();
+            final Permit waiterPermit = waiter.get(5, TimeUnit.SECONDS);
+            Assert.assertNotNull(waiterPermit);
+            waiterPermit.release();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
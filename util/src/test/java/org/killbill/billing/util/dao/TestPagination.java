@@ -19,11 +19,14 @@ package org.killbill.billing.util.dao;
 import java.util.List;
 
 import org.killbill.billing.ObjectType;
+import org.killbill.billing.callcontext.InternalTenantContext;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import org.killbill.billing.api.TestApiListener.NextEvent;
 import org.killbill.billing.util.UtilTestSuiteWithEmbeddedDB;
+import org.killbill.billing.util.entity.Pagination;
+import org.killbill.billing.util.entity.dao.SeekPaginationToken;
 import org.killbill.billing.util.tag.dao.TagDefinitionModelDao;
 import org.killbill.billing.util.tag.dao.TagDefinitionSqlDao;
 
@@ -45,12 +48,12 @@ public class TestPagination extends UtilTestSuiteWithEmbeddedDB {
 
         // Tests via SQL dao directly
         Assert.assertEquals(ImmutableList.<TagDefinitionModelDao>copyOf(tagDefinitionSqlDao.getAll(internalCallContext)).size(), 10);
-        Assert.assertEquals(ImmutableList.<TagDefinitionModelDao>copyOf(tagDefinitionSqlDao.get(0L, 100L, "record_id", "asc", internalCallContext)).size(), 10);
-        Assert.assertEquals(ImmutableList.<TagDefinitionModelDao>copyOf(tagDefinitionSqlDao.get(5L, 100L, "record_id", "asc", internalCallContext)).size(), 5);
-        Assert.assertEquals(ImmutableList.<TagDefinitionModelDao>copyOf(tagDefinitionSqlDao.get(5L, 10L, "record_id", "asc", internalCallContext)).size(), 5);
-        Assert.assertEquals(ImmutableList.<TagDefinitionModelDao>copyOf(tagDefinitionSqlDao.get(0L, 5L, "record_id", "asc", internalCallContext)).size(), 5);
+        Assert.assertEquals(ImmutableList.<TagDefinitionModelDao>copyOf(tagDefinitionSqlDao.get(0L, 0L, 100L, "record_id", "asc", internalCallContext)).size(), 10);
+        Assert.assertEquals(ImmutableList.<TagDefinitionModelDao>copyOf(tagDefinitionSqlDao.get(0L, 5L, 100L, "record_id", "asc", internalCallContext)).size(), 5);
+        Assert.assertEquals(ImmutableList.<TagDefinitionModelDao>copyOf(tagDefinitionSqlDao.get(0L, 5L, 10L, "record_id", "asc", internalCallContext)).size(), 5);
+        Assert.assertEquals(ImmutableList.<TagDefinitionModelDao>copyOf(tagDefinitionSqlDao.get(0L, 0L, 5L, "record_id", "asc", internalCallContext)).size(), 5);
         for (int i = 0; i < 10; i++) {
-            final List<TagDefinitionModelDao> tagDefinitions = ImmutableList.<TagDefinitionModelDao>copyOf(tagDefinitionSqlDao.get(0L, (long) i, "record_id", "asc", internalCallContext));
+            final List<TagDefinitionModelDao> tagDefinitions = ImmutableList.<TagDefinitionModelDao>copyOf(tagDefinitionSqlDao.get(0L, 0L, (long) i, "record_id", "asc", internalCallContext));
             Assert.assertEquals(tagDefinitions.size(), i);
 
             for (int j = 0; j < tagDefinitions.size(); j++) {
@@ -75,4 +78,64 @@ public class TestPagination extends UtilTestSuiteWithEmbeddedDB {
             }
         }
     }
+
+    @Test(groups = "slow", description = "Test Pagination: seek (keyset) mode")
+    public void testTagDefinitionsSeekPagination() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            eventsListener.pushExpectedEvent(NextEvent.TAG_DEFINITION);
+            tagDefinitionDao.create("name-" + i, "description-" + i, ObjectType.ACCOUNT.name(), internalCallContext);
+            assertListenerStatus();
+        }
+
+        // Walk the table 2 by 2, starting with an empty token
+        String token = "";
+        int nbPages = 0;
+        int nbResults = 0;
+        while (token != null) {
+            // The offset is ignored in seek mode
+            final Pagination<TagDefinitionModelDao> page = tagDefinitionDao.get(100L, 2L, toSeekContext(token));
+            Assert.assertTrue(SeekPaginationToken.isSeekPagination(page));
+            // Counts aren't computed in seek mode
+            Assert.assertNull(page.getTotalNbRecords());
+            Assert.assertNull(page.getMaxNbRecords());
+            for (final TagDefinitionModelDao tagDefinition : page) {
+                Assert.assertEquals(tagDefinition.getName(), "name-" + nbResults);
+                nbResults++;
+            }
+            token = SeekPaginationToken.getNextToken(page);
+            nbPages++;
+        }
+        Assert.assertEquals(nbResults, 5);
+        Assert.assertEquals(nbPages, 3);
+
+        // Full last page: one extra (empty) round-trip is needed to find out we're done
+        final Pagination<TagDefinitionModelDao> fullPage = tagDefinitionDao.get(0L, 5L, toSeekContext(""));
+        Assert.assertEquals(ImmutableList.<TagDefinitionModelDao>copyOf(fullPage).size(), 5);
+        final String nextToken = SeekPaginationToken.getNextToken(fullPage);
+        Assert.assertNotNull(nextToken);
+        final Pagination<TagDefinitionModelDao> emptyPage = tagDefinitionDao.get(0L, 5L, toSeekContext(nextToken));
+        Assert.assertEquals(ImmutableList.<TagDefinitionModelDao>copyOf(emptyPage).size(), 0);
+        Assert.assertNull(SeekPaginationToken.getNextToken(emptyPage));
+
+        // The position travels with the context given to the APIs
+        final InternalTenantContext seekContext = internalCallContextFactory.createInternalTenantContextWithoutAccountRecordId(SeekPaginationToken.withToken(callContext, nextToken));
+        Assert.assertEquals(seekContext.getSeekFromRecordId(), SeekPaginationToken.decode(nextToken));
+        Assert.assertNull(internalCallContextFactory.createInternalTenantContextWithoutAccountRecordId(callContext).getSeekFromRecordId());
+
+        try {
+            SeekPaginationToken.decode("not-a-token");
+            Assert.fail("Invalid token should have been rejected");
+        } catch (final IllegalArgumentException expected) {
+        }
+
+        // Back to the offset mode
+        final Pagination<TagDefinitionModelDao> page = tagDefinitionDao.get(3L, 5L, internalCallContext);
+        Assert.assertEquals(page.getTotalNbRecords(), (Long) 5L);
+        Assert.assertEquals(ImmutableList.<TagDefinitionModelDao>copyOf(page).size(), 2);
+        Assert.assertFalse(SeekPaginationToken.isSeekPagination(page));
+    }
+
+    private InternalTenantContext toSeekContext(final String token) {
+        return new InternalTenantContext(internalCallContext.getTenantRecordId(), null, null, null, SeekPaginationToken.decode(token));
+    }
 }
@@ -102,6 +102,7 @@ public class TestStringTemplateInheritance extends UtilTestSuiteNoDB {
                                          "  select record_id\r?\n" +
                                          "  from kombucha\r?\n" +
                                          "  where tenant_record_id = :tenantRecordId\r?\n" +
+                                         "  and record_id > :fromRecordId\r?\n" +
                                          "  order by record_id ASC\r?\n" +
                                          "  limit :rowCount offset :offset\r?\n" +
                                          "\\) optimization on optimization.record_id = t.record_id\r?\n" +
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.entity.dao;
+
+import java.sql.Statement;
+import java.util.Iterator;
+
+import org.killbill.billing.util.UtilTestSuiteNoDB;
+import org.mockito.Mockito;
+import org.skife.jdbi.v2.ResultIterator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class TestCancellableResultIterator extends UtilTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testCloseBeforeEnd() throws Exception {
+        final Statement statement = Mockito.mock(Statement.class);
+        final ResultIterator<String> results = createResultIterator(true);
+
+        CancellableResultIterator.setLastExecutedStatement(statement);
+        final CancellableResultIterator<String> iterator = CancellableResultIterator.wrapLastExecutedQuery(results);
+        iterator.close();
+
+        Mockito.verify(statement, Mockito.times(1)).cancel();
+        Mockito.verify(results, Mockito.times(1)).close();
+    }
+
+    @Test(groups = "fast")
+    public void testCloseAtTheEnd() throws Exception {
+        final Statement statement = Mockito.mock(Statement.class);
+        final ResultIterator<String> results = createResultIterator(false);
+
+        CancellableResultIterator.setLastExecutedStatement(statement);
+        final CancellableResultIterator<String> iterator = CancellableResultIterator.wrapLastExecutedQuery(results);
+        iterator.close();
+
+        Mockito.verify(statement, Mockito.never()).cancel();
+        Mockito.verify(results, Mockito.times(1)).close();
+    }
+
+    @Test(groups = "fast")
+    public void testStatementNotCaptured() throws Exception {
+        final Statement statement = Mockito.mock(Statement.class);
+        CancellableResultIterator.setLastExecutedStatement(statement);
+        CancellableResultIterator.clearLastExecutedStatement(statement);
+
+        final Iterator<String> results = ImmutableList.<String>of("a", "b").iterator();
+        final CancellableResultIterator<String> iterator = CancellableResultIterator.wrapLastExecutedQuery(results);
+        Assert.assertEquals(iterator.next(), "a");
+        iterator.close();
+
+        Mockito.verify(statement, Mockito.never()).cancel();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResultIterator<String> createResultIterator(final boolean hasNext) {
+        final ResultIterator<String> results = Mockito.mock(ResultIterator.class);
+        Mockito.when(results.hasNext()).thenReturn(hasNext);
+        return results;
+    }
+}
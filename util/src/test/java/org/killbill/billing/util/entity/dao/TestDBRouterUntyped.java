@@ -0,0 +1,196 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.entity.dao;
+
+import java.util.concurrent.TimeUnit;
+
+import org.killbill.billing.util.UtilTestSuiteNoDB;
+import org.killbill.commons.profiling.Profiling.WithProfilingCallback;
+import org.mockito.Mockito;
+import org.skife.jdbi.v2.IDBI;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+public class TestDBRouterUntyped extends UtilTestSuiteNoDB {
+
+    private static final Long ACCOUNT_RECORD_ID = 1L;
+    private static final Long OTHER_ACCOUNT_RECORD_ID = 2L;
+
+    private final DBRouterUntyped dbRouter = new DBRouterUntyped(Mockito.mock(IDBI.class), Mockito.mock(IDBI.class));
+
+    @AfterMethod(groups = "fast")
+    public void afterMethod() throws Exception {
+        AccountWriteTracker.setWindow(AccountWriteTracker.DEFAULT_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Test(groups = "fast")
+    public void testRODBINotAllowed() throws Throwable {
+        for (final ReadConsistency consistency : ReadConsistency.values()) {
+            Assert.assertFalse(dbRouter.shouldUseRODBI(consistency, null));
+        }
+
+        DBRouterUntyped.withRODBIAllowed(false, new WithProfilingCallback<Object, Throwable>() {
+            @Override
+            public Object execute() throws Throwable {
+                for (final ReadConsistency consistency : ReadConsistency.values()) {
+                    Assert.assertFalse(dbRouter.shouldUseRODBI(consistency, null));
+                }
+                return null;
+            }
+        });
+    }
+
+    @Test(groups = "fast")
+    public void testWriteInThread() throws Throwable {
+        DBRouterUntyped.withRODBIAllowed(true, new WithProfilingCallback<Object, Throwable>() {
+            @Override
+            public Object execute() throws Throwable {
+                Assert.assertTrue(dbRouter.shouldUseRODBI(true));
+                Assert.assertTrue(dbRouter.shouldUseRODBI(ReadConsistency.READ_YOUR_WRITES, OTHER_ACCOUNT_RECORD_ID));
+                Assert.assertTrue(dbRouter.shouldUseRODBI(ReadConsistency.EVENTUAL, null));
+                Assert.assertFalse(dbRouter.shouldUseRODBI(ReadConsistency.STRONG, null));
+
+                // Write
+                Assert.assertFalse(dbRouter.shouldUseRODBI(false));
+                Assert.assertEquals(DBRouterUntyped.getCurrentState(), DBRouterUntyped.THREAD_STATE.RW_ONLY);
+
+                Assert.assertFalse(dbRouter.shouldUseRODBI(true));
+                Assert.assertFalse(dbRouter.shouldUseRODBI(ReadConsistency.READ_YOUR_WRITES, OTHER_ACCOUNT_RECORD_ID));
+                Assert.assertFalse(dbRouter.shouldUseRODBI(ReadConsistency.STRONG, null));
+                // Replication delay is acceptable
+                Assert.assertTrue(dbRouter.shouldUseRODBI(ReadConsistency.EVENTUAL, null));
+                return null;
+            }
+        });
+
+        // State is restored
+        Assert.assertEquals(DBRouterUntyped.getCurrentState(), DBRouterUntyped.THREAD_STATE.RW_ONLY);
+        Assert.assertFalse(dbRouter.shouldUseRODBI(ReadConsistency.EVENTUAL, null));
+    }
+
+    @Test(groups = "fast")
+    public void testTrackedWriteInThread() throws Throwable {
+        DBRouterUntyped.withRODBIAllowed(true, new WithProfilingCallback<Object, Throwable>() {
+            @Override
+            public Object execute() throws Throwable {
+                // Write on behalf of a known account
+                writeInTransaction(ACCOUNT_RECORD_ID);
+                Assert.assertEquals(DBRouterUntyped.getCurrentState(), DBRouterUntyped.THREAD_STATE.RW_ONLY);
+
+                // Only the reads for that account are redirected
+                Assert.assertFalse(dbRouter.shouldUseRODBI(ReadConsistency.READ_YOUR_WRITES, ACCOUNT_RECORD_ID));
+                Assert.assertTrue(dbRouter.shouldUseRODBI(ReadConsistency.READ_YOUR_WRITES, OTHER_ACCOUNT_RECORD_ID));
+                Assert.assertTrue(dbRouter.shouldUseRODBI(ReadConsistency.EVENTUAL, ACCOUNT_RECORD_ID));
+                // Account unknown
+                Assert.assertFalse(dbRouter.shouldUseRODBI(ReadConsistency.READ_YOUR_WRITES, null));
+                Assert.assertFalse(dbRouter.shouldUseRODBI(true));
+
+                // Write whose account isn't known: the thread falls back to the RW DBI
+                writeInTransaction(null);
+                Assert.assertFalse(dbRouter.shouldUseRODBI(ReadConsistency.READ_YOUR_WRITES, OTHER_ACCOUNT_RECORD_ID));
+                Assert.assertTrue(dbRouter.shouldUseRODBI(ReadConsistency.EVENTUAL, OTHER_ACCOUNT_RECORD_ID));
+                return null;
+            }
+        });
+
+        DBRouterUntyped.withRODBIAllowed(true, new WithProfilingCallback<Object, Throwable>() {
+            @Override
+            public Object execute() throws Throwable {
+                // Tracking disabled
+                AccountWriteTracker.setWindow(0, TimeUnit.MILLISECONDS);
+                writeInTransaction(ACCOUNT_RECORD_ID);
+                Assert.assertFalse(dbRouter.shouldUseRODBI(ReadConsistency.READ_YOUR_WRITES, OTHER_ACCOUNT_RECORD_ID));
+                return null;
+            }
+        });
+    }
+
+    @Test(groups = "fast")
+    public void testWindowStartsAtCommit() throws Throwable {
+        DBRouterUntyped.withRODBIAllowed(true, new WithProfilingCallback<Object, Throwable>() {
+            @Override
+            public Object execute() throws Throwable {
+                AccountWriteTracker.startTransaction();
+                AccountWriteTracker.recordWrite(ACCOUNT_RECORD_ID);
+
+                // Nested transaction
+                AccountWriteTracker.startTransaction();
+                AccountWriteTracker.recordWrite(OTHER_ACCOUNT_RECORD_ID);
+                Assert.assertTrue(AccountWriteTracker.endTransaction());
+                Assert.assertNotNull(AccountWriteTracker.getLastWriteAgeNanos(OTHER_ACCOUNT_RECORD_ID));
+
+                // Not committed yet
+                Assert.assertNull(AccountWriteTracker.getLastWriteAgeNanos(ACCOUNT_RECORD_ID));
+                Assert.assertTrue(dbRouter.shouldUseRODBI(ReadConsistency.READ_YOUR_WRITES, ACCOUNT_RECORD_ID));
+
+                Assert.assertTrue(AccountWriteTracker.endTransaction());
+                Assert.assertNotNull(AccountWriteTracker.getLastWriteAgeNanos(ACCOUNT_RECORD_ID));
+                Assert.assertFalse(dbRouter.shouldUseRODBI(ReadConsistency.READ_YOUR_WRITES, ACCOUNT_RECORD_ID));
+
+                // Transactions without any write, or with writes whose account isn't known
+                AccountWriteTracker.startTransaction();
+                Assert.assertFalse(AccountWriteTracker.endTransaction());
+                AccountWriteTracker.startTransaction();
+                AccountWriteTracker.recordWrite(ACCOUNT_RECORD_ID);
+                AccountWriteTracker.recordWrite(null);
+                Assert.assertFalse(AccountWriteTracker.endTransaction());
+                return null;
+            }
+        });
+    }
+
+    @Test(groups = "fast")
+    public void testWriteInAnotherThread() throws Throwable {
+        final Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                AccountWriteTracker.recordWrite(ACCOUNT_RECORD_ID);
+            }
+        });
+        writer.start();
+        writer.join();
+
+        DBRouterUntyped.withRODBIAllowed(true, new WithProfilingCallback<Object, Throwable>() {
+            @Override
+            public Object execute() throws Throwable {
+                Assert.assertFalse(dbRouter.shouldUseRODBI(ReadConsistency.READ_YOUR_WRITES, ACCOUNT_RECORD_ID));
+                Assert.assertTrue(dbRouter.shouldUseRODBI(ReadConsistency.READ_YOUR_WRITES, OTHER_ACCOUNT_RECORD_ID));
+                // Account unknown
+                Assert.assertTrue(dbRouter.shouldUseRODBI(ReadConsistency.READ_YOUR_WRITES, null));
+                Assert.assertTrue(dbRouter.shouldUseRODBI(ReadConsistency.EVENTUAL, ACCOUNT_RECORD_ID));
+
+                // Tracking disabled
+                AccountWriteTracker.setWindow(0, TimeUnit.MILLISECONDS);
+                AccountWriteTracker.recordWrite(ACCOUNT_RECORD_ID);
+                Assert.assertTrue(dbRouter.shouldUseRODBI(ReadConsistency.READ_YOUR_WRITES, ACCOUNT_RECORD_ID));
+                return null;
+            }
+        });
+    }
+
+    // See EntitySqlDaoTransactionalJdbiWrapper
+    private void writeInTransaction(final Long accountRecordId) {
+        dbRouter.getHandleForTrackedWrites();
+        AccountWriteTracker.startTransaction();
+        AccountWriteTracker.recordWrite(accountRecordId);
+        if (!AccountWriteTracker.endTransaction()) {
+            DBRouterUntyped.untrackedWrite();
+        }
+    }
+}
@@ -19,6 +19,8 @@ package org.killbill.billing.util.entity.dao;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.util.UtilTestSuiteWithEmbeddedDB;
@@ -26,6 +28,7 @@ import org.killbill.billing.util.dao.DefaultKombuchaModelDao;
 import org.killbill.billing.util.dao.Kombucha;
 import org.killbill.billing.util.dao.KombuchaModelDao;
 import org.killbill.billing.util.dao.KombuchaSqlDao;
+import org.killbill.billing.util.entity.DefaultPagination;
 import org.killbill.billing.util.entity.Pagination;
 import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.Ordering;
 import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.PaginationIteratorBuilder;
@@ -33,7 +36,9 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.google.common.base.Function;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 
 public class TestDefaultPaginationSqlDaoHelper extends UtilTestSuiteWithEmbeddedDB {
 
@@ -85,6 +90,37 @@ public class TestDefaultPaginationSqlDaoHelper extends UtilTestSuiteWithEmbedded
         searchAndValidateKombuchas("jasmin", 0L, 100L, 4, 1L, 1L, null, 0L, null);
     }
 
+    @Test(groups = "slow")
+    public void testCloseBeforeEnd() throws Exception {
+        insertKombuchas(4);
+
+        // More than the pool size: connections would be exhausted if they weren't released
+        for (int i = 0; i < 50; i++) {
+            final Pagination<KombuchaModelDao> pagination = searchKombuchas("ginger", 0L, 100L, 100L);
+            Assert.assertTrue(pagination.iterator() instanceof CancellableResultIterator);
+
+            // DAO -> API bridge
+            final AtomicInteger nbConverted = new AtomicInteger();
+            final Pagination<UUID> apiPagination = new DefaultPagination<UUID>(pagination,
+                                                                               100L,
+                                                                               Iterators.<KombuchaModelDao, UUID>transform(pagination.iterator(),
+                                                                                                                           new Function<KombuchaModelDao, UUID>() {
+                                                                                                                               @Override
+                                                                                                                               public UUID apply(final KombuchaModelDao input) {
+                                                                                                                                   nbConverted.incrementAndGet();
+                                                                                                                                   return input.getId();
+                                                                                                                               }
+                                                                                                                           }));
+
+            // The client goes away before reading the results
+            Assert.assertTrue(apiPagination.iterator().hasNext());
+            apiPagination.close();
+
+            // The remaining results were neither fetched nor converted
+            Assert.assertEquals(nbConverted.get(), 0);
+        }
+    }
+
     private void searchAndValidateKombuchas(final String tea,
                                             final Long offset,
                                             final Long limit,
@@ -113,8 +149,8 @@ public class TestDefaultPaginationSqlDaoHelper extends UtilTestSuiteWithEmbedded
             }
 
             @Override
-            public Iterator<KombuchaModelDao> build(final EntitySqlDao<KombuchaModelDao, Kombucha> sqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
-                return sqlDao.search(searchKey, String.format("%%%s%%", searchKey), offset, limit, ordering.toString(), context);
+            public Iterator<KombuchaModelDao> build(final EntitySqlDao<KombuchaModelDao, Kombucha> sqlDao, final Long fromRecordId, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                return sqlDao.search(searchKey, String.format("%%%s%%", searchKey), fromRecordId, offset, limit, ordering.toString(), context);
             }
         };
 
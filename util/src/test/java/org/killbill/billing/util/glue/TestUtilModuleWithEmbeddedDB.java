@@ -34,6 +34,7 @@ import org.killbill.clock.ClockMock;
 import org.killbill.commons.embeddeddb.EmbeddedDB;
 import org.mockito.Mockito;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
@@ -64,14 +65,14 @@ public class TestUtilModuleWithEmbeddedDB extends TestUtilModule {
 
     @Provides
     @Singleton
-    protected Set<Realm> provideRealms(final EmbeddedDB embeddedDB, final SecurityConfig securityConfig) throws IOException {
+    protected Set<Realm> provideRealms(final EmbeddedDB embeddedDB, final SecurityConfig securityConfig, final MetricRegistry metricRegistry) throws IOException {
         final Ini ini = new Ini();
         ini.load("[users]\n" +
                  "tester = tester, creditor\n" +
                  "[roles]\n" +
                  "creditor = invoice:credit, customx:customy\n");
         final Realm iniRealm = new IniRealm(ini);
-        final Realm killBillJdbcRealm = new KillBillJdbcRealm(embeddedDB.getDataSource(), securityConfig);
+        final Realm killBillJdbcRealm = new KillBillJdbcRealm(embeddedDB.getDataSource(), securityConfig, metricRegistry);
 
         return ImmutableSet.<Realm>of(iniRealm, killBillJdbcRealm);
     }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.metrics;
+
+import org.killbill.billing.util.UtilTestSuiteNoDB;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.codahale.metrics.Snapshot;
+
+public class TestBucketedReservoir extends UtilTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testBuckets() throws Exception {
+        long previousUpperBound = -1;
+        for (int i = 0; i < BucketedReservoir.NB_BUCKETS; i++) {
+            // Buckets are contiguous
+            Assert.assertEquals(BucketedReservoir.bucketLowerBound(i), previousUpperBound + 1);
+            Assert.assertTrue(BucketedReservoir.bucketUpperBound(i) >= BucketedReservoir.bucketLowerBound(i));
+            Assert.assertEquals(BucketedReservoir.bucketIndex(BucketedReservoir.bucketLowerBound(i)), i);
+            Assert.assertEquals(BucketedReservoir.bucketIndex(BucketedReservoir.bucketUpperBound(i)), i);
+            previousUpperBound = BucketedReservoir.bucketUpperBound(i);
+        }
+
+        // Small values are exact
+        for (int i = 0; i < 32; i++) {
+            Assert.assertEquals(BucketedReservoir.bucketIndex(i), i);
+        }
+
+        // Relative error of at most 1/16
+        for (final long value : new long[]{33, 1000, 123456, 987654321L, 1L << 40}) {
+            final int index = BucketedReservoir.bucketIndex(value);
+            final long lowerBound = BucketedReservoir.bucketLowerBound(index);
+            Assert.assertTrue(value >= lowerBound && value <= BucketedReservoir.bucketUpperBound(index));
+            Assert.assertTrue(BucketedReservoir.bucketUpperBound(index) - lowerBound <= lowerBound / 16);
+        }
+
+        // Out of range values
+        Assert.assertEquals(BucketedReservoir.bucketIndex(Long.MAX_VALUE), BucketedReservoir.NB_BUCKETS - 1);
+    }
+
+    @Test(groups = "fast")
+    public void testSnapshot() throws Exception {
+        final BucketedReservoir reservoir = new BucketedReservoir();
+
+        Snapshot snapshot = reservoir.getSnapshot();
+        Assert.assertEquals(snapshot.size(), 0);
+        Assert.assertEquals(snapshot.getMin(), 0);
+        Assert.assertEquals(snapshot.getMax(), 0);
+        Assert.assertEquals(snapshot.getMedian(), 0.0);
+
+        for (int i = 1; i <= 1000; i++) {
+            reservoir.update(i);
+        }
+        reservoir.update(-1);
+
+        snapshot = reservoir.getSnapshot();
+        Assert.assertEquals(reservoir.size(), 1001);
+        Assert.assertEquals(snapshot.size(), 1001);
+        Assert.assertEquals(snapshot.getMin(), 0);
+        Assert.assertEquals(snapshot.getMax(), 1000);
+        Assert.assertEquals(snapshot.getMean(), 500500.0 / 1001, 0.0001);
+        Assert.assertEquals(snapshot.getValue(0.0), 0.0);
+        Assert.assertEquals(snapshot.getMedian(), 500.0, 500.0 / 16);
+        Assert.assertEquals(snapshot.get99thPercentile(), 990.0, 990.0 / 16);
+        Assert.assertEquals(snapshot.getValue(1.0), 1000.0);
+        Assert.assertEquals(snapshot.getStdDev(), 288.8, 288.8 / 16);
+
+        final long[] values = snapshot.getValues();
+        for (int i = 1; i < values.length; i++) {
+            Assert.assertTrue(values[i] > values[i - 1]);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.util.search;
+
+import org.killbill.billing.util.UtilTestSuiteNoDB;
+import org.killbill.billing.util.search.IndexedSearchKey.Mode;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+public class TestIndexedSearchKey extends UtilTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testTokenize() throws Exception {
+        Assert.assertEquals(SearchTokenizer.tokenize(Lists.<String>newArrayList("John.Doe@Acme.com", null, "", " Acme, Inc. ")),
+                            ImmutableSet.<String>of("john.doe@acme.com", "john", "doe", "acme", "com", "acme, inc.", "inc"));
+        Assert.assertEquals(SearchTokenizer.tokenize(ImmutableList.<String>of("Zoë")), ImmutableSet.<String>of("zoë"));
+    }
+
+    @Test(groups = "fast")
+    public void testParse() throws Exception {
+        // Legacy searches
+        Assert.assertNull(IndexedSearchKey.parse(null));
+        Assert.assertNull(IndexedSearchKey.parse("acme.com"));
+        Assert.assertNull(IndexedSearchKey.parse("*"));
+        Assert.assertNull(IndexedSearchKey.parse("\"\""));
+        Assert.assertNull(IndexedSearchKey.parse("\"  \""));
+
+        final IndexedSearchKey exactSearchKey = IndexedSearchKey.parse(" \"John@Acme.com\" ");
+        Assert.assertEquals(exactSearchKey.getMode(), Mode.EXACT);
+        Assert.assertEquals(exactSearchKey.getToken(), "john@acme.com");
+        Assert.assertEquals(exactSearchKey.getTokenPattern(), "john@acme.com");
+
+        final IndexedSearchKey prefixSearchKey = IndexedSearchKey.parse("Acme_10%*");
+        Assert.assertEquals(prefixSearchKey.getMode(), Mode.PREFIX);
+        Assert.assertEquals(prefixSearchKey.getToken(), "acme_10%");
+        Assert.assertEquals(prefixSearchKey.getTokenPattern(), "acme\\_10\\%%");
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014-2020 Groupon, Inc
+ * Copyright 2014-2020 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.security.shiro;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.shiro.authc.AuthenticationInfo;
+import org.apache.shiro.authc.AuthenticationToken;
+import org.apache.shiro.authc.SimpleAuthenticationInfo;
+import org.apache.shiro.authc.UsernamePasswordToken;
+import org.apache.shiro.authc.credential.CredentialsMatcher;
+import org.apache.shiro.authc.credential.SimpleCredentialsMatcher;
+import org.apache.shiro.util.ByteSource;
+import org.killbill.billing.util.UtilTestSuiteNoDB;
+import org.killbill.billing.util.config.definition.SecurityConfig;
+import org.mockito.Mockito;
+import org.skife.config.TimeSpan;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+public class TestCachingCredentialsMatcher extends UtilTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testOnlySuccessfulVerificationsAreCached() throws Exception {
+        final AtomicInteger nbVerifications = new AtomicInteger();
+        final CredentialsMatcher countingMatcher = new SimpleCredentialsMatcher() {
+            @Override
+            public boolean doCredentialsMatch(final AuthenticationToken token, final AuthenticationInfo info) {
+                nbVerifications.incrementAndGet();
+                return super.doCredentialsMatch(token, info);
+            }
+        };
+        final CachingCredentialsMatcher credentialsMatcher = new CachingCredentialsMatcher(countingMatcher, createSecurityConfig(10));
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        credentialsMatcher.registerMetrics(metricRegistry, "test");
+
+        final AuthenticationInfo info = new SimpleAuthenticationInfo("toto", "secret", ByteSource.Util.bytes("salt"), "test");
+        final AuthenticationToken goodToken = new UsernamePasswordToken("toto", "secret");
+        final AuthenticationToken badToken = new UsernamePasswordToken("toto", "other");
+
+        Assert.assertTrue(credentialsMatcher.doCredentialsMatch(goodToken, info));
+        Assert.assertTrue(credentialsMatcher.doCredentialsMatch(goodToken, info));
+        Assert.assertEquals(nbVerifications.get(), 1);
+
+        Assert.assertFalse(credentialsMatcher.doCredentialsMatch(badToken, info));
+        Assert.assertFalse(credentialsMatcher.doCredentialsMatch(badToken, info));
+        Assert.assertEquals(nbVerifications.get(), 3);
+
+        // Updated stored credentials aren't served from the cache
+        final AuthenticationInfo updatedInfo = new SimpleAuthenticationInfo("toto", "newSecret", ByteSource.Util.bytes("salt"), "test");
+        Assert.assertFalse(credentialsMatcher.doCredentialsMatch(goodToken, updatedInfo));
+        Assert.assertEquals(nbVerifications.get(), 4);
+
+        Assert.assertEquals(((Gauge<Double>) metricRegistry.getGauges().get("security.credentialsCache.test.hitRate")).getValue(), 0.2);
+    }
+
+    @Test(groups = "fast")
+    public void testDisabledCache() throws Exception {
+        final AtomicInteger nbVerifications = new AtomicInteger();
+        final CredentialsMatcher countingMatcher = new SimpleCredentialsMatcher() {
+            @Override
+            public boolean doCredentialsMatch(final AuthenticationToken token, final AuthenticationInfo info) {
+                nbVerifications.incrementAndGet();
+                return super.doCredentialsMatch(token, info);
+            }
+        };
+        final CachingCredentialsMatcher credentialsMatcher = new CachingCredentialsMatcher(countingMatcher, createSecurityConfig(0));
+
+        final AuthenticationInfo info = new SimpleAuthenticationInfo("toto", "secret", "test");
+        final AuthenticationToken goodToken = new UsernamePasswordToken("toto", "secret");
+        Assert.assertTrue(credentialsMatcher.doCredentialsMatch(goodToken, info));
+        Assert.assertTrue(credentialsMatcher.doCredentialsMatch(goodToken, info));
+        Assert.assertEquals(nbVerifications.get(), 2);
+    }
+
+    private SecurityConfig createSecurityConfig(final int maxSize) {
+        final SecurityConfig securityConfig = Mockito.mock(SecurityConfig.class);
+        Mockito.when(securityConfig.getShiroCredentialsCacheMaxSize()).thenReturn(maxSize);
+        Mockito.when(securityConfig.getShiroCredentialsCacheTTL()).thenReturn(new TimeSpan(5, TimeUnit.MINUTES));
+        return securityConfig;
+    }
+}
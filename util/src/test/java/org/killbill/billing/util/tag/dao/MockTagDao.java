@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import org.killbill.billing.ObjectType;
@@ -31,6 +32,7 @@ import org.killbill.billing.util.api.TagApiException;
 import org.killbill.billing.util.audit.AuditLogWithHistory;
 import org.killbill.billing.util.entity.Pagination;
 import org.killbill.billing.util.entity.dao.MockEntityDaoBase;
+import org.killbill.billing.util.tag.ControlTagType;
 import org.killbill.billing.util.tag.Tag;
 
 import com.google.common.base.Predicate;
@@ -96,7 +98,12 @@ public class MockTagDao extends MockEntityDaoBase<TagModelDao, Tag, TagApiExcept
 
     @Override
     public List<TagModelDao> getTagsForAccountType(final ObjectType objectType, final boolean includedDeleted, final InternalTenantContext internalTenantContext) {
-        throw new UnsupportedOperationException();
+        return ImmutableList.<TagModelDao>copyOf(Collections2.filter(getTagsForAccount(includedDeleted, internalTenantContext), new Predicate<TagModelDao>() {
+            @Override
+            public boolean apply(final TagModelDao input) {
+                return objectType.equals(input.getObjectType());
+            }
+        }));
     }
 
     @Override
@@ -108,6 +115,15 @@ public class MockTagDao extends MockEntityDaoBase<TagModelDao, Tag, TagApiExcept
         return tagStore.get(getAccountId(internalTenantContext.getAccountRecordId()));
     }
 
+    @Override
+    public Set<ControlTagType> getControlTagsForObject(final UUID objectId, final ObjectType objectType, final InternalTenantContext internalTenantContext) {
+        return TagModelDaoHelper.fromControlTagsBitSet(TagModelDaoHelper.toControlTagsBitSet(getTagsForObject(objectId, objectType, false, internalTenantContext)));
+    }
+
+    @Override
+    public void invalidateControlTagsForObject(final UUID objectId) {
+    }
+
     @Override
     public List<AuditLogWithHistory> getTagAuditLogsWithHistoryForId(final UUID tagId, final AuditLevel auditLevel, final InternalTenantContext context) {
         throw new UnsupportedOperationException();
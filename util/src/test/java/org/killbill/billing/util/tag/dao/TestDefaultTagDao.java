@@ -25,6 +25,7 @@ import java.util.UUID;
 import org.killbill.billing.util.api.AuditLevel;
 import org.killbill.billing.util.audit.AuditLog;
 import org.killbill.billing.util.audit.ChangeType;
+import org.killbill.billing.util.cache.Cachable.CacheType;
 import org.killbill.billing.util.dao.TableName;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -39,6 +40,8 @@ import org.killbill.billing.util.tag.ControlTagType;
 import org.killbill.billing.util.tag.DescriptiveTag;
 import org.killbill.billing.util.tag.Tag;
 
+import com.google.common.collect.ImmutableSet;
+
 import static org.testng.Assert.assertEquals;
 
 public class TestDefaultTagDao extends UtilTestSuiteWithEmbeddedDB {
@@ -203,4 +206,40 @@ public class TestDefaultTagDao extends UtilTestSuiteWithEmbeddedDB {
             Assert.assertEquals(ErrorCode.TAG_ALREADY_EXISTS.getCode(), e.getCode());
         }
     }
+
+    @Test(groups = "slow")
+    public void testControlTagsCacheAndAccountTypeFiltering() throws TagApiException {
+        final UUID accountId = UUID.randomUUID();
+        final UUID invoiceId = UUID.randomUUID();
+
+        Assert.assertTrue(tagDao.getControlTagsForObject(accountId, ObjectType.ACCOUNT, internalCallContext).isEmpty());
+        Assert.assertTrue(cacheControllerDispatcher.getCacheController(CacheType.CONTROL_TAGS).isKeyInCache(accountId));
+
+        eventsListener.pushExpectedEvent(NextEvent.TAG);
+        tagDao.create(new TagModelDao(new DescriptiveTag(ControlTagType.AUTO_PAY_OFF.getId(), ObjectType.ACCOUNT, accountId, internalCallContext.getCreatedDate())), internalCallContext);
+        assertListenerStatus();
+
+        eventsListener.pushExpectedEvent(NextEvent.TAG);
+        tagDao.create(new TagModelDao(new DescriptiveTag(ControlTagType.WRITTEN_OFF.getId(), ObjectType.INVOICE, invoiceId, internalCallContext.getCreatedDate())), internalCallContext);
+        assertListenerStatus();
+
+        // The creation invalidated the stale (empty) entry
+        Assert.assertEquals(tagDao.getControlTagsForObject(accountId, ObjectType.ACCOUNT, internalCallContext), ImmutableSet.<ControlTagType>of(ControlTagType.AUTO_PAY_OFF));
+        Assert.assertEquals(tagDao.getControlTagsForObject(invoiceId, ObjectType.INVOICE, internalCallContext), ImmutableSet.<ControlTagType>of(ControlTagType.WRITTEN_OFF));
+
+        final List<TagModelDao> accountTags = tagDao.getTagsForAccountType(ObjectType.ACCOUNT, false, internalCallContext);
+        Assert.assertEquals(accountTags.size(), 1);
+        Assert.assertEquals(accountTags.get(0).getObjectId(), accountId);
+        final List<TagModelDao> invoiceTags = tagDao.getTagsForAccountType(ObjectType.INVOICE, false, internalCallContext);
+        Assert.assertEquals(invoiceTags.size(), 1);
+        Assert.assertEquals(invoiceTags.get(0).getObjectId(), invoiceId);
+
+        eventsListener.pushExpectedEvent(NextEvent.TAG);
+        tagDao.deleteTag(accountId, ObjectType.ACCOUNT, ControlTagType.AUTO_PAY_OFF.getId(), internalCallContext);
+        assertListenerStatus();
+
+        Assert.assertTrue(tagDao.getControlTagsForObject(accountId, ObjectType.ACCOUNT, internalCallContext).isEmpty());
+        Assert.assertEquals(tagDao.getTagsForAccountType(ObjectType.ACCOUNT, false, internalCallContext).size(), 0);
+        Assert.assertEquals(tagDao.getTagsForAccountType(ObjectType.ACCOUNT, true, internalCallContext).size(), 1);
+    }
 }